@@ -0,0 +1,80 @@
+package com.github.melihemreguler.urlshortener.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH result files written with {@code -rf json}, e.g. from two commits.
+ * A benchmark counts as regressed when its score got worse by more than the threshold percentage
+ * and by more than both runs' error margins combined; the exit code is 1 if any did.
+ * Not a JMH benchmark; run with
+ * {@code java -cp target/benchmarks.jar com.github.melihemreguler.urlshortener.benchmark.BenchmarkComparison baseline.json current.json [thresholdPercent]}.
+ */
+public final class BenchmarkComparison {
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10;
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        Map<String, JsonNode> baseline = readResults(Path.of(args[0]));
+        Map<String, JsonNode> current = readResults(Path.of(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s%n", entry.getKey(), "-", score(after), "new");
+                continue;
+            }
+            // Throughput is better when higher, every other mode when lower
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            double change = (score(after) - score(before)) / score(before) * 100;
+            double worsening = higherIsBetter ? -change : change;
+            double delta = Math.abs(score(after) - score(before));
+            boolean regressed = worsening > threshold && delta > scoreError(before) + scoreError(after);
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%% %s %s%n", entry.getKey(), score(before), score(after), change,
+                    after.path("primaryMetric").path("scoreUnit").asText(), regressed ? "REGRESSION" : "");
+        }
+        System.out.printf("%d of %d benchmarks regressed by more than %.0f%%%n", regressions, current.size(), threshold);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    private static Map<String, JsonNode> readResults(Path file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file.toFile())) {
+            String name = result.path("benchmark").asText().replace(BenchmarkComparison.class.getPackageName() + ".", "");
+            Map<String, String> params = new TreeMap<>();
+            result.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            results.put(params.isEmpty() ? name : name + params, result);
+        }
+        return results;
+    }
+
+    private static double score(JsonNode result) {
+        return result.path("primaryMetric").path("score").asDouble();
+    }
+
+    private static double scoreError(JsonNode result) {
+        double error = result.path("primaryMetric").path("scoreError").asDouble();
+        // A single measurement iteration reports NaN
+        return Double.isNaN(error) ? 0 : error;
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.melihemreguler.urlshortener.benchmark;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+/**
+ * Connects benchmarks that need a real database to the MongoDB given by the {@code mongodb.uri}
+ * system property, defaulting to a throwaway database on a local server.
+ */
+final class BenchmarkMongo implements AutoCloseable {
+
+    static final String DEFAULT_URI = "mongodb://localhost:27017/urlshortener_bench";
+
+    private final MongoClient client;
+    private final MongoTemplate template;
+
+    BenchmarkMongo() {
+        ConnectionString uri = new ConnectionString(System.getProperty("mongodb.uri", DEFAULT_URI));
+        this.client = MongoClients.create(uri);
+        this.template = new MongoTemplate(client, uri.getDatabase() != null ? uri.getDatabase() : "urlshortener_bench");
+    }
+
+    MongoTemplate template() {
+        return template;
+    }
+
+    /**
+     * Drops the entity's collection and recreates the indexes declared on it, as the application
+     * does with auto index creation enabled.
+     */
+    void recreate(Class<?> entityClass) {
+        template.dropCollection(entityClass);
+        MongoConverter converter = template.getConverter();
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(
+                (MongoMappingContext) converter.getMappingContext());
+        IndexOperations indexOps = template.indexOps(entityClass);
+        resolver.resolveIndexFor(entityClass).forEach(indexOps::ensureIndex);
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+}
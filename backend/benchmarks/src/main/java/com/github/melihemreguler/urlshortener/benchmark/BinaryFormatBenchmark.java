@@ -0,0 +1,107 @@
+package com.github.melihemreguler.urlshortener.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.model.PageResponse;
+import com.github.melihemreguler.urlshortener.model.ResolveResponse;
+import com.github.melihemreguler.urlshortener.model.ResolvedUrl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of a page of links and of a batch resolve response in each format the API
+ * negotiates through the Accept header, with mappers built like the backend's HTTP message converters.
+ * The payload sizes of both responses are printed once set up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+public class BinaryFormatBenchmark {
+
+    private static final TypeReference<PageResponse<UrlDto>> PAGE_TYPE = new TypeReference<>() {};
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private PageResponse<UrlDto> page;
+    private ResolveResponse resolved;
+    private byte[] encodedPage;
+    private byte[] encodedResolved;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory(format)).build();
+        List<UrlDto> content = new ArrayList<>(pageSize);
+        List<ResolvedUrl> urls = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            UrlDto link = new UrlDto("https://www.example.com/articles/2026/10/some-article-" + i + "?utm_source=newsletter",
+                    "aZ3kq" + i);
+            link.setId("6710d5c2e4b0a1b2c3d4e5f" + (i % 10));
+            link.setAccessCount(i * 7);
+            link.setLastAccessedAt(link.getCreatedAt());
+            content.add(link);
+            urls.add(ResolvedUrl.of(link.getShortCode(), link.getLongUrl()));
+        }
+        page = new PageResponse<>(content, 0, pageSize, 5000, 5000 / pageSize, true, false);
+        resolved = new ResolveResponse(urls, List.of("zzz999"));
+        encodedPage = objectMapper.writeValueAsBytes(page);
+        encodedResolved = objectMapper.writeValueAsBytes(resolved);
+        System.out.printf("%n%s, %d links: page %d bytes, resolve response %d bytes%n", format, pageSize,
+                encodedPage.length, encodedResolved.length);
+    }
+
+    @Benchmark
+    public byte[] encodePage() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public PageResponse<UrlDto> decodePage() throws IOException {
+        return objectMapper.readValue(encodedPage, PAGE_TYPE);
+    }
+
+    @Benchmark
+    public byte[] encodeResolved() throws IOException {
+        return objectMapper.writeValueAsBytes(resolved);
+    }
+
+    @Benchmark
+    public ResolveResponse decodeResolved() throws IOException {
+        return objectMapper.readValue(encodedResolved, ResolveResponse.class);
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+    }
+}
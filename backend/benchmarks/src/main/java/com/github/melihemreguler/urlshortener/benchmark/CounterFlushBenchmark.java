@@ -0,0 +1,109 @@
+package com.github.melihemreguler.urlshortener.benchmark;
+
+import com.github.melihemreguler.urlshortener.config.ChangeLogProperties;
+import com.github.melihemreguler.urlshortener.config.CircuitBreakerProperties;
+import com.github.melihemreguler.urlshortener.dto.UrlCounter;
+import com.github.melihemreguler.urlshortener.dto.UrlPopularity;
+import com.github.melihemreguler.urlshortener.model.CounterDelta;
+import com.github.melihemreguler.urlshortener.model.CounterWrite;
+import com.github.melihemreguler.urlshortener.repository.DatabaseCircuitBreaker;
+import com.github.melihemreguler.urlshortener.repository.UrlCounterRepository;
+import com.github.melihemreguler.urlshortener.repository.UrlPopularityRepository;
+import com.github.melihemreguler.urlshortener.service.AccessCounterService;
+import com.github.melihemreguler.urlshortener.service.PopularityLeaderboard;
+import com.github.melihemreguler.urlshortener.service.UrlChangeLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Click throughput on a single popular short code, with every benchmark thread playing one
+ * application instance. {@code incrementPerClick} writes each click to the link's one counter
+ * document, the contention the counters would see without buffering. {@code recordAndFlush}
+ * goes through AccessCounterService, flushing after every {@code clicksPerFlush} clicks, so the
+ * counter and leaderboard writes of the real flush path are included.
+ * Requires a MongoDB reachable through {@code -Dmongodb.uri=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(32)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class CounterFlushBenchmark {
+
+    private static final String HOT_SHORT_CODE = "viral";
+
+    @Param({"10", "1000"})
+    private int clicksPerFlush;
+
+    private BenchmarkMongo mongo;
+    private UrlCounterRepository counterRepository;
+    private UrlPopularityRepository popularityRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongo = new BenchmarkMongo();
+        mongo.recreate(UrlCounter.class);
+        mongo.recreate(UrlPopularity.class);
+        counterRepository = new UrlCounterRepository(mongo.template());
+        popularityRepository = new UrlPopularityRepository(mongo.template());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mongo.close();
+    }
+
+    /**
+     * One application instance, with its own click buffer.
+     */
+    @State(Scope.Thread)
+    public static class Instance {
+        private AccessCounterService accessCounterService;
+        private int unflushed;
+
+        @Setup(Level.Trial)
+        public void setUp(CounterFlushBenchmark benchmark) {
+            DatabaseCircuitBreaker circuitBreaker = new DatabaseCircuitBreaker(new CircuitBreakerProperties());
+            ChangeLogProperties changeLogProperties = new ChangeLogProperties();
+            changeLogProperties.setEnabled(false);
+            accessCounterService = new AccessCounterService(benchmark.counterRepository, circuitBreaker,
+                    new UrlChangeLog(changeLogProperties, null, null, circuitBreaker),
+                    new PopularityLeaderboard(benchmark.popularityRepository, benchmark.counterRepository, null, null,
+                            circuitBreaker));
+        }
+    }
+
+    @Benchmark
+    public void incrementPerClick() {
+        counterRepository.increment(List.of(new CounterWrite(ThreadLocalRandom.current().nextLong(),
+                new CounterDelta(HOT_SHORT_CODE, 1, LocalDateTime.now()))));
+    }
+
+    @Benchmark
+    public void recordAndFlush(Instance instance) {
+        instance.accessCounterService.recordAccess(HOT_SHORT_CODE);
+        if (++instance.unflushed == clicksPerFlush) {
+            instance.accessCounterService.flush();
+            instance.unflushed = 0;
+        }
+    }
+}
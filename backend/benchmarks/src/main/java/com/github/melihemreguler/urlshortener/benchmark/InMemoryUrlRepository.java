@@ -0,0 +1,73 @@
+package com.github.melihemreguler.urlshortener.benchmark;
+
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.repository.UrlRepository;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stand-in for {@link UrlRepository} backed by hash maps, for benchmarks that should measure the
+ * service layer rather than MongoDB. Supports the lookups and writes of the redirect and create
+ * paths; any other repository method throws {@link UnsupportedOperationException}.
+ */
+public final class InMemoryUrlRepository implements InvocationHandler {
+
+    private final ConcurrentHashMap<String, UrlDto> byId = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, UrlDto> byCode = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, UrlDto> byShortCode = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, UrlDto> byLongUrl = new ConcurrentHashMap<>();
+
+    private InMemoryUrlRepository() {
+    }
+
+    /**
+     * @return An empty repository.
+     */
+    public static UrlRepository create() {
+        return (UrlRepository) Proxy.newProxyInstance(UrlRepository.class.getClassLoader(),
+                new Class<?>[]{UrlRepository.class}, new InMemoryUrlRepository());
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "save", "insert" -> save((UrlDto) args[0]);
+            case "findById" -> Optional.ofNullable(byId.get((String) args[0]));
+            case "findByCode" -> Optional.ofNullable(byCode.get((Long) args[0]));
+            case "findByShortCode" -> Optional.ofNullable(byShortCode.get((String) args[0]));
+            case "findByLongUrl" -> Optional.ofNullable(byLongUrl.get((String) args[0]));
+            case "count" -> (long) byId.size();
+            case "deleteAll" -> {
+                byId.clear();
+                byCode.clear();
+                byShortCode.clear();
+                byLongUrl.clear();
+                yield null;
+            }
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            case "toString" -> "InMemoryUrlRepository(" + byId.size() + " links)";
+            default -> throw new UnsupportedOperationException(method.getName() + " is not supported in memory");
+        };
+    }
+
+    private UrlDto save(UrlDto url) {
+        // Same uniqueness as the indexes on the links collection
+        if (url.getCode() != null && byCode.putIfAbsent(url.getCode(), url) != null) {
+            throw new DuplicateKeyException("Short code " + url.getShortCode() + " already exists");
+        }
+        if (url.getId() == null) {
+            url.setId(UUID.randomUUID().toString());
+        }
+        byId.put(url.getId(), url);
+        byShortCode.put(url.getShortCode(), url);
+        byLongUrl.putIfAbsent(url.getLongUrl(), url);
+        return url;
+    }
+}
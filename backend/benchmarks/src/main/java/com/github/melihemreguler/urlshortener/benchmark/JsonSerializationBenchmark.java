@@ -0,0 +1,90 @@
+package com.github.melihemreguler.urlshortener.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.model.PageResponse;
+import com.github.melihemreguler.urlshortener.model.UrlField;
+import com.github.melihemreguler.urlshortener.model.UrlView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of a single link and of a page of links as returned by the list and search
+ * endpoints, with an ObjectMapper configured like Spring Boot's default one. {@code serializeViewPage}
+ * writes the same page reduced to the fields the frontend asks for with {@code fields=}; the payload
+ * sizes of both pages are printed once set up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private UrlDto url;
+    private PageResponse<UrlDto> page;
+    private PageResponse<UrlView> viewPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<UrlDto> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            UrlDto link = new UrlDto("https://www.example.com/articles/2026/10/some-article-" + i + "?utm_source=newsletter",
+                    "aZ3kq" + i);
+            link.setId("6710d5c2e4b0a1b2c3d4e5f" + (i % 10));
+            link.setCode(10257883326L + i);
+            link.setAccessCount(i * 7);
+            link.setLastAccessedAt(link.getCreatedAt());
+            content.add(link);
+        }
+        url = content.get(0);
+        page = new PageResponse<>(content, 0, pageSize, 5000, 5000 / pageSize, true, false);
+        Set<UrlField> fields = Set.of(UrlField.ID, UrlField.LONG_URL, UrlField.SHORT_CODE);
+        viewPage = new PageResponse<>(content.stream().map(link -> UrlView.of(link, fields)).toList(),
+                0, pageSize, 5000, 5000 / pageSize, true, false);
+        try {
+            System.out.printf("%nPage of %d: %d bytes in full, %d bytes with fields=id,longUrl,shortCode%n", pageSize,
+                    objectMapper.writeValueAsBytes(page).length, objectMapper.writeValueAsBytes(viewPage).length);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeUrl() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(url);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeViewPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(viewPage);
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.melihemreguler.urlshortener.benchmark;
+
+import com.github.melihemreguler.urlshortener.config.CircuitBreakerProperties;
+import com.github.melihemreguler.urlshortener.config.LinkCacheProperties;
+import com.github.melihemreguler.urlshortener.config.UrlDictionaryProperties;
+import com.github.melihemreguler.urlshortener.repository.DatabaseCircuitBreaker;
+import com.github.melihemreguler.urlshortener.repository.UrlPrefixDictionary;
+import com.github.melihemreguler.urlshortener.service.LinkCache;
+import com.github.melihemreguler.urlshortener.service.ShortCodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Link cache hits from many threads at once. With {@code keys=hot} every thread reads the same
+ * short code, the worst case for Caffeine's read buffers and frequency sketch; with
+ * {@code keys=uniform} reads spread over the whole cache. {@code writePercent} mixes in puts,
+ * as cache misses being filled would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(16)
+@Fork(1)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+public class LinkCacheContentionBenchmark {
+
+    private static final int ENTRIES = 100_000;
+
+    @Param({"hot", "uniform"})
+    private String keys;
+
+    @Param({"0", "5"})
+    private int writePercent;
+
+    private LinkCache linkCache;
+    private String[] shortCodes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LinkCacheProperties properties = new LinkCacheProperties();
+        properties.setMaximumSize(ENTRIES);
+        linkCache = new LinkCache(properties, new UrlPrefixDictionary(null, new UrlDictionaryProperties(),
+                new DatabaseCircuitBreaker(new CircuitBreakerProperties())));
+        shortCodes = new String[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            shortCodes[i] = ShortCodes.fromNumber(ShortCodes.toNumber("1000000") + i);
+            linkCache.put(shortCodes[i], "https://www.example.com/articles/" + i);
+        }
+    }
+
+    @Benchmark
+    public String lookup() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String shortCode = "hot".equals(keys) ? shortCodes[0] : shortCodes[random.nextInt(ENTRIES)];
+        if (writePercent > 0 && random.nextInt(100) < writePercent) {
+            linkCache.put(shortCode, "https://www.example.com/articles/rewritten");
+            return null;
+        }
+        return linkCache.get(shortCode);
+    }
+}
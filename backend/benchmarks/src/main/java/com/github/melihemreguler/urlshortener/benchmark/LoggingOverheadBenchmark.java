@@ -0,0 +1,144 @@
+package com.github.melihemreguler.urlshortener.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.github.melihemreguler.urlshortener.accesslog.AccessLog;
+import com.github.melihemreguler.urlshortener.config.AccessLogProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-redirect cost of request logging on the request thread.
+ * <ul>
+ *     <li>{@code none}: no request logging, the baseline.</li>
+ *     <li>{@code sync}: the two INFO lines the redirect used to log, written straight to the output.</li>
+ *     <li>{@code async}: the same lines through a bounded, non-blocking async appender.</li>
+ *     <li>{@code sampled}: the access log as configured for redirects, sampled at {@code sampleRate}
+ *     and written in batches by a background flush.</li>
+ * </ul>
+ * Lines go to {@code /dev/null} with the console appender's flush-per-event behaviour, so the
+ * numbers include formatting and the write system call but not a terminal. Eight threads
+ * redirecting back to back sample far more than the default queue holds per flush, so the
+ * {@code sampled} trial also reports how many entries it dropped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(8)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class LoggingOverheadBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%15.15t] %-40.40logger{39} : %m%n";
+    private static final String SHORT_CODE = "aZ3kq9P";
+    private static final String PATH = "/" + SHORT_CODE;
+    private static final String LONG_URL = "https://www.example.com/articles/2026/10/async-logging-on-the-hot-path?utm_source=newsletter";
+
+    @Param({"none", "sync", "async", "sampled"})
+    private String mode;
+
+    @Param({"0.01"})
+    private double sampleRate;
+
+    private LoggerContext context;
+    private Logger requestLogger;
+    private AccessLog accessLog;
+    private ScheduledExecutorService flusher;
+
+    @Setup(Level.Trial)
+    public void setUp() throws FileNotFoundException {
+        context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        Appender<ILoggingEvent> output = devNullAppender();
+        Appender<ILoggingEvent> target = "sync".equals(mode) ? output : async(output);
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.INFO);
+        root.addAppender(target);
+        requestLogger = context.getLogger("com.github.melihemreguler.urlshortener.controller.RedirectController");
+
+        AccessLogProperties properties = new AccessLogProperties();
+        properties.setSampleRates(Map.of("redirectToLongUrl", sampleRate));
+        accessLog = new AccessLog(properties);
+        flusher = Executors.newSingleThreadScheduledExecutor();
+        flusher.scheduleWithFixedDelay(accessLog::flush, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        flusher.shutdownNow();
+        accessLog.flush();
+        if (accessLog.getDropped() > 0) {
+            System.out.println("Access log entries dropped: " + accessLog.getDropped());
+        }
+        context.stop();
+    }
+
+    @Benchmark
+    public void redirect() {
+        switch (mode) {
+            case "sync", "async" -> {
+                requestLogger.info("Received request to redirect short code: {}", SHORT_CODE);
+                requestLogger.info("Redirecting to long URL for short code: {}, long URL: {}", SHORT_CODE, LONG_URL);
+            }
+            case "sampled" -> accessLog.record("GET", PATH, "redirectToLongUrl", 302, 250_000);
+            default -> {
+            }
+        }
+    }
+
+    private Appender<ILoggingEvent> devNullAppender() throws FileNotFoundException {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setName("DEV_NULL");
+        appender.setEncoder(encoder);
+        appender.setImmediateFlush(true);
+        appender.setOutputStream(new FileOutputStream("/dev/null"));
+        appender.start();
+        return appender;
+    }
+
+    // Mirrors the ASYNC_CONSOLE appender of logback-spring.xml
+    private Appender<ILoggingEvent> async(Appender<ILoggingEvent> output) {
+        AsyncAppender appender = new AsyncAppender();
+        appender.setContext(context);
+        appender.setName("ASYNC");
+        appender.setQueueSize(8192);
+        appender.setNeverBlock(true);
+        appender.setIncludeCallerData(false);
+        appender.addAppender(output);
+        appender.start();
+        return appender;
+    }
+}
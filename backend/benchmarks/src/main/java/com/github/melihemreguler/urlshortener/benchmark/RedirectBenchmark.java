@@ -0,0 +1,150 @@
+package com.github.melihemreguler.urlshortener.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.melihemreguler.urlshortener.config.AppConfig;
+import com.github.melihemreguler.urlshortener.config.ArchiveProperties;
+import com.github.melihemreguler.urlshortener.config.ChangeLogProperties;
+import com.github.melihemreguler.urlshortener.config.CircuitBreakerProperties;
+import com.github.melihemreguler.urlshortener.config.ConditionalGetProperties;
+import com.github.melihemreguler.urlshortener.config.EventStreamProperties;
+import com.github.melihemreguler.urlshortener.config.LinkCacheProperties;
+import com.github.melihemreguler.urlshortener.config.UrlDictionaryProperties;
+import com.github.melihemreguler.urlshortener.controller.RedirectController;
+import com.github.melihemreguler.urlshortener.repository.DatabaseCircuitBreaker;
+import com.github.melihemreguler.urlshortener.repository.UrlCounterRepository;
+import com.github.melihemreguler.urlshortener.repository.UrlPrefixDictionary;
+import com.github.melihemreguler.urlshortener.repository.UrlRepository;
+import com.github.melihemreguler.urlshortener.service.AccessCounterService;
+import com.github.melihemreguler.urlshortener.service.LinkCache;
+import com.github.melihemreguler.urlshortener.service.LinkSnapshot;
+import com.github.melihemreguler.urlshortener.service.PopularityLeaderboard;
+import com.github.melihemreguler.urlshortener.service.ShortCodeMigrationService;
+import com.github.melihemreguler.urlshortener.service.ShortCodes;
+import com.github.melihemreguler.urlshortener.service.UrlArchiveService;
+import com.github.melihemreguler.urlshortener.service.UrlChangeLog;
+import com.github.melihemreguler.urlshortener.service.UrlCollectionVersion;
+import com.github.melihemreguler.urlshortener.service.UrlEventStream;
+import com.github.melihemreguler.urlshortener.service.UrlMetrics;
+import com.github.melihemreguler.urlshortener.service.UrlService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redirect resolution through {@link UrlService} and {@link RedirectController} against an
+ * {@link InMemoryUrlRepository}, so the numbers cover the service layer only: link cache,
+ * repository lookup, click counting and metrics. With {@code cached=false} the link cache
+ * holds nothing and every redirect goes to the repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class RedirectBenchmark {
+
+    @Param({"100000"})
+    private int links;
+
+    @Param({"true", "false"})
+    private boolean cached;
+
+    private String[] shortCodes;
+    private UrlService urlService;
+    private RedirectController redirectController;
+    private HttpServletResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UrlRepository urlRepository = InMemoryUrlRepository.create();
+        urlService = createUrlService(urlRepository, cached ? links : 0);
+        redirectController = new RedirectController(urlService);
+        response = new DiscardingResponse();
+
+        shortCodes = new String[links];
+        for (int i = 0; i < links; i++) {
+            String shortUrl = urlService.createAndSaveShortUrl("https://www.example.com/articles/" + i);
+            shortCodes[i] = shortUrl.substring(shortUrl.lastIndexOf('/') + 1);
+            urlService.getLongUrl(shortCodes[i]);
+        }
+    }
+
+    @Benchmark
+    public String resolve() {
+        return urlService.getLongUrl(nextShortCode());
+    }
+
+    @Benchmark
+    public void redirect() {
+        redirectController.redirectToLongUrl(nextShortCode(), response);
+    }
+
+    private String nextShortCode() {
+        return shortCodes[ThreadLocalRandom.current().nextInt(shortCodes.length)];
+    }
+
+    /**
+     * Wires a UrlService the way the application context does, minus MongoDB: nothing on the
+     * redirect path of an existing link touches the archive, the counters collection or the
+     * short code migration, so those get no template.
+     */
+    static UrlService createUrlService(UrlRepository urlRepository, long cacheSize) {
+        AppConfig appConfig = new AppConfig();
+        appConfig.setServiceUrl("http://localhost:8080");
+        LinkCacheProperties cacheProperties = new LinkCacheProperties();
+        cacheProperties.setMaximumSize(cacheSize);
+        DatabaseCircuitBreaker circuitBreaker = new DatabaseCircuitBreaker(new CircuitBreakerProperties());
+        LinkCache linkCache = new LinkCache(cacheProperties, new UrlPrefixDictionary(null, new UrlDictionaryProperties(), circuitBreaker));
+        UrlChangeLog changeLog = new UrlChangeLog(new ChangeLogProperties(), null, null, circuitBreaker);
+        PopularityLeaderboard leaderboard = new PopularityLeaderboard(null, null, null, null, circuitBreaker);
+        AccessCounterService counterService = new AccessCounterService(new UrlCounterRepository(null),
+                circuitBreaker, changeLog, leaderboard);
+        UrlCollectionVersion collectionVersion = new UrlCollectionVersion(new ConditionalGetProperties(), null, circuitBreaker);
+        UrlArchiveService archiveService = new UrlArchiveService(urlRepository, null, null, new ArchiveProperties(), counterService,
+                collectionVersion, changeLog, leaderboard);
+        return new UrlService(urlRepository, appConfig, archiveService, counterService, linkCache,
+                new ShortCodeMigrationService(null), new UrlMetrics(new SimpleMeterRegistry()), circuitBreaker,
+                new LinkSnapshot(linkCache, cacheProperties, circuitBreaker), collectionVersion, changeLog,
+                new UrlEventStream(new EventStreamProperties(), new ObjectMapper()), leaderboard);
+    }
+
+    /**
+     * Drops the status and headers a redirect writes; everything else is unsupported.
+     */
+    private static final class DiscardingResponse extends HttpServletResponseWrapper {
+
+        DiscardingResponse() {
+            super((HttpServletResponse) Proxy.newProxyInstance(HttpServletResponse.class.getClassLoader(),
+                    new Class<?>[]{HttpServletResponse.class}, (proxy, method, args) -> {
+                        throw new UnsupportedOperationException(method.getName());
+                    }));
+        }
+
+        @Override
+        public void setStatus(int status) {
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.melihemreguler.urlshortener.benchmark;
+
+import com.github.melihemreguler.urlshortener.service.ShortCodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of generating a short code for a new link: the original UUID-based generator against
+ * {@link ShortCodes#random()}, which replaced it, plus the conversion to the stored numeric form.
+ * Run with {@code -t 4} or more to see the UUID generator contend on the shared SecureRandom.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+public class ShortCodeGenerationBenchmark {
+
+    private static final String SHORT_CODE = "aZ3kq9P";
+
+    // UrlService.generateRandomCode before short codes became base62
+    @Benchmark
+    public String uuidPrefix() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Benchmark
+    public String base62Random() {
+        return ShortCodes.random();
+    }
+
+    @Benchmark
+    public long toNumber() {
+        return ShortCodes.toNumber(SHORT_CODE);
+    }
+
+    @Benchmark
+    public String fromNumber() {
+        return ShortCodes.fromNumber(10257883326L);
+    }
+}
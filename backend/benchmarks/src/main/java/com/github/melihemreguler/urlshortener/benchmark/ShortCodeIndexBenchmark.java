@@ -0,0 +1,120 @@
+package com.github.melihemreguler.urlshortener.benchmark;
+
+import com.github.melihemreguler.urlshortener.service.ShortCodes;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.client.model.Filters.eq;
+
+/**
+ * Index size and point-lookup latency of short codes indexed as strings versus as 64-bit integers.
+ * Both collections hold the same generated codes, the string one with a unique index on
+ * {@code shortCode} as before, the numeric one with a unique index on {@code code}.
+ * The index sizes are printed once the collections are seeded.
+ * Requires a MongoDB reachable through {@code -Dmongodb.uri=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class ShortCodeIndexBenchmark {
+
+    private static final int INSERT_BATCH_SIZE = 10_000;
+    private static final int SAMPLE_SIZE = 100_000;
+
+    @Param({"2000000"})
+    private int rows;
+
+    private BenchmarkMongo mongo;
+    private MongoCollection<Document> stringCodes;
+    private MongoCollection<Document> numericCodes;
+    private String[] sample;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongo = new BenchmarkMongo();
+        stringCodes = mongo.template().getDb().getCollection("bench_short_codes_string");
+        numericCodes = mongo.template().getDb().getCollection("bench_short_codes_numeric");
+        stringCodes.drop();
+        numericCodes.drop();
+        stringCodes.createIndex(Indexes.ascending("shortCode"), new IndexOptions().unique(true));
+        numericCodes.createIndex(Indexes.ascending("code"), new IndexOptions().unique(true));
+
+        // Consecutive numbers keep the codes unique without a set of millions of strings
+        long first = ShortCodes.toNumber("1000000");
+        sample = new String[Math.min(rows, SAMPLE_SIZE)];
+        List<Document> stringBatch = new ArrayList<>(INSERT_BATCH_SIZE);
+        List<Document> numericBatch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            String shortCode = ShortCodes.fromNumber(first + i * 7919L);
+            stringBatch.add(new Document("shortCode", shortCode));
+            numericBatch.add(new Document("code", ShortCodes.toNumber(shortCode)));
+            if (i < sample.length) {
+                sample[i] = shortCode;
+            }
+            if (stringBatch.size() == INSERT_BATCH_SIZE) {
+                stringCodes.insertMany(stringBatch);
+                numericCodes.insertMany(numericBatch);
+                stringBatch.clear();
+                numericBatch.clear();
+            }
+        }
+        if (!stringBatch.isEmpty()) {
+            stringCodes.insertMany(stringBatch);
+            numericCodes.insertMany(numericBatch);
+        }
+
+        System.out.printf("%n%,d rows: shortCode string index %,d bytes, code numeric index %,d bytes%n",
+                rows, indexSize("bench_short_codes_string", "shortCode_1"), indexSize("bench_short_codes_numeric", "code_1"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stringCodes.drop();
+        numericCodes.drop();
+        mongo.close();
+    }
+
+    @Benchmark
+    public Document lookupByStringIndex() {
+        return stringCodes.find(eq("shortCode", randomShortCode())).first();
+    }
+
+    @Benchmark
+    public Document lookupByNumericIndex() {
+        // Includes decoding at the edge, as the redirect path does
+        return numericCodes.find(eq("code", ShortCodes.toNumber(randomShortCode()))).first();
+    }
+
+    private String randomShortCode() {
+        return sample[ThreadLocalRandom.current().nextInt(sample.length)];
+    }
+
+    private long indexSize(String collection, String index) {
+        Document stats = mongo.template().executeCommand(new Document("collStats", collection));
+        Object sizes = stats.get("indexSizes");
+        return sizes instanceof Document indexSizes && indexSizes.get(index) instanceof Number size ? size.longValue() : -1;
+    }
+}
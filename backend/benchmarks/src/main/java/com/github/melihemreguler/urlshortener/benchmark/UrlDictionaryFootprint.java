@@ -0,0 +1,134 @@
+package com.github.melihemreguler.urlshortener.benchmark;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.melihemreguler.urlshortener.config.CircuitBreakerProperties;
+import com.github.melihemreguler.urlshortener.config.LinkCacheProperties;
+import com.github.melihemreguler.urlshortener.config.UrlDictionaryProperties;
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.dto.UrlPrefix;
+import com.github.melihemreguler.urlshortener.repository.DatabaseCircuitBreaker;
+import com.github.melihemreguler.urlshortener.repository.LongUrlCompressionCallback;
+import com.github.melihemreguler.urlshortener.repository.UrlPrefixDictionary;
+import com.github.melihemreguler.urlshortener.repository.UrlPrefixRepository;
+import com.github.melihemreguler.urlshortener.service.LinkCache;
+import com.github.melihemreguler.urlshortener.service.ShortCodes;
+import org.bson.Document;
+import org.openjdk.jol.info.GraphLayout;
+import org.springframework.data.mapping.callback.EntityCallbacks;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Stored collection size and link cache entries per MB with and without the URL prefix dictionary.
+ * Not a JMH benchmark: it loads a synthetic link set dominated by a few hundred hosts and path
+ * prefixes once per setting and prints the sizes.
+ * Requires a MongoDB reachable through {@code -Dmongodb.uri=...}; run with
+ * {@code java -cp target/benchmarks.jar com.github.melihemreguler.urlshortener.benchmark.UrlDictionaryFootprint [links]}.
+ */
+public final class UrlDictionaryFootprint {
+
+    private static final int DEFAULT_LINKS = 200_000;
+    private static final int HOSTS = 300;
+    private static final int INSERT_BATCH_SIZE = 5_000;
+    private static final String[] PATHS = {"watch?v=", "p/", "articles/", "products/", "en/docs/", "status/"};
+
+    private UrlDictionaryFootprint() {
+    }
+
+    public static void main(String[] args) throws ReflectiveOperationException {
+        int links = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_LINKS;
+        List<String> longUrls = generateLongUrls(links);
+
+        System.out.printf("%-10s %15s %12s %18s %15s%n", "dictionary", "collection MB", "avg doc B", "cache entries/MB", "prefixes");
+        for (boolean enabled : new boolean[]{false, true}) {
+            try (BenchmarkMongo mongo = new BenchmarkMongo()) {
+                mongo.recreate(UrlDto.class);
+                mongo.recreate(UrlPrefix.class);
+                MongoTemplate template = mongo.template();
+
+                UrlDictionaryProperties dictionaryProperties = new UrlDictionaryProperties();
+                dictionaryProperties.setEnabled(enabled);
+                UrlPrefixRepository prefixRepository = new MongoRepositoryFactory(template).getRepository(UrlPrefixRepository.class);
+                UrlPrefixDictionary dictionary = new UrlPrefixDictionary(prefixRepository, dictionaryProperties,
+                        new DatabaseCircuitBreaker(new CircuitBreakerProperties()));
+                template.setEntityCallbacks(EntityCallbacks.create(new LongUrlCompressionCallback(dictionary)));
+
+                List<UrlDto> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+                for (int i = 0; i < longUrls.size(); i++) {
+                    UrlDto url = new UrlDto(longUrls.get(i), ShortCodes.fromNumber(ShortCodes.toNumber("1000000") + i));
+                    url.setCode(ShortCodes.toNumber(url.getShortCode()));
+                    batch.add(url);
+                    if (batch.size() == INSERT_BATCH_SIZE || i == longUrls.size() - 1) {
+                        template.insert(batch, UrlDto.class);
+                        batch.clear();
+                        // Stands in for the scheduled run, learning the prefixes this batch saw
+                        dictionary.learnFrequentPrefixes();
+                    }
+                }
+                Document stats = template.executeCommand(new Document("collStats", template.getCollectionName(UrlDto.class)));
+
+                System.out.printf("%-10s %15.1f %12d %18.0f %15d%n", enabled ? "on" : "off",
+                        toLong(stats.get("size")) / 1048576.0, toLong(stats.get("avgObjSize")),
+                        cacheEntriesPerMegabyte(dictionary, longUrls), dictionary.size());
+            }
+        }
+    }
+
+    private static double cacheEntriesPerMegabyte(UrlPrefixDictionary dictionary, List<String> longUrls)
+            throws ReflectiveOperationException {
+        LinkCacheProperties cacheProperties = new LinkCacheProperties();
+        cacheProperties.setMaximumSize(longUrls.size());
+        LinkCache linkCache = new LinkCache(cacheProperties, dictionary);
+        Cache<?, ?> cache = (Cache<?, ?>) readField(linkCache, "cache");
+        // Only Caffeine's hash table of entry nodes is walked; the cache object itself references lambdas JOL cannot measure
+        Object entries = readField(readField(cache, "cache"), "data");
+
+        // The empty table is subtracted so only per-entry cost remains
+        long emptyBytes = GraphLayout.parseInstance(entries).totalSize();
+        for (int i = 0; i < longUrls.size(); i++) {
+            linkCache.put(ShortCodes.fromNumber(ShortCodes.toNumber("1000000") + i), longUrls.get(i));
+        }
+        cache.cleanUp();
+        long filledBytes = GraphLayout.parseInstance(entries).totalSize();
+        return cache.estimatedSize() / ((filledBytes - emptyBytes) / 1048576.0);
+    }
+
+    private static Object readField(Object target, String name) throws ReflectiveOperationException {
+        for (Class<?> type = target.getClass(); type != null; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                return field.get(target);
+            } catch (NoSuchFieldException e) {
+                // Declared further up the hierarchy
+            }
+        }
+        throw new NoSuchFieldException(name);
+    }
+
+    private static List<String> generateLongUrls(int links) {
+        Random random = new Random(42);
+        List<String> longUrls = new ArrayList<>(links);
+        for (int i = 0; i < links; i++) {
+            // Quadratic skew: a handful of hosts get most links, as with real traffic
+            int host = (int) (HOSTS * Math.pow(random.nextDouble(), 2));
+            String path = PATHS[(host + random.nextInt(2)) % PATHS.length];
+            StringBuilder url = new StringBuilder("https://www.host").append(host).append(".example.com/").append(path);
+            int idLength = 8 + random.nextInt(24);
+            for (int c = 0; c < idLength; c++) {
+                url.append((char) ('a' + random.nextInt(26)));
+            }
+            longUrls.add(url.toString());
+        }
+        return longUrls;
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : -1;
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.melihemreguler.urlshortener.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency histograms per operation, in microseconds. Response time is measured from when a
+ * request was scheduled to start, so time spent waiting behind a slow server counts, which
+ * corrects for coordinated omission; service time is measured from when it was actually sent,
+ * which is what a closed-loop client would report. Only successful responses are timed and counted
+ * as requests, so their rate is the goodput; requests the backend shed with 503 are counted apart
+ * from other errors.
+ */
+final class LatencyStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<Operation, Histogram> responseTimes = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> serviceTimes = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> shed = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+
+    LatencyStats() {
+        for (Operation operation : Operation.values()) {
+            responseTimes.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            serviceTimes.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            shed.put(operation, new AtomicLong());
+            errors.put(operation, new AtomicLong());
+        }
+    }
+
+    void record(Operation operation, long intendedNanos, long sentNanos, long completedNanos) {
+        responseTimes.get(operation).recordValue(toMicros(completedNanos - intendedNanos));
+        serviceTimes.get(operation).recordValue(toMicros(completedNanos - sentNanos));
+    }
+
+    void recordShed(Operation operation) {
+        shed.get(operation).incrementAndGet();
+    }
+
+    void recordError(Operation operation) {
+        errors.get(operation).incrementAndGet();
+    }
+
+    void print(PrintStream out, double seconds) {
+        out.printf("%-9s %9s %7s %7s %9s | %-46s | %-46s%n", "operation", "requests", "shed", "errors", "req/s",
+                "response time ms (p50 p90 p99 p99.9 max)", "service time ms (p50 p90 p99 p99.9 max)");
+        for (Operation operation : Operation.values()) {
+            Histogram response = responseTimes.get(operation);
+            long rejected = shed.get(operation).get();
+            long failed = errors.get(operation).get();
+            if (response.getTotalCount() == 0 && rejected == 0 && failed == 0) {
+                continue;
+            }
+            out.printf("%-9s %9d %7d %7d %9.1f | %-46s | %-46s%n", operation.name().toLowerCase(),
+                    response.getTotalCount(), rejected, failed, response.getTotalCount() / seconds,
+                    percentiles(response), percentiles(serviceTimes.get(operation)));
+        }
+    }
+
+    private static String percentiles(Histogram histogram) {
+        StringBuilder line = new StringBuilder();
+        for (double percentile : PERCENTILES) {
+            line.append(String.format("%8.2f", histogram.getValueAtPercentile(percentile) / 1000.0));
+        }
+        return line.append(String.format("%9.2f", histogram.getMaxValue() / 1000.0)).toString();
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+}
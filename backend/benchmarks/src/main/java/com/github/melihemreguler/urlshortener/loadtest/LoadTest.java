@@ -0,0 +1,213 @@
+package com.github.melihemreguler.urlshortener.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the backend. Seeds links through POST /api/url, then starts
+ * requests at a fixed rate, whether or not earlier ones have completed, mixing redirects to
+ * Zipfian-distributed links with creates and searches, and reports response time percentiles
+ * corrected for coordinated omission next to the uncorrected service times.
+ * <p>
+ * Without {@code target=...} it starts the backend in-process against an in-memory MongoDB
+ * stand-in ({@code store=memory}, the default) or a local MongoDB ({@code store=mongo}), so runs
+ * are reproducible without network access. Run with
+ * {@code java -cp target/benchmarks.jar com.github.melihemreguler.urlshortener.loadtest.LoadTest [key=value ...]};
+ * {@code help} lists the options.
+ */
+public final class LoadTest {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    // Returned by the backend's overload protection instead of handling a request
+    private static final int SERVICE_UNAVAILABLE = 503;
+    // Seeding goes through the admin API, whose bulkhead rejects requests beyond its default of 8 running
+    private static final int SEED_CONCURRENCY = 8;
+
+    private final LoadTestOptions options;
+    private final URI baseUri;
+    private final HttpClient client;
+    private final Semaphore connections;
+    private final Random random;
+    private final ZipfianGenerator popularity;
+    private final AtomicLong createdLinks = new AtomicLong();
+    private String[] shortCodes;
+
+    private LoadTest(LoadTestOptions options, URI baseUri) {
+        this.options = options;
+        this.baseUri = baseUri;
+        // Redirects are measured as the 302 the backend answers with, not followed
+        this.client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.connections = new Semaphore(options.connections());
+        this.random = new Random(options.seed());
+        this.popularity = new ZipfianGenerator(options.links(), options.skew());
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && "help".equals(args[0])) {
+            System.out.println(LoadTestOptions.USAGE);
+            return;
+        }
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        if (options.target() != null) {
+            new LoadTest(options, URI.create(options.target())).run();
+        } else {
+            try (LocalBackend backend = LocalBackend.start(options)) {
+                new LoadTest(options, backend.baseUri()).run();
+            }
+        }
+        System.exit(0);
+    }
+
+    private void run() throws InterruptedException {
+        System.out.printf("Seeding %d links into %s%n", options.links(), baseUri);
+        long seedStart = System.nanoTime();
+        seed();
+        System.out.printf("Seeded in %.1f s%n", (System.nanoTime() - seedStart) / 1e9);
+
+        if (options.warmup() > 0) {
+            System.out.printf("Warming up for %d s at %d req/s%n", options.warmup(), options.rate());
+            drive(options.warmup(), new LatencyStats());
+        }
+        System.out.printf("Measuring for %d s at %d req/s, mix %s, skew %.2f%n",
+                options.duration(), options.rate(), options.mix(), options.skew());
+        LatencyStats stats = new LatencyStats();
+        long behind = drive(options.duration(), stats);
+        stats.print(System.out, options.duration());
+        if (behind > 0) {
+            System.out.printf("The generator fell up to %.1f ms behind schedule; response times include that wait%n",
+                    behind / 1e6);
+        }
+    }
+
+    private void seed() throws InterruptedException {
+        shortCodes = new String[options.links()];
+        CompletableFuture<?>[] pending = new CompletableFuture<?>[options.links()];
+        Semaphore seeding = new Semaphore(SEED_CONCURRENCY);
+        for (int i = 0; i < options.links(); i++) {
+            int index = i;
+            seeding.acquire();
+            pending[i] = client.sendAsync(createRequest(seededLongUrl(i)), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> seeding.release())
+                    .thenAccept(response -> shortCodes[index] = shortCodeOf(response));
+        }
+        CompletableFuture.allOf(pending).join();
+    }
+
+    /**
+     * Starts requests on schedule for the given number of seconds and waits for all of them.
+     *
+     * @return How far, in nanoseconds, the generator fell behind its schedule at worst.
+     */
+    private long drive(int seconds, LatencyStats stats) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long requests = (long) seconds * options.rate();
+        long start = System.nanoTime();
+        long maxBehind = 0;
+        for (long i = 0; i < requests; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            // Waiting here for a free connection is counted: latency is taken from the intended start
+            connections.acquire();
+            maxBehind = Math.max(maxBehind, System.nanoTime() - intended);
+
+            Operation operation = nextOperation();
+            long sent = System.nanoTime();
+            client.sendAsync(request(operation), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long completed = System.nanoTime();
+                        connections.release();
+                        if (error == null && response.statusCode() == operation.expectedStatus()) {
+                            stats.record(operation, intended, sent, completed);
+                        } else if (error == null && response.statusCode() == SERVICE_UNAVAILABLE) {
+                            stats.recordShed(operation);
+                        } else {
+                            stats.recordError(operation);
+                        }
+                    });
+        }
+        // Every permit back means every request has completed
+        connections.acquire(options.connections());
+        connections.release(options.connections());
+        return maxBehind;
+    }
+
+    private Operation nextOperation() {
+        int roll = random.nextInt(100);
+        for (Map.Entry<Operation, Integer> share : options.mix().entrySet()) {
+            roll -= share.getValue();
+            if (roll < 0) {
+                return share.getKey();
+            }
+        }
+        return Operation.REDIRECT;
+    }
+
+    private HttpRequest request(Operation operation) {
+        return switch (operation) {
+            case REDIRECT -> HttpRequest.newBuilder(baseUri.resolve("/" + shortCodes[popularity.next(random)]))
+                    .timeout(REQUEST_TIMEOUT).GET().build();
+            case CREATE -> createRequest("https://loadtest.example.com/created/" + options.seed() + "/"
+                    + createdLinks.incrementAndGet());
+            case SEARCH -> HttpRequest.newBuilder(baseUri.resolve("/api/url/search?page=0&size=10&q="
+                            + URLEncoder.encode("item-" + popularity.next(random), StandardCharsets.UTF_8)))
+                    .timeout(REQUEST_TIMEOUT).GET().build();
+        };
+    }
+
+    private HttpRequest createRequest(String longUrl) {
+        String body = OBJECT_MAPPER.createObjectNode().put("longUrl", longUrl).toString();
+        return HttpRequest.newBuilder(baseUri.resolve("/api/url"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    // A few dozen hosts with distinct paths, so searches and the prefix dictionary see realistic URLs
+    private static String seededLongUrl(int index) {
+        return "https://www.host" + index % 50 + ".example.com/articles/item-" + index;
+    }
+
+    private static String shortCodeOf(HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seeding failed with status " + response.statusCode() + ": " + response.body());
+        }
+        try {
+            String shortUrl = OBJECT_MAPPER.readTree(response.body()).path("shortUrl").asText();
+            return shortUrl.substring(shortUrl.lastIndexOf('/') + 1);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unexpected create response: " + response.body(), e);
+        }
+    }
+}
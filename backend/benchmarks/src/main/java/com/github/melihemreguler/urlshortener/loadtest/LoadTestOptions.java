@@ -0,0 +1,89 @@
+package com.github.melihemreguler.urlshortener.loadtest;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, parsed from {@code key=value} arguments.
+ *
+ * @param target      Base URL of a running backend, or null to start one in-process.
+ * @param store       What the in-process backend stores links in: "memory" or "mongo".
+ * @param mongodbUri  MongoDB the in-process backend uses with store=mongo; its database is dropped first.
+ * @param links       Links seeded through POST /api/url before the run.
+ * @param rate        Requests started per second, regardless of how fast responses come back.
+ * @param warmup      Seconds of load before measuring.
+ * @param duration    Seconds of measured load.
+ * @param mix         Share of each operation, in percent.
+ * @param skew        Zipfian skew of which seeded link is redirected to; 0 is uniform.
+ * @param connections Upper bound of requests in flight.
+ * @param seed        Seed of the random choices, for repeatable runs.
+ */
+record LoadTestOptions(String target, String store, String mongodbUri, int links, int rate, int warmup,
+                       int duration, Map<Operation, Integer> mix, double skew, int connections, long seed) {
+
+    static final String USAGE = """
+            Usage: LoadTest [key=value ...]
+              target=<url>          running backend to test; default starts one in-process
+              store=memory|mongo    in-process backend storage (default memory)
+              mongodb-uri=<uri>     MongoDB for store=mongo (default mongodb://localhost:27017/urlshortener_loadtest)
+              links=10000           links seeded before the run
+              rate=1000             requests per second (open model)
+              warmup=10             seconds of unmeasured load
+              duration=60           seconds of measured load
+              mix=redirect:90,create:5,search:5
+              skew=0.99             Zipfian skew of redirect targets, in [0, 1)
+              connections=256       maximum requests in flight
+              seed=42""";
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        LoadTestOptions options = new LoadTestOptions(
+                values.remove("target"),
+                take(values, "store", "memory"),
+                take(values, "mongodb-uri", "mongodb://localhost:27017/urlshortener_loadtest"),
+                Integer.parseInt(take(values, "links", "10000")),
+                Integer.parseInt(take(values, "rate", "1000")),
+                Integer.parseInt(take(values, "warmup", "10")),
+                Integer.parseInt(take(values, "duration", "60")),
+                parseMix(take(values, "mix", "redirect:90,create:5,search:5")),
+                Double.parseDouble(take(values, "skew", "0.99")),
+                Integer.parseInt(take(values, "connections", "256")),
+                Long.parseLong(take(values, "seed", "42")));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (!"memory".equals(options.store()) && !"mongo".equals(options.store())) {
+            throw new IllegalArgumentException("store must be memory or mongo, got: " + options.store());
+        }
+        if (options.links() < 1 || options.rate() < 1 || options.connections() < 1) {
+            throw new IllegalArgumentException("links, rate and connections must be positive");
+        }
+        return options;
+    }
+
+    // Removes the option so that anything left over afterwards is unknown
+    private static String take(Map<String, String> values, String key, String defaultValue) {
+        String value = values.remove(key);
+        return value != null ? value : defaultValue;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> shares = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] share = part.split(":");
+            shares.put(Operation.valueOf(share[0].trim().toUpperCase()), Integer.parseInt(share[1].trim()));
+        }
+        if (shares.values().stream().mapToInt(Integer::intValue).sum() != 100) {
+            throw new IllegalArgumentException("Mix shares must add up to 100, got: " + mix);
+        }
+        return shares;
+    }
+}
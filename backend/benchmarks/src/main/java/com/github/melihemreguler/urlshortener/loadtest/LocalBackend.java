@@ -0,0 +1,81 @@
+package com.github.melihemreguler.urlshortener.loadtest;
+
+import com.github.melihemreguler.urlshortener.UrlShortenerApplication;
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+
+/**
+ * The backend started in this JVM on a random port, against either an in-memory MongoDB
+ * stand-in or a real MongoDB whose database is dropped first, so every run starts empty.
+ * It shares the CPU with the load generator; point the load test at a separately started
+ * backend for numbers that matter.
+ */
+final class LocalBackend implements AutoCloseable {
+
+    private static final String DATABASE = "urlshortener_loadtest";
+
+    private final MongoServer mongoServer;
+    private final ConfigurableApplicationContext context;
+
+    private LocalBackend(MongoServer mongoServer, ConfigurableApplicationContext context) {
+        this.mongoServer = mongoServer;
+        this.context = context;
+    }
+
+    static LocalBackend start(LoadTestOptions options) {
+        return start(options.store(), options.mongodbUri());
+    }
+
+    /**
+     * @param store      What links are stored in: "memory" or "mongo".
+     * @param mongodbUri MongoDB used with store=mongo; its database is dropped first.
+     */
+    static LocalBackend start(String store, String mongodbUri) {
+        MongoServer mongoServer = null;
+        String database = DATABASE;
+        if ("memory".equals(store)) {
+            mongoServer = new MongoServer(new MemoryBackend());
+            InetSocketAddress address = mongoServer.bind();
+            mongodbUri = "mongodb://localhost:" + address.getPort() + "/" + DATABASE;
+        } else {
+            String uriDatabase = new ConnectionString(mongodbUri).getDatabase();
+            database = uriDatabase != null ? uriDatabase : DATABASE;
+            try (MongoClient client = MongoClients.create(mongodbUri)) {
+                client.getDatabase(database).drop();
+            }
+        }
+
+        // Passed as command line arguments so they take precedence over application.yaml
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(UrlShortenerApplication.class)
+                .run("--server.port=0",
+                        "--spring.data.mongodb.uri=" + mongodbUri,
+                        "--spring.data.mongodb.database=" + database,
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.github.melihemreguler=WARN",
+                        // Keeps the sampled access log off the console the report is printed to
+                        "--logging.level.access=WARN",
+                        // All load comes from one client, which the per-client limits would throttle
+                        "--rate-limit.enabled=false");
+        return new LocalBackend(mongoServer, context);
+    }
+
+    URI baseUri() {
+        return URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        if (mongoServer != null) {
+            mongoServer.shutdownNow();
+        }
+    }
+}
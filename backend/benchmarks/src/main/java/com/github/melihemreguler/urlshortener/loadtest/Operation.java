@@ -0,0 +1,20 @@
+package com.github.melihemreguler.urlshortener.loadtest;
+
+/**
+ * Request types the load test mixes, with the status a successful one returns.
+ */
+enum Operation {
+    REDIRECT(302),
+    CREATE(200),
+    SEARCH(200);
+
+    private final int expectedStatus;
+
+    Operation(int expectedStatus) {
+        this.expectedStatus = expectedStatus;
+    }
+
+    int expectedStatus() {
+        return expectedStatus;
+    }
+}
@@ -0,0 +1,159 @@
+package com.github.melihemreguler.urlshortener.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Short codes resolved per second by a single client, one {@code GET /{shortCode}} at a time as a
+ * link checker would without the batch API, against {@code POST /api/url/resolve} with a batch of
+ * codes per request, with and without metadata. Each round resolves every seeded code once per way;
+ * the first round also fills the link cache. Run with
+ * {@code java -cp target/benchmarks.jar com.github.melihemreguler.urlshortener.loadtest.ResolveThroughput [key=value ...]};
+ * {@code help} lists the options. A backend given with {@code target=} needs {@code RATE_LIMIT_ENABLED=false},
+ * as seeding and the sequential redirects come from one client.
+ */
+public final class ResolveThroughput {
+
+    static final String USAGE = """
+            Usage: ResolveThroughput [key=value ...]
+              target=<url>          running backend to test; default starts one in-process
+              store=memory|mongo    in-process backend storage (default memory)
+              mongodb-uri=<uri>     MongoDB for store=mongo (default mongodb://localhost:27017/urlshortener_loadtest)
+              links=10000           links seeded and resolved each round
+              batch=500             short codes per resolve request, at most 1000
+              rounds=3              rounds of sequential redirects and batch resolves""";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int SEED_CONCURRENCY = 8;
+
+    private final HttpClient client = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build();
+    private final URI baseUri;
+    private final String[] shortCodes;
+    private final int batch;
+
+    private ResolveThroughput(URI baseUri, int links, int batch) {
+        this.baseUri = baseUri;
+        this.shortCodes = new String[links];
+        this.batch = batch;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && "help".equals(args[0])) {
+            System.out.println(USAGE);
+            return;
+        }
+        Map<String, String> options = new HashMap<>(Map.of("target", "", "store", "memory",
+                "mongodb-uri", "mongodb://localhost:27017/urlshortener_loadtest", "links", "10000", "batch", "500",
+                "rounds", "3"));
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 1 || !options.containsKey(arg.substring(0, separator))) {
+                System.err.println("Unknown option: " + arg);
+                System.err.println(USAGE);
+                System.exit(2);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        int links = Integer.parseInt(options.get("links"));
+        int batch = Integer.parseInt(options.get("batch"));
+        int rounds = Integer.parseInt(options.get("rounds"));
+
+        if (!options.get("target").isEmpty()) {
+            new ResolveThroughput(URI.create(options.get("target")), links, batch).run(rounds);
+        } else {
+            try (LocalBackend backend = LocalBackend.start(options.get("store"), options.get("mongodb-uri"))) {
+                new ResolveThroughput(backend.baseUri(), links, batch).run(rounds);
+            }
+        }
+        System.exit(0);
+    }
+
+    private void run(int rounds) throws IOException, InterruptedException {
+        System.out.printf("Seeding %d links into %s%n", shortCodes.length, baseUri);
+        seed();
+        System.out.printf("%-6s %22s %22s %22s%n", "round", "sequential codes/s", "batch codes/s", "metadata codes/s");
+        for (int round = 1; round <= rounds; round++) {
+            double sequential = redirectSequentially();
+            double batched = resolveInBatches(false);
+            double withMetadata = resolveInBatches(true);
+            System.out.printf("%-6d %22.0f %22.0f %22.0f%n", round, sequential, batched, withMetadata);
+        }
+    }
+
+    private void seed() throws InterruptedException {
+        CompletableFuture<?>[] pending = new CompletableFuture<?>[shortCodes.length];
+        Semaphore seeding = new Semaphore(SEED_CONCURRENCY);
+        for (int i = 0; i < shortCodes.length; i++) {
+            int index = i;
+            seeding.acquire();
+            String body = OBJECT_MAPPER.createObjectNode().put("longUrl", "https://www.example.com/resolve/" + i).toString();
+            pending[i] = client.sendAsync(post("/api/url", body), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> seeding.release())
+                    .thenAccept(response -> {
+                        String shortUrl = read(response).path("shortUrl").asText();
+                        shortCodes[index] = shortUrl.substring(shortUrl.lastIndexOf('/') + 1);
+                    });
+        }
+        CompletableFuture.allOf(pending).join();
+    }
+
+    private double redirectSequentially() throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        for (String shortCode : shortCodes) {
+            HttpRequest redirect = HttpRequest.newBuilder(baseUri.resolve("/" + shortCode)).timeout(REQUEST_TIMEOUT).build();
+            int status = client.send(redirect, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status != 302) {
+                throw new IllegalStateException("Redirect of " + shortCode + " failed with status " + status);
+            }
+        }
+        return shortCodes.length / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private double resolveInBatches(boolean metadata) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        for (int from = 0; from < shortCodes.length; from += batch) {
+            ObjectNode body = OBJECT_MAPPER.createObjectNode();
+            for (int i = from; i < Math.min(from + batch, shortCodes.length); i++) {
+                body.withArray("shortCodes").add(shortCodes[i]);
+            }
+            HttpResponse<String> response = client.send(post("/api/url/resolve?metadata=" + metadata, body.toString()),
+                    HttpResponse.BodyHandlers.ofString());
+            if (read(response).path("notFound").size() > 0) {
+                throw new IllegalStateException("Seeded codes were not found: " + response.body());
+            }
+        }
+        return shortCodes.length / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static JsonNode read(HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Request failed with status " + response.statusCode() + ": " + response.body());
+        }
+        try {
+            return OBJECT_MAPPER.readTree(response.body());
+        } catch (IOException e) {
+            throw new IllegalStateException("Unexpected response: " + response.body(), e);
+        }
+    }
+}
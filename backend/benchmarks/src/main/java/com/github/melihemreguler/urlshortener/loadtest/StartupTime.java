@@ -0,0 +1,166 @@
+package com.github.melihemreguler.urlshortener.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.service.ShortCodes;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from launching the backend jar in a new JVM to the first redirect it serves, the number
+ * the fast-startup build is meant to improve. Each run starts a fresh process against an in-memory
+ * MongoDB stand-in holding one link and polls that link until a 302 comes back.
+ * <p>
+ * With {@code out=...} the median is written in JMH's JSON result format, so runs of the same label
+ * on two commits can be compared with {@code BenchmarkComparison}; the error margin written is half
+ * the spread between the fastest and slowest run. Run with
+ * {@code java -cp target/benchmarks.jar com.github.melihemreguler.urlshortener.loadtest.StartupTime [key=value ...]};
+ * {@code help} lists the options.
+ */
+public final class StartupTime {
+
+    static final String USAGE = """
+            Usage: StartupTime [key=value ...]
+              jar=../target/urlshortener-0.0.1-SNAPSHOT.jar   backend jar to launch
+              jvm-options=<options>   space separated, e.g. "-XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true"
+              runs=5                  processes started one after another
+              label=default           name of the measured setup in the result file
+              out=<file>              JMH-format JSON result file; default prints only""";
+
+    private static final String SHORT_CODE = "startup1";
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final long POLL_INTERVAL_MILLIS = 5;
+
+    private StartupTime() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && "help".equals(args[0])) {
+            System.out.println(USAGE);
+            return;
+        }
+        Map<String, String> options = new HashMap<>(Map.of("jar", "../target/urlshortener-0.0.1-SNAPSHOT.jar",
+                "jvm-options", "", "runs", "5", "label", "default", "out", ""));
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 1 || !options.containsKey(arg.substring(0, separator))) {
+                System.err.println("Unknown option: " + arg);
+                System.err.println(USAGE);
+                System.exit(2);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        int runs = Integer.parseInt(options.get("runs"));
+
+        MongoServer mongoServer = new MongoServer(new MemoryBackend());
+        String mongodbUri = "mongodb://localhost:" + mongoServer.bind().getPort() + "/urlshortener_startup";
+        try (MongoClient mongoClient = MongoClients.create(mongodbUri)) {
+            UrlDto url = new UrlDto("https://example.com/startup", SHORT_CODE);
+            url.setCode(ShortCodes.toNumber(SHORT_CODE));
+            new MongoTemplate(mongoClient, "urlshortener_startup").insert(url);
+
+            double[] millis = new double[runs];
+            for (int run = 0; run < runs; run++) {
+                millis[run] = timeToFirstRedirect(options.get("jar"), options.get("jvm-options"), mongodbUri);
+                System.out.printf("Run %d: first redirect after %.0f ms%n", run + 1, millis[run]);
+            }
+            Arrays.sort(millis);
+            double median = millis[runs / 2];
+            System.out.printf("%s: median %.0f ms, min %.0f ms, max %.0f ms over %d runs%n",
+                    options.get("label"), median, millis[0], millis[runs - 1], runs);
+            if (!options.get("out").isEmpty()) {
+                writeResult(Path.of(options.get("out")), options.get("label"), median, (millis[runs - 1] - millis[0]) / 2, millis);
+            }
+        } finally {
+            mongoServer.shutdownNow();
+        }
+    }
+
+    private static double timeToFirstRedirect(String jar, String jvmOptions, String mongodbUri)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (!jvmOptions.isBlank()) {
+            command.addAll(Arrays.asList(jvmOptions.trim().split("\\s+")));
+        }
+        command.addAll(List.of("-jar", jar, "--server.port=" + port, "--spring.data.mongodb.uri=" + mongodbUri,
+                "--spring.data.mongodb.database=urlshortener_startup"));
+
+        HttpClient client = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build();
+        HttpRequest redirect = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/" + SHORT_CODE)).build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Backend exited with " + process.exitValue() + ": " + command);
+                }
+                try {
+                    if (client.send(redirect, HttpResponse.BodyHandlers.discarding()).statusCode() == 302) {
+                        return (System.nanoTime() - start) / 1e6;
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            }
+            throw new IllegalStateException("No redirect served within " + TIMEOUT + ": " + command);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void writeResult(Path file, String label, double median, double error, double[] millis) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ArrayNode results = objectMapper.createArrayNode();
+        ObjectNode result = results.addObject();
+        result.put("benchmark", StartupTime.class.getName() + ".timeToFirstRedirect");
+        result.put("mode", "ss");
+        result.putObject("params").put("label", label);
+        ObjectNode metric = result.putObject("primaryMetric");
+        metric.put("score", median);
+        metric.put("scoreError", error);
+        metric.put("scoreUnit", "ms");
+        ArrayNode rawData = metric.putArray("rawData").addArray();
+        Arrays.stream(millis).forEach(rawData::add);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), results);
+        System.out.println("Result written to " + file);
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.melihemreguler.urlshortener.loadtest;
+
+import java.util.Random;
+
+/**
+ * Draws item ranks from a Zipfian distribution, rank 0 being the most popular, using the
+ * rejection-free method of Gray et al. ("Quickly generating billion-record synthetic databases")
+ * as popularised by YCSB. A skew of 0 is uniform; 0.99 gives the long-tailed click pattern
+ * of real short links.
+ */
+final class ZipfianGenerator {
+
+    private final int items;
+    private final double skew;
+    private final double zetaN;
+    private final double alpha;
+    private final double eta;
+
+    ZipfianGenerator(int items, double skew) {
+        if (items < 1) {
+            throw new IllegalArgumentException("Need at least one item, got " + items);
+        }
+        if (skew < 0 || skew >= 1) {
+            throw new IllegalArgumentException("Skew must be in [0, 1), got " + skew);
+        }
+        this.items = items;
+        this.skew = skew;
+        this.zetaN = zeta(items, skew);
+        this.alpha = 1 / (1 - skew);
+        this.eta = (1 - Math.pow(2.0 / items, 1 - skew)) / (1 - zeta(2, skew) / zetaN);
+    }
+
+    int next(Random random) {
+        double u = random.nextDouble();
+        double uz = u * zetaN;
+        if (uz < 1) {
+            return 0;
+        }
+        if (items > 1 && uz < 1 + Math.pow(0.5, skew)) {
+            return 1;
+        }
+        return Math.min(items - 1, (int) (items * Math.pow(eta * u - eta + 1, alpha)));
+    }
+
+    private static double zeta(int n, double skew) {
+        double sum = 0;
+        for (int i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, skew);
+        }
+        return sum;
+    }
+}
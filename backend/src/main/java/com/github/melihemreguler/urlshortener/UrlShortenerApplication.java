@@ -2,13 +2,16 @@ package com.github.melihemreguler.urlshortener;
 
 
 import com.github.melihemreguler.urlshortener.config.AppConfig;
+import com.github.melihemreguler.urlshortener.config.ArchiveProperties;
 import com.github.melihemreguler.urlshortener.config.CorsProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableConfigurationProperties({AppConfig.class, CorsProperties.class})
+@EnableConfigurationProperties({AppConfig.class, CorsProperties.class, ArchiveProperties.class})
+@EnableScheduling
 public class UrlShortenerApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,135 @@
+package com.github.melihemreguler.urlshortener.accesslog;
+
+import com.github.melihemreguler.urlshortener.config.AccessLogProperties;
+import com.github.melihemreguler.urlshortener.model.AccessLogEntry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Structured access log written off the request path.
+ * Requests are sampled per handler and queued; a scheduled flush writes the queued requests as
+ * batches of key=value lines, one log event per batch. When the queue is full new requests are
+ * dropped rather than slowing the request down.
+ */
+@Component
+public class AccessLog implements MeterBinder {
+
+    // Logger name the batches are written to, so they can be routed separately from application logs
+    public static final String LOGGER_NAME = "access";
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private final AccessLogProperties accessLogProperties;
+    private final ArrayBlockingQueue<AccessLogEntry> queue;
+    private final AtomicLong dropped = new AtomicLong();
+
+    @Autowired
+    public AccessLog(AccessLogProperties accessLogProperties) {
+        this.accessLogProperties = accessLogProperties;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, accessLogProperties.getQueueCapacity()));
+    }
+
+    /**
+     * @return Whether requests are logged at all; checked before any per-request work.
+     */
+    public boolean isEnabled() {
+        return accessLogProperties.isEnabled() && ACCESS_LOG.isInfoEnabled();
+    }
+
+    /**
+     * Queues a finished request if it is sampled. Server errors are always sampled.
+     *
+     * @param method        The HTTP method.
+     * @param path          The request path, without the query string.
+     * @param handler       The name of the controller method that handled the request.
+     * @param status        The response status.
+     * @param durationNanos How long the request took.
+     */
+    public void record(String method, String path, String handler, int status, long durationNanos) {
+        double sampleRate = status >= 500 ? 1.0 : sampleRateOf(handler);
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        AccessLogEntry entry = new AccessLogEntry(System.currentTimeMillis(), method, path, handler,
+                status, durationNanos / 1000, sampleRate);
+        if (!queue.offer(entry)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Writes queued requests in batches of at most the configured batch size.
+     */
+    @Scheduled(fixedDelayString = "${access-log.flush-interval:PT1S}")
+    public void flush() {
+        int batchSize = Math.max(1, accessLogProperties.getBatchSize());
+        List<AccessLogEntry> batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+        StringBuilder lines = new StringBuilder();
+        while (queue.drainTo(batch, batchSize) > 0) {
+            for (AccessLogEntry entry : batch) {
+                if (!lines.isEmpty()) {
+                    lines.append('\n');
+                }
+                appendLine(lines, entry);
+            }
+            ACCESS_LOG.info(lines.toString());
+            batch.clear();
+            lines.setLength(0);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Publishes the number of queued requests and of requests dropped because the queue was full.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("urlshortener.access.log.queued", queue, ArrayBlockingQueue::size)
+                .description("Sampled requests waiting to be written to the access log")
+                .register(registry);
+        FunctionCounter.builder("urlshortener.access.log.dropped", dropped, AtomicLong::get)
+                .description("Sampled requests dropped because the access log queue was full")
+                .register(registry);
+    }
+
+    /**
+     * @return The number of requests dropped so far because the queue was full.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private double sampleRateOf(String handler) {
+        Double rate = accessLogProperties.getSampleRates().get(handler);
+        return rate != null ? rate : accessLogProperties.getDefaultSampleRate();
+    }
+
+    private static void appendLine(StringBuilder lines, AccessLogEntry entry) {
+        lines.append("ts=").append(Instant.ofEpochMilli(entry.timestampMillis()))
+                .append(" method=").append(entry.method())
+                .append(" path=").append(entry.path())
+                .append(" handler=").append(entry.handler())
+                .append(" status=").append(entry.status())
+                .append(" micros=").append(entry.durationMicros())
+                .append(" sample=").append(entry.sampleRate());
+    }
+}
@@ -0,0 +1,135 @@
+package com.github.melihemreguler.urlshortener.bulkhead;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.melihemreguler.urlshortener.config.BulkheadProperties;
+import com.github.melihemreguler.urlshortener.model.ErrorResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulkhead in front of the admin API. At most {@code admin-bulkhead.max-concurrent} admin requests
+ * run at once and up to {@code max-queued} more wait for a turn; the rest, and those still waiting
+ * after {@code queue-timeout}, get a 503. Admin traffic can therefore hold only that many Tomcat
+ * worker threads, however slow searches get, and the rest of the pool stays free for redirects,
+ * which are never queued or rejected here.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+@Slf4j
+public class AdminBulkheadFilter extends OncePerRequestFilter implements MeterBinder {
+
+    static final String ADMIN_PATH = "/api/url";
+
+    private final BulkheadProperties bulkheadProperties;
+    private final ObjectMapper objectMapper;
+    // Fair, so waiting requests get their turn in arrival order
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Autowired
+    public AdminBulkheadFilter(BulkheadProperties bulkheadProperties, ObjectMapper objectMapper) {
+        this.bulkheadProperties = bulkheadProperties;
+        this.objectMapper = objectMapper;
+        this.permits = new Semaphore(bulkheadProperties.getMaxConcurrent(), true);
+    }
+
+    /**
+     * @param request The request to check.
+     * @return Whether the request goes to the admin API.
+     */
+    public static boolean isAdminRequest(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return path.equals(ADMIN_PATH) || path.startsWith(ADMIN_PATH + "/");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !isAdminRequest(request);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        if (!acquire()) {
+            rejected.incrementAndGet();
+            log.debug("Admin bulkhead full, rejecting {} {}", request.getMethod(), request.getRequestURI());
+            reject(request, response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Publishes how many admin requests are running, waiting and rejected.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("urlshortener.bulkhead.admin.active", permits,
+                        available -> bulkheadProperties.getMaxConcurrent() - available.availablePermits())
+                .description("Admin API requests being handled")
+                .register(registry);
+        Gauge.builder("urlshortener.bulkhead.admin.queued", queued, AtomicInteger::get)
+                .description("Admin API requests waiting for a turn")
+                .register(registry);
+        FunctionCounter.builder("urlshortener.bulkhead.admin.rejected", rejected, AtomicLong::get)
+                .description("Admin API requests rejected with 503 because the bulkhead was full")
+                .register(registry);
+    }
+
+    private boolean acquire() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (queued.incrementAndGet() > bulkheadProperties.getMaxQueued()) {
+            queued.decrementAndGet();
+            return false;
+        }
+        try {
+            return permits.tryAcquire(bulkheadProperties.getQueueTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, bulkheadProperties.getQueueTimeout().toSeconds())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.of(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                "The service is busy, please retry later",
+                request.getRequestURI()
+        ));
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.melihemreguler.urlshortener.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "access-log")
+@Getter
+@Setter
+public class AccessLogProperties {
+    // Whether requests are written to the "access" logger at all
+    private boolean enabled = true;
+    // Share of requests logged for handlers without their own rate, between 0 and 1
+    private double defaultSampleRate = 1.0;
+    // Share of requests logged per controller method name, e.g. redirectToLongUrl: 0.01
+    private Map<String, Double> sampleRates = new HashMap<>();
+    // Sampled requests waiting to be written; further ones are dropped and counted
+    private int queueCapacity = 10000;
+    // Upper bound of lines written as one log event
+    private int batchSize = 500;
+    // How often queued lines are written
+    private Duration flushInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,25 @@
+package com.github.melihemreguler.urlshortener.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "archive")
+@Getter
+@Setter
+public class ArchiveProperties {
+    // Whether the background archival job runs at all
+    private boolean enabled = false;
+    // Links not accessed for this long are moved to the archive collection
+    private Duration coldAfter = Duration.ofDays(7);
+    // Number of links compressed together into a single archive document
+    private int blockSize = 500;
+    // Upper bound of links archived in a single run
+    private int maxLinksPerRun = 50_000;
+    // Time between the end of one run and the start of the next, the first one this long after startup
+    private Duration runInterval = Duration.ofHours(1);
+}
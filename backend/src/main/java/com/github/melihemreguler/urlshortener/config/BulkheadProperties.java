@@ -0,0 +1,23 @@
+package com.github.melihemreguler.urlshortener.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "admin-bulkhead")
+@Getter
+@Setter
+public class BulkheadProperties {
+    // Admin API requests handled at once; also the size of their own MongoDB connection pool
+    private int maxConcurrent = 8;
+    // Admin API requests waiting for a turn; any beyond that are rejected with 503 right away
+    private int maxQueued = 16;
+    // How long a waiting admin API request is held before it is rejected with 503
+    private Duration queueTimeout = Duration.ofSeconds(1);
+    // Server-side time limit of a search query, kept below the socket timeout so slow searches end as such
+    private Duration queryTimeout = Duration.ofSeconds(3);
+}
@@ -0,0 +1,24 @@
+package com.github.melihemreguler.urlshortener.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "change-log")
+@Getter
+@Setter
+public class ChangeLogProperties {
+    // Whether links created, deleted and clicked are written to the change log served by GET /api/url/changes
+    private boolean enabled = true;
+    // How long changes are kept; clients further behind are told to reload in full
+    private Duration retention = Duration.ofHours(1);
+    // Links a single response of GET /api/url/changes covers at most; further changes follow on the next call
+    private int maxLinksPerResponse = 1000;
+    // How long a change may be missing from the log while later ones are there, before it is taken as
+    // lost; a change is numbered before it is written, so another instance may still be writing it
+    private Duration settleTime = Duration.ofSeconds(5);
+}
@@ -0,0 +1,25 @@
+package com.github.melihemreguler.urlshortener.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "database-circuit-breaker")
+@Getter
+@Setter
+public class CircuitBreakerProperties {
+    // Consecutive failed database calls that open the circuit
+    private int failureThreshold = 5;
+    // How long the circuit stays open before one trial call is let through
+    private Duration openDuration = Duration.ofSeconds(10);
+    // How long a call waits for a reachable server; the driver default of 30s would hold requests that long
+    private Duration serverSelectionTimeout = Duration.ofSeconds(2);
+    // How long opening a connection may take
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    // How long a call waits for a response on an open connection; bounds slow queries as well
+    private Duration socketTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,29 @@
+package com.github.melihemreguler.urlshortener.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "concurrency-limit")
+@Getter
+@Setter
+public class ConcurrencyLimitProperties {
+    // Whether requests beyond the estimated limit are rejected
+    private boolean enabled = true;
+    // Requests in flight allowed before any response time has been observed
+    private int initialLimit = 50;
+    // The limit never drops below this, so a few slow responses cannot shut the service
+    private int minLimit = 20;
+    // The limit never grows beyond this; no use going past the servlet container's worker threads
+    private int maxLimit = 200;
+    // How far recent response times may rise above the long-term average before the limit is lowered
+    private double rttTolerance = 1.5;
+    // Weight of each new estimate in the limit, between 0 and 1
+    private double smoothing = 0.2;
+    // Requests the long-term response time average spans
+    private int longWindow = 600;
+    // Requests the recent response time average spans
+    private int shortWindow = 10;
+}
@@ -0,0 +1,22 @@
+package com.github.melihemreguler.urlshortener.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "conditional-get")
+@Getter
+@Setter
+public class ConditionalGetProperties {
+    // Whether list and search responses without click fields carry an ETag and answer If-None-Match with 304
+    private boolean enabled = true;
+    // Whether the version of the links collection is kept in MongoDB; only a single instance serving the
+    // API may turn it off, since an instance would otherwise answer 304 for links created through another
+    private boolean shared = true;
+    // How often an instance reads the shared version, i.e. how long it may answer 304 for another instance's change
+    private Duration syncInterval = Duration.ofSeconds(1);
+}
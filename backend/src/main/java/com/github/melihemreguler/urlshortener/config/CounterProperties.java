@@ -0,0 +1,17 @@
+package com.github.melihemreguler.urlshortener.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "counters")
+@Getter
+@Setter
+public class CounterProperties {
+    // How often clicks buffered in memory are written to the counters collection
+    private Duration flushInterval = Duration.ofSeconds(1);
+}
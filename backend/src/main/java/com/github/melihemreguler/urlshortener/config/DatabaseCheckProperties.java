@@ -0,0 +1,19 @@
+package com.github.melihemreguler.urlshortener.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "database-check")
+@Getter
+@Setter
+public class DatabaseCheckProperties {
+    // Pause between pings while the database is unreachable
+    private Duration retryInterval = Duration.ofSeconds(2);
+    // How long the database may stay unreachable after startup before liveness reports the instance broken
+    private Duration giveUpAfter = Duration.ofMinutes(2);
+}
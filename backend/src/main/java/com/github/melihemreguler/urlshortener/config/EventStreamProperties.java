@@ -0,0 +1,25 @@
+package com.github.melihemreguler.urlshortener.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "event-stream")
+@Getter
+@Setter
+public class EventStreamProperties {
+    // Clients GET /api/url/stream serves at once; further clients get a 503. 0 turns the stream off
+    private int maxSubscribers = 100;
+    // Window over which creations, deletions and clicks are coalesced into one event
+    private Duration window = Duration.ofMillis(250);
+    // Events buffered per client; a client that falls this many windows behind is disconnected
+    private int bufferSize = 40;
+    // How long a stream may stay without events before a comment is sent, so dead connections are noticed
+    private Duration heartbeat = Duration.ofSeconds(15);
+    // How long a client stays connected before it has to reconnect
+    private Duration timeout = Duration.ofMinutes(30);
+}
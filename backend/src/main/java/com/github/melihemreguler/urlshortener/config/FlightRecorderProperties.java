@@ -0,0 +1,25 @@
+package com.github.melihemreguler.urlshortener.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "flight-recorder")
+@Getter
+@Setter
+public class FlightRecorderProperties {
+    // Directory recordings are dumped to; file names are generated, never taken from a request
+    private Path dumpDirectory = Path.of(System.getProperty("java.io.tmpdir"), "urlshortener-jfr");
+    // JDK settings the recording starts from: "default" (about 1% overhead) or "profile"
+    private String settings = "default";
+    // Pipeline stages and HTTP exchanges faster than this are not recorded
+    private Duration threshold = Duration.ofMillis(1);
+    // Oldest data is discarded once the recording grows past this
+    private DataSize maxSize = DataSize.ofMegabytes(256);
+}
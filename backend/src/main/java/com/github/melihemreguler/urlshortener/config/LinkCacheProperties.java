@@ -0,0 +1,24 @@
+package com.github.melihemreguler.urlshortener.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "link-cache")
+@Getter
+@Setter
+public class LinkCacheProperties {
+    // Maximum number of short codes kept in the in-process redirect cache
+    private long maximumSize = 100_000;
+    // Bounds how long a link deleted on another instance keeps redirecting here
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+    // File the cached links are written to, read back to serve redirects while the database is unreachable
+    private Path snapshotPath = Path.of(System.getProperty("java.io.tmpdir"), "urlshortener-links.snapshot");
+    // How often the snapshot is rewritten while the database is reachable
+    private Duration snapshotInterval = Duration.ofMinutes(5);
+}
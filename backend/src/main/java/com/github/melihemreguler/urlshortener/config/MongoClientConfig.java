@@ -0,0 +1,25 @@
+package com.github.melihemreguler.urlshortener.config;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MongoClientConfig {
+
+    /**
+     * Bounds how long a database call can take when MongoDB is unreachable or slow, so calls fail
+     * fast enough for the circuit breaker to notice instead of holding request threads.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoTimeoutCustomizer(CircuitBreakerProperties circuitBreakerProperties) {
+        return settings -> settings
+                .applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(
+                        circuitBreakerProperties.getServerSelectionTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout((int) circuitBreakerProperties.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                        .readTimeout((int) circuitBreakerProperties.getSocketTimeout().toMillis(), TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.melihemreguler.urlshortener.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Set;
+
+@Configuration
+@ConfigurationProperties(prefix = "rate-limit")
+@Getter
+@Setter
+public class RateLimitProperties {
+    // Whether clients are rate limited at all; off by default, since behind a proxy that is not trusted
+    // to forward client addresses every client would share the proxy's limit
+    private boolean enabled = false;
+    // Request header carrying an API key, e.g. X-API-Key, that clients are limited by instead of their address
+    private String clientHeader = "";
+    // API keys accepted in the client header; any other value is ignored, so clients cannot dodge
+    // their limit by changing it
+    private Set<String> clientKeys = Set.of();
+    // Clients whose buckets are kept per endpoint; the least recently seen are dropped beyond that
+    private long maxClients = 100_000;
+    // Whether request counts are also added up across instances in MongoDB
+    private boolean shared = false;
+    // How often an instance adds its request counts to the shared ones
+    private Duration syncInterval = Duration.ofSeconds(1);
+    // Length of the fixed windows shared counts are kept in
+    private Duration sharedWindow = Duration.ofMinutes(1);
+    // Limit of POST /api/url per client
+    private Policy create = new Policy(2, 20);
+    // Limit of GET /api/url/search per client
+    private Policy search = new Policy(5, 30);
+    // Limit of POST /api/url/resolve per client; each request may resolve up to 1000 short codes
+    private Policy resolve = new Policy(2, 10);
+    // Limit of redirects per client
+    private Policy redirect = new Policy(100, 500);
+
+    @Getter
+    @Setter
+    public static class Policy {
+        // Requests per second a client can keep up
+        private double rate;
+        // Requests a client can make at once after being idle
+        private int burst;
+
+        public Policy() {
+        }
+
+        public Policy(double rate, int burst) {
+            this.rate = rate;
+            this.burst = burst;
+        }
+    }
+}
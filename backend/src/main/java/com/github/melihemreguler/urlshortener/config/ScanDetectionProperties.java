@@ -0,0 +1,30 @@
+package com.github.melihemreguler.urlshortener.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "scan-detection")
+@Getter
+@Setter
+public class ScanDetectionProperties {
+    // Whether clients redirecting mostly to unknown short codes are blocked; off by default, since
+    // behind a proxy that is not trusted to forward client addresses one scanner would block everyone
+    private boolean enabled = false;
+    // Length of the sliding window redirects and misses are counted in
+    private Duration window = Duration.ofMinutes(1);
+    // Redirects a client must make within the window before its miss ratio is judged
+    private int minRedirects = 50;
+    // Share of a client's redirects in the window that may be for unknown short codes
+    private double maxMissRatio = 0.5;
+    // How long a client over the miss ratio is answered with 429 without looking its codes up
+    private Duration blockDuration = Duration.ofMinutes(10);
+    // Clients whose windows are kept; the least recently seen are dropped beyond that
+    private long maxClients = 100_000;
+    // Client prefixes (/24 for IPv4, /48 for IPv6) with the most misses published as metrics each window
+    private int metricPrefixes = 20;
+}
@@ -0,0 +1,23 @@
+package com.github.melihemreguler.urlshortener.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "summary")
+@Getter
+@Setter
+public class SummaryProperties {
+    // Whether the dashboard summary is computed; GET /api/url/summary answers 503 without it
+    private boolean enabled = true;
+    // How often the summary is computed again in the background, well before it reaches max-age
+    private Duration refreshInterval = Duration.ofMinutes(1);
+    // How old a summary may get while refreshes fail before it is no longer served
+    private Duration maxAge = Duration.ofMinutes(10);
+    // Number of days, today included, that links created per day are counted for
+    private int days = 30;
+}
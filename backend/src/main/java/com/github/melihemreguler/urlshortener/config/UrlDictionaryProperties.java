@@ -0,0 +1,23 @@
+package com.github.melihemreguler.urlshortener.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "url-dictionary")
+@Getter
+@Setter
+public class UrlDictionaryProperties {
+    // Whether new links store their long URL as a dictionary prefix plus suffix; existing ones are read either way
+    private boolean enabled = false;
+    // Upper bound of prefixes an instance splits new links against; the least used are evicted beyond it
+    private int maxEntries = 10_000;
+    // Times a prefix must be seen, with counts halved every learning run, before it is learned
+    private int minSightings = 3;
+    // How often prefixes seen often enough are learned in the background
+    private Duration learnInterval = Duration.ofSeconds(10);
+}
@@ -1,6 +1,10 @@
 package com.github.melihemreguler.urlshortener.config;
 
+import com.github.melihemreguler.urlshortener.model.PopularityCursor;
+import com.github.melihemreguler.urlshortener.model.UrlField;
+import com.github.melihemreguler.urlshortener.model.UrlSort;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
 import org.springframework.lang.NonNull;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -13,4 +17,13 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/swagger-ui/**")
                 .addResourceLocations("classpath:/META-INF/resources/webjars/swagger-ui/");
     }
+
+    // Lets the fields and sort parameters of the list and search endpoints use their JSON names,
+    // and the cursor parameter the opaque form of a position
+    @Override
+    public void addFormatters(@NonNull FormatterRegistry registry) {
+        registry.addConverter(String.class, UrlField.class, UrlField::fromProperty);
+        registry.addConverter(String.class, UrlSort.class, UrlSort::fromProperty);
+        registry.addConverter(String.class, PopularityCursor.class, PopularityCursor::parse);
+    }
 }
@@ -0,0 +1,48 @@
+package com.github.melihemreguler.urlshortener.controller;
+
+import com.github.melihemreguler.urlshortener.model.FlightRecordingStatus;
+import com.github.melihemreguler.urlshortener.service.FlightRecorderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.Access;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Admin endpoint controlling the flight recording: {@code GET /actuator/jfr} for the status,
+ * {@code POST /actuator/jfr/start}, {@code /dump} and {@code /stop}. Dumps are written to the
+ * configured local directory. Inaccessible unless {@code management.endpoint.jfr.access} allows it.
+ */
+@Component
+@Endpoint(id = "jfr", defaultAccess = Access.NONE)
+public class FlightRecorderEndpoint {
+
+    private final FlightRecorderService flightRecorderService;
+
+    @Autowired
+    public FlightRecorderEndpoint(FlightRecorderService flightRecorderService) {
+        this.flightRecorderService = flightRecorderService;
+    }
+
+    @ReadOperation
+    public FlightRecordingStatus status() {
+        return flightRecorderService.status();
+    }
+
+    @WriteOperation
+    public FlightRecordingStatus control(@Selector String action) {
+        if (("dump".equals(action) || "stop".equals(action)) && !flightRecorderService.isRunning()) {
+            throw new InvalidEndpointRequestException("No flight recording is running", "No flight recording is running");
+        }
+        return switch (action) {
+            case "start" -> flightRecorderService.start();
+            case "dump" -> flightRecorderService.dump();
+            case "stop" -> flightRecorderService.stop();
+            default -> throw new InvalidEndpointRequestException("Unknown action: " + action,
+                    "Unknown action, expected start, dump or stop");
+        };
+    }
+}
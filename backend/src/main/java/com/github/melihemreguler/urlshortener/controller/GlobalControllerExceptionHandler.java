@@ -1,5 +1,7 @@
 package com.github.melihemreguler.urlshortener.controller;
 
+import com.github.melihemreguler.urlshortener.exception.DatabaseUnavailableException;
+import com.github.melihemreguler.urlshortener.exception.ServiceOverloadedException;
 import com.github.melihemreguler.urlshortener.exception.UrlNotFoundException;
 import com.github.melihemreguler.urlshortener.model.ErrorResponse;
 import io.swagger.v3.oas.annotations.Hidden;
@@ -93,6 +95,8 @@ public class GlobalControllerExceptionHandler {
 
     /**
      * Handles cases where a requested short URL does not exist.
+     * Logged at debug only: misses are counted in the urlshortener.redirect.not.found metric, and
+     * clients scanning for codes would otherwise flood the log.
      *
      * @param ex The exception containing details about the missing URL.
      * @return A JSON response indicating the missing URL.
@@ -102,7 +106,7 @@ public class GlobalControllerExceptionHandler {
     @ResponseBody
     public Map<String, String> handleContentNotFound(UrlNotFoundException ex) {
         String url = ex.getUrl();
-        log.warn("The requested short URL does not exist in the database. url: {}", url);
+        log.debug("The requested short URL does not exist in the database. url: {}", url);
 
         Map<String, String> response = new HashMap<>();
         response.put("error", "Short code not found");
@@ -110,6 +114,40 @@ public class GlobalControllerExceptionHandler {
         return response;
     }
 
+    /**
+     * Handles requests that need the database while it is unreachable, including redirects
+     * for short codes that are neither cached nor in the link snapshot.
+     */
+    @ExceptionHandler(DatabaseUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ResponseBody
+    public ErrorResponse handleDatabaseUnavailable(DatabaseUnavailableException ex, HttpServletRequest request) {
+        log.warn("Database unavailable for {}: {}", request.getRequestURI(), ex.getMessage());
+        return ErrorResponse.of(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                "The service is temporarily unavailable, please retry later",
+                request.getRequestURI()
+        );
+    }
+
+    /**
+     * Handles admin API requests cut short to keep capacity for redirects, such as a search
+     * running past its time limit.
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ResponseBody
+    public ErrorResponse handleServiceOverloaded(ServiceOverloadedException ex, HttpServletRequest request) {
+        log.warn("Overloaded request to {}: {}", request.getRequestURI(), ex.getMessage());
+        return ErrorResponse.of(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                "The service is busy, please retry later",
+                request.getRequestURI()
+        );
+    }
+
     /**
      * Handles 404 Not Found errors for unmapped endpoints.
      */
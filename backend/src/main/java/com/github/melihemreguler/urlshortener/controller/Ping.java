@@ -1,5 +1,6 @@
 package com.github.melihemreguler.urlshortener.controller;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -7,11 +8,12 @@ import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @RequestMapping("/api")
+@Slf4j
 public class Ping {
 
     @GetMapping("/ping")
     public ResponseEntity<String> ping() {
-        System.out.println("ping");
+        log.debug("ping");
         return ResponseEntity.ok("pong");
     }
 
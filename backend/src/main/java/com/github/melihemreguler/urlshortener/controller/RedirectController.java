@@ -1,12 +1,14 @@
 package com.github.melihemreguler.urlshortener.controller;
 
+import com.github.melihemreguler.urlshortener.jfr.PipelineStageEvent;
 import com.github.melihemreguler.urlshortener.service.UrlService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.servlet.view.RedirectView;
 
 @RestController
 @Slf4j
@@ -22,19 +24,23 @@ public class RedirectController {
 
     /**
      * Redirects the user from a short code to the original long URL.
+     * The status and Location header are written directly: a RedirectView or ResponseEntity
+     * would allocate a view or header map on every redirect, and RedirectView would also
+     * expand any {braces} in the long URL as URI template variables.
      *
      * @param shortCode The short code to be resolved to the long URL.
-     * @return A RedirectView to the original long URL.
+     * @param response  The response the redirect is written to.
      */
     @GetMapping("/{shortCode}")
-    public RedirectView redirectToLongUrl(@PathVariable String shortCode) {
-        log.info("Received request to redirect short code: {}", shortCode);
-
+    public void redirectToLongUrl(@PathVariable String shortCode, HttpServletResponse response) {
         // Fetches the corresponding long URL for the provided short URL
         String longUrl = urlService.getLongUrl(shortCode);
-        log.info("Redirecting to long URL for short code: {}, long URL: {}", shortCode, longUrl);
-        RedirectView redirectView = new RedirectView();
-        redirectView.setUrl(longUrl);
-        return redirectView;
+        PipelineStageEvent event = new PipelineStageEvent();
+        event.begin();
+        // Requests are covered by the sampled access log; this line is for local debugging only
+        log.debug("Redirecting short code: {} to long URL: {}", shortCode, longUrl);
+        response.setStatus(HttpServletResponse.SC_FOUND);
+        response.setHeader(HttpHeaders.LOCATION, longUrl);
+        event.commit(PipelineStageEvent.REDIRECT, PipelineStageEvent.RESPONSE, shortCode);
     }
-}
\ No newline at end of file
+}
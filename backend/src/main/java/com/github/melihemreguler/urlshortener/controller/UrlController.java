@@ -1,13 +1,30 @@
 package com.github.melihemreguler.urlshortener.controller;
 
+import com.github.melihemreguler.urlshortener.exception.ServiceOverloadedException;
+import com.github.melihemreguler.urlshortener.jfr.PipelineStageEvent;
 import com.github.melihemreguler.urlshortener.model.UrlRequest;
 import com.github.melihemreguler.urlshortener.model.UrlResponse;
 import com.github.melihemreguler.urlshortener.model.PageResponse;
+import com.github.melihemreguler.urlshortener.model.PopularityCursor;
+import com.github.melihemreguler.urlshortener.model.ResolveRequest;
+import com.github.melihemreguler.urlshortener.model.ResolveResponse;
+import com.github.melihemreguler.urlshortener.model.UrlChanges;
+import com.github.melihemreguler.urlshortener.model.UrlField;
+import com.github.melihemreguler.urlshortener.model.UrlSort;
+import com.github.melihemreguler.urlshortener.model.UrlSummary;
+import com.github.melihemreguler.urlshortener.service.UrlCollectionVersion;
+import com.github.melihemreguler.urlshortener.service.UrlEventStream;
 import com.github.melihemreguler.urlshortener.service.UrlService;
-import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.service.UrlSummaryService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -16,7 +33,9 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/url")
@@ -24,10 +43,17 @@ import java.util.List;
 public class UrlController {
 
     private final UrlService urlService;
+    private final UrlCollectionVersion urlCollectionVersion;
+    private final UrlEventStream urlEventStream;
+    private final UrlSummaryService urlSummaryService;
 
     @Autowired
-    public UrlController(UrlService urlService) {
+    public UrlController(UrlService urlService, UrlCollectionVersion urlCollectionVersion,
+                         UrlEventStream urlEventStream, UrlSummaryService urlSummaryService) {
         this.urlService = urlService;
+        this.urlCollectionVersion = urlCollectionVersion;
+        this.urlEventStream = urlEventStream;
+        this.urlSummaryService = urlSummaryService;
     }
 
     /**
@@ -39,26 +65,60 @@ public class UrlController {
     @PostMapping
     public UrlResponse createShortUrl(@RequestBody @Valid UrlRequest request) {
         String trimmedLongUrl = request.getTrimmedLongUrl();
-        log.info("Received request to create short URL for: {}", trimmedLongUrl);
-
         // Calls the service layer to create and save the short URL
         String shortUrl = urlService.createAndSaveShortUrl(trimmedLongUrl);
 
-        log.info("Returning response: long URL: {}, shortUrl: {}", trimmedLongUrl, shortUrl);
-        return new UrlResponse(shortUrl);
+        PipelineStageEvent response = new PipelineStageEvent();
+        response.begin();
+        log.debug("Returning response: long URL: {}, shortUrl: {}", trimmedLongUrl, shortUrl);
+        UrlResponse urlResponse = new UrlResponse(shortUrl);
+        response.commit(PipelineStageEvent.CREATE, PipelineStageEvent.RESPONSE, null);
+        return urlResponse;
+    }
+
+    /**
+     * Resolves up to {@value ResolveRequest#MAX_SHORT_CODES} short codes to their long URLs in one request.
+     * Resolving does not count as a click.
+     *
+     * @param request  The request body containing the short codes.
+     * @param metadata Whether to include the creation time and click count of each link.
+     * @return The links found, in request order, and the short codes that do not exist.
+     */
+    @PostMapping("/resolve")
+    public ResolveResponse resolveShortCodes(
+            @RequestBody @Valid ResolveRequest request,
+            @RequestParam(defaultValue = "false") boolean metadata) {
+        return urlService.resolveShortCodes(request.shortCodes(), metadata);
     }
 
     /**
      * Lists short URLs with pagination support.
-     * @param page The page number (0-based)
+     * @param page The page number (0-based); not used when sorted by popularity
      * @param size The number of items per page
-     * @return Paginated response containing UrlDto list
+     * @param fields The fields to return, e.g. id,longUrl,shortCode; all of them if absent
+     * @param sort createdAt for the newest first, by page number; popularity for the most clicked first, by cursor
+     * @param cursor The nextCursor of the previous page when sorted by popularity; absent for the first page
+     * @param request The request, checked for an If-None-Match header
+     * @return Paginated response containing UrlDto list, or the links reduced to the given fields
      */
     @GetMapping
-    public PageResponse<UrlDto> getAllShortUrls(
+    public ResponseEntity<?> getAllShortUrls(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        return urlService.getAllShortUrls(page, size);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Set<UrlField> fields,
+            @RequestParam(defaultValue = "createdAt") UrlSort sort,
+            @RequestParam(required = false) PopularityCursor cursor,
+            WebRequest request) {
+        if (sort == UrlSort.POPULARITY) {
+            // Reordered by clicks, so neither stored nor given an ETag
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(fields == null || fields.isEmpty()
+                    ? urlService.getPopularUrls(cursor, size)
+                    : urlService.getPopularUrlViews(cursor, size, fields));
+        }
+        if (fields == null || fields.isEmpty()) {
+            return uncached(urlService.getAllShortUrls(page, size));
+        }
+        return revalidated(fields, request, () -> urlService.getShortUrlViews(page, size, fields));
     }
 
     /**
@@ -66,14 +126,59 @@ public class UrlController {
      * @param q The search query term
      * @param page The page number (0-based)
      * @param size The number of items per page
-     * @return Paginated response containing matching UrlDto list
+     * @param fields The fields to return, e.g. id,longUrl,shortCode; all of them if absent
+     * @param request The request, checked for an If-None-Match header
+     * @return Paginated response containing matching UrlDto list, or the links reduced to the given fields
      */
     @GetMapping("/search")
-    public PageResponse<UrlDto> searchUrls(
+    public ResponseEntity<PageResponse<?>> searchUrls(
             @RequestParam(required = false) String q,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        return urlService.searchUrls(q, page, size);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Set<UrlField> fields,
+            WebRequest request) {
+        if (fields == null || fields.isEmpty()) {
+            return uncached(urlService.searchUrls(q, page, size));
+        }
+        return revalidated(fields, request, () -> urlService.searchUrlViews(q, page, size, fields));
+    }
+
+    /**
+     * Returns the links created, deleted and clicked since a version of the change log, for clients
+     * keeping a copy of the links instead of reloading pages.
+     * @param since The version returned by the previous call; 0 before the copy is loaded
+     * @return The changes and the version to ask from next, or a reset if the copy has to be reloaded
+     */
+    @GetMapping("/changes")
+    public UrlChanges getChanges(@RequestParam long since) {
+        return urlService.getChanges(since);
+    }
+
+    /**
+     * Returns totals, links created per day, total clicks and the 404 rate for the dashboard, as of the
+     * last background refresh; the request itself never runs an aggregation.
+     * @return The summary, or a 503 if none has been computed within summary.max-age
+     */
+    @GetMapping("/summary")
+    public UrlSummary getSummary() {
+        return urlSummaryService.getSummary();
+    }
+
+    /**
+     * Streams activity on the links as server-sent events: one "activity" event per window with links
+     * created and deleted and clicks per short code, for dashboards watching the service live.
+     * @return The stream, kept open until the client disconnects or falls too far behind, or a 503
+     * without body if too many clients are connected
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamActivity() {
+        try {
+            return ResponseEntity.ok(urlEventStream.subscribe());
+        } catch (ServiceOverloadedException e) {
+            // An event stream client only accepts text/event-stream, which the JSON error body does not fit
+            log.warn("Rejected event stream client: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
     }
 
     /**
@@ -84,4 +189,31 @@ public class UrlController {
     public void deleteShortUrl(@PathVariable String id) {
         urlService.deleteShortUrl(id);
     }
+
+    /**
+     * Pages with click fields change on every click, so they are neither stored nor given an ETag.
+     */
+    private static ResponseEntity<PageResponse<?>> uncached(PageResponse<?> page) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(page);
+    }
+
+    /**
+     * Answers with 304 and no query if the client's page is of the current collection version, and
+     * otherwise with the page and that version as ETag, to be revalidated on every use.
+     */
+    private ResponseEntity<PageResponse<?>> revalidated(Set<UrlField> fields, WebRequest request,
+                                                        Supplier<PageResponse<?>> page) {
+        // Taken before the query, so a link created meanwhile at worst makes the next request a 200
+        String etag = UrlField.includesClicks(fields) ? null : urlCollectionVersion.etag();
+        if (etag == null) {
+            return uncached(page.get());
+        }
+        if (request.checkNotModified(etag)) {
+            urlCollectionVersion.recordNotModified();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).build();
+        }
+        // JSON, CBOR and Smile pages share the ETag
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT).body(page.get());
+    }
 }
@@ -0,0 +1,46 @@
+package com.github.melihemreguler.urlshortener.dto;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A block of cold links stored as a single compressed document.
+ * Only the short codes and ids are kept uncompressed, so that a redirect miss or a delete can locate
+ * its block. A link promoted back to the hot collection or deleted is taken out of both lists and
+ * the payload, which is written anew with the links left.
+ */
+@Document(collection = "url_archive")
+@Data
+public class ArchivedUrlBlock {
+
+    @Id
+    private String id;
+
+    @Indexed
+    private List<String> shortCodes;
+
+    // Absent on blocks written before deletes were supported, until filled in from the payload
+    @Indexed
+    private List<String> ids;
+
+    private byte[] payload;
+    private int count;
+    private LocalDateTime archivedAt;
+
+    public ArchivedUrlBlock() {
+        // Default constructor for MongoDB
+    }
+
+    public ArchivedUrlBlock(List<String> shortCodes, List<String> ids, byte[] payload) {
+        this.shortCodes = shortCodes;
+        this.ids = ids;
+        this.payload = payload;
+        this.count = shortCodes.size();
+        this.archivedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.melihemreguler.urlshortener.dto;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Number of changes made to a collection through all instances, e.g. links created or deleted, or a
+ * sequence shared by them, e.g. of the change log.
+ */
+@Document(collection = "collection_versions")
+@Data
+public class CollectionVersion {
+
+    // Name of the collection counted, e.g. "urls", or of the sequence
+    @Id
+    private String id;
+
+    private long version;
+}
@@ -0,0 +1,26 @@
+package com.github.melihemreguler.urlshortener.dto;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Requests one client made to one endpoint through all instances within one fixed window.
+ * Only written when rate limits are shared; MongoDB removes windows once they are over.
+ */
+@Document(collection = "rate_limits")
+@Data
+public class RateLimitWindow {
+
+    // Endpoint, client and window start, e.g. "REDIRECT:203.0.113.7:1760832000000"
+    @Id
+    private String id;
+
+    private long count;
+
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;
+}
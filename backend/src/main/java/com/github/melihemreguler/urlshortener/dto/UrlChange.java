@@ -0,0 +1,40 @@
+package com.github.melihemreguler.urlshortener.dto;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One entry of the change log: links created, deleted or clicked, under a sequence number shared by
+ * all instances. Only the identity of the links is kept; their current state is read when the change
+ * is served. MongoDB removes entries once their retention is over.
+ */
+@Document(collection = "url_changes")
+@Data
+public class UrlChange {
+
+    public enum Type {
+        // Created, or restored from the archive
+        CREATED,
+        // Deleted, or moved to the archive
+        DELETED,
+        // Clicked since the previous counter flush
+        CLICKED
+    }
+
+    @Id
+    private Long sequence;
+
+    private Type type;
+    private List<String> shortCodes;
+    // Ids of the links in the order of shortCodes; only kept for deletions, as the links cannot be read anymore
+    private List<String> ids;
+    private Instant writtenAt;
+
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;
+}
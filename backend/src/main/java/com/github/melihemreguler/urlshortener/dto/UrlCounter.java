@@ -0,0 +1,27 @@
+package com.github.melihemreguler.urlshortener.dto;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Click counter of a short link, kept apart from the write-once link document.
+ */
+@Document(collection = "url_counters")
+@Data
+public class UrlCounter {
+
+    @Id
+    private String id;
+
+    @Indexed(unique = true)
+    private String shortCode;
+    private long count;
+    private LocalDateTime lastAccessedAt;
+    // Ids of the last flushes applied, so a retried one is not counted twice
+    private List<Long> flushIds;
+}
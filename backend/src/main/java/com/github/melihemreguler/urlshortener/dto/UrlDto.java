@@ -1,13 +1,27 @@
 package com.github.melihemreguler.urlshortener.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
+/**
+ * A short link. The document is written once on creation; clicks are counted in the
+ * counters collection, and accessCount / lastAccessedAt only hold values recorded before
+ * the split until they are combined with the counters for a response.
+ * With the URL prefix dictionary enabled, longUrl is stored as a prefix id and suffix and
+ * joined back when the document is read.
+ */
 @Document(collection = "urls")
+// Looking a long URL up in its prefixed form; the fields are written by LongUrlCompressionCallback, not mapped
+@CompoundIndex(name = "urlPrefix_urlSuffix", def = "{'urlPrefix': 1, 'urlSuffix': 1}", sparse = true)
+// Looking up links without a code: legacy codes not converted yet, or too long to convert. Links with a
+// code are left out, so the index only grows with those.
+@CompoundIndex(name = "shortCode_withoutCode", def = "{'shortCode': 1}", partialFilter = "{'code': {'$exists': false}}")
 @Data
 public class UrlDto {
 
@@ -17,9 +31,18 @@ public class UrlDto {
 
     private String longUrl;
     private String shortCode;
+
+    // Numeric form of shortCode used for lookups; absent on links created before it was introduced
+    @JsonIgnore
+    @Indexed(unique = true, sparse = true)
+    private Long code;
+
+    // Indexed for the default list order and the links created per day of the summary
+    @Indexed
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
-    private int accessCount;
+    private LocalDateTime lastAccessedAt;
+    private long accessCount;
 
     public UrlDto() {
         // Default constructor for MongoDB
@@ -32,8 +55,4 @@ public class UrlDto {
         this.accessCount = 0;
     }
 
-    public void incrementAccessCount() {
-        this.accessCount++;
-    }
-
 }
@@ -0,0 +1,28 @@
+package com.github.melihemreguler.urlshortener.dto;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entry of the popularity leaderboard: the click total of a clicked link, kept up to date from the
+ * counter flushes so links can be listed by popularity straight off the index. The total is the
+ * highest total read from the link's counter plus the clicks stored on the link itself before the
+ * counters were split off, which never change and are only read when the link is entered.
+ */
+@Document(collection = "url_popularity")
+@CompoundIndex(name = "count_shortCode", def = "{'count': -1, '_id': 1}")
+@Data
+public class UrlPopularity {
+
+    @Id
+    private String shortCode;
+
+    private long count;
+    private long counted;
+    private long stored;
+    private LocalDateTime lastAccessedAt;
+}
@@ -0,0 +1,71 @@
+package com.github.melihemreguler.urlshortener.dto;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A host or host-and-path prefix shared by many long URLs.
+ * Links reference it by its small numeric id and only store the rest of their URL.
+ * Entries are never changed or removed, so every instance can cache them indefinitely.
+ */
+@Document(collection = "url_prefixes")
+@Data
+public class UrlPrefix {
+
+    // Longer path prefixes are rarely shared, so they would only fill the dictionary
+    public static final int MAX_LENGTH = 100;
+
+    @Id
+    private int id;
+
+    @Indexed(unique = true)
+    private String prefix;
+
+    private LocalDateTime createdAt;
+
+    public UrlPrefix() {
+        // Default constructor for MongoDB
+    }
+
+    public UrlPrefix(int id, String prefix) {
+        this.id = id;
+        this.prefix = prefix;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * Returns the prefixes a long URL could be stored under, longest first: scheme and host
+     * up to the first slash, and that plus the first path segment up to the next '/', '?' or '#'.
+     *
+     * @param longUrl The long URL to split.
+     * @return The candidate prefixes, empty if the URL has no path.
+     */
+    public static List<String> candidatesOf(String longUrl) {
+        List<String> candidates = new ArrayList<>(2);
+        int schemeEnd = longUrl.indexOf("://");
+        if (schemeEnd < 0) {
+            return candidates;
+        }
+        int hostEnd = longUrl.indexOf('/', schemeEnd + 3);
+        if (hostEnd < 0 || hostEnd + 1 > MAX_LENGTH) {
+            return candidates;
+        }
+        for (int i = hostEnd + 1; i < longUrl.length() && i < MAX_LENGTH; i++) {
+            char c = longUrl.charAt(i);
+            if (c == '/' || c == '?' || c == '#') {
+                if (i > hostEnd + 1) {
+                    candidates.add(longUrl.substring(0, i + 1));
+                }
+                break;
+            }
+        }
+        candidates.add(longUrl.substring(0, hostEnd + 1));
+        return candidates;
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.melihemreguler.urlshortener.exception;
+
+/**
+ * The database could not be reached, or the circuit breaker is open and did not try.
+ */
+public class DatabaseUnavailableException extends BaseUrlshortenerException {
+
+    public DatabaseUnavailableException(String message) {
+        super(message);
+    }
+
+    public DatabaseUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.github.melihemreguler.urlshortener.exception;
+
+/**
+ * An admin API request was turned away, or cut short, to keep capacity for redirects.
+ */
+public class ServiceOverloadedException extends BaseUrlshortenerException {
+
+    public ServiceOverloadedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -28,4 +28,13 @@ public class UrlNotFoundException extends BaseUrlshortenerException {
         this.url = url;
     }
 
+    /**
+     * Skips the stack trace: an unknown short code is an expected outcome, and clients walking the
+     * code space would otherwise cost a stack walk on every miss.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
 }
@@ -0,0 +1,38 @@
+package com.github.melihemreguler.urlshortener.jfr;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Wraps every request in an {@link HttpExchangeEvent}; outermost so it covers all other filters.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FlightRecorderFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        HttpExchangeEvent event = new HttpExchangeEvent();
+        event.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (event.shouldCommit()) {
+                event.method = request.getMethod();
+                event.uri = request.getRequestURI();
+                event.status = response.getStatus();
+                event.commit();
+            }
+        }
+    }
+}
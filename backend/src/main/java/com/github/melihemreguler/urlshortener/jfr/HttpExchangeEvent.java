@@ -0,0 +1,29 @@
+package com.github.melihemreguler.urlshortener.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A whole HTTP exchange, from the servlet filter chain to the written response.
+ * Its duration minus the pipeline stages on the same thread is what Spring dispatch,
+ * serialization and logging took.
+ */
+@Name("urlshortener.HttpExchange")
+@Label("HTTP Exchange")
+@Category({"URL Shortener", "HTTP"})
+@Description("Time spent handling one HTTP request")
+@StackTrace(false)
+public class HttpExchangeEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("URI")
+    String uri;
+
+    @Label("Status")
+    int status;
+}
@@ -0,0 +1,57 @@
+package com.github.melihemreguler.urlshortener.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One stage of the redirect or create pipeline, recorded while a flight recording is running.
+ * Usage: create, {@link #begin()}, run the stage, then {@link #commit(String, String, String)}.
+ * When no recording is running, {@link #shouldCommit()} is false and the JIT removes the allocation.
+ */
+@Name("urlshortener.PipelineStage")
+@Label("Pipeline Stage")
+@Category({"URL Shortener", "Pipeline"})
+@Description("Time spent in one stage of resolving or creating a short URL")
+@StackTrace(false)
+public class PipelineStageEvent extends jdk.jfr.Event {
+
+    public static final String REDIRECT = "redirect";
+    public static final String CREATE = "create";
+
+    // Finding the long URL: cache, numeric index, legacy index and archive for redirects; the dedup lookup for creates
+    public static final String LOOKUP = "lookup";
+    // Counting the click in memory
+    public static final String INCREMENT = "increment";
+    // Writing a new link
+    public static final String PERSISTENCE = "persistence";
+    // Building the response in the controller
+    public static final String RESPONSE = "response";
+
+    @Label("Pipeline")
+    private String pipeline;
+
+    @Label("Stage")
+    private String stage;
+
+    @Label("Short Code")
+    private String shortCode;
+
+    /**
+     * Ends the stage and writes the event if the recording wants it.
+     *
+     * @param pipeline  {@link #REDIRECT} or {@link #CREATE}.
+     * @param stage     One of the stage constants.
+     * @param shortCode The short code involved, or null if not known yet.
+     */
+    public void commit(String pipeline, String stage, String shortCode) {
+        if (shouldCommit()) {
+            this.pipeline = pipeline;
+            this.stage = stage;
+            this.shortCode = shortCode;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.github.melihemreguler.urlshortener.model;
+
+/**
+ * One sampled request waiting to be written to the access log.
+ * The sample rate is kept so that counts read from the log can be scaled back up.
+ */
+public record AccessLogEntry(long timestampMillis, String method, String path, String handler,
+                             int status, long durationMicros, double sampleRate) {}
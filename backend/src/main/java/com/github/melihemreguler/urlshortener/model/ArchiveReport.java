@@ -0,0 +1,18 @@
+package com.github.melihemreguler.urlshortener.model;
+
+/**
+ * Outcome of an archival run, with the working set (data + index bytes) of the hot
+ * and archive collections measured before and after the run.
+ */
+public record ArchiveReport(
+        int archivedLinks,
+        int blocks,
+        long hotWorkingSetBefore,
+        long hotWorkingSetAfter,
+        long archiveWorkingSetBefore,
+        long archiveWorkingSetAfter
+) {
+    public static ArchiveReport empty(long hotWorkingSet, long archiveWorkingSet) {
+        return new ArchiveReport(0, 0, hotWorkingSet, hotWorkingSet, archiveWorkingSet, archiveWorkingSet);
+    }
+}
@@ -0,0 +1,8 @@
+package com.github.melihemreguler.urlshortener.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clicks accumulated in memory for one link, waiting to be flushed.
+ */
+public record CounterDelta(String shortCode, long count, LocalDateTime lastAccessedAt) {}
@@ -0,0 +1,18 @@
+package com.github.melihemreguler.urlshortener.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Click count of a link and when it was last clicked.
+ */
+public record CounterTotal(long count, LocalDateTime lastAccessedAt) {
+
+    public static final CounterTotal ZERO = new CounterTotal(0, null);
+
+    public CounterTotal plus(long otherCount, LocalDateTime otherLastAccessedAt) {
+        LocalDateTime latest = lastAccessedAt == null
+                || (otherLastAccessedAt != null && otherLastAccessedAt.isAfter(lastAccessedAt))
+                ? otherLastAccessedAt : lastAccessedAt;
+        return new CounterTotal(count + otherCount, latest);
+    }
+}
@@ -0,0 +1,7 @@
+package com.github.melihemreguler.urlshortener.model;
+
+/**
+ * Clicks of one link written by one flush. The flush id is recorded on the counter with the clicks,
+ * so a write retried after it may already have been applied counts them only once.
+ */
+public record CounterWrite(long flushId, CounterDelta delta) {}
@@ -0,0 +1,16 @@
+package com.github.melihemreguler.urlshortener.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * A page of a listing paged by cursor rather than by page number.
+ *
+ * @param content    The links of the page.
+ * @param size       The number of links asked for; a page may hold fewer, also before the last one.
+ * @param nextCursor The cursor of the next page; absent on the last page.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CursorPage<T>(List<T> content, int size, String nextCursor) {
+}
@@ -0,0 +1,8 @@
+package com.github.melihemreguler.urlshortener.model;
+
+import java.time.Instant;
+
+/**
+ * State of the runtime flight recording and, after a dump or stop, the file it was written to.
+ */
+public record FlightRecordingStatus(String state, Instant startedAt, String file) {}
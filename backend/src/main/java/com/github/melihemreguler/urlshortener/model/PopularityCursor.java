@@ -0,0 +1,46 @@
+package com.github.melihemreguler.urlshortener.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the popularity leaderboard after which the next page starts: the click total and short
+ * code of the last link of the previous page. Links with the same total are ordered by short code, so a
+ * position is never ambiguous, and a link clicked meanwhile at worst moves across the position.
+ *
+ * @param count     The click total of the last link listed.
+ * @param shortCode The short code of the last link listed.
+ */
+public record PopularityCursor(long count, String shortCode) {
+
+    /**
+     * @param cursor A cursor as returned in {@code nextCursor}.
+     * @return The position it encodes.
+     * @throws IllegalArgumentException if the cursor was not returned by the API.
+     */
+    public static PopularityCursor parse(String cursor) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor '" + cursor + "'", e);
+        }
+        int separator = decoded.indexOf(':');
+        if (separator <= 0 || separator == decoded.length() - 1) {
+            throw new IllegalArgumentException("Invalid cursor '" + cursor + "'");
+        }
+        try {
+            return new PopularityCursor(Long.parseLong(decoded, 0, separator, 10), decoded.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor '" + cursor + "'", e);
+        }
+    }
+
+    /**
+     * @return The opaque form handed to clients.
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((count + ":" + shortCode).getBytes(StandardCharsets.UTF_8));
+    }
+}
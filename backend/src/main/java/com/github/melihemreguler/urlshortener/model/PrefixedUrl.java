@@ -0,0 +1,6 @@
+package com.github.melihemreguler.urlshortener.model;
+
+/**
+ * A long URL split into the id of a shared dictionary prefix and the remaining suffix.
+ */
+public record PrefixedUrl(int prefixId, String suffix) {}
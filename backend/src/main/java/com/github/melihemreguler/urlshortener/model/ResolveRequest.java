@@ -0,0 +1,19 @@
+package com.github.melihemreguler.urlshortener.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Short codes to resolve in one request.
+ */
+public record ResolveRequest(
+        @NotNull(message = "Short codes must not be null")
+        @Size(min = 1, max = ResolveRequest.MAX_SHORT_CODES, message = "Between 1 and 1000 short codes can be resolved at once")
+        List<@NotBlank(message = "Short code cannot be empty") String> shortCodes
+) {
+    // Keeps one request to a single query of bounded size
+    public static final int MAX_SHORT_CODES = 1000;
+}
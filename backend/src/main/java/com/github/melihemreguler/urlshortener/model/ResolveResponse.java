@@ -0,0 +1,9 @@
+package com.github.melihemreguler.urlshortener.model;
+
+import java.util.List;
+
+/**
+ * Outcome of resolving short codes in bulk: the links found, in the order they were asked for,
+ * and the codes no link has.
+ */
+public record ResolveResponse(List<ResolvedUrl> urls, List<String> notFound) {}
@@ -0,0 +1,21 @@
+package com.github.melihemreguler.urlshortener.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * A resolved short code. The creation time and click count are only filled in when metadata is asked for.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ResolvedUrl(
+        String shortCode,
+        String longUrl,
+        LocalDateTime createdAt,
+        Long accessCount,
+        LocalDateTime lastAccessedAt
+) {
+    public static ResolvedUrl of(String shortCode, String longUrl) {
+        return new ResolvedUrl(shortCode, longUrl, null, null, null);
+    }
+}
@@ -0,0 +1,14 @@
+package com.github.melihemreguler.urlshortener.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Activity on the links within one window of the event stream.
+ *
+ * @param created Links created in the window, in full.
+ * @param deleted Links deleted in the window, by id and short code.
+ * @param clicks  Clicks in the window by short code; links not clicked are left out.
+ */
+public record UrlActivity(List<UrlView> created, List<UrlView> deleted, Map<String, Long> clicks) {
+}
@@ -0,0 +1,22 @@
+package com.github.melihemreguler.urlshortener.model;
+
+import java.util.List;
+
+/**
+ * Changes to the links since a version of the change log, to apply to a copy loaded before.
+ *
+ * @param version The version the copy is at once the changes are applied; the next call asks for changes since it.
+ * @param reset   Whether the copy is too far behind for changes; it is to be loaded in full again, after which
+ *                changes are asked for since this response's version.
+ * @param more    Whether further changes are waiting, to be asked for right away.
+ * @param created Links created since, in full, unless deleted again.
+ * @param deleted Links deleted since, by id and short code.
+ * @param clicked Links clicked since, with their id, short code and current click totals.
+ */
+public record UrlChanges(long version, boolean reset, boolean more,
+                         List<UrlView> created, List<UrlView> deleted, List<UrlView> clicked) {
+
+    public static UrlChanges reset(long version) {
+        return new UrlChanges(version, true, false, List.of(), List.of(), List.of());
+    }
+}
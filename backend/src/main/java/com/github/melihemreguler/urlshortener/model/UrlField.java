@@ -0,0 +1,50 @@
+package com.github.melihemreguler.urlshortener.model;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Fields of a link that the list and search endpoints can be asked to return, by their JSON name.
+ */
+@Getter
+public enum UrlField {
+    ID("id"),
+    LONG_URL("longUrl"),
+    SHORT_CODE("shortCode"),
+    CREATED_AT("createdAt"),
+    LAST_ACCESSED_AT("lastAccessedAt"),
+    ACCESS_COUNT("accessCount");
+
+    // Name of the field in JSON responses and on UrlDto
+    private final String property;
+
+    UrlField(String property) {
+        this.property = property;
+    }
+
+    /**
+     * @param property The JSON name of a field, as given in the {@code fields} parameter.
+     * @return The field with that name.
+     * @throws IllegalArgumentException if no field has that name.
+     */
+    public static UrlField fromProperty(String property) {
+        for (UrlField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field '" + property + "', expected one of "
+                + Arrays.stream(values()).map(UrlField::getProperty).collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * @param fields The fields asked for.
+     * @return Whether any of them changes when a link is clicked.
+     */
+    public static boolean includesClicks(Set<UrlField> fields) {
+        return fields.contains(ACCESS_COUNT) || fields.contains(LAST_ACCESSED_AT);
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.melihemreguler.urlshortener.model;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Orders the list endpoint can return links in, by their name in the {@code sort} parameter.
+ */
+@Getter
+public enum UrlSort {
+    // Newest first, by page number
+    CREATED_AT("createdAt"),
+    // Most clicked first, by cursor, from the popularity leaderboard
+    POPULARITY("popularity");
+
+    private final String property;
+
+    UrlSort(String property) {
+        this.property = property;
+    }
+
+    /**
+     * @param property The name of an order, as given in the {@code sort} parameter.
+     * @return The order with that name.
+     * @throws IllegalArgumentException if no order has that name.
+     */
+    public static UrlSort fromProperty(String property) {
+        for (UrlSort sort : values()) {
+            if (sort.property.equals(property)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unknown sort '" + property + "', expected one of "
+                + Arrays.stream(values()).map(UrlSort::getProperty).collect(Collectors.joining(", ")));
+    }
+}
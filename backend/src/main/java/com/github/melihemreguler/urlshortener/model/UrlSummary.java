@@ -0,0 +1,25 @@
+package com.github.melihemreguler.urlshortener.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Figures on the links for the dashboard, as of the last background refresh.
+ *
+ * @param totalLinks     Links stored, archived ones included.
+ * @param archivedLinks  Links among them moved to the archive.
+ * @param totalClicks    Clicks counted on all links, up to the last counter flush.
+ * @param createdPerDay  Links created on each of the last days, oldest first and days without any included.
+ * @param notFoundRate   Share of redirects on this instance answered with 404 since the refresh before.
+ * @param computedAt     When the figures were computed.
+ */
+public record UrlSummary(long totalLinks, long archivedLinks, long totalClicks, List<DailyCount> createdPerDay,
+                         double notFoundRate, LocalDateTime computedAt) {
+
+    /**
+     * @param date  The day, in the server's time zone.
+     * @param count The links created on it.
+     */
+    public record DailyCount(LocalDate date, long count) {}
+}
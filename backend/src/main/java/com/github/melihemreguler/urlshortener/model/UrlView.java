@@ -0,0 +1,31 @@
+package com.github.melihemreguler.urlshortener.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * A link reduced to the fields a client asked for; the others are null and left out of the JSON.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UrlView(
+        String id,
+        String longUrl,
+        String shortCode,
+        LocalDateTime createdAt,
+        LocalDateTime lastAccessedAt,
+        Long accessCount
+) {
+    public static UrlView of(UrlDto url, Set<UrlField> fields) {
+        return new UrlView(
+                fields.contains(UrlField.ID) ? url.getId() : null,
+                fields.contains(UrlField.LONG_URL) ? url.getLongUrl() : null,
+                fields.contains(UrlField.SHORT_CODE) ? url.getShortCode() : null,
+                fields.contains(UrlField.CREATED_AT) ? url.getCreatedAt() : null,
+                fields.contains(UrlField.LAST_ACCESSED_AT) ? url.getLastAccessedAt() : null,
+                fields.contains(UrlField.ACCESS_COUNT) ? Long.valueOf(url.getAccessCount()) : null
+        );
+    }
+}
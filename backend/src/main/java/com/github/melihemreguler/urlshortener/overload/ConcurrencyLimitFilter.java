@@ -0,0 +1,112 @@
+package com.github.melihemreguler.urlshortener.overload;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.melihemreguler.urlshortener.bulkhead.AdminBulkheadFilter;
+import com.github.melihemreguler.urlshortener.config.ConcurrencyLimitProperties;
+import com.github.melihemreguler.urlshortener.model.ErrorResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rejects requests with 503 once more are in flight than the {@link GradientConcurrencyLimit}
+ * allows, so that during a burst the requests let in keep their response times instead of all of
+ * them slowing down together. The limit is learned from redirects only: admin API response times
+ * depend on the query more than on load, and the admin API has its own bulkhead, which runs first.
+ * Actuator endpoints are not limited, so probes and metrics keep answering under overload.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 4)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final String ACTUATOR_PATH = "/actuator";
+
+    private final ConcurrencyLimitProperties concurrencyLimitProperties;
+    private final ObjectMapper objectMapper;
+    private final GradientConcurrencyLimit limit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Autowired
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties concurrencyLimitProperties, ObjectMapper objectMapper) {
+        this.concurrencyLimitProperties = concurrencyLimitProperties;
+        this.objectMapper = objectMapper;
+        this.limit = new GradientConcurrencyLimit(concurrencyLimitProperties);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !concurrencyLimitProperties.isEnabled() || request.getRequestURI().startsWith(ACTUATOR_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        int current = inflight.incrementAndGet();
+        if (current > limit.getLimit()) {
+            inflight.decrementAndGet();
+            rejected.incrementAndGet();
+            reject(request, response);
+            return;
+        }
+        long startNanos = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            inflight.decrementAndGet();
+            if (!AdminBulkheadFilter.isAdminRequest(request)) {
+                limit.onSample(System.nanoTime() - startNanos, current);
+            }
+        }
+    }
+
+    /**
+     * Publishes the current limit, the requests in flight and how many were rejected.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("urlshortener.concurrency.limit", limit, GradientConcurrencyLimit::getLimit)
+                .description("Requests allowed in flight, estimated from response times")
+                .register(registry);
+        Gauge.builder("urlshortener.concurrency.inflight", inflight, AtomicInteger::get)
+                .description("Requests being handled")
+                .register(registry);
+        FunctionCounter.builder("urlshortener.concurrency.rejected", rejected, AtomicLong::get)
+                .description("Requests rejected with 503 because the concurrency limit was reached")
+                .register(registry);
+    }
+
+    int getLimit() {
+        return limit.getLimit();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.of(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                "The service is overloaded, please retry later",
+                request.getRequestURI()
+        ));
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.melihemreguler.urlshortener.overload;
+
+import com.github.melihemreguler.urlshortener.config.ConcurrencyLimitProperties;
+
+/**
+ * Estimates how many requests may be in flight from how response times develop, after the
+ * gradient algorithm of Netflix's concurrency-limits library. Recent response times are compared
+ * with a long-term average: while they stay within the tolerance the limit grows by roughly its
+ * square root, which leaves room for a small queue, and once requests start queueing up inside the
+ * service and slow down, it shrinks in proportion. The long-term average drifts towards recent
+ * response times, so the limit settles where the service is fully used without queueing.
+ */
+public class GradientConcurrencyLimit {
+
+    private final ConcurrencyLimitProperties concurrencyLimitProperties;
+    private volatile int limit;
+    private double estimatedLimit;
+    private double longRttNanos;
+    private double shortRttNanos;
+    private long samples;
+
+    public GradientConcurrencyLimit(ConcurrencyLimitProperties concurrencyLimitProperties) {
+        this.concurrencyLimitProperties = concurrencyLimitProperties;
+        this.estimatedLimit = concurrencyLimitProperties.getInitialLimit();
+        this.limit = concurrencyLimitProperties.getInitialLimit();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Updates the limit with the response time of a completed request.
+     *
+     * @param rttNanos The time the request took.
+     * @param inflight The requests in flight when it started, itself included.
+     */
+    public synchronized void onSample(long rttNanos, int inflight) {
+        samples++;
+        longRttNanos = average(longRttNanos, rttNanos, concurrencyLimitProperties.getLongWindow());
+        shortRttNanos = average(shortRttNanos, rttNanos, concurrencyLimitProperties.getShortWindow());
+        // After an overload the long-term average is far above what the service does now; let it recover faster
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos *= 0.95;
+        }
+        // A service far from its limit says nothing about how much more it could take
+        if (inflight < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0,
+                concurrencyLimitProperties.getRttTolerance() * longRttNanos / shortRttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        double smoothing = concurrencyLimitProperties.getSmoothing();
+        estimatedLimit = Math.max(concurrencyLimitProperties.getMinLimit(), Math.min(concurrencyLimitProperties.getMaxLimit(),
+                estimatedLimit * (1 - smoothing) + newLimit * smoothing));
+        limit = (int) estimatedLimit;
+    }
+
+    // Exponential moving average that starts out as a plain average until the window is filled
+    private double average(double current, long sample, int window) {
+        return current + (sample - current) / Math.min(samples, window);
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.melihemreguler.urlshortener.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.melihemreguler.urlshortener.config.RateLimitProperties;
+import com.github.melihemreguler.urlshortener.config.ScanDetectionProperties;
+import com.github.melihemreguler.urlshortener.model.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers 429 to clients over the rate limit of the endpoint they call, before the request takes up
+ * a place in the admin bulkhead or the concurrency limit. Clients are told apart by the API key in the
+ * configured header if it is one of the accepted keys, by IP address otherwise. Behind a proxy, the
+ * address is the client's as forwarded by trusted proxies ({@code server.forward-headers-strategy}).
+ * <p>
+ * Redirects are also answered with 429 while the client address is blocked for scanning, and their
+ * outcome is passed to the {@link ScanDetector} once the application has answered them.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties rateLimitProperties;
+    private final ScanDetector scanDetector;
+    private final ScanDetectionProperties scanDetectionProperties;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties rateLimitProperties, ScanDetector scanDetector,
+                           ScanDetectionProperties scanDetectionProperties, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.rateLimitProperties = rateLimitProperties;
+        this.scanDetector = scanDetector;
+        this.scanDetectionProperties = scanDetectionProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !rateLimitProperties.isEnabled() && !scanDetectionProperties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RateLimitedEndpoint endpoint = RateLimitedEndpoint.of(request);
+        if (endpoint == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        // Scans are told apart by address only, so a key shared by many clients cannot get them all blocked
+        String address = request.getRemoteAddr();
+        boolean detectScans = endpoint == RateLimitedEndpoint.REDIRECT && scanDetectionProperties.isEnabled();
+        long waitNanos = detectScans ? scanDetector.blockedNanos(address) : 0;
+        if (waitNanos == 0 && rateLimitProperties.isEnabled()) {
+            waitNanos = rateLimiter.tryAcquire(endpoint, clientOf(request));
+        }
+        if (waitNanos > 0) {
+            reject(request, response, waitNanos);
+            return;
+        }
+        filterChain.doFilter(request, response);
+        if (detectScans) {
+            scanDetector.record(address, response.getStatus() == HttpServletResponse.SC_NOT_FOUND);
+        }
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String header = rateLimitProperties.getClientHeader();
+        String key = header.isEmpty() ? null : request.getHeader(header);
+        return key != null && rateLimitProperties.getClientKeys().contains(key) ? key : request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        // Rounded up to whole seconds, so a client retrying on time is let through
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.of(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too Many Requests",
+                "Too many requests, please retry later",
+                request.getRequestURI()
+        ));
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.melihemreguler.urlshortener.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Endpoints with a rate limit of their own.
+ */
+public enum RateLimitedEndpoint {
+    CREATE,
+    SEARCH,
+    RESOLVE,
+    REDIRECT;
+
+    /**
+     * @param request The incoming request.
+     * @return The endpoint the request goes to, or null if it is not rate limited.
+     */
+    public static RateLimitedEndpoint of(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+        if ("POST".equals(method) && "/api/url".equals(path)) {
+            return CREATE;
+        }
+        if ("POST".equals(method) && "/api/url/resolve".equals(path)) {
+            return RESOLVE;
+        }
+        if (!"GET".equals(method)) {
+            return null;
+        }
+        if ("/api/url/search".equals(path)) {
+            return SEARCH;
+        }
+        // Short codes are the only single-segment paths apart from static files
+        if (path.length() > 1 && path.indexOf('/', 1) < 0 && path.indexOf('.') < 0) {
+            return REDIRECT;
+        }
+        return null;
+    }
+}
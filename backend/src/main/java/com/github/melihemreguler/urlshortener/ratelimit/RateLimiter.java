@@ -0,0 +1,142 @@
+package com.github.melihemreguler.urlshortener.ratelimit;
+
+import com.github.melihemreguler.urlshortener.config.RateLimitProperties;
+import com.github.melihemreguler.urlshortener.exception.DatabaseUnavailableException;
+import com.github.melihemreguler.urlshortener.repository.DatabaseCircuitBreaker;
+import com.github.melihemreguler.urlshortener.repository.RateLimitRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client rate limits of the create, search, resolve and redirect endpoints, each with its own policy.
+ * <p>
+ * Limits are enforced in-process. With {@code rate-limit.shared} every instance also adds the
+ * requests it let through to per-client totals in MongoDB every {@code sync-interval}, and blocks a
+ * client for the rest of the window once the total of all instances is above what its policy allows
+ * in a {@code shared-window}. A client spreading requests over several instances is thus held to
+ * roughly one limit, a sync interval late. While MongoDB is unreachable only the local limits apply.
+ */
+@Component
+@Slf4j
+public class RateLimiter implements MeterBinder {
+
+    private final RateLimitProperties rateLimitProperties;
+    private final RateLimitRepository rateLimitRepository;
+    private final DatabaseCircuitBreaker databaseCircuitBreaker;
+    private final Map<RateLimitedEndpoint, TokenBucketTable> tables = new EnumMap<>(RateLimitedEndpoint.class);
+    private final Map<RateLimitedEndpoint, AtomicLong> rejected = new EnumMap<>(RateLimitedEndpoint.class);
+
+    @Autowired
+    public RateLimiter(RateLimitProperties rateLimitProperties, RateLimitRepository rateLimitRepository,
+                       DatabaseCircuitBreaker databaseCircuitBreaker) {
+        this.rateLimitProperties = rateLimitProperties;
+        this.rateLimitRepository = rateLimitRepository;
+        this.databaseCircuitBreaker = databaseCircuitBreaker;
+        for (RateLimitedEndpoint endpoint : RateLimitedEndpoint.values()) {
+            tables.put(endpoint, new TokenBucketTable(policyOf(endpoint), rateLimitProperties.getMaxClients(),
+                    rateLimitProperties.isShared()));
+            rejected.put(endpoint, new AtomicLong());
+        }
+    }
+
+    /**
+     * Takes a token from the client's bucket of the endpoint.
+     *
+     * @param endpoint The endpoint requested.
+     * @param client   The client making the request.
+     * @return 0 if the request may go ahead, otherwise the nanoseconds until it may be retried.
+     */
+    public long tryAcquire(RateLimitedEndpoint endpoint, String client) {
+        long waitNanos = tables.get(endpoint).tryAcquire(client);
+        if (waitNanos > 0) {
+            rejected.get(endpoint).incrementAndGet();
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Adds the requests let through since the last sync to the shared totals and blocks clients
+     * whose total is over their limit for the rest of the window.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.sync-interval:PT1S}")
+    public void sync() {
+        if (!rateLimitProperties.isShared()) {
+            return;
+        }
+        long windowMillis = rateLimitProperties.getSharedWindow().toMillis();
+        long now = System.currentTimeMillis();
+        long windowEnd = now - now % windowMillis + windowMillis;
+        Map<String, Long> counts = new HashMap<>();
+        Map<String, TokenBucketTable.Bucket> buckets = new HashMap<>();
+        tables.forEach((endpoint, table) -> table.forEach((client, bucket) -> {
+            int unshared = bucket.takeUnshared();
+            if (unshared > 0) {
+                String id = endpoint + ":" + client + ":" + (windowEnd - windowMillis);
+                counts.put(id, (long) unshared);
+                buckets.put(id, bucket);
+            }
+        }));
+        if (counts.isEmpty()) {
+            return;
+        }
+        Map<String, Long> totals;
+        try {
+            totals = databaseCircuitBreaker.call(() -> rateLimitRepository.addAndGet(counts, Instant.ofEpochMilli(windowEnd)));
+        } catch (DataAccessException | DatabaseUnavailableException e) {
+            log.debug("Could not share rate limit counts of {} clients, applying local limits only: {}", counts.size(), e.getMessage());
+            return;
+        }
+        totals.forEach((id, total) -> {
+            RateLimitedEndpoint endpoint = RateLimitedEndpoint.valueOf(id.substring(0, id.indexOf(':')));
+            if (total > allowance(endpoint, windowMillis)) {
+                buckets.get(id).blockUntil(windowEnd);
+            }
+        });
+    }
+
+    /**
+     * Publishes the clients tracked and the requests rejected per endpoint.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (RateLimitedEndpoint endpoint : RateLimitedEndpoint.values()) {
+            String tag = endpoint.name().toLowerCase();
+            Gauge.builder("urlshortener.ratelimit.clients", tables.get(endpoint), TokenBucketTable::size)
+                    .tag("endpoint", tag)
+                    .description("Clients with a rate limit bucket")
+                    .register(registry);
+            FunctionCounter.builder("urlshortener.ratelimit.rejected", rejected.get(endpoint), AtomicLong::get)
+                    .tag("endpoint", tag)
+                    .description("Requests rejected with 429 because the client exceeded its rate limit")
+                    .register(registry);
+        }
+    }
+
+    private RateLimitProperties.Policy policyOf(RateLimitedEndpoint endpoint) {
+        return switch (endpoint) {
+            case CREATE -> rateLimitProperties.getCreate();
+            case SEARCH -> rateLimitProperties.getSearch();
+            case RESOLVE -> rateLimitProperties.getResolve();
+            case REDIRECT -> rateLimitProperties.getRedirect();
+        };
+    }
+
+    // Requests a client may make in one window: its rate for the window's length plus one burst
+    private double allowance(RateLimitedEndpoint endpoint, long windowMillis) {
+        RateLimitProperties.Policy policy = policyOf(endpoint);
+        return policy.getRate() * windowMillis / 1000.0 + policy.getBurst();
+    }
+}
@@ -0,0 +1,253 @@
+package com.github.melihemreguler.urlshortener.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.melihemreguler.urlshortener.config.ScanDetectionProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Spots clients walking the short code space: a client whose redirects within a sliding window are
+ * mostly for unknown codes is blocked for a while, so its requests are answered without a lookup in
+ * MongoDB. Redirects to existing links keep a client's miss ratio low, so clients that only now and
+ * then follow a stale link are not affected.
+ * <p>
+ * The clients' windows are kept in a Caffeine cache bounded like the rate limit buckets. Once per
+ * window the misses are added up per client prefix (/24 for IPv4, /48 for IPv6), and the prefixes
+ * with the most misses are published, so a scan spread over many addresses still shows up.
+ */
+@Component
+@Slf4j
+public class ScanDetector implements MeterBinder {
+
+    // Tag of clients whose address is not an IP address, which must not end up in metrics as is
+    static final String OTHER_PREFIX = "other";
+
+    private static final Pattern IPV4 = Pattern.compile("\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}");
+    private static final Pattern IPV6 = Pattern.compile("[0-9a-fA-F:.]*:[0-9a-fA-F:.]*");
+
+    private final ScanDetectionProperties scanDetectionProperties;
+    private final long windowMillis;
+    private final LongSupplier clock;
+    private final Cache<String, MissWindow> windows;
+    private final AtomicLong blocked = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private MultiGauge prefixMisses;
+    private MultiGauge prefixMissRatio;
+
+    @Autowired
+    public ScanDetector(ScanDetectionProperties scanDetectionProperties) {
+        this(scanDetectionProperties, System::currentTimeMillis);
+    }
+
+    ScanDetector(ScanDetectionProperties scanDetectionProperties, LongSupplier clock) {
+        this.scanDetectionProperties = scanDetectionProperties;
+        this.windowMillis = scanDetectionProperties.getWindow().toMillis();
+        this.clock = clock;
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(scanDetectionProperties.getMaxClients())
+                // Long enough to keep the window of a blocked client until its block ends
+                .expireAfterAccess(scanDetectionProperties.getBlockDuration().plus(scanDetectionProperties.getWindow()))
+                .build();
+    }
+
+    /**
+     * Checks whether the client is blocked for scanning.
+     *
+     * @param client The client making a redirect.
+     * @return 0 if the redirect may go ahead, otherwise the nanoseconds until the block ends.
+     */
+    public long blockedNanos(String client) {
+        MissWindow window = windows.getIfPresent(client);
+        if (window == null) {
+            return 0;
+        }
+        long remainingMillis = window.blockedUntilMillis - clock.getAsLong();
+        if (remainingMillis <= 0) {
+            return 0;
+        }
+        rejected.incrementAndGet();
+        return TimeUnit.MILLISECONDS.toNanos(remainingMillis);
+    }
+
+    /**
+     * Counts a redirect the client made and blocks the client if too many of its recent redirects
+     * were for unknown short codes.
+     *
+     * @param client The client that made the redirect.
+     * @param miss   Whether the short code did not exist.
+     */
+    public void record(String client, boolean miss) {
+        MissWindow window = windows.getIfPresent(client);
+        if (window == null) {
+            window = windows.get(client, key -> new MissWindow(clock.getAsLong()));
+        }
+        long now = clock.getAsLong();
+        if (window.record(now, miss) && window.blockedUntilMillis <= now) {
+            window.blockedUntilMillis = now + scanDetectionProperties.getBlockDuration().toMillis();
+            blocked.incrementAndGet();
+            log.warn("Blocking client {} for {}: more than {}% of its redirects in the last {} were for unknown short codes",
+                    client, scanDetectionProperties.getBlockDuration(),
+                    Math.round(scanDetectionProperties.getMaxMissRatio() * 100), scanDetectionProperties.getWindow());
+        }
+    }
+
+    /**
+     * Publishes the redirect misses of the client prefixes with the most of them.
+     */
+    @Scheduled(fixedDelayString = "${scan-detection.window:PT1M}")
+    public void publishPrefixes() {
+        if (prefixMisses == null) {
+            return;
+        }
+        long now = clock.getAsLong();
+        Map<String, double[]> totals = new HashMap<>();
+        windows.asMap().forEach((client, window) -> {
+            double[] counts = window.estimate(now);
+            if (counts[1] > 0) {
+                double[] total = totals.computeIfAbsent(prefixOf(client), prefix -> new double[2]);
+                total[0] += counts[0];
+                total[1] += counts[1];
+            }
+        });
+        List<Map.Entry<String, double[]>> top = new ArrayList<>(totals.entrySet());
+        top.sort(Comparator.comparingDouble((Map.Entry<String, double[]> entry) -> entry.getValue()[1]).reversed());
+        List<MultiGauge.Row<?>> misses = new ArrayList<>();
+        List<MultiGauge.Row<?>> ratios = new ArrayList<>();
+        for (Map.Entry<String, double[]> entry : top.subList(0, Math.min(top.size(), scanDetectionProperties.getMetricPrefixes()))) {
+            Tags tags = Tags.of("prefix", entry.getKey());
+            double[] total = entry.getValue();
+            misses.add(MultiGauge.Row.of(tags, total[1]));
+            ratios.add(MultiGauge.Row.of(tags, total[1] / total[0]));
+        }
+        // Overwritten, so prefixes that stopped missing disappear
+        prefixMisses.register(misses, true);
+        prefixMissRatio.register(ratios, true);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("urlshortener.scan.clients", windows, Cache::estimatedSize)
+                .description("Clients whose redirect misses are counted")
+                .register(registry);
+        FunctionCounter.builder("urlshortener.scan.blocked", blocked, AtomicLong::get)
+                .description("Times a client was blocked for redirecting mostly to unknown short codes")
+                .register(registry);
+        FunctionCounter.builder("urlshortener.scan.rejected", rejected, AtomicLong::get)
+                .description("Redirects rejected with 429 because the client was blocked for scanning")
+                .register(registry);
+        prefixMisses = MultiGauge.builder("urlshortener.scan.prefix.misses")
+                .description("Redirects to unknown short codes within the last window, per client prefix")
+                .register(registry);
+        prefixMissRatio = MultiGauge.builder("urlshortener.scan.prefix.miss.ratio")
+                .description("Share of redirects to unknown short codes within the last window, per client prefix")
+                .register(registry);
+    }
+
+    /**
+     * The network a client is in, as a /24 for IPv4 and a /48 for IPv6 addresses.
+     *
+     * @param client The client's IP address.
+     * @return The network in CIDR notation, or {@value #OTHER_PREFIX} if the client is not an IP address.
+     */
+    static String prefixOf(String client) {
+        if (IPV4.matcher(client).matches()) {
+            return client.substring(0, client.lastIndexOf('.')) + ".0/24";
+        }
+        if (IPV6.matcher(client).matches()) {
+            try {
+                // A literal address, so no name lookup happens
+                byte[] address = InetAddress.getByName(client).getAddress();
+                if (address.length == 16) {
+                    return String.format("%x:%x:%x::/48", word(address, 0), word(address, 2), word(address, 4));
+                }
+            } catch (UnknownHostException e) {
+                return OTHER_PREFIX;
+            }
+        }
+        return OTHER_PREFIX;
+    }
+
+    private static int word(byte[] address, int offset) {
+        return (address[offset] & 0xff) << 8 | address[offset + 1] & 0xff;
+    }
+
+    /**
+     * Redirects and misses of one client in a sliding window, estimated from the counts of the
+     * current and the previous fixed window, the latter weighted by how much of it still overlaps.
+     */
+    private final class MissWindow {
+        private long windowStart;
+        private int redirects;
+        private int misses;
+        private int previousRedirects;
+        private int previousMisses;
+        private volatile long blockedUntilMillis;
+
+        MissWindow(long now) {
+            this.windowStart = now;
+        }
+
+        /**
+         * @return Whether the client is now over the miss ratio.
+         */
+        synchronized boolean record(long now, boolean miss) {
+            roll(now);
+            redirects++;
+            if (miss) {
+                misses++;
+            }
+            double weight = previousWeight(now);
+            double windowRedirects = previousRedirects * weight + redirects;
+            double windowMisses = previousMisses * weight + misses;
+            return windowRedirects >= scanDetectionProperties.getMinRedirects()
+                    && windowMisses > windowRedirects * scanDetectionProperties.getMaxMissRatio();
+        }
+
+        /**
+         * @return The redirects and misses within the sliding window ending now.
+         */
+        synchronized double[] estimate(long now) {
+            roll(now);
+            double weight = previousWeight(now);
+            return new double[]{previousRedirects * weight + redirects, previousMisses * weight + misses};
+        }
+
+        private void roll(long now) {
+            long elapsed = now - windowStart;
+            if (elapsed < windowMillis) {
+                return;
+            }
+            boolean adjacent = elapsed < 2 * windowMillis;
+            previousRedirects = adjacent ? redirects : 0;
+            previousMisses = adjacent ? misses : 0;
+            redirects = 0;
+            misses = 0;
+            windowStart = now - elapsed % windowMillis;
+        }
+
+        private double previousWeight(long now) {
+            return 1 - (double) (now - windowStart) / windowMillis;
+        }
+    }
+}
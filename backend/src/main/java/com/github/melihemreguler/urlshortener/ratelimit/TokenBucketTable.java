@@ -0,0 +1,129 @@
+package com.github.melihemreguler.urlshortener.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.melihemreguler.urlshortener.config.RateLimitProperties;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets of one rate limit, one per client. Each bucket is kept as the time its next request
+ * would be due if the client used exactly its rate (GCRA, the generic cell rate algorithm, which
+ * behaves like a token bucket), so taking a token is a single compare-and-set and never blocks.
+ * <p>
+ * Buckets live in a Caffeine cache, which spreads its bookkeeping over striped buffers and drops the
+ * least recently used clients beyond the configured number. A bucket idle long enough to have
+ * refilled is dropped as well, as it would behave the same as a new one.
+ */
+public class TokenBucketTable {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final boolean shared;
+    private final LongSupplier nanoClock;
+    private final Cache<String, Bucket> buckets;
+
+    /**
+     * @param policy     Rate and burst allowed per client.
+     * @param maxClients Clients whose buckets are kept.
+     * @param shared     Whether requests let through are counted for the shared totals.
+     */
+    public TokenBucketTable(RateLimitProperties.Policy policy, long maxClients, boolean shared) {
+        this(policy, maxClients, shared, System::nanoTime);
+    }
+
+    TokenBucketTable(RateLimitProperties.Policy policy, long maxClients, boolean shared, LongSupplier nanoClock) {
+        this.intervalNanos = (long) (1e9 / policy.getRate());
+        this.toleranceNanos = intervalNanos * (policy.getBurst() - 1);
+        this.shared = shared;
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(intervalNanos * policy.getBurst()))
+                .build();
+    }
+
+    /**
+     * Takes a token from the client's bucket if it has one.
+     *
+     * @param client The client making a request.
+     * @return 0 if the request may go ahead, otherwise the nanoseconds until it may be retried.
+     */
+    public long tryAcquire(String client) {
+        Bucket bucket = buckets.getIfPresent(client);
+        if (bucket == null) {
+            bucket = buckets.get(client, key -> new Bucket());
+        }
+        long blockedNanos = bucket.blockedNanos();
+        if (blockedNanos > 0) {
+            return blockedNanos;
+        }
+        long now = nanoClock.getAsLong();
+        while (true) {
+            long due = bucket.due.get();
+            // Due in the past, as in a new bucket, means the bucket is full
+            long start = Math.max(due, now);
+            long early = start - now - toleranceNanos;
+            if (early > 0) {
+                return early;
+            }
+            if (bucket.due.compareAndSet(due, start + intervalNanos)) {
+                if (shared) {
+                    bucket.unshared.incrementAndGet();
+                }
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Visits every bucket, e.g. to count its requests in the shared totals.
+     *
+     * @param action Called with each client and its bucket.
+     */
+    public void forEach(BiConsumer<String, Bucket> action) {
+        buckets.asMap().forEach(action);
+    }
+
+    public long size() {
+        return buckets.estimatedSize();
+    }
+
+    /**
+     * The state of one client's bucket.
+     */
+    public static final class Bucket {
+        private final AtomicLong due = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicInteger unshared = new AtomicInteger();
+        private volatile long blockedUntilMillis;
+
+        /**
+         * @return The requests let through since the last call, which the shared totals do not have yet.
+         */
+        public int takeUnshared() {
+            return unshared.getAndSet(0);
+        }
+
+        /**
+         * Rejects the client's requests until the given time, whatever tokens the bucket has.
+         *
+         * @param untilMillis Epoch milliseconds the block ends at.
+         */
+        public void blockUntil(long untilMillis) {
+            blockedUntilMillis = untilMillis;
+        }
+
+        private long blockedNanos() {
+            long until = blockedUntilMillis;
+            if (until == 0) {
+                return 0;
+            }
+            long remainingMillis = until - System.currentTimeMillis();
+            return remainingMillis > 0 ? remainingMillis * 1_000_000 : 0;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.melihemreguler.urlshortener.repository;
+
+import com.github.melihemreguler.urlshortener.config.BulkheadProperties;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MongoDB client of its own for admin API queries. Its connection pool is sized to the admin
+ * bulkhead, so unindexed searches can hold at most that many connections and never make redirects
+ * wait for one from the main pool. It is configured like the main client otherwise, and reads and
+ * writes documents through the same converter and entity callbacks.
+ * <p>
+ * Not exposed as a {@code MongoClient} or {@code MongoTemplate} bean, which would replace Spring
+ * Boot's main ones.
+ */
+@Component
+public class AdminDatabase {
+
+    private final MongoClient mongoClient;
+    @Getter
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public AdminDatabase(ObjectProvider<MongoClientSettingsBuilderCustomizer> customizers,
+                         MongoDatabaseFactory mongoDatabaseFactory, MongoConverter mongoConverter,
+                         BulkheadProperties bulkheadProperties, ApplicationContext applicationContext) {
+        MongoClientSettings.Builder settings = MongoClientSettings.builder();
+        customizers.orderedStream().forEach(customizer -> customizer.customize(settings));
+        // Each admin request uses one connection at a time, so requests let through never wait for one
+        settings.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(bulkheadProperties.getMaxConcurrent())
+                .maxWaitTime(bulkheadProperties.getQueueTimeout().toMillis(), TimeUnit.MILLISECONDS));
+        this.mongoClient = MongoClients.create(settings.build());
+        this.mongoTemplate = new MongoTemplate(new SimpleMongoClientDatabaseFactory(mongoClient,
+                mongoDatabaseFactory.getMongoDatabase().getName()), mongoConverter);
+        this.mongoTemplate.setApplicationContext(applicationContext);
+    }
+
+    @PreDestroy
+    public void close() {
+        mongoClient.close();
+    }
+}
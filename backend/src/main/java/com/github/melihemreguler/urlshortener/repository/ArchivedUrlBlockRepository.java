@@ -0,0 +1,23 @@
+package com.github.melihemreguler.urlshortener.repository;
+
+import com.github.melihemreguler.urlshortener.dto.ArchivedUrlBlock;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedUrlBlockRepository extends MongoRepository<ArchivedUrlBlock, String> {
+    // A code may briefly live in two blocks if concurrent archive runs overlap, so take the first one
+    Optional<ArchivedUrlBlock> findFirstByShortCodes(String shortCode);
+
+    Optional<ArchivedUrlBlock> findFirstByIds(String id);
+
+    boolean existsByShortCodes(String shortCode);
+
+    List<ArchivedUrlBlock> findByShortCodesIn(Collection<String> shortCodes);
+
+    List<ArchivedUrlBlock> findByIdsIsNull();
+}
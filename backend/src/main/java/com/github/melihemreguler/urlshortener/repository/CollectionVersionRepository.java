@@ -0,0 +1,45 @@
+package com.github.melihemreguler.urlshortener.repository;
+
+import com.github.melihemreguler.urlshortener.dto.CollectionVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@Repository
+public class CollectionVersionRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public CollectionVersionRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Adds changes to the version of a collection, creating it on the first change.
+     *
+     * @param id      The collection.
+     * @param changes The changes made since the last call.
+     * @return The version after the changes of all instances.
+     */
+    public long add(String id, long changes) {
+        CollectionVersion version = mongoTemplate.findAndModify(query(where("id").is(id)),
+                new Update().inc("version", changes),
+                FindAndModifyOptions.options().upsert(true).returnNew(true), CollectionVersion.class);
+        return version.getVersion();
+    }
+
+    /**
+     * @param id The collection.
+     * @return The version of the collection, 0 if it never changed.
+     */
+    public long get(String id) {
+        CollectionVersion version = mongoTemplate.findById(id, CollectionVersion.class);
+        return version != null ? version.getVersion() : 0;
+    }
+}
@@ -0,0 +1,182 @@
+package com.github.melihemreguler.urlshortener.repository;
+
+import com.github.melihemreguler.urlshortener.config.CircuitBreakerProperties;
+import com.github.melihemreguler.urlshortener.exception.DatabaseUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker around database calls. After the configured number of consecutive failures
+ * to reach MongoDB the circuit opens and calls fail immediately instead of each waiting for the
+ * driver's timeouts; after the open duration a single trial call is let through and closes the
+ * circuit again if it succeeds. Errors other than an unreachable or timed out database, e.g. a
+ * duplicate key, mean the database answered and count as success. Calls made from within a call,
+ * e.g. by a mapping callback or a service the outer call reaches, run as part of it: they take no
+ * permit of their own, so they also go through during the trial call.
+ * <p>
+ * While open, health reports DEGRADED, which readiness maps to 200: redirects are still served
+ * from the link cache and snapshot, so the instance keeps taking traffic.
+ */
+@Component
+@Slf4j
+public class DatabaseCircuitBreaker implements HealthIndicator, MeterBinder {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "Database unreachable, serving redirects from cache");
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final CircuitBreakerProperties circuitBreakerProperties;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong rejectedCalls = new AtomicLong();
+    // Set while this thread runs a call, so calls nested in it neither take a permit nor count twice
+    private final ThreadLocal<Boolean> insideCall = ThreadLocal.withInitial(() -> Boolean.FALSE);
+    private volatile long openedAtNanos;
+    private volatile String lastError;
+
+    @Autowired
+    public DatabaseCircuitBreaker(CircuitBreakerProperties circuitBreakerProperties) {
+        this.circuitBreakerProperties = circuitBreakerProperties;
+    }
+
+    /**
+     * Runs a database call unless the circuit is open.
+     *
+     * @param call The call to run.
+     * @return The result of the call.
+     * @throws DatabaseUnavailableException if the circuit is open or the database could not be reached.
+     */
+    public <T> T call(Supplier<T> call) {
+        if (insideCall.get()) {
+            // The outer call on this thread holds the permit and accounts for the outcome
+            try {
+                return call.get();
+            } catch (DataAccessResourceFailureException | TransientDataAccessException e) {
+                throw new DatabaseUnavailableException("Database unavailable", e);
+            }
+        }
+        State permit = tryAcquire();
+        if (permit == null) {
+            rejectedCalls.incrementAndGet();
+            throw new DatabaseUnavailableException("Database circuit is open");
+        }
+        insideCall.set(Boolean.TRUE);
+        try {
+            T result = call.get();
+            onSuccess();
+            return result;
+        } catch (DataAccessResourceFailureException | TransientDataAccessException e) {
+            onFailure(e);
+            throw new DatabaseUnavailableException("Database unavailable", e);
+        } catch (DatabaseUnavailableException e) {
+            // A nested call could not reach the database
+            onFailure(e.getCause() instanceof RuntimeException cause ? cause : e);
+            throw e;
+        } catch (RuntimeException e) {
+            onSuccess();
+            throw e;
+        } catch (Error e) {
+            // A trial that never reports back would leave the circuit half-open and refuse every later call
+            if (permit == State.HALF_OPEN && state.get() == State.HALF_OPEN) {
+                open();
+            }
+            throw e;
+        } finally {
+            insideCall.set(Boolean.FALSE);
+        }
+    }
+
+    /**
+     * Runs a database call that returns nothing unless the circuit is open.
+     *
+     * @param call The call to run.
+     * @throws DatabaseUnavailableException if the circuit is open or the database could not be reached.
+     */
+    public void run(Runnable call) {
+        call(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * @return UP while closed, DEGRADED with the last error otherwise.
+     */
+    @Override
+    public Health health() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return Health.up().build();
+        }
+        return Health.status(DEGRADED).withDetail("state", current).withDetail("error", String.valueOf(lastError)).build();
+    }
+
+    /**
+     * Publishes whether the circuit is open and how many calls it rejected.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("urlshortener.database.circuit.open", state, current -> current.get() == State.CLOSED ? 0 : 1)
+                .description("1 while database calls are short-circuited, 0 otherwise")
+                .register(registry);
+        FunctionCounter.builder("urlshortener.database.circuit.rejected", rejectedCalls, AtomicLong::get)
+                .description("Database calls failed immediately because the circuit was open")
+                .register(registry);
+    }
+
+    // The state the call is let through in, or null if it is refused
+    private State tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return State.CLOSED;
+        }
+        // Exactly one caller moves an expired open circuit to half-open and makes the trial call
+        return current == State.OPEN
+                && System.nanoTime() - openedAtNanos >= circuitBreakerProperties.getOpenDuration().toNanos()
+                && state.compareAndSet(State.OPEN, State.HALF_OPEN) ? State.HALF_OPEN : null;
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.getAndSet(State.CLOSED) != State.CLOSED) {
+            log.info("Database reachable again, circuit closed");
+        }
+    }
+
+    private void onFailure(RuntimeException e) {
+        lastError = e.getMessage();
+        if (state.get() == State.HALF_OPEN) {
+            open();
+            log.warn("Trial call failed, circuit stays open for {}: {}", circuitBreakerProperties.getOpenDuration(), e.getMessage());
+        } else if (consecutiveFailures.incrementAndGet() >= circuitBreakerProperties.getFailureThreshold()
+                && state.get() == State.CLOSED) {
+            open();
+            log.error("Database unreachable after {} consecutive failures, circuit open for {}: {}",
+                    consecutiveFailures.get(), circuitBreakerProperties.getOpenDuration(), e.getMessage());
+        }
+    }
+
+    private void open() {
+        openedAtNanos = System.nanoTime();
+        state.set(State.OPEN);
+    }
+}
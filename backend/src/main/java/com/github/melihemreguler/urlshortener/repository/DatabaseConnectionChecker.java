@@ -1,49 +1,127 @@
 package com.github.melihemreguler.urlshortener.repository;
 
+import com.github.melihemreguler.urlshortener.config.DatabaseCheckProperties;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mapping.context.MappingContext;
 import org.springframework.data.mongodb.core.MongoTemplate;
-
-import jakarta.annotation.PostConstruct;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
 import org.springframework.stereotype.Repository;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies the database connection and creates the mapped indexes in the background once the
+ * application has started, instead of blocking startup on either. Until both succeed the readiness
+ * group reports OUT_OF_SERVICE, so no traffic is routed here; if the database stays unreachable past
+ * the configured limit, liveness is marked broken so the orchestrator replaces the instance.
+ */
 @Repository
 @Slf4j
-public class DatabaseConnectionChecker {
+public class DatabaseConnectionChecker implements HealthIndicator {
 
     private final MongoTemplate mongoTemplate;
+    private final DatabaseCheckProperties databaseCheckProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "database-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean connected;
+    private volatile String lastError = "Not checked yet";
+    private long startedNanos = System.nanoTime();
+    private boolean broken;
 
-    // Constructor for dependency injection of MongoTemplate
     @Autowired
-    public DatabaseConnectionChecker(MongoTemplate mongoTemplate) {
+    public DatabaseConnectionChecker(MongoTemplate mongoTemplate, DatabaseCheckProperties databaseCheckProperties,
+                                     ApplicationEventPublisher eventPublisher) {
         this.mongoTemplate = mongoTemplate;
+        this.databaseCheckProperties = databaseCheckProperties;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
-     * Checks the database connection after the component is initialized.
-     * If the connection fails, the application is gracefully shut down.
+     * Starts checking once the context is refreshed and the web server is up. Not reached in a
+     * training run that exits on refresh, so building the CDS archive needs no database.
      */
-    @PostConstruct
-    public void checkDatabaseConnection() {
-        try {
-            log.info("Checking database connection...");
+    @EventListener(ApplicationStartedEvent.class)
+    public void startChecking() {
+        log.info("Checking database connection...");
+        startedNanos = System.nanoTime();
+        executor.execute(this::checkDatabaseConnection);
+    }
 
+    /**
+     * Pings the database and ensures the indexes once, and schedules the next attempt if either failed.
+     */
+    void checkDatabaseConnection() {
+        try {
             // Sends a ping command to verify the connection to the MongoDB instance
             mongoTemplate.executeCommand("{ ping: 1 }");
+            ensureIndexes();
+            connected = true;
             log.info("Database connection successful.");
+            if (broken) {
+                broken = false;
+                AvailabilityChangeEvent.publish(eventPublisher, this, LivenessState.CORRECT);
+            }
         } catch (Exception e) {
-            log.error("Failed to connect to the database: {}", e.getMessage());
-
-            // Shuts down the application in case of connection failure
-            gracefulShutdown();
+            lastError = e.getMessage();
+            long unreachableNanos = System.nanoTime() - startedNanos;
+            if (!broken && unreachableNanos >= databaseCheckProperties.getGiveUpAfter().toNanos()) {
+                log.error("Failed to connect to the database for {}, marking the application broken: {}",
+                        databaseCheckProperties.getGiveUpAfter(), e.getMessage());
+                broken = true;
+                AvailabilityChangeEvent.publish(eventPublisher, this, LivenessState.BROKEN);
+            } else {
+                log.warn("Failed to connect to the database, retrying: {}", e.getMessage());
+            }
+            executor.schedule(this::checkDatabaseConnection,
+                    databaseCheckProperties.getRetryInterval().toMillis(), TimeUnit.MILLISECONDS);
         }
     }
 
     /**
-     * Gracefully shuts down the application when the database connection fails.
+     * @return UP once a ping has succeeded, OUT_OF_SERVICE with the last error before that.
      */
-    private void gracefulShutdown() {
-        log.warn("Shutting down the application due to database connection failure...");
-        System.exit(1);
+    @Override
+    public Health health() {
+        if (connected) {
+            return Health.up().build();
+        }
+        return Health.outOfService().withDetail("error", lastError).build();
+    }
+
+    // Replaces spring.data.mongodb.auto-index-creation, which creates them while the context refreshes
+    private void ensureIndexes() {
+        MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext =
+                mongoTemplate.getConverter().getMappingContext();
+        IndexResolver indexResolver = IndexResolver.create(mappingContext);
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (entity.isAnnotationPresent(Document.class)) {
+                IndexOperations indexOperations = mongoTemplate.indexOps(entity.getType());
+                indexResolver.resolveIndexFor(entity.getTypeInformation()).forEach(indexOperations::ensureIndex);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stopChecking() {
+        executor.shutdownNow();
     }
 }
@@ -0,0 +1,53 @@
+package com.github.melihemreguler.urlshortener.repository;
+
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.model.PrefixedUrl;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertCallback;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores the long URL of a link as a dictionary prefix id plus suffix instead of the full string,
+ * and joins it back when the link is read. Links are read correctly whichever form they were
+ * stored in, so the dictionary can be turned on or off at any time.
+ */
+@Component
+public class LongUrlCompressionCallback implements BeforeSaveCallback<UrlDto>, AfterConvertCallback<UrlDto> {
+
+    public static final String LONG_URL_FIELD = "longUrl";
+    public static final String PREFIX_FIELD = "urlPrefix";
+    public static final String SUFFIX_FIELD = "urlSuffix";
+
+    private final UrlPrefixDictionary urlPrefixDictionary;
+
+    // Lazy because MongoTemplate collects its entity callbacks while the dictionary's repository still waits for it
+    @Autowired
+    public LongUrlCompressionCallback(@Lazy UrlPrefixDictionary urlPrefixDictionary) {
+        this.urlPrefixDictionary = urlPrefixDictionary;
+    }
+
+    @Override
+    public UrlDto onBeforeSave(UrlDto entity, Document document, String collection) {
+        if (!urlPrefixDictionary.isEnabled() || entity.getLongUrl() == null) {
+            return entity;
+        }
+        PrefixedUrl prefixed = urlPrefixDictionary.split(entity.getLongUrl());
+        if (prefixed != null) {
+            document.remove(LONG_URL_FIELD);
+            document.put(PREFIX_FIELD, prefixed.prefixId());
+            document.put(SUFFIX_FIELD, prefixed.suffix());
+        }
+        return entity;
+    }
+
+    @Override
+    public UrlDto onAfterConvert(UrlDto entity, Document document, String collection) {
+        if (entity.getLongUrl() == null && document.get(PREFIX_FIELD) instanceof Integer prefixId) {
+            entity.setLongUrl(urlPrefixDictionary.join(prefixId, document.getString(SUFFIX_FIELD)));
+        }
+        return entity;
+    }
+}
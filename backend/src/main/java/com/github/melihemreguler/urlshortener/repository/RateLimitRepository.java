@@ -0,0 +1,48 @@
+package com.github.melihemreguler.urlshortener.repository;
+
+import com.github.melihemreguler.urlshortener.dto.RateLimitWindow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@Repository
+public class RateLimitRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public RateLimitRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Adds requests to their windows in a single unordered bulk write and reads the totals back.
+     *
+     * @param counts    Requests made since the last call, keyed by window id.
+     * @param expiresAt When windows created by this call are removed.
+     * @return The totals of all instances, keyed by window id.
+     */
+    public Map<String, Long> addAndGet(Map<String, Long> counts, Instant expiresAt) {
+        Map<String, Long> totals = new HashMap<>();
+        if (counts.isEmpty()) {
+            return totals;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RateLimitWindow.class);
+        counts.forEach((id, count) -> bulk.upsert(query(where("id").is(id)),
+                new Update().inc("count", count).setOnInsert("expiresAt", expiresAt)));
+        bulk.execute();
+        for (RateLimitWindow window : mongoTemplate.find(query(where("id").in(counts.keySet())), RateLimitWindow.class)) {
+            totals.put(window.getId(), window.getCount());
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.melihemreguler.urlshortener.repository;
+
+import com.github.melihemreguler.urlshortener.dto.UrlChange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@Repository
+public class UrlChangeRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public UrlChangeRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void insert(UrlChange change) {
+        mongoTemplate.insert(change);
+    }
+
+    /**
+     * @param after The sequence number to read from, exclusive.
+     * @param upTo  The sequence number to read up to, inclusive.
+     * @param limit The number of changes to read at most.
+     * @return The changes in between, in sequence order.
+     */
+    public List<UrlChange> findBetween(long after, long upTo, int limit) {
+        return mongoTemplate.find(query(where("sequence").gt(after).lte(upTo))
+                .with(Sort.by("sequence")).limit(limit), UrlChange.class);
+    }
+
+    public boolean exists(long sequence) {
+        return mongoTemplate.exists(query(where("sequence").is(sequence)), UrlChange.class);
+    }
+}
@@ -0,0 +1,114 @@
+package com.github.melihemreguler.urlshortener.repository;
+
+import com.github.melihemreguler.urlshortener.dto.UrlCounter;
+import com.github.melihemreguler.urlshortener.model.CounterDelta;
+import com.github.melihemreguler.urlshortener.model.CounterTotal;
+import com.github.melihemreguler.urlshortener.model.CounterWrite;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@Repository
+public class UrlCounterRepository {
+
+    // Flush ids kept per counter: enough for a retry, one flush later, to still find its own among
+    // the writes of all instances in between
+    private static final int REMEMBERED_FLUSHES = 32;
+
+    private final MongoTemplate mongoTemplate;
+
+    // Constructor for dependency injection of MongoTemplate
+    @Autowired
+    public UrlCounterRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Applies all writes in a single unordered bulk write, creating counters as needed. A write whose
+     * flush id the counter has already recorded adds nothing, so writes may be retried whether or not
+     * they were applied before.
+     *
+     * @param writes The accumulated clicks per link, each with the id of the flush that took them.
+     * @return The writes that failed while the others were applied; empty if all were.
+     */
+    public List<CounterWrite> increment(Collection<CounterWrite> writes) {
+        if (writes.isEmpty()) {
+            return List.of();
+        }
+        List<CounterWrite> ordered = List.copyOf(writes);
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UrlCounter.class);
+        for (CounterWrite write : ordered) {
+            bulk.upsert(query(where("shortCode").is(write.delta().shortCode())), incrementOnce(write));
+        }
+        try {
+            bulk.execute();
+            return List.of();
+        } catch (BulkOperationException e) {
+            // Errors point at the failed writes by their position in the bulk
+            List<CounterWrite> failed = new ArrayList<>(e.getErrors().size());
+            e.getErrors().forEach(error -> failed.add(ordered.get(error.getIndex())));
+            return failed;
+        }
+    }
+
+    /**
+     * Reads the counters of the given links with a single query.
+     *
+     * @param shortCodes The short codes to look up.
+     * @return Totals keyed by short code; links that were never clicked are absent.
+     */
+    public Map<String, CounterTotal> findTotals(Collection<String> shortCodes) {
+        Map<String, CounterTotal> totals = new HashMap<>();
+        if (shortCodes.isEmpty()) {
+            return totals;
+        }
+        List<UrlCounter> counters = mongoTemplate.find(query(where("shortCode").in(shortCodes)), UrlCounter.class);
+        for (UrlCounter counter : counters) {
+            totals.put(counter.getShortCode(), new CounterTotal(counter.getCount(), counter.getLastAccessedAt()));
+        }
+        return totals;
+    }
+
+    /**
+     * Removes the counter of a link.
+     *
+     * @param shortCode The short code whose counter is removed.
+     */
+    public void deleteByShortCode(String shortCode) {
+        mongoTemplate.remove(query(where("shortCode").is(shortCode)), UrlCounter.class);
+    }
+
+    // Adds the clicks unless the flush id is among those recorded, and records it among the last ones
+    private static AggregationUpdate incrementOnce(CounterWrite write) {
+        CounterDelta delta = write.delta();
+        Document flushIds = new Document("$ifNull", List.of("$flushIds", List.of()));
+        Document applied = new Document("$in", List.of(write.flushId(), flushIds));
+        Document set = new Document()
+                .append("count", new Document("$cond", List.of(applied, "$count",
+                        new Document("$add", List.of(new Document("$ifNull", List.of("$count", 0L)), delta.count())))))
+                .append("flushIds", new Document("$cond", List.of(applied, "$flushIds",
+                        new Document("$slice", List.of(
+                                new Document("$concatArrays", List.of(flushIds, List.of(write.flushId()))),
+                                -REMEMBERED_FLUSHES)))));
+        if (delta.lastAccessedAt() != null) {
+            Date lastAccessedAt = Date.from(delta.lastAccessedAt().atZone(ZoneId.systemDefault()).toInstant());
+            set.append("lastAccessedAt", new Document("$max", List.of("$lastAccessedAt", lastAccessedAt)));
+        }
+        return AggregationUpdate.from(List.of(context -> new Document("$set", set)));
+    }
+}
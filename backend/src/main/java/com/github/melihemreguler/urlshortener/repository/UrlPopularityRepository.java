@@ -0,0 +1,117 @@
+package com.github.melihemreguler.urlshortener.repository;
+
+import com.github.melihemreguler.urlshortener.dto.UrlPopularity;
+import com.github.melihemreguler.urlshortener.model.CounterTotal;
+import com.github.melihemreguler.urlshortener.model.PopularityCursor;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@Repository
+public class UrlPopularityRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public UrlPopularityRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Raises the counted clicks of the given links to at least the given totals, entering links not
+     * ranked yet. Writing the same totals twice has no further effect.
+     *
+     * @param counted The totals read from the counters of the links, keyed by short code.
+     */
+    public void raise(Map<String, CounterTotal> counted) {
+        raise(counted, Map.of());
+    }
+
+    /**
+     * Raises the counted clicks of the given links to at least the given totals and records the clicks
+     * stored on the links themselves, entering links not ranked yet. Each entry's total is recomputed
+     * from both in the same write. Writing the same totals twice has no further effect.
+     *
+     * @param counted The totals read from the counters of the links, keyed by short code.
+     * @param stored  The clicks stored on the links by versions that counted them there, keyed by short code.
+     */
+    public void raise(Map<String, CounterTotal> counted, Map<String, CounterTotal> stored) {
+        Set<String> shortCodes = new HashSet<>(counted.keySet());
+        shortCodes.addAll(stored.keySet());
+        if (shortCodes.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UrlPopularity.class);
+        for (String shortCode : shortCodes) {
+            CounterTotal total = counted.getOrDefault(shortCode, CounterTotal.ZERO);
+            Document set = new Document("counted", new Document("$max", List.of("$counted", total.count())));
+            LocalDateTime lastAccessedAt = total.lastAccessedAt();
+            CounterTotal storedTotal = stored.get(shortCode);
+            if (storedTotal != null) {
+                set.append("stored", storedTotal.count());
+                lastAccessedAt = total.plus(0, storedTotal.lastAccessedAt()).lastAccessedAt();
+            }
+            if (lastAccessedAt != null) {
+                Date date = Date.from(lastAccessedAt.atZone(ZoneId.systemDefault()).toInstant());
+                set.append("lastAccessedAt", new Document("$max", List.of("$lastAccessedAt", date)));
+            }
+            // A pipeline update, so the total is summed from the fields as they are after the raise
+            Document sum = new Document("count", new Document("$add",
+                    List.of("$counted", new Document("$ifNull", List.of("$stored", 0L)))));
+            AggregationUpdate update = AggregationUpdate.from(List.of(
+                    context -> new Document("$set", set),
+                    context -> new Document("$set", sum)));
+            bulk.upsert(query(where("shortCode").is(shortCode)), update);
+        }
+        bulk.execute();
+    }
+
+    /**
+     * Reads the leaderboard in order, most clicked first and by short code among equal totals, off the
+     * count_shortCode index.
+     *
+     * @param after The position to continue after, or null for the top of the leaderboard.
+     * @param limit The number of entries to read at most.
+     * @return The entries after the position.
+     */
+    public List<UrlPopularity> findPage(PopularityCursor after, int limit) {
+        Query query = new Query();
+        if (after != null) {
+            query.addCriteria(new Criteria().orOperator(
+                    where("count").lt(after.count()),
+                    where("count").is(after.count()).and("shortCode").gt(after.shortCode())));
+        }
+        query.with(Sort.by(Sort.Order.desc("count"), Sort.Order.asc("shortCode"))).limit(limit);
+        return mongoTemplate.find(query, UrlPopularity.class);
+    }
+
+    /**
+     * Takes links off the leaderboard.
+     *
+     * @param shortCodes The short codes of the links.
+     */
+    public void delete(Collection<String> shortCodes) {
+        if (shortCodes.isEmpty()) {
+            return;
+        }
+        mongoTemplate.remove(query(where("shortCode").in(shortCodes)), UrlPopularity.class);
+    }
+}
@@ -0,0 +1,278 @@
+package com.github.melihemreguler.urlshortener.repository;
+
+import com.github.melihemreguler.urlshortener.config.UrlDictionaryProperties;
+import com.github.melihemreguler.urlshortener.dto.UrlPrefix;
+import com.github.melihemreguler.urlshortener.exception.DatabaseUnavailableException;
+import com.github.melihemreguler.urlshortener.model.PrefixedUrl;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory copy of the shared URL prefix dictionary.
+ * Creating a link only uses prefixes already known and counts the ones it could have used; a
+ * background run learns prefixes seen often enough, so no database call is made on the create
+ * path and one-off hosts never take up room. Learned prefixes are kept in the prefixes collection
+ * for good, so stored links and other instances can always join them; only the set this
+ * instance uses for new links is bounded, evicting the least used. An id this instance has not
+ * seen yet is loaded on first use.
+ */
+@Component
+@Slf4j
+public class UrlPrefixDictionary {
+
+    // Inserting a new prefix races other instances for the next id
+    private static final int MAX_INSERT_ATTEMPTS = 3;
+
+    private final UrlPrefixRepository prefixRepository;
+    private final UrlDictionaryProperties urlDictionaryProperties;
+    private final DatabaseCircuitBreaker databaseCircuitBreaker;
+    // Prefixes new links are split against, bounded by max-entries
+    private final ConcurrentHashMap<String, Integer> idsByPrefix = new ConcurrentHashMap<>();
+    // Every prefix known to this instance, so stored links can be joined without a query
+    private final ConcurrentHashMap<Integer, String> prefixesById = new ConcurrentHashMap<>();
+    // Links split against each prefix in use, and sightings of prefixes not in use; halved on every run
+    private final ConcurrentHashMap<String, LongAdder> uses = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> sightings = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    @Autowired
+    public UrlPrefixDictionary(UrlPrefixRepository prefixRepository, UrlDictionaryProperties urlDictionaryProperties,
+                               DatabaseCircuitBreaker databaseCircuitBreaker) {
+        this.prefixRepository = prefixRepository;
+        this.urlDictionaryProperties = urlDictionaryProperties;
+        this.databaseCircuitBreaker = databaseCircuitBreaker;
+    }
+
+    /**
+     * @return Whether new long URLs are stored and cached in their prefixed form.
+     */
+    public boolean isEnabled() {
+        return urlDictionaryProperties.isEnabled();
+    }
+
+    /**
+     * Splits a long URL for storage against the longest prefix in use, counting a sighting of each
+     * longer prefix that is not. Only touches memory.
+     *
+     * @param longUrl The long URL to split.
+     * @return The prefixed form, or null if the URL is stored in full.
+     */
+    public PrefixedUrl split(String longUrl) {
+        for (String candidate : UrlPrefix.candidatesOf(longUrl)) {
+            Integer id = idsByPrefix.get(candidate);
+            if (id != null) {
+                count(uses, candidate);
+                return new PrefixedUrl(id, longUrl.substring(candidate.length()));
+            }
+            // Bounded at a host and a path prefix per entry; others are only counted once the halving makes room
+            if (sightings.size() < 2 * urlDictionaryProperties.getMaxEntries() || sightings.containsKey(candidate)) {
+                count(sightings, candidate);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Loads the dictionary on the first run, then learns prefixes seen at least
+     * {@code url-dictionary.min-sightings} times since and evicts the least used ones beyond
+     * {@code url-dictionary.max-entries}. Every database call goes through the circuit breaker;
+     * a failed run is simply repeated on the next one.
+     */
+    @Scheduled(fixedDelayString = "${url-dictionary.learn-interval:PT10S}")
+    public synchronized void learnFrequentPrefixes() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            ensureLoaded();
+            List<Map.Entry<String, Long>> frequent = sightings.entrySet().stream()
+                    .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                    .filter(entry -> entry.getValue() >= urlDictionaryProperties.getMinSightings())
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .toList();
+            for (Map.Entry<String, Long> entry : frequent) {
+                learn(entry.getKey(), entry.getValue());
+            }
+        } catch (DataAccessException | DatabaseUnavailableException e) {
+            log.warn("Could not learn URL prefixes, retrying on next run: {}", e.getMessage());
+        }
+        evictLeastUsed();
+        halve(uses);
+        halve(sightings);
+    }
+
+    /**
+     * Joins a prefixed URL back into the full long URL.
+     *
+     * @param prefixId The dictionary id of the prefix.
+     * @param suffix   The rest of the URL.
+     * @return The long URL.
+     * @throws IllegalStateException if no prefix with this id exists.
+     */
+    public String join(int prefixId, String suffix) {
+        return prefixOf(prefixId) + suffix;
+    }
+
+    /**
+     * Encodes a long URL for an in-memory cache using known prefixes only: the prefix id,
+     * or 0 if none matches, as a varint followed by the UTF-8 suffix.
+     *
+     * @param longUrl The long URL to encode.
+     * @return The packed bytes.
+     */
+    public byte[] pack(String longUrl) {
+        PrefixedUrl prefixed = splitKnown(longUrl, UrlPrefix.candidatesOf(longUrl));
+        int id = prefixed != null ? prefixed.prefixId() : 0;
+        String suffix = prefixed != null ? prefixed.suffix() : longUrl;
+        byte[] suffixBytes = suffix.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(suffixBytes.length + 5);
+        while ((id & ~0x7F) != 0) {
+            out.write((id & 0x7F) | 0x80);
+            id >>>= 7;
+        }
+        out.write(id);
+        out.write(suffixBytes, 0, suffixBytes.length);
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes bytes produced by {@link #pack(String)}.
+     *
+     * @param packed The packed bytes.
+     * @return The long URL.
+     */
+    public String unpack(byte[] packed) {
+        int id = 0;
+        int position = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = packed[position++];
+            id |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        String suffix = new String(packed, position, packed.length - position, StandardCharsets.UTF_8);
+        return id == 0 ? suffix : join(id, suffix);
+    }
+
+    /**
+     * @return The number of prefixes known to this instance.
+     */
+    public int size() {
+        return prefixesById.size();
+    }
+
+    private PrefixedUrl splitKnown(String longUrl, List<String> candidates) {
+        for (String candidate : candidates) {
+            Integer id = idsByPrefix.get(candidate);
+            if (id != null) {
+                return new PrefixedUrl(id, longUrl.substring(candidate.length()));
+            }
+        }
+        return null;
+    }
+
+    private String prefixOf(int prefixId) {
+        String prefix = prefixesById.get(prefixId);
+        if (prefix == null) {
+            // Learned by another instance since this one loaded the dictionary
+            prefix = databaseCircuitBreaker.call(() -> prefixRepository.findById(prefixId))
+                    .map(this::remember)
+                    .orElseThrow(() -> new IllegalStateException("Unknown URL prefix id: " + prefixId));
+        }
+        return prefix;
+    }
+
+    private void learn(String prefix, long seen) {
+        sightings.remove(prefix);
+        for (int attempt = 1; attempt <= MAX_INSERT_ATTEMPTS; attempt++) {
+            Optional<UrlPrefix> existing = databaseCircuitBreaker.call(() -> prefixRepository.findByPrefix(prefix));
+            if (existing.isPresent()) {
+                use(existing.get(), seen);
+                return;
+            }
+            int nextId = databaseCircuitBreaker.call(() -> prefixRepository.findTopByOrderByIdDesc())
+                    .map(top -> top.getId() + 1).orElse(1);
+            try {
+                databaseCircuitBreaker.run(() -> prefixRepository.insert(new UrlPrefix(nextId, prefix)));
+                use(new UrlPrefix(nextId, prefix), seen);
+                log.debug("Learned URL prefix {}: {}", nextId, prefix);
+                return;
+            } catch (DuplicateKeyException e) {
+                log.debug("URL prefix id {} or prefix {} was taken concurrently, retrying", nextId, prefix);
+            }
+        }
+    }
+
+    // Starts splitting new links against the prefix, as if it had been used as often as it was seen
+    private void use(UrlPrefix entry, long seen) {
+        remember(entry);
+        idsByPrefix.put(entry.getPrefix(), entry.getId());
+        uses.computeIfAbsent(entry.getPrefix(), key -> new LongAdder()).add(seen);
+    }
+
+    private String remember(UrlPrefix entry) {
+        prefixesById.put(entry.getId(), entry.getPrefix());
+        return entry.getPrefix();
+    }
+
+    private void evictLeastUsed() {
+        int excess = idsByPrefix.size() - urlDictionaryProperties.getMaxEntries();
+        if (excess <= 0) {
+            return;
+        }
+        List<String> leastUsed = idsByPrefix.keySet().stream()
+                .sorted(Comparator.comparingLong(prefix -> sumOf(uses.get(prefix))))
+                .limit(excess)
+                .toList();
+        for (String prefix : leastUsed) {
+            idsByPrefix.remove(prefix);
+            uses.remove(prefix);
+        }
+        log.debug("Evicted {} little used URL prefixes", leastUsed.size());
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            List<UrlPrefix> entries = databaseCircuitBreaker.call(prefixRepository::findAll);
+            entries.forEach(this::remember);
+            // The newest are kept in use until usage shows which to evict
+            entries.stream()
+                    .sorted(Comparator.comparingInt(UrlPrefix::getId).reversed())
+                    .limit(urlDictionaryProperties.getMaxEntries())
+                    .forEach(entry -> idsByPrefix.put(entry.getPrefix(), entry.getId()));
+            loaded = true;
+            log.info("Loaded {} URL prefixes", prefixesById.size());
+        }
+    }
+
+    private static void count(ConcurrentHashMap<String, LongAdder> counts, String prefix) {
+        counts.computeIfAbsent(prefix, key -> new LongAdder()).increment();
+    }
+
+    private static void halve(ConcurrentHashMap<String, LongAdder> counts) {
+        counts.forEach((prefix, count) -> {
+            long half = count.sum() / 2;
+            count.reset();
+            count.add(half);
+        });
+        counts.values().removeIf(count -> count.sum() == 0);
+    }
+
+    private static long sumOf(LongAdder count) {
+        return count != null ? count.sum() : 0;
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.melihemreguler.urlshortener.repository;
+
+import com.github.melihemreguler.urlshortener.dto.UrlPrefix;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UrlPrefixRepository extends MongoRepository<UrlPrefix, Integer> {
+    Optional<UrlPrefix> findByPrefix(String prefix);
+    Optional<UrlPrefix> findTopByOrderByIdDesc();
+}
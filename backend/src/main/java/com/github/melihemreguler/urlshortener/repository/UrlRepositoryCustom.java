@@ -0,0 +1,34 @@
+package com.github.melihemreguler.urlshortener.repository;
+
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.model.UrlField;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Queries on the long URL, which may be stored in full or as a dictionary prefix plus suffix.
+ */
+public interface UrlRepositoryCustom {
+    Optional<UrlDto> findByLongUrl(String longUrl);
+
+    // Search in both longUrl and shortCode fields with case-insensitive regex
+    Page<UrlDto> findByLongUrlContainingIgnoreCaseOrShortCodeContainingIgnoreCase(
+        String searchTerm, Pageable pageable);
+
+    // A page of links, reading only what the given fields need
+    Page<UrlDto> findPage(Pageable pageable, Set<UrlField> fields);
+
+    // The same search, reading only what the given fields need
+    Page<UrlDto> searchPage(String searchTerm, Pageable pageable, Set<UrlField> fields);
+
+    // Links with any of the given numeric codes or legacy short codes, in one $in query
+    List<UrlDto> findByCodes(Collection<Long> codes, Collection<String> legacyShortCodes, boolean withMetadata);
+
+    // Links after the given id in id order, with only their short code and stored click fields
+    List<UrlDto> findClicksAfter(String lastSeenId, int limit);
+}
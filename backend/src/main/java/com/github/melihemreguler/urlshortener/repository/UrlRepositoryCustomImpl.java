@@ -0,0 +1,167 @@
+package com.github.melihemreguler.urlshortener.repository;
+
+import com.github.melihemreguler.urlshortener.config.BulkheadProperties;
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.dto.UrlPrefix;
+import com.github.melihemreguler.urlshortener.exception.ServiceOverloadedException;
+import com.github.melihemreguler.urlshortener.model.UrlField;
+import com.mongodb.MongoExecutionTimeoutException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.github.melihemreguler.urlshortener.repository.LongUrlCompressionCallback.LONG_URL_FIELD;
+import static com.github.melihemreguler.urlshortener.repository.LongUrlCompressionCallback.PREFIX_FIELD;
+import static com.github.melihemreguler.urlshortener.repository.LongUrlCompressionCallback.SUFFIX_FIELD;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Matches long URLs in both storage forms. Prefixes are resolved against the prefixes collection
+ * rather than an in-memory copy, so prefixes just learned by another instance are found too.
+ * These queries only serve the admin API and run on the {@link AdminDatabase} connection pool.
+ */
+public class UrlRepositoryCustomImpl implements UrlRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+    private final BulkheadProperties bulkheadProperties;
+
+    @Autowired
+    public UrlRepositoryCustomImpl(AdminDatabase adminDatabase, BulkheadProperties bulkheadProperties) {
+        this.mongoTemplate = adminDatabase.getMongoTemplate();
+        this.bulkheadProperties = bulkheadProperties;
+    }
+
+    @Override
+    public Optional<UrlDto> findByLongUrl(String longUrl) {
+        List<Criteria> forms = new ArrayList<>();
+        forms.add(where(LONG_URL_FIELD).is(longUrl));
+        List<String> candidates = UrlPrefix.candidatesOf(longUrl);
+        if (!candidates.isEmpty()) {
+            for (UrlPrefix prefix : mongoTemplate.find(query(where("prefix").in(candidates)), UrlPrefix.class)) {
+                forms.add(where(PREFIX_FIELD).is(prefix.getId())
+                        .and(SUFFIX_FIELD).is(longUrl.substring(prefix.getPrefix().length())));
+            }
+        }
+        Criteria criteria = forms.size() == 1 ? forms.get(0) : new Criteria().orOperator(forms);
+        return Optional.ofNullable(mongoTemplate.findOne(new Query(criteria), UrlDto.class));
+    }
+
+    /**
+     * A term spanning the boundary between a stored prefix and its suffix is not matched.
+     *
+     * @throws ServiceOverloadedException if the search takes longer than {@code admin-bulkhead.query-timeout}.
+     */
+    @Override
+    public Page<UrlDto> findByLongUrlContainingIgnoreCaseOrShortCodeContainingIgnoreCase(String searchTerm, Pageable pageable) {
+        return searchPage(searchTerm, pageable, null);
+    }
+
+    @Override
+    public Page<UrlDto> findPage(Pageable pageable, Set<UrlField> fields) {
+        Query query = new Query().with(pageable);
+        project(query, fields);
+        List<UrlDto> content = mongoTemplate.find(query, UrlDto.class);
+        return PageableExecutionUtils.getPage(content, pageable, () -> mongoTemplate.count(new Query(), UrlDto.class));
+    }
+
+    /**
+     * @throws ServiceOverloadedException if the search takes longer than {@code admin-bulkhead.query-timeout}.
+     */
+    @Override
+    public Page<UrlDto> searchPage(String searchTerm, Pageable pageable, Set<UrlField> fields) {
+        try {
+            return search(searchTerm, pageable, fields);
+        } catch (UncategorizedMongoDbException e) {
+            // The server gave up on the query, so the database is up but the search too expensive
+            if (e.getCause() instanceof MongoExecutionTimeoutException) {
+                throw new ServiceOverloadedException("Search exceeded " + bulkheadProperties.getQueryTimeout(), e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reads only the fields needed to resolve the links, plus their creation time and stored click
+     * count if metadata is asked for, so a large batch does not ship whole documents.
+     */
+    @Override
+    public List<UrlDto> findByCodes(Collection<Long> codes, Collection<String> legacyShortCodes, boolean withMetadata) {
+        Criteria criteria = where("code").in(codes);
+        if (!legacyShortCodes.isEmpty()) {
+            criteria = new Criteria().orOperator(criteria, where("shortCode").in(legacyShortCodes).and("code").exists(false));
+        }
+        Query query = new Query(criteria);
+        // The prefix and suffix fields are needed to join the long URL back when stored against the dictionary
+        query.fields().include("shortCode", LONG_URL_FIELD, PREFIX_FIELD, SUFFIX_FIELD);
+        if (withMetadata) {
+            query.fields().include("createdAt", "lastAccessedAt", "accessCount");
+        }
+        return mongoTemplate.find(query, UrlDto.class);
+    }
+
+    @Override
+    public List<UrlDto> findClicksAfter(String lastSeenId, int limit) {
+        Query query = lastSeenId != null ? query(where("id").gt(lastSeenId)) : new Query();
+        query.with(Sort.by("id")).limit(limit);
+        query.fields().include("shortCode", "accessCount", "lastAccessedAt");
+        return mongoTemplate.find(query, UrlDto.class);
+    }
+
+    private Page<UrlDto> search(String searchTerm, Pageable pageable, Set<UrlField> fields) {
+        List<Criteria> matches = new ArrayList<>();
+        matches.add(where(LONG_URL_FIELD).regex(searchTerm, "i"));
+        matches.add(where("shortCode").regex(searchTerm, "i"));
+        if (mongoTemplate.exists(new Query(), UrlPrefix.class)) {
+            Query prefixQuery = query(where("prefix").regex(searchTerm, "i"));
+            prefixQuery.fields().include("id");
+            List<Integer> prefixIds = mongoTemplate.find(prefixQuery, UrlPrefix.class).stream()
+                    .map(UrlPrefix::getId)
+                    .toList();
+            matches.add(where(SUFFIX_FIELD).regex(searchTerm, "i"));
+            if (!prefixIds.isEmpty()) {
+                matches.add(where(PREFIX_FIELD).in(prefixIds));
+            }
+        }
+        Query query = new Query(new Criteria().orOperator(matches)).with(pageable)
+                .maxTime(bulkheadProperties.getQueryTimeout());
+        project(query, fields);
+        List<UrlDto> content = mongoTemplate.find(query, UrlDto.class);
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> mongoTemplate.count(Query.of(query).limit(-1).skip(-1), UrlDto.class));
+    }
+
+    /**
+     * Limits the query to the stored fields behind the given ones, or leaves it reading whole
+     * documents if no fields are given.
+     */
+    private static void project(Query query, Set<UrlField> fields) {
+        if (fields == null) {
+            return;
+        }
+        if (!fields.contains(UrlField.ID)) {
+            query.fields().exclude("id");
+        }
+        for (UrlField field : fields) {
+            switch (field) {
+                case ID -> query.fields().include("id");
+                case LONG_URL -> query.fields().include(LONG_URL_FIELD, PREFIX_FIELD, SUFFIX_FIELD);
+                // Click totals are keyed by short code and added to the values stored on the link
+                case LAST_ACCESSED_AT, ACCESS_COUNT -> query.fields().include("shortCode", "lastAccessedAt", "accessCount");
+                default -> query.fields().include(field.getProperty());
+            }
+        }
+    }
+}
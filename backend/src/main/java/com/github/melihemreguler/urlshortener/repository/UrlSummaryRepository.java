@@ -0,0 +1,95 @@
+package com.github.melihemreguler.urlshortener.repository;
+
+import com.github.melihemreguler.urlshortener.dto.ArchivedUrlBlock;
+import com.github.melihemreguler.urlshortener.dto.UrlCounter;
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Aggregations behind the dashboard summary. They read whole collections, so they run in the
+ * background on the {@link AdminDatabase} connection pool and never on a request or the main pool.
+ */
+@Repository
+public class UrlSummaryRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public UrlSummaryRepository(AdminDatabase adminDatabase) {
+        this.mongoTemplate = adminDatabase.getMongoTemplate();
+    }
+
+    /**
+     * @return The links in the hot collection, from the collection metadata rather than a scan.
+     */
+    public long countLinks() {
+        return mongoTemplate.estimatedCount(UrlDto.class);
+    }
+
+    /**
+     * @return The links in the archive, i.e. the short codes left in its blocks.
+     */
+    public long countArchivedLinks() {
+        return total(newAggregation(ArchivedUrlBlock.class,
+                group().sum(ArrayOperators.Size.lengthOfArray("shortCodes")).as("total")));
+    }
+
+    /**
+     * Adds up the click counters and the counts still kept on link documents from before counters
+     * were moved out of them. Counts kept on archived links of that time are not included.
+     *
+     * @return The clicks counted on all links.
+     */
+    public long sumClicks() {
+        long counted = total(newAggregation(UrlCounter.class, group().sum("count").as("total")));
+        long legacy = total(newAggregation(UrlDto.class,
+                match(where("accessCount").gt(0)),
+                group().sum("accessCount").as("total")));
+        return counted + legacy;
+    }
+
+    /**
+     * Counts the links created per day since the given time, off the createdAt index.
+     *
+     * @param since The start of the first day.
+     * @param zone  The time zone days are told apart in.
+     * @return The links created per day, for days with any.
+     */
+    public Map<LocalDate, Long> countCreatedPerDay(LocalDateTime since, ZoneId zone) {
+        TypedAggregation<UrlDto> aggregation = newAggregation(UrlDto.class,
+                match(where("createdAt").gte(since)),
+                project().and(DateOperators.dateOf("createdAt")
+                        .withTimezone(DateOperators.Timezone.valueOf(zone.getId()))
+                        .toString("%Y-%m-%d")).as("day"),
+                group("day").count().as("count"));
+        Map<LocalDate, Long> created = new HashMap<>();
+        for (Document day : mongoTemplate.aggregate(aggregation, Document.class)) {
+            created.put(LocalDate.parse(day.getString("_id")), ((Number) day.get("count")).longValue());
+        }
+        return created;
+    }
+
+    private long total(TypedAggregation<?> aggregation) {
+        Document result = mongoTemplate.aggregate(aggregation, Document.class).getUniqueMappedResult();
+        // No documents to group leaves no result at all
+        return result == null ? 0 : ((Number) result.get("total")).longValue();
+    }
+}
@@ -0,0 +1,286 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.exception.DatabaseUnavailableException;
+import com.github.melihemreguler.urlshortener.model.CounterDelta;
+import com.github.melihemreguler.urlshortener.model.CounterTotal;
+import com.github.melihemreguler.urlshortener.model.CounterWrite;
+import com.github.melihemreguler.urlshortener.repository.DatabaseCircuitBreaker;
+import com.github.melihemreguler.urlshortener.repository.UrlCounterRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts clicks in memory and flushes them in batches to the counters collection,
+ * so the redirect path never rewrites the link document. Each instance writes a link's counter
+ * at most once per flush however often it is clicked, so a single counter document per link
+ * takes the load of even the most popular links.
+ */
+@Service
+@Slf4j
+public class AccessCounterService implements MeterBinder {
+
+    // Upper bound of short codes per $in query when joining counts into responses
+    private static final int TOTALS_BATCH_SIZE = 1000;
+
+    private final UrlCounterRepository counterRepository;
+    private final DatabaseCircuitBreaker databaseCircuitBreaker;
+    private final UrlChangeLog urlChangeLog;
+    private final PopularityLeaderboard popularityLeaderboard;
+    private final ConcurrentHashMap<String, PendingCount> pending = new ConcurrentHashMap<>();
+    // Writes that failed and may or may not have been applied, retried as they were until confirmed
+    private final ConcurrentHashMap<String, CounterWrite> unconfirmed = new ConcurrentHashMap<>();
+    // Random start, so flush ids of different instances do not meet on a counter
+    private long nextFlushId = ThreadLocalRandom.current().nextLong();
+    private volatile long lastFlushedMillis = System.currentTimeMillis();
+    private final AtomicLong failedFlushes = new AtomicLong();
+
+    @Autowired
+    public AccessCounterService(UrlCounterRepository counterRepository, DatabaseCircuitBreaker databaseCircuitBreaker,
+                                UrlChangeLog urlChangeLog, PopularityLeaderboard popularityLeaderboard) {
+        this.counterRepository = counterRepository;
+        this.databaseCircuitBreaker = databaseCircuitBreaker;
+        this.urlChangeLog = urlChangeLog;
+        this.popularityLeaderboard = popularityLeaderboard;
+    }
+
+    /**
+     * Records a click on the given short code. Only touches memory.
+     *
+     * @param shortCode The short code that was accessed.
+     */
+    public void recordAccess(String shortCode) {
+        PendingCount count = pending.computeIfAbsent(shortCode, code -> new PendingCount());
+        count.record(System.currentTimeMillis());
+        if (count.retired) {
+            // A flush dropped the entry as idle while the click was being recorded
+            requeue(shortCode, count);
+        }
+    }
+
+    /**
+     * Writes clicks buffered since the previous flush in a single bulk operation, under an id of this flush.
+     * Writes that fail, or are held back while the database circuit is open, are retried unchanged by the
+     * next flush: a failed write may still have been applied, and its flush id keeps the retry from counting
+     * it twice. An outage only delays counts, it neither loses nor inflates them.
+     */
+    @Scheduled(fixedDelayString = "${counters.flush-interval:PT1S}")
+    public synchronized void flush() {
+        long flushId = nextFlushId++;
+        List<CounterWrite> writes = new ArrayList<>(unconfirmed.values());
+        drain().forEach(delta -> writes.add(new CounterWrite(flushId, delta)));
+        List<CounterDelta> written = new ArrayList<>(writes.size());
+        if (!writes.isEmpty()) {
+            List<CounterWrite> failed;
+            try {
+                failed = databaseCircuitBreaker.call(() -> counterRepository.increment(writes));
+            } catch (DataAccessException | DatabaseUnavailableException e) {
+                if (databaseCircuitBreaker.getState() == DatabaseCircuitBreaker.State.CLOSED) {
+                    log.warn("Failed to flush {} counter deltas, retrying on next flush: {}", writes.size(), e.getMessage());
+                } else {
+                    log.debug("Database circuit open, keeping {} counter deltas buffered", writes.size());
+                }
+                failedFlushes.incrementAndGet();
+                writes.forEach(write -> unconfirmed.put(write.delta().shortCode(), write));
+                return;
+            }
+            Set<CounterWrite> retried = new HashSet<>(failed);
+            for (CounterWrite write : writes) {
+                if (retried.contains(write)) {
+                    unconfirmed.put(write.delta().shortCode(), write);
+                } else {
+                    unconfirmed.remove(write.delta().shortCode(), write);
+                    written.add(write.delta());
+                }
+            }
+            if (!failed.isEmpty()) {
+                log.warn("Failed to flush {} of {} counter deltas, retrying on next flush", failed.size(), writes.size());
+                failedFlushes.incrementAndGet();
+            }
+            log.debug("Flushed {} counter deltas", written.size());
+            urlChangeLog.clicked(written.stream().map(CounterDelta::shortCode).toList());
+        }
+        // Also retries clicks an earlier flush could not add to the leaderboard
+        popularityLeaderboard.clicked(written);
+        lastFlushedMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Publishes the flush lag, i.e. how far stored counts may trail behind, along with the
+     * number of links with buffered clicks and of failed flushes.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TimeGauge.builder("urlshortener.counters.flush.lag", this, TimeUnit.MILLISECONDS,
+                        service -> System.currentTimeMillis() - service.lastFlushedMillis)
+                .description("Time since counter deltas were last written successfully")
+                .register(registry);
+        Gauge.builder("urlshortener.counters.pending", pending, Map::size)
+                .description("Links with clicks buffered in memory")
+                .register(registry);
+        FunctionCounter.builder("urlshortener.counters.flush.failures", failedFlushes, AtomicLong::get)
+                .description("Flushes that failed and were retried")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Returns the click totals of the given links, including clicks not yet flushed by this instance.
+     *
+     * @param shortCodes The short codes to look up.
+     * @return Totals keyed by short code; links that were never clicked are absent.
+     */
+    public Map<String, CounterTotal> getTotals(Collection<String> shortCodes) {
+        Map<String, CounterTotal> totals = new HashMap<>();
+        List<String> batch = new ArrayList<>(Math.min(shortCodes.size(), TOTALS_BATCH_SIZE));
+        for (String shortCode : shortCodes) {
+            batch.add(shortCode);
+            if (batch.size() == TOTALS_BATCH_SIZE) {
+                totals.putAll(databaseCircuitBreaker.call(() -> counterRepository.findTotals(batch)));
+                batch.clear();
+            }
+        }
+        totals.putAll(databaseCircuitBreaker.call(() -> counterRepository.findTotals(batch)));
+
+        for (String shortCode : shortCodes) {
+            CounterWrite unwritten = unconfirmed.get(shortCode);
+            if (unwritten != null) {
+                totals.merge(shortCode, new CounterTotal(unwritten.delta().count(), unwritten.delta().lastAccessedAt()),
+                        (current, other) -> current.plus(other.count(), other.lastAccessedAt()));
+            }
+            PendingCount unflushed = pending.get(shortCode);
+            if (unflushed != null && unflushed.count.sum() > 0) {
+                totals.merge(shortCode, new CounterTotal(unflushed.count.sum(), toDateTime(unflushed.lastAccessMillis)),
+                        (current, other) -> current.plus(other.count(), other.lastAccessedAt()));
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Fills in access counts of the given links, on top of the count stored on the link document itself.
+     *
+     * @param urls The links about to be returned to a client.
+     */
+    public void applyTotals(List<UrlDto> urls) {
+        if (urls.isEmpty()) {
+            return;
+        }
+        Map<String, CounterTotal> totals = getTotals(urls.stream().map(UrlDto::getShortCode).toList());
+        for (UrlDto url : urls) {
+            CounterTotal total = totals.get(url.getShortCode());
+            if (total != null) {
+                CounterTotal combined = total.plus(url.getAccessCount(), url.getLastAccessedAt());
+                url.setAccessCount(combined.count());
+                url.setLastAccessedAt(combined.lastAccessedAt());
+            }
+        }
+    }
+
+    /**
+     * Drops buffered clicks, stored counters and the leaderboard entry of a deleted link.
+     *
+     * @param shortCode The short code of the deleted link.
+     */
+    public void delete(String shortCode) {
+        pending.remove(shortCode);
+        unconfirmed.remove(shortCode);
+        databaseCircuitBreaker.run(() -> counterRepository.deleteByShortCode(shortCode));
+        popularityLeaderboard.removed(List.of(shortCode));
+    }
+
+    private List<CounterDelta> drain() {
+        List<CounterDelta> deltas = new ArrayList<>();
+        for (Map.Entry<String, PendingCount> entry : pending.entrySet()) {
+            String shortCode = entry.getKey();
+            if (unconfirmed.containsKey(shortCode)) {
+                // Left to the next flush, so the retried write goes out as it was
+                continue;
+            }
+            PendingCount count = entry.getValue();
+            long clicks = count.count.sumThenReset();
+            if (clicks == 0) {
+                // Idle since the previous flush: drop the entry, re-queueing any click that raced the removal
+                if (pending.remove(shortCode, count)) {
+                    count.retired = true;
+                    requeue(shortCode, count);
+                }
+                continue;
+            }
+            deltas.add(new CounterDelta(shortCode, clicks, toDateTime(count.lastAccessMillis)));
+        }
+        return deltas;
+    }
+
+    /**
+     * Moves clicks left on a retired entry to the live one. Clicks are taken off with sumThenReset, which
+     * resets each cell atomically, so a click racing the removal is moved exactly once: by the flush if it
+     * landed before the reset, by the recording thread, which then sees the entry retired, if after.
+     * Loops in case the live entry is retired in turn before the clicks land on it.
+     */
+    private void requeue(String shortCode, PendingCount retired) {
+        PendingCount from = retired;
+        while (from.retired) {
+            long clicks = from.count.sumThenReset();
+            if (clicks == 0) {
+                return;
+            }
+            PendingCount live = pending.computeIfAbsent(shortCode, code -> new PendingCount());
+            live.restore(clicks, toDateTime(from.lastAccessMillis));
+            from = live;
+        }
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static final class PendingCount {
+        private final LongAdder count = new LongAdder();
+        private volatile long lastAccessMillis;
+        // Set once the entry is removed from the map; clicks recorded on it after that are moved on
+        private volatile boolean retired;
+
+        void record(long nowMillis) {
+            count.increment();
+            lastAccessMillis = nowMillis;
+        }
+
+        void restore(long clicks, LocalDateTime lastAccessedAt) {
+            count.add(clicks);
+            long millis = lastAccessedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            if (millis > lastAccessMillis) {
+                lastAccessMillis = millis;
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Encodes many links into a single deflate-compressed payload for the archive collection.
+ * Links sharing hosts and path prefixes compress well together, which is why blocks hold
+ * hundreds of entries instead of one.
+ */
+public final class ArchiveBlockCodec {
+
+    // Version 2 widened the access count to a long; blocks written as version 1 are still read
+    private static final byte FORMAT_VERSION = 2;
+    private static final byte INT_COUNT_VERSION = 1;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private ArchiveBlockCodec() {
+    }
+
+    /**
+     * Compresses the given links into a single payload.
+     *
+     * @param urls The links to encode.
+     * @return The compressed payload.
+     */
+    public static byte[] encode(List<UrlDto> urls) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(urls.size() * 32);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(urls.size());
+            for (UrlDto url : urls) {
+                writeString(out, url.getId());
+                writeString(out, url.getShortCode());
+                writeString(out, url.getLongUrl());
+                writeTimestamp(out, url.getCreatedAt());
+                writeTimestamp(out, url.getLastAccessedAt());
+                out.writeLong(url.getAccessCount());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode archive block", e);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decompresses a payload produced by {@link #encode(List)}.
+     *
+     * @param payload The compressed payload.
+     * @return The decoded links, in the order they were encoded.
+     */
+    public static List<UrlDto> decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(payload)))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION && version != INT_COUNT_VERSION) {
+                throw new IllegalStateException("Unsupported archive block version: " + version);
+            }
+            int count = in.readInt();
+            List<UrlDto> urls = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                UrlDto url = new UrlDto();
+                url.setId(readString(in));
+                url.setShortCode(readString(in));
+                url.setLongUrl(readString(in));
+                url.setCreatedAt(readTimestamp(in));
+                url.setLastAccessedAt(readTimestamp(in));
+                url.setAccessCount(version == INT_COUNT_VERSION ? in.readInt() : in.readLong());
+                urls.add(url);
+            }
+            return urls;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode archive block", e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeTimestamp(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeLong(value != null ? value.toInstant(ZoneOffset.UTC).toEpochMilli() : NO_TIMESTAMP);
+    }
+
+    private static LocalDateTime readTimestamp(DataInputStream in) throws IOException {
+        long millis = in.readLong();
+        return millis != NO_TIMESTAMP ? LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC) : null;
+    }
+}
@@ -0,0 +1,130 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.github.melihemreguler.urlshortener.config.FlightRecorderProperties;
+import com.github.melihemreguler.urlshortener.jfr.HttpExchangeEvent;
+import com.github.melihemreguler.urlshortener.jfr.PipelineStageEvent;
+import com.github.melihemreguler.urlshortener.model.FlightRecordingStatus;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Starts, stops and dumps a single Java Flight Recording of this instance at runtime,
+ * including the pipeline stage and HTTP exchange events.
+ */
+@Service
+@Slf4j
+public class FlightRecorderService {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final FlightRecorderProperties flightRecorderProperties;
+    private Recording recording;
+
+    @Autowired
+    public FlightRecorderService(FlightRecorderProperties flightRecorderProperties) {
+        this.flightRecorderProperties = flightRecorderProperties;
+    }
+
+    /**
+     * Starts a recording unless one is already running.
+     *
+     * @return The status after starting.
+     */
+    public synchronized FlightRecordingStatus start() {
+        if (isRunning()) {
+            return status();
+        }
+        try {
+            Recording newRecording = new Recording(Configuration.getConfiguration(flightRecorderProperties.getSettings()));
+            newRecording.setName("urlshortener");
+            newRecording.setToDisk(true);
+            newRecording.setMaxSize(flightRecorderProperties.getMaxSize().toBytes());
+            newRecording.enable(PipelineStageEvent.class).withThreshold(flightRecorderProperties.getThreshold());
+            newRecording.enable(HttpExchangeEvent.class).withThreshold(flightRecorderProperties.getThreshold());
+            newRecording.start();
+            closeRecording();
+            recording = newRecording;
+            log.info("Started flight recording with '{}' settings", flightRecorderProperties.getSettings());
+            return status();
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Could not load flight recorder settings: " + flightRecorderProperties.getSettings(), e);
+        }
+    }
+
+    /**
+     * Dumps the running recording to a new file and keeps recording.
+     *
+     * @return The status, including the file written.
+     * @throws IllegalStateException if no recording is running.
+     */
+    public synchronized FlightRecordingStatus dump() {
+        if (!isRunning()) {
+            throw new IllegalStateException("No flight recording is running");
+        }
+        return new FlightRecordingStatus(recording.getState().name(), recording.getStartTime(), dumpToFile().toString());
+    }
+
+    /**
+     * Stops the running recording and dumps it to a new file.
+     *
+     * @return The status, including the file written.
+     * @throws IllegalStateException if no recording is running.
+     */
+    public synchronized FlightRecordingStatus stop() {
+        if (!isRunning()) {
+            throw new IllegalStateException("No flight recording is running");
+        }
+        recording.stop();
+        Path file = dumpToFile();
+        FlightRecordingStatus status = new FlightRecordingStatus(recording.getState().name(), recording.getStartTime(), file.toString());
+        closeRecording();
+        log.info("Stopped flight recording, written to {}", file);
+        return status;
+    }
+
+    public synchronized boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    public synchronized FlightRecordingStatus status() {
+        if (recording == null) {
+            return new FlightRecordingStatus(RecordingState.CLOSED.name(), null, null);
+        }
+        return new FlightRecordingStatus(recording.getState().name(), recording.getStartTime(), null);
+    }
+
+    @PreDestroy
+    public synchronized void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private Path dumpToFile() {
+        try {
+            Path directory = flightRecorderProperties.getDumpDirectory();
+            Files.createDirectories(directory);
+            Path file = directory.resolve("urlshortener-" + FILE_TIMESTAMP.format(Instant.now()) + "-" + ProcessHandle.current().pid() + ".jfr");
+            recording.dump(file);
+            log.info("Dumped flight recording to {}", file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not dump flight recording", e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.melihemreguler.urlshortener.config.LinkCacheProperties;
+import com.github.melihemreguler.urlshortener.repository.UrlPrefixDictionary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.BiConsumer;
+
+/**
+ * In-process cache of short code to long URL for the redirect path.
+ * Link documents are write-once, so an entry only goes stale when the link is deleted.
+ * With the URL prefix dictionary enabled, long URLs are held packed against it, which fits
+ * more entries into the same heap at the cost of rebuilding the string on every hit.
+ */
+@Component
+public class LinkCache implements MeterBinder {
+
+    // Either the long URL itself or its packed form, depending on the dictionary setting when cached
+    private final Cache<String, Object> cache;
+    private final UrlPrefixDictionary urlPrefixDictionary;
+
+    @Autowired
+    public LinkCache(LinkCacheProperties linkCacheProperties, UrlPrefixDictionary urlPrefixDictionary) {
+        this.urlPrefixDictionary = urlPrefixDictionary;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(linkCacheProperties.getMaximumSize())
+                .expireAfterWrite(linkCacheProperties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Publishes hit, miss and eviction counts of the cache as cache.* meters named "links".
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "links");
+    }
+
+    /**
+     * @param shortCode The short code to look up.
+     * @return The cached long URL, or null when the code is not cached.
+     */
+    public String get(String shortCode) {
+        Object cached = cache.getIfPresent(shortCode);
+        return cached instanceof byte[] packed ? urlPrefixDictionary.unpack(packed) : (String) cached;
+    }
+
+    public void put(String shortCode, String longUrl) {
+        cache.put(shortCode, urlPrefixDictionary.isEnabled() ? urlPrefixDictionary.pack(longUrl) : longUrl);
+    }
+
+    public void evict(String shortCode) {
+        cache.invalidate(shortCode);
+    }
+
+    /**
+     * Visits every cached link with its long URL unpacked.
+     *
+     * @param action Called with the short code and long URL of each entry.
+     */
+    public void forEach(BiConsumer<String, String> action) {
+        cache.asMap().forEach((shortCode, cached) ->
+                action.accept(shortCode, cached instanceof byte[] packed ? urlPrefixDictionary.unpack(packed) : (String) cached));
+    }
+}
@@ -0,0 +1,162 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.github.melihemreguler.urlshortener.config.LinkCacheProperties;
+import com.github.melihemreguler.urlshortener.repository.DatabaseCircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The link cache, periodically written to a local file while the database is reachable.
+ * While the database circuit is open, redirects that miss the cache are served from the last
+ * snapshot, which also covers entries the cache has expired since and survives a restart.
+ * The file is only read during an outage and is released once the circuit closes. Links deleted
+ * since the file was written are left out of it when it is read.
+ */
+@Component
+@Slf4j
+public class LinkSnapshot {
+
+    // Bumped whenever the file layout changes; files of another version are ignored
+    private static final int FORMAT_VERSION = 1;
+
+    private final LinkCache linkCache;
+    private final LinkCacheProperties linkCacheProperties;
+    private final DatabaseCircuitBreaker databaseCircuitBreaker;
+    private volatile Map<String, String> loaded;
+    // Short codes deleted since the file was last written, which it may still have
+    private final Set<String> deleted = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public LinkSnapshot(LinkCache linkCache, LinkCacheProperties linkCacheProperties,
+                        DatabaseCircuitBreaker databaseCircuitBreaker) {
+        this.linkCache = linkCache;
+        this.linkCacheProperties = linkCacheProperties;
+        this.databaseCircuitBreaker = databaseCircuitBreaker;
+    }
+
+    /**
+     * Rewrites the snapshot from the link cache unless the database is unreachable, in which
+     * case the cache may already be missing entries the current snapshot still has.
+     */
+    @Scheduled(fixedDelayString = "${link-cache.snapshot-interval:PT5M}", initialDelayString = "${link-cache.snapshot-interval:PT5M}")
+    public void save() {
+        if (databaseCircuitBreaker.getState() != DatabaseCircuitBreaker.State.CLOSED) {
+            return;
+        }
+        loaded = null;
+        // Links deleted while the file is written may still be in it, so only these are forgotten
+        Set<String> written = Set.copyOf(deleted);
+        Path file = linkCacheProperties.getSnapshotPath();
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        int[] links = {0};
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(temporary))))) {
+                out.writeInt(FORMAT_VERSION);
+                linkCache.forEach((shortCode, longUrl) -> {
+                    try {
+                        out.writeBoolean(true);
+                        writeString(out, shortCode);
+                        writeString(out, longUrl);
+                        links[0]++;
+                    } catch (IOException e) {
+                        throw new SnapshotWriteException(e);
+                    }
+                });
+                out.writeBoolean(false);
+            }
+            // Readers never see a half-written file
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            deleted.removeAll(written);
+            log.debug("Wrote {} links to snapshot {}", links[0], file);
+        } catch (IOException | SnapshotWriteException e) {
+            log.warn("Could not write link snapshot {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * @param shortCode The short code to look up.
+     * @return The long URL in the last snapshot, or null if the snapshot does not have it.
+     */
+    public String find(String shortCode) {
+        Map<String, String> links = loaded;
+        if (links == null) {
+            links = load();
+        }
+        return links.get(shortCode);
+    }
+
+    /**
+     * Stops serving a deleted link from the snapshot, which is only rewritten every snapshot interval.
+     *
+     * @param shortCode The short code of the deleted link.
+     */
+    public void evict(String shortCode) {
+        deleted.add(shortCode);
+        Map<String, String> links = loaded;
+        if (links != null) {
+            links.remove(shortCode);
+        }
+    }
+
+    private synchronized Map<String, String> load() {
+        if (loaded != null) {
+            return loaded;
+        }
+        Path file = linkCacheProperties.getSnapshotPath();
+        Map<String, String> links = new ConcurrentHashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() == FORMAT_VERSION) {
+                while (in.readBoolean()) {
+                    links.put(readString(in), readString(in));
+                }
+            }
+            links.keySet().removeAll(deleted);
+            log.info("Loaded {} links from snapshot {} to serve redirects while the database is unreachable", links.size(), file);
+        } catch (NoSuchFileException e) {
+            log.warn("No link snapshot at {}, only cached links can be redirected", file);
+        } catch (IOException e) {
+            log.warn("Could not read link snapshot {}, only cached links can be redirected: {}", file, e.getMessage());
+        }
+        loaded = links;
+        return links;
+    }
+
+    // Long URLs have no length limit, so DataOutputStream.writeUTF and its 64 KB cap are not used
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8);
+    }
+
+    // Carries an IOException out of the cache visitor
+    private static class SnapshotWriteException extends RuntimeException {
+        SnapshotWriteException(IOException cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
+}
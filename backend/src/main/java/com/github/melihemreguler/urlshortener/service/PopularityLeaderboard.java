@@ -0,0 +1,188 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.dto.UrlPopularity;
+import com.github.melihemreguler.urlshortener.exception.DatabaseUnavailableException;
+import com.github.melihemreguler.urlshortener.model.CounterDelta;
+import com.github.melihemreguler.urlshortener.model.CounterTotal;
+import com.github.melihemreguler.urlshortener.model.PopularityCursor;
+import com.github.melihemreguler.urlshortener.repository.CollectionVersionRepository;
+import com.github.melihemreguler.urlshortener.repository.DatabaseCircuitBreaker;
+import com.github.melihemreguler.urlshortener.repository.UrlCounterRepository;
+import com.github.melihemreguler.urlshortener.repository.UrlPopularityRepository;
+import com.github.melihemreguler.urlshortener.repository.UrlRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Leaderboard of clicked links by click total, from which GET /api/url?sort=popularity reads a page
+ * off an index instead of sorting the links collection. Each counter flush raises the links it clicked
+ * to their totals read back from the counters, without touching the links collection, so the leaderboard trails the counters by at most a
+ * flush interval. Entries are only ever raised to totals, never added to, so a write retried after it
+ * may already have been applied, or made by several instances at once, counts nothing twice.
+ * <p>
+ * Links are taken off the leaderboard when they are deleted or archived and put back with their stored
+ * total when restored. Clicks counted before the leaderboard existed, including those stored on the
+ * links themselves before the counters were split off, are entered by a seed on the first start.
+ */
+@Component
+@Slf4j
+public class PopularityLeaderboard {
+
+    // Name of the leaderboard in the collection versions, counting completed seeds
+    private static final String SEEDS = "url_popularity";
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    private final UrlPopularityRepository popularityRepository;
+    private final UrlCounterRepository counterRepository;
+    private final UrlRepository urlRepository;
+    private final CollectionVersionRepository collectionVersionRepository;
+    private final DatabaseCircuitBreaker databaseCircuitBreaker;
+    // Links whose clicks were written to the counters but whose totals are not yet on the leaderboard
+    private final Set<String> unranked = new HashSet<>();
+
+    @Autowired
+    public PopularityLeaderboard(UrlPopularityRepository popularityRepository, UrlCounterRepository counterRepository,
+                                 UrlRepository urlRepository, CollectionVersionRepository collectionVersionRepository,
+                                 DatabaseCircuitBreaker databaseCircuitBreaker) {
+        this.popularityRepository = popularityRepository;
+        this.counterRepository = counterRepository;
+        this.urlRepository = urlRepository;
+        this.collectionVersionRepository = collectionVersionRepository;
+        this.databaseCircuitBreaker = databaseCircuitBreaker;
+    }
+
+    /**
+     * Raises the links whose clicks were just written to the counters to their totals, in one bulk
+     * write per flush. Links that cannot be raised are raised on the next flush along with its own.
+     *
+     * @param deltas The clicks of the flush; may be empty, to only retry the links of earlier flushes.
+     */
+    public synchronized void clicked(List<CounterDelta> deltas) {
+        deltas.forEach(delta -> unranked.add(delta.shortCode()));
+        if (unranked.isEmpty()) {
+            return;
+        }
+        List<String> shortCodes = List.copyOf(unranked);
+        try {
+            databaseCircuitBreaker.run(() -> popularityRepository.raise(counterRepository.findTotals(shortCodes)));
+            unranked.clear();
+        } catch (DataAccessException | DatabaseUnavailableException e) {
+            log.warn("Failed to raise {} links on the leaderboard, retrying on next flush: {}",
+                    unranked.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Takes deleted or archived links off the leaderboard. Entries left behind by a failure are
+     * dropped when a page finds their link gone.
+     *
+     * @param shortCodes The short codes of the links.
+     */
+    public void removed(Collection<String> shortCodes) {
+        if (shortCodes.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            shortCodes.forEach(unranked::remove);
+        }
+        try {
+            databaseCircuitBreaker.run(() -> popularityRepository.delete(shortCodes));
+        } catch (DataAccessException | DatabaseUnavailableException e) {
+            log.warn("Failed to take {} links off the leaderboard: {}", shortCodes.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Puts a link restored from the archive back with the total of its counters and the clicks stored on it.
+     *
+     * @param url The restored link.
+     */
+    public void restored(UrlDto url) {
+        try {
+            databaseCircuitBreaker.run(() -> {
+                Map<String, CounterTotal> counted = counterRepository.findTotals(List.of(url.getShortCode()));
+                Map<String, CounterTotal> stored = storedClicksOf(List.of(url));
+                if (!counted.isEmpty() || !stored.isEmpty()) {
+                    popularityRepository.raise(counted, stored);
+                }
+            });
+        } catch (DataAccessException | DatabaseUnavailableException e) {
+            log.warn("Failed to put restored short code {} back on the leaderboard: {}", url.getShortCode(), e.getMessage());
+        }
+    }
+
+    /**
+     * Reads entries in order, most clicked first and by short code among equal totals.
+     *
+     * @param after The position to continue after, or null for the top.
+     * @param limit The number of entries to read at most.
+     * @return The entries after the position.
+     * @throws DatabaseUnavailableException if the database cannot be reached.
+     */
+    public List<UrlPopularity> page(PopularityCursor after, int limit) {
+        return databaseCircuitBreaker.call(() -> popularityRepository.findPage(after, limit));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedInBackground() {
+        CompletableFuture.runAsync(this::seed).exceptionally(e -> {
+            log.error("Seeding the popularity leaderboard failed, retrying on next start", e);
+            return null;
+        });
+    }
+
+    /**
+     * Enters every link with clicks at its stored total, in batches, unless a seed has completed before.
+     * Totals only ever raise entries, so a seed interrupted and run again, or run by two instances at
+     * once, counts nothing twice.
+     */
+    public void seed() {
+        if (collectionVersionRepository.get(SEEDS) > 0) {
+            return;
+        }
+        log.info("Seeding the popularity leaderboard from the stored click counts...");
+        long ranked = 0;
+        String lastSeenId = null;
+        while (true) {
+            List<UrlDto> batch = urlRepository.findClicksAfter(lastSeenId, SEED_BATCH_SIZE);
+            if (batch.isEmpty()) {
+                break;
+            }
+            lastSeenId = batch.get(batch.size() - 1).getId();
+
+            Map<String, CounterTotal> counted = counterRepository.findTotals(
+                    batch.stream().map(UrlDto::getShortCode).toList());
+            Map<String, CounterTotal> stored = storedClicksOf(batch);
+            popularityRepository.raise(counted, stored);
+            Set<String> clicked = new HashSet<>(counted.keySet());
+            clicked.addAll(stored.keySet());
+            ranked += clicked.size();
+        }
+        collectionVersionRepository.add(SEEDS, 1);
+        log.info("Seeded the popularity leaderboard with {} clicked links", ranked);
+    }
+
+    // Clicks stored on the links by earlier versions, which are fixed and so only read when a link is entered
+    private static Map<String, CounterTotal> storedClicksOf(List<UrlDto> urls) {
+        Map<String, CounterTotal> stored = new HashMap<>();
+        for (UrlDto url : urls) {
+            if (url.getAccessCount() > 0) {
+                stored.put(url.getShortCode(), new CounterTotal(url.getAccessCount(), url.getLastAccessedAt()));
+            }
+        }
+        return stored;
+    }
+}
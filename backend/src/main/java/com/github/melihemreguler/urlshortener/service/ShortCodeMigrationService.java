@@ -0,0 +1,180 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Backfills the numeric code of links created before short codes were indexed as integers.
+ * Until a run has checked that every convertible link has its code, lookups that miss on the
+ * numeric index fall back to the legacy string field; afterwards only codes that could not be
+ * converted still do. Runs that leave links behind are repeated until none are left.
+ */
+@Service
+@Slf4j
+public class ShortCodeMigrationService {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private volatile boolean complete;
+    private volatile boolean unencodableCodesRemain;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Autowired
+    public ShortCodeMigrationService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateInBackground() {
+        CompletableFuture.runAsync(this::migrate).exceptionally(e -> {
+            log.error("Short code migration failed, legacy lookups stay enabled", e);
+            return null;
+        });
+    }
+
+    /**
+     * Runs the migration again while an earlier run left links without their numeric code.
+     */
+    @Scheduled(fixedDelayString = "${short-code-migration.retry-interval:PT10M}",
+            initialDelayString = "${short-code-migration.retry-interval:PT10M}")
+    public void retryIfIncomplete() {
+        retryInBackground();
+    }
+
+    // Off the scheduling thread, so a long backfill never holds up counter flushes and the other scheduled jobs
+    CompletableFuture<Void> retryInBackground() {
+        if (complete) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(this::migrate).exceptionally(e -> {
+            log.warn("Short code migration retry failed, legacy lookups stay enabled: {}", e.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * Sets the numeric code on every link that does not have one yet, in batches, then counts the
+     * links still without one. Legacy lookups are only switched off once none that could be
+     * converted are left; links whose update failed are picked up again by the next run.
+     */
+    public void migrate() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long migrated = backfill();
+            Unmigrated left = countUnmigrated();
+            unencodableCodesRemain = left.unencodable() > 0;
+            if (left.encodable() > 0) {
+                log.warn("Short code migration left {} links without a numeric code, legacy lookups stay enabled until a retry migrates them",
+                        left.encodable());
+                return;
+            }
+            complete = true;
+            log.info("Short code migration finished: {} links migrated, {} kept on legacy string lookup",
+                    migrated, left.unencodable());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private long backfill() {
+        long migrated = 0;
+        String lastSeenId = null;
+        while (true) {
+            List<UrlDto> batch = findWithoutCode(lastSeenId);
+            if (batch.isEmpty()) {
+                return migrated;
+            }
+            lastSeenId = batch.get(batch.size() - 1).getId();
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UrlDto.class);
+            int updates = 0;
+            for (UrlDto url : batch) {
+                long code = codeOf(url);
+                if (code != ShortCodes.NOT_ENCODABLE) {
+                    bulk.updateOne(query(where("id").is(url.getId())), new Update().set("code", code));
+                    updates++;
+                }
+            }
+            if (updates == 0) {
+                continue;
+            }
+            try {
+                migrated += bulk.execute().getModifiedCount();
+            } catch (BulkOperationException e) {
+                // The rest of the batch is applied; the failed links still lack a code and are counted below
+                migrated += e.getResult().getModifiedCount();
+                log.warn("{} links in a short code migration batch were not updated: {}", e.getErrors().size(), e.getMessage());
+            } catch (DataAccessException e) {
+                log.warn("A short code migration batch of {} links was not applied: {}", updates, e.getMessage());
+            }
+        }
+    }
+
+    private Unmigrated countUnmigrated() {
+        long encodable = 0;
+        long unencodable = 0;
+        String lastSeenId = null;
+        while (true) {
+            List<UrlDto> batch = findWithoutCode(lastSeenId);
+            if (batch.isEmpty()) {
+                return new Unmigrated(encodable, unencodable);
+            }
+            lastSeenId = batch.get(batch.size() - 1).getId();
+            for (UrlDto url : batch) {
+                if (codeOf(url) == ShortCodes.NOT_ENCODABLE) {
+                    unencodable++;
+                } else {
+                    encodable++;
+                }
+            }
+        }
+    }
+
+    private List<UrlDto> findWithoutCode(String lastSeenId) {
+        Criteria criteria = where("code").exists(false);
+        if (lastSeenId != null) {
+            criteria = criteria.and("id").gt(lastSeenId);
+        }
+        Query batchQuery = new Query(criteria).with(Sort.by("id")).limit(BATCH_SIZE);
+        batchQuery.fields().include("id").include("shortCode");
+        return mongoTemplate.find(batchQuery, UrlDto.class);
+    }
+
+    private static long codeOf(UrlDto url) {
+        return url.getShortCode() != null ? ShortCodes.toNumber(url.getShortCode()) : ShortCodes.NOT_ENCODABLE;
+    }
+
+    /**
+     * @param code The numeric code of a short code that missed on the numeric index.
+     * @return Whether the link may still only be findable by its legacy string field.
+     */
+    public boolean needsLegacyLookup(long code) {
+        return !complete || (code == ShortCodes.NOT_ENCODABLE && unencodableCodesRemain);
+    }
+
+    private record Unmigrated(long encodable, long unencodable) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Converts short codes between their base62 text form used in URLs and the 64-bit integer
+ * form used for storage and indexing.
+ * <p>
+ * The numbering is bijective base62 (digits 1..62 rather than 0..61), so every string gets a
+ * distinct number: "0abc" and "abc" do not collide, and legacy 8-character hex codes, whose
+ * characters are all base62 digits, map to numbers without any lookup table.
+ * Up to {@value #MAX_LENGTH} characters fit into a positive long.
+ */
+public final class ShortCodes {
+
+    public static final int MAX_LENGTH = 10;
+    public static final int GENERATED_LENGTH = 7;
+    // Returned for text that cannot be represented as a number
+    public static final long NOT_ENCODABLE = -1;
+
+    private static final char[] ALPHABET = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+    private static final int BASE = ALPHABET.length;
+
+    private ShortCodes() {
+    }
+
+    /**
+     * @param shortCode The short code as it appears in a URL.
+     * @return Its numeric form, or {@link #NOT_ENCODABLE} if it is too long or contains non-base62 characters.
+     */
+    public static long toNumber(String shortCode) {
+        int length = shortCode.length();
+        if (length == 0 || length > MAX_LENGTH) {
+            return NOT_ENCODABLE;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = digitOf(shortCode.charAt(i));
+            if (digit < 0) {
+                return NOT_ENCODABLE;
+            }
+            value = value * BASE + digit + 1;
+        }
+        return value;
+    }
+
+    /**
+     * @param number A value produced by {@link #toNumber(String)}.
+     * @return The short code it was produced from.
+     */
+    public static String fromNumber(long number) {
+        if (number <= 0) {
+            throw new IllegalArgumentException("Not a short code number: " + number);
+        }
+        char[] buffer = new char[MAX_LENGTH];
+        int position = MAX_LENGTH;
+        long remaining = number;
+        while (remaining > 0) {
+            remaining--;
+            buffer[--position] = ALPHABET[(int) (remaining % BASE)];
+            remaining /= BASE;
+        }
+        return new String(buffer, position, MAX_LENGTH - position);
+    }
+
+    /**
+     * @return A random short code of {@link #GENERATED_LENGTH} base62 characters.
+     */
+    public static String random() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] code = new char[GENERATED_LENGTH];
+        for (int i = 0; i < GENERATED_LENGTH; i++) {
+            code[i] = ALPHABET[random.nextInt(BASE)];
+        }
+        return new String(code);
+    }
+
+    private static int digitOf(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 36;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,367 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.github.melihemreguler.urlshortener.config.ArchiveProperties;
+import com.github.melihemreguler.urlshortener.dto.ArchivedUrlBlock;
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.model.ArchiveReport;
+import com.github.melihemreguler.urlshortener.model.CounterTotal;
+import com.github.melihemreguler.urlshortener.repository.ArchivedUrlBlockRepository;
+import com.github.melihemreguler.urlshortener.repository.UrlRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@Service
+@Slf4j
+public class UrlArchiveService {
+
+    private final UrlRepository urlRepository;
+    private final ArchivedUrlBlockRepository archiveRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ArchiveProperties archiveProperties;
+    private final AccessCounterService accessCounterService;
+    private final UrlCollectionVersion urlCollectionVersion;
+    private final UrlChangeLog urlChangeLog;
+    private final PopularityLeaderboard popularityLeaderboard;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "link-archive");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public UrlArchiveService(UrlRepository urlRepository, ArchivedUrlBlockRepository archiveRepository,
+                             MongoTemplate mongoTemplate, ArchiveProperties archiveProperties,
+                             AccessCounterService accessCounterService, UrlCollectionVersion urlCollectionVersion,
+                             UrlChangeLog urlChangeLog, PopularityLeaderboard popularityLeaderboard) {
+        this.urlRepository = urlRepository;
+        this.archiveRepository = archiveRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.archiveProperties = archiveProperties;
+        this.accessCounterService = accessCounterService;
+        this.urlCollectionVersion = urlCollectionVersion;
+        this.urlChangeLog = urlChangeLog;
+        this.popularityLeaderboard = popularityLeaderboard;
+    }
+
+    /**
+     * Starts moving cold links out of the hot collection every run interval when archival is enabled, on
+     * a thread of its own so a long run never holds up counter flushes and the other scheduled jobs.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void startArchiving() {
+        if (!archiveProperties.isEnabled()) {
+            return;
+        }
+        long intervalMillis = archiveProperties.getRunInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::scheduledArchive, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void scheduledArchive() {
+        try {
+            archiveColdLinks();
+        } catch (RuntimeException e) {
+            // Caught in full: an exception escaping would cancel all further runs
+            log.error("Archival run failed, retrying in {}: {}", archiveProperties.getRunInterval(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stopArchiving() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Moves links whose last access is older than the configured threshold into compressed
+     * archive blocks and reports the working set of both collections before and after.
+     *
+     * @return The report of the archival run.
+     */
+    public ArchiveReport archiveColdLinks() {
+        LocalDateTime threshold = LocalDateTime.now().minus(archiveProperties.getColdAfter());
+        long hotBefore = workingSetBytes(UrlDto.class);
+        long archiveBefore = workingSetBytes(ArchivedUrlBlock.class);
+
+        int archived = 0;
+        int blocks = 0;
+        String lastSeenId = null;
+        while (archived < archiveProperties.getMaxLinksPerRun()) {
+            int batchSize = Math.min(archiveProperties.getBlockSize(), archiveProperties.getMaxLinksPerRun() - archived);
+            List<UrlDto> candidates = findCandidates(threshold, lastSeenId, batchSize);
+            if (candidates.isEmpty()) {
+                break;
+            }
+            lastSeenId = candidates.get(candidates.size() - 1).getId();
+
+            List<UrlDto> coldLinks = archiveBlock(coldOnly(candidates, threshold), threshold);
+            if (!coldLinks.isEmpty()) {
+                urlCollectionVersion.changed();
+                urlChangeLog.deleted(coldLinks);
+                popularityLeaderboard.removed(coldLinks.stream().map(UrlDto::getShortCode).toList());
+                archived += coldLinks.size();
+                blocks++;
+            }
+        }
+
+        if (archived == 0) {
+            log.debug("No links older than {} to archive", threshold);
+            return ArchiveReport.empty(hotBefore, archiveBefore);
+        }
+
+        ArchiveReport report = new ArchiveReport(archived, blocks,
+                hotBefore, workingSetBytes(UrlDto.class),
+                archiveBefore, workingSetBytes(ArchivedUrlBlock.class));
+        log.info("Archived {} cold links into {} blocks. Hot working set: {} -> {} bytes, archive working set: {} -> {} bytes",
+                report.archivedLinks(), report.blocks(),
+                report.hotWorkingSetBefore(), report.hotWorkingSetAfter(),
+                report.archiveWorkingSetBefore(), report.archiveWorkingSetAfter());
+        return report;
+    }
+
+    /**
+     * Looks up an archived link and promotes it back to the hot collection.
+     *
+     * @param shortCode The short code to look up.
+     * @return The restored link, or empty if the code is not archived.
+     */
+    public Optional<UrlDto> restore(String shortCode) {
+        Optional<ArchivedUrlBlock> block = archiveRepository.findFirstByShortCodes(shortCode);
+        if (block.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Optional<UrlDto> archivedUrl = ArchiveBlockCodec.decode(block.get().getPayload()).stream()
+                .filter(url -> shortCode.equals(url.getShortCode()))
+                .findFirst();
+        if (archivedUrl.isEmpty()) {
+            log.warn("Archive block {} lists short code {} but its payload does not contain it", block.get().getId(), shortCode);
+            return Optional.empty();
+        }
+
+        // Write the link back before detaching it from the block so a failure never loses it
+        UrlDto url = archivedUrl.get();
+        long code = ShortCodes.toNumber(shortCode);
+        if (code != ShortCodes.NOT_ENCODABLE) {
+            url.setCode(code);
+        }
+        UrlDto restored = urlRepository.save(url);
+        urlCollectionVersion.changed();
+        urlChangeLog.created(restored);
+        popularityLeaderboard.restored(restored);
+        detach(block.get().getId(), List.of(url));
+        log.debug("Promoted archived short code: {} back to the hot collection", shortCode);
+        return Optional.of(restored);
+    }
+
+    /**
+     * Deletes an archived link by id, detaching it from its block.
+     *
+     * @param id The id of the link.
+     * @return The deleted link, or empty if no archived link has this id.
+     */
+    public Optional<UrlDto> delete(String id) {
+        Optional<ArchivedUrlBlock> block = archiveRepository.findFirstByIds(id);
+        if (block.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<UrlDto> archivedUrl = listed(block.get()).stream()
+                .filter(url -> id.equals(url.getId()))
+                .findFirst();
+        archivedUrl.ifPresent(url -> {
+            detach(block.get().getId(), List.of(url));
+            log.debug("Deleted archived short code: {}", url.getShortCode());
+        });
+        return archivedUrl;
+    }
+
+    /**
+     * Tells whether an archived link holds the given short code, which a new link must then not take.
+     *
+     * @param shortCode The short code to look up.
+     * @return True if an archive block lists the code.
+     */
+    public boolean isArchived(String shortCode) {
+        return archiveRepository.existsByShortCodes(shortCode);
+    }
+
+    /**
+     * Fills in the ids of blocks written before deletes were supported, so their links can be deleted
+     * too. Runs once in the background after startup; blocks are only looked at while any lack ids.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void indexBlockIdsInBackground() {
+        CompletableFuture.runAsync(this::indexBlockIds).exceptionally(e -> {
+            log.warn("Filling in the ids of archive blocks failed, retrying on next start: {}", e.getMessage());
+            return null;
+        });
+    }
+
+    void indexBlockIds() {
+        List<ArchivedUrlBlock> blocks = archiveRepository.findByIdsIsNull();
+        for (ArchivedUrlBlock block : blocks) {
+            List<String> ids = listed(block).stream().map(UrlDto::getId).toList();
+            mongoTemplate.updateFirst(query(where("id").is(block.getId()).and("ids").is(null)),
+                    new Update().set("ids", ids), ArchivedUrlBlock.class);
+        }
+        if (!blocks.isEmpty()) {
+            log.info("Filled in the ids of {} archive blocks", blocks.size());
+        }
+    }
+
+    /**
+     * Looks up archived links without promoting them, for reads that are not clicks.
+     *
+     * @param shortCodes The short codes to look up.
+     * @return The archived links among them, each at most once.
+     */
+    public List<UrlDto> findArchived(Collection<String> shortCodes) {
+        Set<String> wanted = new HashSet<>(shortCodes);
+        List<UrlDto> found = new ArrayList<>();
+        for (ArchivedUrlBlock block : archiveRepository.findByShortCodesIn(shortCodes)) {
+            for (UrlDto url : listed(block)) {
+                if (wanted.remove(url.getShortCode())) {
+                    found.add(url);
+                }
+            }
+        }
+        return found;
+    }
+
+    private List<UrlDto> findCandidates(LocalDateTime threshold, String lastSeenId, int limit) {
+        Criteria criteria = where("createdAt").lt(threshold).orOperator(
+                where("lastAccessedAt").is(null), where("lastAccessedAt").lt(threshold));
+        if (lastSeenId != null) {
+            criteria = criteria.and("id").gt(lastSeenId);
+        }
+        return mongoTemplate.find(new Query(criteria).with(Sort.by("id")).limit(limit), UrlDto.class);
+    }
+
+    // Clicks live in the counters collection, so drop links accessed since the threshold
+    private List<UrlDto> coldOnly(List<UrlDto> links, LocalDateTime threshold) {
+        if (links.isEmpty()) {
+            return links;
+        }
+        Map<String, CounterTotal> totals = accessCounterService.getTotals(
+                links.stream().map(UrlDto::getShortCode).toList());
+        return links.stream()
+                .filter(url -> isCold(totals.get(url.getShortCode()), threshold))
+                .toList();
+    }
+
+    private static boolean isCold(CounterTotal total, LocalDateTime threshold) {
+        return total == null || total.lastAccessedAt() == null || total.lastAccessedAt().isBefore(threshold);
+    }
+
+    /**
+     * Writes the links into a block and removes them from the hot collection. The counters are read
+     * again once the block is written, right before the removal, and links clicked in the meantime are
+     * detached from the block and stay hot. A click after that is counted all the same, and its link
+     * is promoted back on the next redirect.
+     *
+     * @return The links moved into the block.
+     */
+    private List<UrlDto> archiveBlock(List<UrlDto> coldLinks, LocalDateTime threshold) {
+        if (coldLinks.isEmpty()) {
+            return coldLinks;
+        }
+        // Counter documents stay where they are; a promoted link simply picks its clicks up again
+        List<String> shortCodes = coldLinks.stream().map(UrlDto::getShortCode).toList();
+        List<String> ids = coldLinks.stream().map(UrlDto::getId).toList();
+        ArchivedUrlBlock block = archiveRepository.save(
+                new ArchivedUrlBlock(shortCodes, ids, ArchiveBlockCodec.encode(coldLinks)));
+
+        List<UrlDto> stillCold = coldOnly(coldLinks, threshold);
+        if (stillCold.size() < coldLinks.size()) {
+            Set<String> stillColdIds = new HashSet<>(stillCold.stream().map(UrlDto::getId).toList());
+            List<UrlDto> warmed = coldLinks.stream().filter(url -> !stillColdIds.contains(url.getId())).toList();
+            detach(block.getId(), warmed);
+            log.debug("Kept {} links clicked while being archived", warmed.size());
+        }
+        if (!stillCold.isEmpty()) {
+            mongoTemplate.remove(new Query(where("id").in(stillCold.stream().map(UrlDto::getId).toList())), UrlDto.class);
+        }
+        return stillCold;
+    }
+
+    /**
+     * Writes the block anew without the links, payload included, so no trace of them is left, and
+     * removes it once it holds none. The write only applies while the block lists the same codes as
+     * when it was read; after a concurrent detach the block is read again.
+     */
+    private void detach(String blockId, List<UrlDto> urls) {
+        Set<String> detached = new HashSet<>(urls.stream().map(UrlDto::getShortCode).toList());
+        while (true) {
+            Optional<ArchivedUrlBlock> block = archiveRepository.findById(blockId);
+            if (block.isEmpty()) {
+                return;
+            }
+            List<UrlDto> kept = listed(block.get()).stream()
+                    .filter(url -> !detached.contains(url.getShortCode()))
+                    .toList();
+            Query unchanged = query(where("id").is(blockId).and("shortCodes").is(block.get().getShortCodes()));
+            boolean written = kept.isEmpty()
+                    ? mongoTemplate.remove(unchanged, ArchivedUrlBlock.class).getDeletedCount() > 0
+                    : mongoTemplate.updateFirst(unchanged, new Update()
+                            .set("shortCodes", kept.stream().map(UrlDto::getShortCode).toList())
+                            .set("ids", kept.stream().map(UrlDto::getId).toList())
+                            .set("payload", ArchiveBlockCodec.encode(kept))
+                            .set("count", kept.size()), ArchivedUrlBlock.class).getMatchedCount() > 0;
+            if (written) {
+                return;
+            }
+        }
+    }
+
+    // The links a block still holds; blocks detached from before payloads were rewritten keep entries no longer listed
+    private static List<UrlDto> listed(ArchivedUrlBlock block) {
+        Set<String> shortCodes = new HashSet<>(block.getShortCodes());
+        return ArchiveBlockCodec.decode(block.getPayload()).stream()
+                .filter(url -> shortCodes.contains(url.getShortCode()))
+                .toList();
+    }
+
+    private long workingSetBytes(Class<?> entityClass) {
+        String collection = mongoTemplate.getCollectionName(entityClass);
+        try {
+            if (!mongoTemplate.collectionExists(collection)) {
+                return 0;
+            }
+            Document stats = mongoTemplate.executeCommand(new Document("collStats", collection));
+            return toLong(stats.get("size")) + toLong(stats.get("totalIndexSize"));
+        } catch (DataAccessException e) {
+            log.warn("Could not read collection stats for {}: {}", collection, e.getMessage());
+            return -1;
+        }
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0;
+    }
+}
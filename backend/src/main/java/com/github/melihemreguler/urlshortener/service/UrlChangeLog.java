@@ -0,0 +1,189 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.github.melihemreguler.urlshortener.config.ChangeLogProperties;
+import com.github.melihemreguler.urlshortener.dto.UrlChange;
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.exception.DatabaseUnavailableException;
+import com.github.melihemreguler.urlshortener.repository.CollectionVersionRepository;
+import com.github.melihemreguler.urlshortener.repository.DatabaseCircuitBreaker;
+import com.github.melihemreguler.urlshortener.repository.UrlChangeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Log of links created, deleted and clicked, numbered by a sequence shared by all instances, from
+ * which clients holding a copy of the links catch up through GET /api/url/changes instead of
+ * reloading pages. Clicks are logged once per counter flush, as one entry for all links clicked.
+ * <p>
+ * Writing to the log never fails the change itself: a change that cannot be logged is skipped with a
+ * warning, and clients see it on their next full reload.
+ */
+@Component
+@Slf4j
+public class UrlChangeLog {
+
+    // Name of the sequence in the collection versions
+    private static final String SEQUENCE = "url_changes";
+    // Short codes per entry at most, so a flush of many clicked links stays well below the document size limit
+    private static final int MAX_CODES_PER_ENTRY = 1000;
+
+    private final ChangeLogProperties changeLogProperties;
+    private final UrlChangeRepository urlChangeRepository;
+    private final CollectionVersionRepository collectionVersionRepository;
+    private final DatabaseCircuitBreaker databaseCircuitBreaker;
+
+    @Autowired
+    public UrlChangeLog(ChangeLogProperties changeLogProperties, UrlChangeRepository urlChangeRepository,
+                        CollectionVersionRepository collectionVersionRepository,
+                        DatabaseCircuitBreaker databaseCircuitBreaker) {
+        this.changeLogProperties = changeLogProperties;
+        this.urlChangeRepository = urlChangeRepository;
+        this.collectionVersionRepository = collectionVersionRepository;
+        this.databaseCircuitBreaker = databaseCircuitBreaker;
+    }
+
+    /**
+     * Logs a link created, or restored from the archive.
+     */
+    public void created(UrlDto url) {
+        append(UrlChange.Type.CREATED, List.of(url.getShortCode()), null);
+    }
+
+    /**
+     * Logs links deleted, or moved to the archive.
+     */
+    public void deleted(List<UrlDto> urls) {
+        for (int from = 0; from < urls.size(); from += MAX_CODES_PER_ENTRY) {
+            List<UrlDto> chunk = urls.subList(from, Math.min(from + MAX_CODES_PER_ENTRY, urls.size()));
+            append(UrlChange.Type.DELETED, chunk.stream().map(UrlDto::getShortCode).toList(),
+                    chunk.stream().map(UrlDto::getId).toList());
+        }
+    }
+
+    /**
+     * Logs links whose clicks were just written to the counters.
+     */
+    public void clicked(Collection<String> shortCodes) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(shortCodes));
+        for (int from = 0; from < distinct.size(); from += MAX_CODES_PER_ENTRY) {
+            append(UrlChange.Type.CLICKED, distinct.subList(from, Math.min(from + MAX_CODES_PER_ENTRY, distinct.size())), null);
+        }
+    }
+
+    /**
+     * Reads the changes since a version, folded into one set per kind: a link created and then deleted
+     * is only deleted, a link deleted and then restored only created, and clicks on links created or
+     * deleted meanwhile are left out.
+     * <p>
+     * Changes are read in sequence order up to the first one missing, unless entries after it were
+     * written longer than {@code change-log.settle-time} ago, in which case it is taken as lost. While
+     * nothing changed this costs one lookup of the current sequence number.
+     *
+     * @param since The version the client's copy is at; 0 for a client without a copy.
+     * @return The changes, or a reset if changes since that version are no longer kept.
+     * @throws DatabaseUnavailableException if the database cannot be reached.
+     */
+    public Batch read(long since) {
+        long current = databaseCircuitBreaker.call(() -> collectionVersionRepository.get(SEQUENCE));
+        if (since == current) {
+            return Batch.none(since);
+        }
+        if (since > current || since == 0 || !databaseCircuitBreaker.call(() -> urlChangeRepository.exists(since))) {
+            return Batch.reset(current);
+        }
+
+        int maxLinks = changeLogProperties.getMaxLinksPerResponse();
+        List<UrlChange> changes = databaseCircuitBreaker.call(() -> urlChangeRepository.findBetween(since, current, maxLinks));
+        Instant settled = Instant.now().minus(changeLogProperties.getSettleTime());
+        Set<String> created = new LinkedHashSet<>();
+        Map<String, String> deleted = new LinkedHashMap<>();
+        Set<String> clicked = new LinkedHashSet<>();
+        long version = since;
+        int links = 0;
+        boolean more = false;
+        for (UrlChange change : changes) {
+            if (change.getSequence() != version + 1 && change.getWrittenAt().isAfter(settled)) {
+                // An earlier change is probably still being written
+                break;
+            }
+            if (links > 0 && links + change.getShortCodes().size() > maxLinks) {
+                more = true;
+                break;
+            }
+            apply(change, created, deleted, clicked);
+            links += change.getShortCodes().size();
+            version = change.getSequence();
+        }
+        return new Batch(version, false, more, created, deleted, clicked);
+    }
+
+    private static void apply(UrlChange change, Set<String> created, Map<String, String> deleted, Set<String> clicked) {
+        List<String> shortCodes = change.getShortCodes();
+        for (int i = 0; i < shortCodes.size(); i++) {
+            String shortCode = shortCodes.get(i);
+            switch (change.getType()) {
+                case CREATED -> {
+                    deleted.remove(shortCode);
+                    created.add(shortCode);
+                }
+                case DELETED -> {
+                    created.remove(shortCode);
+                    clicked.remove(shortCode);
+                    deleted.put(shortCode, change.getIds().get(i));
+                }
+                case CLICKED -> {
+                    if (!deleted.containsKey(shortCode)) {
+                        clicked.add(shortCode);
+                    }
+                }
+            }
+        }
+    }
+
+    private void append(UrlChange.Type type, List<String> shortCodes, List<String> ids) {
+        if (!changeLogProperties.isEnabled() || shortCodes.isEmpty()) {
+            return;
+        }
+        try {
+            databaseCircuitBreaker.run(() -> {
+                UrlChange change = new UrlChange();
+                change.setSequence(collectionVersionRepository.add(SEQUENCE, 1));
+                change.setType(type);
+                change.setShortCodes(shortCodes);
+                change.setIds(ids);
+                change.setWrittenAt(Instant.now());
+                change.setExpiresAt(change.getWrittenAt().plus(changeLogProperties.getRetention()));
+                urlChangeRepository.insert(change);
+            });
+        } catch (DataAccessException | DatabaseUnavailableException e) {
+            log.warn("Could not log {} of {} links, clients see it on their next full reload: {}",
+                    type, shortCodes.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Changes since a version, by short code; deleted links map to their id.
+     */
+    public record Batch(long version, boolean reset, boolean more,
+                        Set<String> created, Map<String, String> deleted, Set<String> clicked) {
+
+        static Batch none(long version) {
+            return new Batch(version, false, false, Set.of(), Map.of(), Set.of());
+        }
+
+        static Batch reset(long version) {
+            return new Batch(version, true, false, Set.of(), Map.of(), Set.of());
+        }
+    }
+}
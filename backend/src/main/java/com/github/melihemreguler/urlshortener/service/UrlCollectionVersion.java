@@ -0,0 +1,126 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.github.melihemreguler.urlshortener.config.ConditionalGetProperties;
+import com.github.melihemreguler.urlshortener.exception.DatabaseUnavailableException;
+import com.github.melihemreguler.urlshortener.repository.CollectionVersionRepository;
+import com.github.melihemreguler.urlshortener.repository.DatabaseCircuitBreaker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the links collection, bumped whenever links are created, deleted, archived or restored,
+ * from which list and search responses get their ETag. A client presenting the ETag of the current
+ * version already has the latest page and gets a 304 without the database being queried.
+ * <p>
+ * By default ({@code conditional-get.shared}) changes are counted in memory and added to a version in
+ * MongoDB every {@code sync-interval}, which also reads back the version of all instances; no ETags are
+ * handed out before the first read or while a change of this instance is not added yet, so a change
+ * costs writers no database call. A single instance may
+ * count the version in memory instead, behind an epoch drawn at startup so ETags of an earlier run
+ * never match.
+ */
+@Component
+@Slf4j
+public class UrlCollectionVersion implements MeterBinder {
+
+    private static final String COLLECTION = "urls";
+
+    private final ConditionalGetProperties conditionalGetProperties;
+    private final CollectionVersionRepository collectionVersionRepository;
+    private final DatabaseCircuitBreaker databaseCircuitBreaker;
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    // -1 until the shared version has been read
+    private final AtomicLong version;
+    // Changes of this instance not yet added to the shared version
+    private final AtomicLong unshared = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+
+    @Autowired
+    public UrlCollectionVersion(ConditionalGetProperties conditionalGetProperties,
+                                CollectionVersionRepository collectionVersionRepository,
+                                DatabaseCircuitBreaker databaseCircuitBreaker) {
+        this.conditionalGetProperties = conditionalGetProperties;
+        this.collectionVersionRepository = collectionVersionRepository;
+        this.databaseCircuitBreaker = databaseCircuitBreaker;
+        this.version = new AtomicLong(conditionalGetProperties.isShared() ? -1 : 0);
+    }
+
+    /**
+     * Bumps the version after links were created, deleted, archived or restored, so pages listed
+     * before no longer match.
+     */
+    public void changed() {
+        if (!conditionalGetProperties.isEnabled()) {
+            return;
+        }
+        if (!conditionalGetProperties.isShared()) {
+            version.incrementAndGet();
+            return;
+        }
+        unshared.incrementAndGet();
+    }
+
+    /**
+     * @return The weak ETag of the current version, or null if responses must not be conditional.
+     */
+    public String etag() {
+        if (!conditionalGetProperties.isEnabled()) {
+            return null;
+        }
+        if (!conditionalGetProperties.isShared()) {
+            return "W/\"" + epoch + "-" + version.get() + "\"";
+        }
+        long current = version.get();
+        return current < 0 || unshared.get() > 0 ? null : "W/\"" + current + "\"";
+    }
+
+    /**
+     * Counts a request answered with 304.
+     */
+    public void recordNotModified() {
+        notModified.incrementAndGet();
+    }
+
+    /**
+     * Adds the changes of this instance to the shared version and reads back the version of all
+     * instances. Changes stay unshared, and ETags off, until MongoDB can be reached.
+     */
+    @Scheduled(fixedDelayString = "${conditional-get.sync-interval:PT1S}")
+    public synchronized void sync() {
+        if (!conditionalGetProperties.isEnabled() || !conditionalGetProperties.isShared()) {
+            return;
+        }
+        long changes = unshared.get();
+        long shared;
+        try {
+            shared = databaseCircuitBreaker.call(() -> changes > 0
+                    ? collectionVersionRepository.add(COLLECTION, changes)
+                    : collectionVersionRepository.get(COLLECTION));
+        } catch (DataAccessException | DatabaseUnavailableException e) {
+            log.debug("Could not sync the version of the links collection, {} changes unshared: {}", changes, e.getMessage());
+            return;
+        }
+        version.accumulateAndGet(shared, Math::max);
+        // Only now, so no ETag of the version before these changes is handed out in the meantime
+        unshared.addAndGet(-changes);
+    }
+
+    /**
+     * Publishes the list and search requests answered with 304.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("urlshortener.conditional.not_modified", notModified, AtomicLong::get)
+                .description("List and search requests answered with 304 because the client's page was current")
+                .register(registry);
+    }
+}
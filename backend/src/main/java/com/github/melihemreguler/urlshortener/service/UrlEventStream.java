@@ -0,0 +1,287 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.melihemreguler.urlshortener.config.EventStreamProperties;
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.exception.ServiceOverloadedException;
+import com.github.melihemreguler.urlshortener.model.UrlActivity;
+import com.github.melihemreguler.urlshortener.model.UrlField;
+import com.github.melihemreguler.urlshortener.model.UrlView;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live activity on the links, pushed to clients of GET /api/url/stream as server-sent events.
+ * Creations, deletions and clicks are collected in memory and published every
+ * {@code event-stream.window} as one event, encoded once for all clients.
+ * <p>
+ * Each client has its own buffer of {@code buffer-size} events, written by a sender thread of its own,
+ * so a slow client only holds up itself; once its buffer is full it is disconnected. While no client
+ * is connected, recording activity costs the redirect path a single check.
+ * <p>
+ * Clients only see activity on the instance they are connected to.
+ */
+@Component
+@Slf4j
+public class UrlEventStream implements MeterBinder {
+
+    private static final String EVENT_NAME = "activity";
+    private static final Set<UrlField> ALL_FIELDS = EnumSet.allOf(UrlField.class);
+
+    private final EventStreamProperties eventStreamProperties;
+    private final ObjectMapper objectMapper;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ConcurrentHashMap<String, LongAdder> clicks = new ConcurrentHashMap<>();
+    private final Queue<UrlView> created = new ConcurrentLinkedQueue<>();
+    private final Queue<UrlView> deleted = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger senderThreads = new AtomicInteger();
+    // Threads are only kept while clients are being written to, at most one per client
+    private final ExecutorService senders = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "event-stream-" + senderThreads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    // Only read and written by the publishing thread
+    private long lastPublishedMillis = System.currentTimeMillis();
+
+    @Autowired
+    public UrlEventStream(EventStreamProperties eventStreamProperties, ObjectMapper objectMapper) {
+        this.eventStreamProperties = eventStreamProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Connects a client, which receives activity from the next window on.
+     *
+     * @return The emitter the client's events are written to.
+     * @throws ServiceOverloadedException if {@code event-stream.max-subscribers} clients are connected already.
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(eventStreamProperties.getTimeout().toMillis()));
+    }
+
+    synchronized SseEmitter subscribe(SseEmitter emitter) {
+        if (subscribers.size() >= eventStreamProperties.getMaxSubscribers()) {
+            throw new ServiceOverloadedException("Event stream has " + subscribers.size() + " clients already", null);
+        }
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(Math.max(1, eventStreamProperties.getBufferSize())));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        // Ends the response normally, so the client reconnects instead of seeing an error
+        emitter.onTimeout(emitter::complete);
+        subscribers.add(subscriber);
+        log.debug("Event stream client connected, {} clients", subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Records a click. Only touches memory, and only while a client is connected.
+     */
+    public void clicked(String shortCode) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        clicks.computeIfAbsent(shortCode, code -> new LongAdder()).increment();
+    }
+
+    /**
+     * Records a link created.
+     */
+    public void created(UrlDto url) {
+        if (!subscribers.isEmpty()) {
+            created.add(UrlView.of(url, ALL_FIELDS));
+        }
+    }
+
+    /**
+     * Records a link deleted.
+     */
+    public void deleted(UrlDto url) {
+        if (!subscribers.isEmpty()) {
+            deleted.add(new UrlView(url.getId(), null, url.getShortCode(), null, null, null));
+        }
+    }
+
+    /**
+     * Publishes the activity of the window that just ended to every client, or a heartbeat comment
+     * if there was none for {@code event-stream.heartbeat}. Never waits for a client.
+     */
+    @Scheduled(fixedRateString = "${event-stream.window:PT0.25S}")
+    public void publish() {
+        UrlActivity activity = drain();
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Set<DataWithMediaType> event;
+        if (activity != null) {
+            try {
+                event = SseEmitter.event()
+                        .id(Long.toString(events.incrementAndGet()))
+                        .name(EVENT_NAME)
+                        .data(objectMapper.writeValueAsString(activity), MediaType.APPLICATION_JSON)
+                        .build();
+            } catch (JsonProcessingException e) {
+                log.warn("Could not encode the activity of an event stream window: {}", e.getMessage());
+                return;
+            }
+        } else if (now - lastPublishedMillis >= eventStreamProperties.getHeartbeat().toMillis()) {
+            event = SseEmitter.event().comment("heartbeat").build();
+        } else {
+            return;
+        }
+        lastPublishedMillis = now;
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * Disconnects all clients when the application shuts down, so open streams do not hold up the
+     * graceful shutdown of the web server.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void disconnectAll() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.disconnect();
+        }
+    }
+
+    @PreDestroy
+    public void stopSending() {
+        senders.shutdownNow();
+    }
+
+    /**
+     * Publishes the number of connected clients and of clients disconnected for falling behind.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("urlshortener.stream.subscribers", subscribers, List::size)
+                .description("Clients connected to the event stream")
+                .register(registry);
+        FunctionCounter.builder("urlshortener.stream.dropped", dropped, AtomicLong::get)
+                .description("Event stream clients disconnected because their buffer was full")
+                .register(registry);
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * @return The activity since the previous call, or null if there was none.
+     */
+    private UrlActivity drain() {
+        List<UrlView> createdLinks = poll(created);
+        List<UrlView> deletedLinks = poll(deleted);
+        Map<String, Long> clickCounts = new HashMap<>();
+        for (Map.Entry<String, LongAdder> entry : clicks.entrySet()) {
+            String shortCode = entry.getKey();
+            LongAdder count = entry.getValue();
+            long windowClicks = count.sumThenReset();
+            if (windowClicks > 0) {
+                clickCounts.put(shortCode, windowClicks);
+            } else if (clicks.remove(shortCode, count) && count.sum() > 0) {
+                // Idle for a window: dropped, re-queueing any click that raced the removal
+                clicks.computeIfAbsent(shortCode, code -> new LongAdder()).add(count.sumThenReset());
+            }
+        }
+        if (createdLinks.isEmpty() && deletedLinks.isEmpty() && clickCounts.isEmpty()) {
+            return null;
+        }
+        return new UrlActivity(createdLinks, deletedLinks, clickCounts);
+    }
+
+    private static List<UrlView> poll(Queue<UrlView> queue) {
+        List<UrlView> links = new ArrayList<>();
+        for (UrlView link = queue.poll(); link != null; link = queue.poll()) {
+            links.add(link);
+        }
+        return links;
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> buffer;
+        // Whether a sender thread is writing the buffer out
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, BlockingQueue<Set<DataWithMediaType>> buffer) {
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+
+        void offer(Set<DataWithMediaType> event) {
+            if (!buffer.offer(event)) {
+                if (subscribers.contains(this)) {
+                    dropped.incrementAndGet();
+                    log.info("Event stream client fell {} events behind, disconnecting it", buffer.size());
+                }
+                disconnect();
+                return;
+            }
+            if (sending.compareAndSet(false, true)) {
+                senders.execute(this::send);
+            }
+        }
+
+        void disconnect() {
+            if (subscribers.remove(this)) {
+                // Does not wait for a write under way; the sender fails on its next write and stops
+                emitter.complete();
+            }
+        }
+
+        private void send() {
+            try {
+                do {
+                    for (Set<DataWithMediaType> event = buffer.poll(); event != null; event = buffer.poll()) {
+                        emitter.send(event);
+                    }
+                    sending.set(false);
+                    // An event offered after the last poll but before the flag was cleared is sent here
+                } while (!buffer.isEmpty() && sending.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                // The client went away, or the emitter was completed meanwhile
+                log.debug("Event stream client disconnected: {}", e.getMessage());
+                subscribers.remove(this);
+            }
+        }
+    }
+}
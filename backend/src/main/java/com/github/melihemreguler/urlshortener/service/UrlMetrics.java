@@ -0,0 +1,71 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and outcome meters of the redirect and create paths.
+ * Meters are registered once up front and recorded with raw nanoseconds, so recording does not
+ * allocate per request; percentiles come from Micrometer's HdrHistogram-backed time window.
+ */
+@Component
+public class UrlMetrics {
+
+    private final Timer redirectTimer;
+    private final Timer createTimer;
+    private final Counter notFoundCounter;
+    private final Counter degradedCounter;
+
+    @Autowired
+    public UrlMetrics(MeterRegistry meterRegistry) {
+        this.redirectTimer = Timer.builder("urlshortener.redirect")
+                .description("Time to resolve a short code to its long URL")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+        this.createTimer = Timer.builder("urlshortener.create")
+                .description("Time to create or look up the short URL of a long URL")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+        this.notFoundCounter = Counter.builder("urlshortener.redirect.not.found")
+                .description("Redirects for short codes that do not exist")
+                .register(meterRegistry);
+        this.degradedCounter = Counter.builder("urlshortener.redirect.degraded")
+                .description("Redirects served from the link snapshot while the database was unreachable")
+                .register(meterRegistry);
+    }
+
+    public void recordRedirect(long startNanos) {
+        redirectTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCreate(long startNanos) {
+        createTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordNotFound() {
+        notFoundCounter.increment();
+    }
+
+    public void recordDegradedRedirect() {
+        degradedCounter.increment();
+    }
+
+    /**
+     * @return The redirects handled since startup, answered or not.
+     */
+    public long redirectCount() {
+        return redirectTimer.count();
+    }
+
+    /**
+     * @return The redirects for short codes that do not exist since startup.
+     */
+    public long notFoundCount() {
+        return (long) notFoundCounter.count();
+    }
+}
@@ -2,33 +2,81 @@ package com.github.melihemreguler.urlshortener.service;
 
 import com.github.melihemreguler.urlshortener.config.AppConfig;
 import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.dto.UrlPopularity;
+import com.github.melihemreguler.urlshortener.exception.DatabaseUnavailableException;
 import com.github.melihemreguler.urlshortener.exception.UrlNotFoundException;
+import com.github.melihemreguler.urlshortener.jfr.PipelineStageEvent;
+import com.github.melihemreguler.urlshortener.model.CursorPage;
 import com.github.melihemreguler.urlshortener.model.PageResponse;
+import com.github.melihemreguler.urlshortener.model.PopularityCursor;
+import com.github.melihemreguler.urlshortener.model.ResolveResponse;
+import com.github.melihemreguler.urlshortener.model.ResolvedUrl;
+import com.github.melihemreguler.urlshortener.model.UrlChanges;
+import com.github.melihemreguler.urlshortener.model.UrlField;
+import com.github.melihemreguler.urlshortener.model.UrlView;
+import com.github.melihemreguler.urlshortener.repository.DatabaseCircuitBreaker;
 import com.github.melihemreguler.urlshortener.repository.UrlRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
 
 @Service
 @Slf4j
 public class UrlService {
 
+    private static final int MAX_CODE_GENERATION_ATTEMPTS = 3;
+
     private final UrlRepository urlRepository;
     private final AppConfig appConfig;
+    private final UrlArchiveService urlArchiveService;
+    private final AccessCounterService accessCounterService;
+    private final LinkCache linkCache;
+    private final ShortCodeMigrationService shortCodeMigrationService;
+    private final UrlMetrics urlMetrics;
+    private final DatabaseCircuitBreaker databaseCircuitBreaker;
+    private final LinkSnapshot linkSnapshot;
+    private final UrlCollectionVersion urlCollectionVersion;
+    private final UrlChangeLog urlChangeLog;
+    private final UrlEventStream urlEventStream;
+    private final PopularityLeaderboard popularityLeaderboard;
 
     // Constructor for dependency injection of UrlRepository
     @Autowired
-    public UrlService(UrlRepository UrlRepository, AppConfig appConfig) {
+    public UrlService(UrlRepository UrlRepository, AppConfig appConfig, UrlArchiveService urlArchiveService,
+                      AccessCounterService accessCounterService, LinkCache linkCache,
+                      ShortCodeMigrationService shortCodeMigrationService, UrlMetrics urlMetrics,
+                      DatabaseCircuitBreaker databaseCircuitBreaker, LinkSnapshot linkSnapshot,
+                      UrlCollectionVersion urlCollectionVersion, UrlChangeLog urlChangeLog,
+                      UrlEventStream urlEventStream, PopularityLeaderboard popularityLeaderboard) {
         this.urlRepository = UrlRepository;
         this.appConfig = appConfig;
+        this.urlArchiveService = urlArchiveService;
+        this.accessCounterService = accessCounterService;
+        this.linkCache = linkCache;
+        this.shortCodeMigrationService = shortCodeMigrationService;
+        this.urlMetrics = urlMetrics;
+        this.databaseCircuitBreaker = databaseCircuitBreaker;
+        this.linkSnapshot = linkSnapshot;
+        this.urlCollectionVersion = urlCollectionVersion;
+        this.urlChangeLog = urlChangeLog;
+        this.urlEventStream = urlEventStream;
+        this.popularityLeaderboard = popularityLeaderboard;
     }
 
     /**
@@ -37,8 +85,18 @@ public class UrlService {
      *
      * @param longUrl The long URL to be shortened.
      * @return The generated or existing short URL.
+     * @throws DatabaseUnavailableException if the database cannot be reached.
      */
     public String createAndSaveShortUrl(String longUrl) {
+        long startNanos = System.nanoTime();
+        try {
+            return createOrFindShortUrl(longUrl);
+        } finally {
+            urlMetrics.recordCreate(startNanos);
+        }
+    }
+
+    private String createOrFindShortUrl(String longUrl) {
         // Final safety net: trim the URL at service level
         String trimmedLongUrl = longUrl != null ? longUrl.trim() : "";
         
@@ -47,7 +105,10 @@ public class UrlService {
         }
 
         // Check if a short URL already exists for the given path
-        Optional<UrlDto> existingUrl = urlRepository.findByLongUrl(trimmedLongUrl);
+        PipelineStageEvent lookup = new PipelineStageEvent();
+        lookup.begin();
+        Optional<UrlDto> existingUrl = databaseCircuitBreaker.call(() -> urlRepository.findByLongUrl(trimmedLongUrl));
+        lookup.commit(PipelineStageEvent.CREATE, PipelineStageEvent.LOOKUP, existingUrl.map(UrlDto::getShortCode).orElse(null));
         if (existingUrl.isPresent()) {
             String shortCode = existingUrl.get().getShortCode();
             String shortUrl = createShortUrl(shortCode);
@@ -55,34 +116,238 @@ public class UrlService {
             return shortUrl;
         }
 
-        // Generate a new short URL
-        String randomCode = generateRandomCode();
-
-        UrlDto urlDto = new UrlDto(trimmedLongUrl, randomCode);
-        urlRepository.save(urlDto);
-        log.debug("Generated new shortCode: {} for URL: {}", randomCode, trimmedLongUrl);
-        return createShortUrl(urlDto.getShortCode());
-
+        // Generate a new short URL, retrying on the rare collision with an existing code
+        for (int attempt = 1; ; attempt++) {
+            String randomCode = generateRandomCode();
+            // The unique index only covers hot links, so codes held by archived links are looked up apart
+            if (databaseCircuitBreaker.call(() -> urlArchiveService.isArchived(randomCode))) {
+                if (attempt == MAX_CODE_GENERATION_ATTEMPTS) {
+                    throw new DuplicateKeyException("Generated shortCode " + randomCode + " is held by an archived link");
+                }
+                log.debug("Generated shortCode: {} is archived, retrying", randomCode);
+                continue;
+            }
+            UrlDto urlDto = new UrlDto(trimmedLongUrl, randomCode);
+            urlDto.setCode(ShortCodes.toNumber(randomCode));
+            PipelineStageEvent persistence = new PipelineStageEvent();
+            persistence.begin();
+            try {
+                databaseCircuitBreaker.call(() -> urlRepository.save(urlDto));
+            } catch (DuplicateKeyException e) {
+                if (attempt == MAX_CODE_GENERATION_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Generated shortCode: {} already exists, retrying", randomCode);
+                continue;
+            } finally {
+                persistence.commit(PipelineStageEvent.CREATE, PipelineStageEvent.PERSISTENCE, randomCode);
+            }
+            urlCollectionVersion.changed();
+            urlChangeLog.created(urlDto);
+            urlEventStream.created(urlDto);
+            log.debug("Generated new shortCode: {} for URL: {}", randomCode, trimmedLongUrl);
+            return createShortUrl(urlDto.getShortCode());
+        }
     }
 
     /**
-     * Retrieves the long URL associated with a given short code.
+     * Retrieves the long URL associated with a given short code and counts the access.
+     * Codes missing from the hot collection are looked up in the archive and promoted back.
+     * While the database is unreachable, codes missing from the cache are looked up in the last
+     * link snapshot instead; the access is counted in memory and written once the database returns.
      *
      * @param shortUrl The short code to look up.
      * @return The long URL associated with the short code.
      * @throws UrlNotFoundException if the short code does not exist.
+     * @throws DatabaseUnavailableException if the database cannot be reached and the snapshot does not have the code.
      */
     public String getLongUrl(String shortUrl) {
+        long startNanos = System.nanoTime();
+        try {
+            return resolveLongUrl(shortUrl);
+        } finally {
+            urlMetrics.recordRedirect(startNanos);
+        }
+    }
+
+    private String resolveLongUrl(String shortUrl) {
+        PipelineStageEvent lookup = new PipelineStageEvent();
+        lookup.begin();
+        String longUrl = linkCache.get(shortUrl);
+        if (longUrl == null) {
+            longUrl = findLongUrl(shortUrl);
+            if (longUrl == null) {
+                lookup.commit(PipelineStageEvent.REDIRECT, PipelineStageEvent.LOOKUP, shortUrl);
+                urlMetrics.recordNotFound();
+                throw new UrlNotFoundException("URL not found", shortUrl);
+            }
+            linkCache.put(shortUrl, longUrl);
+        }
+        lookup.commit(PipelineStageEvent.REDIRECT, PipelineStageEvent.LOOKUP, shortUrl);
+
+        PipelineStageEvent increment = new PipelineStageEvent();
+        increment.begin();
+        accessCounterService.recordAccess(shortUrl); // The link document itself is never rewritten
+        urlEventStream.clicked(shortUrl);
+        increment.commit(PipelineStageEvent.REDIRECT, PipelineStageEvent.INCREMENT, shortUrl);
+        log.debug("long url found for: {}, long url: {}", shortUrl, longUrl);
+        return longUrl;
+    }
+
+    private String findLongUrl(String shortCode) {
+        Optional<UrlDto> existingUrl;
+        try {
+            existingUrl = databaseCircuitBreaker.call(() -> findByShortCode(shortCode));
+            if (existingUrl.isEmpty()) {
+                existingUrl = databaseCircuitBreaker.call(() -> urlArchiveService.restore(shortCode));
+            }
+        } catch (DatabaseUnavailableException e) {
+            String snapshotUrl = linkSnapshot.find(shortCode);
+            if (snapshotUrl == null) {
+                throw e;
+            }
+            urlMetrics.recordDegradedRedirect();
+            return snapshotUrl;
+        }
+        return existingUrl.map(UrlDto::getLongUrl).orElse(null);
+    }
+
+    /**
+     * Resolves many short codes at once, e.g. for link checkers and analytics jobs. Unlike a redirect
+     * this is not a click: nothing is counted and archived links are not promoted.
+     * Without metadata, codes are answered from the link cache where possible; the rest, and all codes
+     * if metadata is asked for, are fetched in one query before falling back to the archive. Links
+     * fetched are not cached, so a sweep over cold links does not push out the ones redirects need.
+     *
+     * @param shortCodes   The short codes to resolve; duplicates are answered once.
+     * @param withMetadata Whether to include the creation time and click count of each link.
+     * @return The links found, in the order they were asked for, and the codes not found.
+     * @throws DatabaseUnavailableException if codes are not cached and the database cannot be reached.
+     */
+    public ResolveResponse resolveShortCodes(List<String> shortCodes, boolean withMetadata) {
+        Set<String> distinct = new LinkedHashSet<>(shortCodes);
+        Map<String, ResolvedUrl> found = new HashMap<>();
+        List<String> uncached = new ArrayList<>();
+        for (String shortCode : distinct) {
+            String longUrl = withMetadata ? null : linkCache.get(shortCode);
+            if (longUrl != null) {
+                found.put(shortCode, ResolvedUrl.of(shortCode, longUrl));
+            } else {
+                uncached.add(shortCode);
+            }
+        }
+        if (!uncached.isEmpty()) {
+            for (UrlDto url : findLinks(uncached, withMetadata)) {
+                found.put(url.getShortCode(), withMetadata
+                        ? new ResolvedUrl(url.getShortCode(), url.getLongUrl(), url.getCreatedAt(), url.getAccessCount(),
+                                url.getLastAccessedAt())
+                        : ResolvedUrl.of(url.getShortCode(), url.getLongUrl()));
+            }
+        }
+
+        List<ResolvedUrl> urls = new ArrayList<>(found.size());
+        List<String> notFound = new ArrayList<>();
+        for (String shortCode : distinct) {
+            ResolvedUrl url = found.get(shortCode);
+            if (url != null) {
+                urls.add(url);
+            } else {
+                notFound.add(shortCode);
+            }
+        }
+        log.debug("Resolved {} of {} short codes, {} from the cache", urls.size(), distinct.size(), distinct.size() - uncached.size());
+        return new ResolveResponse(urls, notFound);
+    }
+
+    /**
+     * Returns the changes to the links since a version of the change log, for clients keeping a copy
+     * of them. Links created or clicked are read in one query, with their click totals.
+     *
+     * @param since The version the client's copy is at; 0 for a client without a copy.
+     * @return The changes, or a reset if the client has to reload its copy.
+     * @throws DatabaseUnavailableException if the database cannot be reached.
+     */
+    public UrlChanges getChanges(long since) {
+        UrlChangeLog.Batch batch = urlChangeLog.read(since);
+        if (batch.reset()) {
+            return UrlChanges.reset(batch.version());
+        }
+        Set<String> wanted = new LinkedHashSet<>(batch.created());
+        wanted.addAll(batch.clicked());
+        Map<String, UrlDto> links = new HashMap<>();
+        if (!wanted.isEmpty()) {
+            List<UrlDto> found = findHotLinks(wanted, true);
+            accessCounterService.applyTotals(found);
+            found.forEach(url -> links.put(url.getShortCode(), url));
+        }
+
+        Set<UrlField> clickFields = EnumSet.of(UrlField.ID, UrlField.SHORT_CODE, UrlField.ACCESS_COUNT,
+                UrlField.LAST_ACCESSED_AT);
+        List<UrlView> created = new ArrayList<>();
+        List<UrlView> clicked = new ArrayList<>();
+        for (String shortCode : wanted) {
+            UrlDto url = links.get(shortCode);
+            if (url == null) {
+                // Deleted or archived since, and logged as such in a later batch
+                continue;
+            }
+            if (batch.created().contains(shortCode)) {
+                created.add(UrlView.of(url, EnumSet.allOf(UrlField.class)));
+            } else {
+                clicked.add(UrlView.of(url, clickFields));
+            }
+        }
+        List<UrlView> deleted = new ArrayList<>(batch.deleted().size());
+        batch.deleted().forEach((shortCode, id) -> deleted.add(new UrlView(id, null, shortCode, null, null, null)));
+        return new UrlChanges(batch.version(), false, batch.more(), created, deleted, clicked);
+    }
 
-        Optional<UrlDto> existingUrl = urlRepository.findByShortCode(shortUrl);
-        if (existingUrl.isEmpty()) {
-            throw new UrlNotFoundException("URL not found", shortUrl);
+    private List<UrlDto> findLinks(List<String> shortCodes, boolean withMetadata) {
+        List<UrlDto> urls = new ArrayList<>(findHotLinks(shortCodes, withMetadata));
+        if (urls.size() < shortCodes.size()) {
+            Set<String> missing = new HashSet<>(shortCodes);
+            urls.forEach(url -> missing.remove(url.getShortCode()));
+            urls.addAll(databaseCircuitBreaker.call(() -> urlArchiveService.findArchived(missing)));
+        }
+        if (withMetadata) {
+            accessCounterService.applyTotals(urls);
+        }
+        return urls;
+    }
+
+    /**
+     * Looks links up in the hot collection only, by the numeric form of their short codes and by the
+     * legacy string field for codes the migration may not have converted.
+     */
+    private List<UrlDto> findHotLinks(Collection<String> shortCodes, boolean withMetadata) {
+        List<Long> codes = new ArrayList<>(shortCodes.size());
+        List<String> legacyShortCodes = new ArrayList<>();
+        for (String shortCode : shortCodes) {
+            long code = ShortCodes.toNumber(shortCode);
+            if (code != ShortCodes.NOT_ENCODABLE) {
+                codes.add(code);
+            }
+            if (shortCodeMigrationService.needsLegacyLookup(code)) {
+                legacyShortCodes.add(shortCode);
+            }
+        }
+        return databaseCircuitBreaker.call(() -> urlRepository.findByCodes(codes, legacyShortCodes, withMetadata));
+    }
+
+    /**
+     * Looks a link up by the numeric form of its short code, falling back to the legacy
+     * string field for links the migration has not converted (yet).
+     *
+     * @param shortCode The short code as it appears in the URL.
+     * @return The link, or empty if no link has this short code.
+     */
+    private Optional<UrlDto> findByShortCode(String shortCode) {
+        long code = ShortCodes.toNumber(shortCode);
+        Optional<UrlDto> url = code != ShortCodes.NOT_ENCODABLE ? urlRepository.findByCode(code) : Optional.empty();
+        if (url.isEmpty() && shortCodeMigrationService.needsLegacyLookup(code)) {
+            url = urlRepository.findLegacyByShortCode(shortCode);
         }
-        UrlDto urlDto = existingUrl.get();
-        urlDto.incrementAccessCount(); // Update the access count
-        urlRepository.save(urlDto);
-        log.debug("long url found for: {}, long url: {}", shortUrl, urlDto.getLongUrl());
-        return urlDto.getLongUrl();
+        return url;
     }
 
     /**
@@ -91,7 +356,7 @@ public class UrlService {
      * @return A randomly generated short code.
      */
     private String generateRandomCode() {
-        String randomCode = UUID.randomUUID().toString().substring(0, 8);
+        String randomCode = ShortCodes.random();
         log.debug("Generated random shortCode: {}", randomCode);
         return randomCode;
     }
@@ -111,7 +376,9 @@ public class UrlService {
      * @return List of UrlDto
      */
     public List<UrlDto> getAllShortUrls() {
-        return urlRepository.findAll();
+        List<UrlDto> urls = databaseCircuitBreaker.call(urlRepository::findAll);
+        accessCounterService.applyTotals(urls);
+        return urls;
     }
 
     /**
@@ -122,7 +389,8 @@ public class UrlService {
      */
     public PageResponse<UrlDto> getAllShortUrls(int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<UrlDto> urlPage = urlRepository.findAll(pageable);
+        Page<UrlDto> urlPage = databaseCircuitBreaker.call(() -> urlRepository.findAll(pageable));
+        accessCounterService.applyTotals(urlPage.getContent());
         
         return new PageResponse<>(
             urlPage.getContent(),
@@ -136,11 +404,95 @@ public class UrlService {
     }
 
     /**
-     * Deletes a short URL by id.
+     * Returns a page of short URLs reduced to the given fields. Only the stored fields behind them
+     * are read, and click totals are only looked up if a click field is asked for.
+     * @param page The page number (0-based)
+     * @param size The number of items per page
+     * @param fields The fields to return
+     * @return PageResponse containing the reduced links
+     */
+    public PageResponse<UrlView> getShortUrlViews(int page, int size, Set<UrlField> fields) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        Page<UrlDto> urlPage = databaseCircuitBreaker.call(() -> urlRepository.findPage(pageable, fields));
+        return toViews(urlPage, fields);
+    }
+
+    /**
+     * Returns links by popularity, most clicked first, read from the popularity leaderboard with one
+     * indexed query for the entries and one $in query for their links, however many links there are.
+     * Click totals are those of the leaderboard, as of the last counter flush.
+     * @param after The cursor returned with the previous page, or null for the first page
+     * @param size The number of items per page
+     * @return CursorPage containing UrlDto list
+     */
+    public CursorPage<UrlDto> getPopularUrls(PopularityCursor after, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must not be less than one");
+        }
+        // One entry more than asked for tells whether another page follows
+        List<UrlPopularity> entries = popularityLeaderboard.page(after, size + 1);
+        List<UrlPopularity> page = entries.size() > size ? entries.subList(0, size) : entries;
+
+        Map<String, UrlDto> links = new HashMap<>();
+        findHotLinks(page.stream().map(UrlPopularity::getShortCode).toList(), true)
+                .forEach(url -> links.put(url.getShortCode(), url));
+        List<UrlDto> content = new ArrayList<>(page.size());
+        List<String> gone = new ArrayList<>();
+        for (UrlPopularity entry : page) {
+            UrlDto url = links.get(entry.getShortCode());
+            if (url == null) {
+                // Deleted or archived, with clicks flushed after the link was taken off the leaderboard
+                gone.add(entry.getShortCode());
+                continue;
+            }
+            url.setAccessCount(entry.getCount());
+            url.setLastAccessedAt(entry.getLastAccessedAt());
+            content.add(url);
+        }
+        popularityLeaderboard.removed(gone);
+
+        UrlPopularity last = page.isEmpty() ? null : page.get(page.size() - 1);
+        String nextCursor = entries.size() > size ? new PopularityCursor(last.getCount(), last.getShortCode()).encode() : null;
+        return new CursorPage<>(content, size, nextCursor);
+    }
+
+    /**
+     * Returns links by popularity, reduced to the given fields.
+     * @param after The cursor returned with the previous page, or null for the first page
+     * @param size The number of items per page
+     * @param fields The fields to return
+     * @return CursorPage containing the links reduced to the given fields
+     */
+    public CursorPage<UrlView> getPopularUrlViews(PopularityCursor after, int size, Set<UrlField> fields) {
+        CursorPage<UrlDto> page = getPopularUrls(after, size);
+        return new CursorPage<>(page.content().stream().map(url -> UrlView.of(url, fields)).toList(),
+                page.size(), page.nextCursor());
+    }
+
+    /**
+     * Deletes a short URL by id, whether it is in the hot collection or archived.
      * @param id The id of the short URL to delete.
      */
     public void deleteShortUrl(String id) {
-        urlRepository.deleteById(id);
+        Optional<UrlDto> existingUrl = databaseCircuitBreaker.call(() -> urlRepository.findById(id));
+        databaseCircuitBreaker.run(() -> urlRepository.deleteById(id));
+        if (existingUrl.isPresent()) {
+            UrlDto url = existingUrl.get();
+            urlCollectionVersion.changed();
+            urlChangeLog.deleted(List.of(url));
+            urlEventStream.deleted(url);
+            linkCache.evict(url.getShortCode());
+            linkSnapshot.evict(url.getShortCode());
+            accessCounterService.delete(url.getShortCode());
+            return;
+        }
+        // Archived links already left list pages and the change log when they were archived
+        databaseCircuitBreaker.call(() -> urlArchiveService.delete(id)).ifPresent(url -> {
+            urlEventStream.deleted(url);
+            linkCache.evict(url.getShortCode());
+            linkSnapshot.evict(url.getShortCode());
+            accessCounterService.delete(url.getShortCode());
+        });
     }
 
     /**
@@ -157,8 +509,9 @@ public class UrlService {
         }
         
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<UrlDto> urlPage = urlRepository.findByLongUrlContainingIgnoreCaseOrShortCodeContainingIgnoreCase(
-            searchTerm.trim(), pageable);
+        Page<UrlDto> urlPage = databaseCircuitBreaker.call(() ->
+            urlRepository.findByLongUrlContainingIgnoreCaseOrShortCodeContainingIgnoreCase(searchTerm.trim(), pageable));
+        accessCounterService.applyTotals(urlPage.getContent());
         
         return new PageResponse<>(
             urlPage.getContent(),
@@ -170,4 +523,39 @@ public class UrlService {
             urlPage.isLast()
         );
     }
+
+    /**
+     * Searches URLs like {@link #searchUrls(String, int, int)}, returning them reduced to the given fields.
+     * @param searchTerm The search term to look for
+     * @param page The page number (0-based)
+     * @param size The number of items per page
+     * @param fields The fields to return
+     * @return PageResponse containing the matching links, reduced
+     */
+    public PageResponse<UrlView> searchUrlViews(String searchTerm, int page, int size, Set<UrlField> fields) {
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            return getShortUrlViews(page, size, fields);
+        }
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        Page<UrlDto> urlPage = databaseCircuitBreaker.call(() ->
+            urlRepository.searchPage(searchTerm.trim(), pageable, fields));
+        return toViews(urlPage, fields);
+    }
+
+    private PageResponse<UrlView> toViews(Page<UrlDto> urlPage, Set<UrlField> fields) {
+        if (UrlField.includesClicks(fields)) {
+            accessCounterService.applyTotals(urlPage.getContent());
+        }
+        List<UrlView> views = urlPage.getContent().stream().map(url -> UrlView.of(url, fields)).toList();
+        return new PageResponse<>(
+            views,
+            urlPage.getNumber(),
+            urlPage.getSize(),
+            urlPage.getTotalElements(),
+            urlPage.getTotalPages(),
+            urlPage.isFirst(),
+            urlPage.isLast()
+        );
+    }
 }
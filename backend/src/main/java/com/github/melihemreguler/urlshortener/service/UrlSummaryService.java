@@ -0,0 +1,142 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.github.melihemreguler.urlshortener.config.SummaryProperties;
+import com.github.melihemreguler.urlshortener.exception.DatabaseUnavailableException;
+import com.github.melihemreguler.urlshortener.model.UrlSummary;
+import com.github.melihemreguler.urlshortener.repository.DatabaseCircuitBreaker;
+import com.github.melihemreguler.urlshortener.repository.UrlSummaryRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard summary of the links, computed by aggregations in the background and held in memory, so
+ * GET /api/url/summary never waits on one. It is computed again every {@code refresh-interval}, well
+ * ahead of {@code max-age}; a refresh that fails leaves the previous summary in place, which is served
+ * until it reaches that age.
+ * <p>
+ * Refreshes run on a thread of their own rather than the shared scheduler, so a slow aggregation
+ * never holds up counter flushes.
+ */
+@Component
+@Slf4j
+public class UrlSummaryService {
+
+    private final UrlSummaryRepository summaryRepository;
+    private final UrlMetrics urlMetrics;
+    private final SummaryProperties summaryProperties;
+    private final DatabaseCircuitBreaker databaseCircuitBreaker;
+    private final Clock clock;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "summary-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile UrlSummary summary;
+    // Redirect meters at the previous refresh, which the 404 rate of the next one is taken since
+    private long lastRedirects;
+    private long lastNotFound;
+
+    @Autowired
+    public UrlSummaryService(UrlSummaryRepository summaryRepository, UrlMetrics urlMetrics,
+                             SummaryProperties summaryProperties, DatabaseCircuitBreaker databaseCircuitBreaker) {
+        this(summaryRepository, urlMetrics, summaryProperties, databaseCircuitBreaker, Clock.systemDefaultZone());
+    }
+
+    UrlSummaryService(UrlSummaryRepository summaryRepository, UrlMetrics urlMetrics,
+                      SummaryProperties summaryProperties, DatabaseCircuitBreaker databaseCircuitBreaker, Clock clock) {
+        this.summaryRepository = summaryRepository;
+        this.urlMetrics = urlMetrics;
+        this.summaryProperties = summaryProperties;
+        this.databaseCircuitBreaker = databaseCircuitBreaker;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts refreshing once the web server is up, beginning right away.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void startRefreshing() {
+        if (!summaryProperties.isEnabled()) {
+            return;
+        }
+        executor.scheduleWithFixedDelay(this::refresh, 0,
+                summaryProperties.getRefreshInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return The summary of the last refresh.
+     * @throws DatabaseUnavailableException if no refresh has succeeded yet, or none within {@code max-age}.
+     */
+    public UrlSummary getSummary() {
+        UrlSummary current = summary;
+        if (current == null) {
+            throw new DatabaseUnavailableException("Summary has not been computed yet");
+        }
+        if (current.computedAt().plus(summaryProperties.getMaxAge()).isBefore(LocalDateTime.now(clock))) {
+            throw new DatabaseUnavailableException("Summary is out of date since " + current.computedAt());
+        }
+        return current;
+    }
+
+    /**
+     * Computes the summary and replaces the held one. Failures are logged and leave the held one in place.
+     */
+    void refresh() {
+        try {
+            summary = databaseCircuitBreaker.call(this::compute);
+        } catch (RuntimeException e) {
+            // Caught in full: an exception escaping would cancel all further refreshes
+            log.warn("Failed to refresh the summary, keeping the one of {}: {}",
+                    summary == null ? "never" : summary.computedAt(), e.getMessage());
+        }
+    }
+
+    private UrlSummary compute() {
+        long startNanos = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDate firstDay = now.toLocalDate().minusDays(summaryProperties.getDays() - 1L);
+        Map<LocalDate, Long> created = summaryRepository.countCreatedPerDay(firstDay.atStartOfDay(), clock.getZone());
+        List<UrlSummary.DailyCount> createdPerDay = new ArrayList<>(summaryProperties.getDays());
+        for (LocalDate day = firstDay; !day.isAfter(now.toLocalDate()); day = day.plusDays(1)) {
+            createdPerDay.add(new UrlSummary.DailyCount(day, created.getOrDefault(day, 0L)));
+        }
+        long archivedLinks = summaryRepository.countArchivedLinks();
+        long totalLinks = summaryRepository.countLinks() + archivedLinks;
+        long totalClicks = summaryRepository.sumClicks();
+
+        UrlSummary computed = new UrlSummary(totalLinks, archivedLinks, totalClicks, createdPerDay,
+                notFoundRate(), now);
+        log.debug("Computed summary in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        return computed;
+    }
+
+    // Only called from the refresh thread, and only once the aggregations succeeded
+    private double notFoundRate() {
+        long redirects = urlMetrics.redirectCount();
+        long notFound = urlMetrics.notFoundCount();
+        long windowRedirects = redirects - lastRedirects;
+        long windowNotFound = notFound - lastNotFound;
+        lastRedirects = redirects;
+        lastNotFound = notFound;
+        return windowRedirects == 0 ? 0 : (double) windowNotFound / windowRedirects;
+    }
+
+    @PreDestroy
+    public void stopRefreshing() {
+        executor.shutdownNow();
+    }
+}
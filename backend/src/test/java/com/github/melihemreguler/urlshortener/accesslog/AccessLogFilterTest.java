@@ -0,0 +1,75 @@
+package com.github.melihemreguler.urlshortener.accesslog;
+
+import com.github.melihemreguler.urlshortener.controller.RedirectController;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(SpringExtension.class)
+class AccessLogFilterTest {
+
+    @Mock
+    private AccessLog accessLog;
+
+    @Test
+    void doFilter_givenMatchedHandler_whenRequestCompletes_thenShouldRecordItUnderTheMethodName() throws Exception {
+        // GIVEN
+        given(accessLog.isEnabled()).willReturn(true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/abc");
+        HandlerMethod handler = new HandlerMethod(new RedirectController(null),
+                RedirectController.class.getMethod("redirectToLongUrl", String.class, HttpServletResponse.class));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(302);
+
+        // WHEN
+        new AccessLogFilter(accessLog).doFilter(request, response,
+                (req, res) -> req.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handler));
+
+        // THEN
+        then(accessLog).should().record(eq("GET"), eq("/abc"), eq("redirectToLongUrl"), eq(302), anyLong());
+    }
+
+    @Test
+    void doFilter_givenExceptionInChain_whenRequestFails_thenShouldRecordServerError() {
+        // GIVEN
+        given(accessLog.isEnabled()).willReturn(true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/missing");
+
+        // WHEN
+        Throwable thrown = catchThrowable(() -> new AccessLogFilter(accessLog).doFilter(request,
+                new MockHttpServletResponse(), (req, res) -> {
+                    throw new ServletException("boom");
+                }));
+
+        // THEN
+        assertThat(thrown).isInstanceOf(ServletException.class);
+        then(accessLog).should().record(eq("GET"), eq("/missing"), eq(AccessLogFilter.UNMATCHED), eq(500), anyLong());
+    }
+
+    @Test
+    void doFilter_givenDisabledAccessLog_whenRequestCompletes_thenShouldNotRecord() throws Exception {
+        // GIVEN
+        given(accessLog.isEnabled()).willReturn(false);
+
+        // WHEN
+        new AccessLogFilter(accessLog).doFilter(new MockHttpServletRequest("GET", "/abc"),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        // THEN
+        then(accessLog).should(never()).record(anyString(), anyString(), anyString(), anyInt(), anyLong());
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.melihemreguler.urlshortener.accesslog;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.github.melihemreguler.urlshortener.config.AccessLogProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for sampling, batching and dropping in AccessLog.
+ */
+class AccessLogTest {
+
+    private AccessLogProperties properties;
+    private Logger accessLogger;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AccessLogProperties();
+        accessLogger = (Logger) LoggerFactory.getLogger(AccessLog.LOGGER_NAME);
+        accessLogger.setLevel(Level.INFO);
+        appender = new ListAppender<>();
+        appender.start();
+        accessLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        accessLogger.detachAppender(appender);
+        accessLogger.setLevel(null);
+    }
+
+    @Test
+    void flush_givenMoreEntriesThanBatchSize_whenFlushed_thenShouldWriteOneEventPerBatch() {
+        // GIVEN
+        properties.setBatchSize(2);
+        AccessLog accessLog = new AccessLog(properties);
+        for (int i = 0; i < 5; i++) {
+            accessLog.record("GET", "/abc" + i, "redirectToLongUrl", 302, 1_500_000);
+        }
+
+        // WHEN
+        accessLog.flush();
+
+        // THEN
+        List<String> batches = appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+        assertThat(batches).hasSize(3);
+        assertThat(batches.get(0).split("\n")).hasSize(2);
+        assertThat(batches.get(0)).contains("method=GET path=/abc0 handler=redirectToLongUrl status=302 micros=1500 sample=1.0");
+        assertThat(batches.get(2).split("\n")).hasSize(1);
+    }
+
+    @Test
+    void record_givenZeroSampleRate_whenRequestSucceeds_thenShouldSkipIt() {
+        // GIVEN
+        properties.setSampleRates(Map.of("redirectToLongUrl", 0.0));
+        AccessLog accessLog = new AccessLog(properties);
+
+        // WHEN
+        accessLog.record("GET", "/abc", "redirectToLongUrl", 302, 1000);
+        accessLog.record("GET", "/api/url", "getAllShortUrls", 200, 1000);
+        accessLog.flush();
+
+        // THEN
+        assertThat(appender.list).singleElement()
+                .extracting(ILoggingEvent::getFormattedMessage).asString()
+                .contains("handler=getAllShortUrls");
+    }
+
+    @Test
+    void record_givenZeroSampleRate_whenServerErrors_thenShouldAlwaysLogIt() {
+        // GIVEN
+        properties.setSampleRates(Map.of("redirectToLongUrl", 0.0));
+        AccessLog accessLog = new AccessLog(properties);
+
+        // WHEN
+        accessLog.record("GET", "/abc", "redirectToLongUrl", 500, 1000);
+        accessLog.flush();
+
+        // THEN
+        assertThat(appender.list).singleElement()
+                .extracting(ILoggingEvent::getFormattedMessage).asString()
+                .contains("status=500");
+    }
+
+    @Test
+    void record_givenFullQueue_whenRecorded_thenShouldDropAndCount() {
+        // GIVEN
+        properties.setQueueCapacity(2);
+        AccessLog accessLog = new AccessLog(properties);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        accessLog.bindTo(registry);
+
+        // WHEN
+        for (int i = 0; i < 5; i++) {
+            accessLog.record("GET", "/abc", "redirectToLongUrl", 302, 1000);
+        }
+
+        // THEN
+        assertThat(accessLog.getDropped()).isEqualTo(3);
+        assertThat(registry.get("urlshortener.access.log.dropped").functionCounter().count()).isEqualTo(3);
+        assertThat(registry.get("urlshortener.access.log.queued").gauge().value()).isEqualTo(2);
+    }
+}
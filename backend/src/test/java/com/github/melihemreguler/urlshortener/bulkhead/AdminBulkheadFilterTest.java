@@ -0,0 +1,127 @@
+package com.github.melihemreguler.urlshortener.bulkhead;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.melihemreguler.urlshortener.config.BulkheadProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AdminBulkheadFilterTest {
+
+    private final BulkheadProperties bulkheadProperties = new BulkheadProperties();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch running = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private AdminBulkheadFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        bulkheadProperties.setMaxConcurrent(1);
+        bulkheadProperties.setMaxQueued(0);
+        bulkheadProperties.setQueueTimeout(Duration.ofSeconds(5));
+        filter = new AdminBulkheadFilter(bulkheadProperties, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void doFilter_givenFreeBulkhead_whenAdminRequestsComeOneAfterAnother_thenShouldHandleAll() throws Exception {
+        // GIVEN
+        MockFilterChain first = new MockFilterChain();
+        MockFilterChain second = new MockFilterChain();
+
+        // WHEN
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/url/search"), new MockHttpServletResponse(), first);
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/url/search"), new MockHttpServletResponse(), second);
+
+        // THEN
+        assertThat(first.getRequest()).isNotNull();
+        assertThat(second.getRequest()).isNotNull();
+    }
+
+    @Test
+    void doFilter_givenFullBulkhead_whenAdminRequestArrives_thenShouldRejectItWithServiceUnavailable() throws Exception {
+        // GIVEN
+        occupyBulkhead();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // WHEN
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/url/search"), response, chain);
+
+        // THEN
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("5");
+        assertThat(response.getContentAsString()).contains("\"status\":503", "\"path\":\"/api/url/search\"");
+    }
+
+    @Test
+    void doFilter_givenFullBulkhead_whenRedirectArrives_thenShouldHandleItRightAway() throws Exception {
+        // GIVEN
+        occupyBulkhead();
+        MockFilterChain chain = new MockFilterChain();
+
+        // WHEN
+        filter.doFilter(new MockHttpServletRequest("GET", "/abc123"), new MockHttpServletResponse(), chain);
+
+        // THEN
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    void doFilter_givenQueueRoom_whenRunningRequestFinishesInTime_thenShouldHandleTheWaitingOne() throws Exception {
+        // GIVEN
+        bulkheadProperties.setMaxQueued(1);
+        Future<?> occupying = occupyBulkhead();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        Future<?> waiting = executor.submit(() -> {
+            filter.doFilter(new MockHttpServletRequest("DELETE", "/api/url/1"), response, chain);
+            return null;
+        });
+
+        // WHEN
+        release.countDown();
+        occupying.get(5, TimeUnit.SECONDS);
+        waiting.get(5, TimeUnit.SECONDS);
+
+        // THEN
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    // Starts an admin request that holds the only permit until released
+    private Future<?> occupyBulkhead() throws InterruptedException {
+        Future<?> occupying = executor.submit(() -> {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/url"), new MockHttpServletResponse(),
+                    (request, response) -> {
+                        running.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+            return null;
+        });
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        return occupying;
+    }
+}
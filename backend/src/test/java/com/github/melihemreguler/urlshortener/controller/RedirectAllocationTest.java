@@ -0,0 +1,197 @@
+package com.github.melihemreguler.urlshortener.controller;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.melihemreguler.urlshortener.config.AppConfig;
+import com.github.melihemreguler.urlshortener.config.ChangeLogProperties;
+import com.github.melihemreguler.urlshortener.config.CircuitBreakerProperties;
+import com.github.melihemreguler.urlshortener.config.ConditionalGetProperties;
+import com.github.melihemreguler.urlshortener.config.EventStreamProperties;
+import com.github.melihemreguler.urlshortener.config.LinkCacheProperties;
+import com.github.melihemreguler.urlshortener.config.UrlDictionaryProperties;
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.repository.DatabaseCircuitBreaker;
+import com.github.melihemreguler.urlshortener.repository.UrlCounterRepository;
+import com.github.melihemreguler.urlshortener.repository.UrlPrefixDictionary;
+import com.github.melihemreguler.urlshortener.repository.UrlPrefixRepository;
+import com.github.melihemreguler.urlshortener.repository.UrlRepository;
+import com.github.melihemreguler.urlshortener.service.AccessCounterService;
+import com.github.melihemreguler.urlshortener.service.LinkCache;
+import com.github.melihemreguler.urlshortener.service.LinkSnapshot;
+import com.github.melihemreguler.urlshortener.service.PopularityLeaderboard;
+import com.github.melihemreguler.urlshortener.service.UrlChangeLog;
+import com.github.melihemreguler.urlshortener.service.ShortCodeMigrationService;
+import com.github.melihemreguler.urlshortener.service.ShortCodes;
+import com.github.melihemreguler.urlshortener.service.UrlCollectionVersion;
+import com.github.melihemreguler.urlshortener.service.UrlEventStream;
+import com.github.melihemreguler.urlshortener.service.UrlArchiveService;
+import com.github.melihemreguler.urlshortener.service.UrlMetrics;
+import com.github.melihemreguler.urlshortener.service.UrlService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * Guards the bytes allocated per redirect against the budget checked in as
+ * allocation-budget.properties. Runs in its own JVM (see the allocation-budget surefire
+ * execution), because Mockito mocks created by other tests instrument the classes measured here.
+ */
+@ExtendWith(SpringExtension.class)
+class RedirectAllocationTest {
+
+    private static final int LINKS = 1_000;
+    private static final int WARMUP_REDIRECTS = 200_000;
+    private static final int MEASURED_REDIRECTS = 100_000;
+    // On a busy or single-core machine the JIT may not have compiled the path after warmup yet, so
+    // the best of several rounds is checked; an allocation per redirect would show up in every round
+    private static final int MEASURED_ROUNDS = 10;
+
+    // Only reached on cache misses, i.e. while the cache is being filled
+    @Mock
+    private UrlRepository urlRepository;
+
+    @Mock
+    private UrlCounterRepository counterRepository;
+
+    @Mock
+    private UrlPrefixRepository prefixRepository;
+
+    @Mock
+    private UrlArchiveService urlArchiveService;
+
+    @Mock
+    private ShortCodeMigrationService shortCodeMigrationService;
+
+    private RedirectController redirectController;
+    private RecordingResponse response;
+    private String[] shortCodes;
+
+    @BeforeEach
+    void setUp() {
+        // As in application.yaml; outside a Spring context logback would default to DEBUG
+        applicationLogger().setLevel(Level.INFO);
+
+        AppConfig appConfig = new AppConfig();
+        appConfig.setServiceUrl("http://localhost:8080");
+        DatabaseCircuitBreaker databaseCircuitBreaker = new DatabaseCircuitBreaker(new CircuitBreakerProperties());
+        LinkCache linkCache = new LinkCache(new LinkCacheProperties(),
+                new UrlPrefixDictionary(prefixRepository, new UrlDictionaryProperties(), databaseCircuitBreaker));
+        UrlChangeLog urlChangeLog = new UrlChangeLog(new ChangeLogProperties(), null, null, databaseCircuitBreaker);
+        PopularityLeaderboard popularityLeaderboard = new PopularityLeaderboard(null, null, null, null, databaseCircuitBreaker);
+        AccessCounterService accessCounterService = new AccessCounterService(counterRepository,
+                databaseCircuitBreaker, urlChangeLog, popularityLeaderboard);
+        UrlService urlService = new UrlService(urlRepository, appConfig, urlArchiveService, accessCounterService,
+                linkCache, shortCodeMigrationService, new UrlMetrics(new SimpleMeterRegistry()), databaseCircuitBreaker,
+                new LinkSnapshot(linkCache, new LinkCacheProperties(), databaseCircuitBreaker),
+                new UrlCollectionVersion(new ConditionalGetProperties(), null, databaseCircuitBreaker), urlChangeLog,
+                new UrlEventStream(new EventStreamProperties(), new ObjectMapper()), popularityLeaderboard);
+        redirectController = new RedirectController(urlService);
+        response = new RecordingResponse();
+
+        shortCodes = new String[LINKS];
+        for (int i = 0; i < LINKS; i++) {
+            shortCodes[i] = ShortCodes.fromNumber(ShortCodes.toNumber("1000000") + i);
+            UrlDto url = new UrlDto("https://www.example.com/articles/" + i, shortCodes[i]);
+            given(urlRepository.findByCode(ShortCodes.toNumber(shortCodes[i]))).willReturn(Optional.of(url));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        applicationLogger().setLevel(null);
+    }
+
+    @Test
+    void redirectToLongUrl_givenCachedLinks_whenRedirectedRepeatedly_thenShouldStayWithinAllocationBudget() throws IOException {
+        // GIVEN
+        long budget = Long.parseLong(loadBudget().getProperty("redirect.cached.bytes-per-request"));
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        // Fills the cache, then lets the JIT compile the path as it would under load
+        redirect(WARMUP_REDIRECTS);
+
+        // WHEN
+        long bytesPerRedirect = Long.MAX_VALUE;
+        for (int round = 0; round < MEASURED_ROUNDS && bytesPerRedirect > budget; round++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            redirect(MEASURED_REDIRECTS);
+            bytesPerRedirect = Math.min(bytesPerRedirect,
+                    (threads.getThreadAllocatedBytes(threadId) - before) / MEASURED_REDIRECTS);
+        }
+
+        // THEN
+        assertThat(response.getStatus()).isEqualTo(302);
+        assertThat(response.getHeader("Location")).startsWith("https://www.example.com/articles/");
+        assertThat(bytesPerRedirect)
+                .as("bytes allocated per redirect (budget %d)", budget)
+                .isLessThanOrEqualTo(budget);
+    }
+
+    private void redirect(int redirects) {
+        for (int i = 0; i < redirects; i++) {
+            redirectController.redirectToLongUrl(shortCodes[i % LINKS], response);
+        }
+    }
+
+    /**
+     * Keeps only the last status and Location, so the response itself allocates nothing per
+     * redirect and the measurement covers the application code alone.
+     */
+    private static final class RecordingResponse extends HttpServletResponseWrapper {
+        private int status;
+        private String location;
+
+        RecordingResponse() {
+            super(new MockHttpServletResponse());
+        }
+
+        @Override
+        public void setStatus(int status) {
+            this.status = status;
+        }
+
+        @Override
+        public int getStatus() {
+            return status;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            location = value;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return location;
+        }
+    }
+
+    private static Logger applicationLogger() {
+        return (Logger) LoggerFactory.getLogger("com.github.melihemreguler");
+    }
+
+    private static Properties loadBudget() throws IOException {
+        Properties budget = new Properties();
+        try (InputStream in = RedirectAllocationTest.class.getResourceAsStream("/allocation-budget.properties")) {
+            budget.load(in);
+        }
+        return budget;
+    }
+}
@@ -1,12 +1,21 @@
 package com.github.melihemreguler.urlshortener.controller;
 
+import com.github.melihemreguler.urlshortener.accesslog.AccessLog;
+import com.github.melihemreguler.urlshortener.config.BulkheadProperties;
+import com.github.melihemreguler.urlshortener.config.ConcurrencyLimitProperties;
+import com.github.melihemreguler.urlshortener.config.RateLimitProperties;
+import com.github.melihemreguler.urlshortener.config.ScanDetectionProperties;
+import com.github.melihemreguler.urlshortener.exception.DatabaseUnavailableException;
 import com.github.melihemreguler.urlshortener.exception.UrlNotFoundException;
+import com.github.melihemreguler.urlshortener.ratelimit.RateLimiter;
+import com.github.melihemreguler.urlshortener.ratelimit.ScanDetector;
 import com.github.melihemreguler.urlshortener.service.UrlService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
@@ -19,6 +28,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = RedirectController.class)
+@Import({BulkheadProperties.class, ConcurrencyLimitProperties.class, RateLimitProperties.class,
+        ScanDetectionProperties.class})
 @ExtendWith(SpringExtension.class)
 class RedirectControllerTest {
 
@@ -28,6 +39,18 @@ class RedirectControllerTest {
     @MockitoBean
     private UrlService urlService;
 
+    // Picked up by the access log filter; left disabled
+    @MockitoBean
+    private AccessLog accessLog;
+
+    // Picked up by the rate limit filter; lets every request through
+    @MockitoBean
+    private RateLimiter rateLimiter;
+
+    // Picked up by the rate limit filter; blocks no client
+    @MockitoBean
+    private ScanDetector scanDetector;
+
     @BeforeEach
     void setUp() {
         // Default behavior in case no specific stubbing is done in a test
@@ -70,4 +93,20 @@ class RedirectControllerTest {
 
         then(urlService).should().getLongUrl(shortCode);
     }
+
+    @Test
+    void redirectToLongUrl_databaseUnavailable_shouldReturnServiceUnavailable() throws Exception {
+        // GIVEN
+        String shortCode = "uncached1";
+        doThrow(new DatabaseUnavailableException("Database circuit is open"))
+                .when(urlService).getLongUrl(shortCode);
+
+        // WHEN
+        ResultActions resultActions = mockMvc.perform(get("/" + shortCode));
+
+        // THEN
+        resultActions
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value(503));
+    }
 }
@@ -1,29 +1,61 @@
 package com.github.melihemreguler.urlshortener.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.github.melihemreguler.urlshortener.accesslog.AccessLog;
+import com.github.melihemreguler.urlshortener.config.BinaryFormatConfig;
+import com.github.melihemreguler.urlshortener.config.BulkheadProperties;
+import com.github.melihemreguler.urlshortener.config.ConcurrencyLimitProperties;
+import com.github.melihemreguler.urlshortener.config.RateLimitProperties;
+import com.github.melihemreguler.urlshortener.config.ScanDetectionProperties;
 import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.exception.DatabaseUnavailableException;
+import com.github.melihemreguler.urlshortener.exception.ServiceOverloadedException;
+import com.github.melihemreguler.urlshortener.model.CursorPage;
 import com.github.melihemreguler.urlshortener.model.PageResponse;
+import com.github.melihemreguler.urlshortener.model.PopularityCursor;
+import com.github.melihemreguler.urlshortener.model.ResolveResponse;
+import com.github.melihemreguler.urlshortener.model.ResolvedUrl;
+import com.github.melihemreguler.urlshortener.model.UrlChanges;
+import com.github.melihemreguler.urlshortener.model.UrlField;
+import com.github.melihemreguler.urlshortener.model.UrlSummary;
+import com.github.melihemreguler.urlshortener.model.UrlView;
+import com.github.melihemreguler.urlshortener.ratelimit.RateLimiter;
+import com.github.melihemreguler.urlshortener.ratelimit.ScanDetector;
+import com.github.melihemreguler.urlshortener.service.UrlCollectionVersion;
+import com.github.melihemreguler.urlshortener.service.UrlEventStream;
 import com.github.melihemreguler.urlshortener.service.UrlService;
+import com.github.melihemreguler.urlshortener.service.UrlSummaryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Map;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = UrlController.class)
+@Import({BinaryFormatConfig.class, BulkheadProperties.class, ConcurrencyLimitProperties.class,
+        RateLimitProperties.class, ScanDetectionProperties.class})
 @ExtendWith(SpringExtension.class)
 class UrlControllerTest {
 
@@ -33,6 +65,28 @@ class UrlControllerTest {
     @MockitoBean
     private UrlService urlService;
 
+    // Hands out no ETag unless a test gives it one
+    @MockitoBean
+    private UrlCollectionVersion urlCollectionVersion;
+
+    @MockitoBean
+    private UrlEventStream urlEventStream;
+
+    @MockitoBean
+    private UrlSummaryService urlSummaryService;
+
+    // Picked up by the access log filter; left disabled
+    @MockitoBean
+    private AccessLog accessLog;
+
+    // Picked up by the rate limit filter; lets every request through
+    @MockitoBean
+    private RateLimiter rateLimiter;
+
+    // Picked up by the rate limit filter; blocks no client
+    @MockitoBean
+    private ScanDetector scanDetector;
+
     @BeforeEach
     void setUp() {
         // Default behavior in case we don't override it in a specific test
@@ -323,6 +377,23 @@ class UrlControllerTest {
         then(urlService).should().searchUrls(searchTerm, 0, 10);
     }
 
+    @Test
+    void searchUrls_withSearchPastItsTimeLimit_shouldReturnServiceUnavailable() throws Exception {
+        // GIVEN
+        given(urlService.searchUrls("slow", 0, 10))
+                .willThrow(new ServiceOverloadedException("Search exceeded PT3S", null));
+
+        // WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/url/search")
+                .param("q", "slow"));
+
+        // THEN
+        resultActions
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value(503))
+                .andExpect(jsonPath("$.path").value("/api/url/search"));
+    }
+
     // ==================== DELETE SHORT URL TESTS ====================
 
     @Test
@@ -417,6 +488,379 @@ class UrlControllerTest {
         then(urlService).should().searchUrls("test", -1, 10);
     }
 
+    @Test
+    void resolveShortCodes_validRequest_shouldReturnFoundAndMissingCodes() throws Exception {
+        // GIVEN
+        given(urlService.resolveShortCodes(List.of("abc123", "zzz999"), false)).willReturn(new ResolveResponse(
+                List.of(ResolvedUrl.of("abc123", "https://www.google.com")), List.of("zzz999")));
+
+        // WHEN
+        ResultActions resultActions = mockMvc.perform(post("/api/url/resolve")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"shortCodes\":[\"abc123\",\"zzz999\"]}"));
+
+        // THEN
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.urls[0].shortCode").value("abc123"))
+                .andExpect(jsonPath("$.urls[0].longUrl").value("https://www.google.com"))
+                .andExpect(jsonPath("$.urls[0].accessCount").doesNotExist())
+                .andExpect(jsonPath("$.notFound[0]").value("zzz999"));
+    }
+
+    @Test
+    void resolveShortCodes_emptyList_shouldReturnBadRequest() throws Exception {
+        // GIVEN
+        String emptyListJson = "{\"shortCodes\":[]}";
+
+        // WHEN
+        ResultActions resultActions = mockMvc.perform(post("/api/url/resolve")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(emptyListJson));
+
+        // THEN
+        resultActions
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Validation failed"));
+        then(urlService).should(never()).resolveShortCodes(anyList(), anyBoolean());
+    }
+
+    @Test
+    void getAllShortUrls_withFields_shouldReturnOnlyTheRequestedFields() throws Exception {
+        // GIVEN
+        Set<UrlField> fields = Set.of(UrlField.ID, UrlField.LONG_URL, UrlField.SHORT_CODE);
+        UrlView view = UrlView.of(createMockUrlDto("1", "https://example1.com", "abc123"), fields);
+        given(urlService.getShortUrlViews(0, 10, fields))
+                .willReturn(new PageResponse<>(List.of(view), 0, 10, 1, 1, true, true));
+
+        // WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/url")
+                .param("fields", "id,longUrl,shortCode"));
+
+        // THEN
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value("1"))
+                .andExpect(jsonPath("$.content[0].longUrl").value("https://example1.com"))
+                .andExpect(jsonPath("$.content[0].shortCode").value("abc123"))
+                .andExpect(jsonPath("$.content[0].createdAt").doesNotExist())
+                .andExpect(jsonPath("$.content[0].accessCount").doesNotExist());
+        then(urlService).should(never()).getAllShortUrls(anyInt(), anyInt());
+    }
+
+    @Test
+    void getAllShortUrls_withPopularitySort_shouldReturnMostClickedWithNextCursor() throws Exception {
+        // GIVEN
+        UrlDto top = createMockUrlDto("1", "https://example1.com", "abc123");
+        top.setAccessCount(90);
+        PopularityCursor after = new PopularityCursor(120, "xyz789");
+        String nextCursor = new PopularityCursor(90, "abc123").encode();
+        given(urlService.getPopularUrls(after, 1)).willReturn(new CursorPage<>(List.of(top), 1, nextCursor));
+
+        // WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/url")
+                .param("sort", "popularity")
+                .param("cursor", after.encode())
+                .param("size", "1"));
+
+        // THEN
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andExpect(jsonPath("$.content[0].shortCode").value("abc123"))
+                .andExpect(jsonPath("$.content[0].accessCount").value(90))
+                .andExpect(jsonPath("$.nextCursor").value(nextCursor))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+        then(urlService).should(never()).getAllShortUrls(anyInt(), anyInt());
+    }
+
+    @Test
+    void getAllShortUrls_withInvalidCursor_shouldReturnBadRequest() throws Exception {
+        // WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/url")
+                .param("sort", "popularity")
+                .param("cursor", "not-a-cursor"));
+
+        // THEN
+        resultActions
+                .andExpect(status().isBadRequest());
+        then(urlService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void getAllShortUrls_withUnknownSort_shouldReturnBadRequest() throws Exception {
+        // WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/url")
+                .param("sort", "longUrl"));
+
+        // THEN
+        resultActions
+                .andExpect(status().isBadRequest());
+        then(urlService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void searchUrls_withFields_shouldReturnReducedLinks() throws Exception {
+        // GIVEN
+        Set<UrlField> fields = Set.of(UrlField.SHORT_CODE, UrlField.ACCESS_COUNT);
+        UrlView view = UrlView.of(createMockUrlDto("1", "https://example1.com", "abc123"), fields);
+        given(urlService.searchUrlViews("example", 0, 10, fields))
+                .willReturn(new PageResponse<>(List.of(view), 0, 10, 1, 1, true, true));
+
+        // WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/url/search")
+                .param("q", "example")
+                .param("fields", "shortCode,accessCount"));
+
+        // THEN
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].shortCode").value("abc123"))
+                .andExpect(jsonPath("$.content[0].accessCount").value(0))
+                .andExpect(jsonPath("$.content[0].longUrl").doesNotExist());
+    }
+
+    @Test
+    void getAllShortUrls_withUnknownField_shouldReturnBadRequest() throws Exception {
+        // GIVEN
+        String fields = "id,updatedAt";
+
+        // WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/url")
+                .param("fields", fields));
+
+        // THEN
+        resultActions
+                .andExpect(status().isBadRequest());
+        then(urlService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void getChanges_withVersion_shouldReturnChangesSinceIt() throws Exception {
+        // GIVEN
+        UrlView clicked = new UrlView("1", null, "abc123", null, null, 4L);
+        given(urlService.getChanges(10)).willReturn(new UrlChanges(12, false, false, List.of(), List.of(), List.of(clicked)));
+
+        // WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/url/changes")
+                .param("since", "10"));
+
+        // THEN
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(12))
+                .andExpect(jsonPath("$.reset").value(false))
+                .andExpect(jsonPath("$.clicked[0].shortCode").value("abc123"))
+                .andExpect(jsonPath("$.clicked[0].accessCount").value(4))
+                .andExpect(jsonPath("$.clicked[0].longUrl").doesNotExist());
+    }
+
+    // ==================== SUMMARY TESTS ====================
+
+    @Test
+    void getSummary_withSummaryComputed_shouldReturnIt() throws Exception {
+        // GIVEN
+        LocalDate today = LocalDate.of(2026, 10, 19);
+        given(urlSummaryService.getSummary()).willReturn(new UrlSummary(100, 10, 1234,
+                List.of(new UrlSummary.DailyCount(today.minusDays(1), 0), new UrlSummary.DailyCount(today, 4)),
+                0.25, today.atTime(8, 30)));
+
+        // WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/url/summary"));
+
+        // THEN
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalLinks").value(100))
+                .andExpect(jsonPath("$.totalClicks").value(1234))
+                .andExpect(jsonPath("$.createdPerDay[1].date").value("2026-10-19"))
+                .andExpect(jsonPath("$.createdPerDay[1].count").value(4))
+                .andExpect(jsonPath("$.notFoundRate").value(0.25));
+    }
+
+    @Test
+    void getSummary_withoutSummaryComputed_shouldReturnServiceUnavailable() throws Exception {
+        // GIVEN
+        given(urlSummaryService.getSummary()).willThrow(new DatabaseUnavailableException("Summary has not been computed yet"));
+
+        // WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/url/summary"));
+
+        // THEN
+        resultActions
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    // ==================== EVENT STREAM TESTS ====================
+
+    @Test
+    void streamActivity_withEventStreamAccepted_shouldKeepTheResponseOpen() throws Exception {
+        // GIVEN
+        given(urlEventStream.subscribe()).willReturn(new SseEmitter());
+
+        // WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/url/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM));
+
+        // THEN
+        resultActions
+                .andExpect(request().asyncStarted());
+        then(urlEventStream).should().subscribe();
+    }
+
+    @Test
+    void streamActivity_withTooManyClients_shouldReturnServiceUnavailable() throws Exception {
+        // GIVEN
+        given(urlEventStream.subscribe()).willThrow(new ServiceOverloadedException("Event stream has 100 clients already", null));
+
+        // WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/url/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM));
+
+        // THEN
+        resultActions
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(content().string(""));
+    }
+
+    // ==================== CONDITIONAL GET TESTS ====================
+
+    @Test
+    void getAllShortUrls_withLeanFields_shouldReturnETagToRevalidate() throws Exception {
+        // GIVEN
+        Set<UrlField> fields = Set.of(UrlField.ID, UrlField.LONG_URL, UrlField.SHORT_CODE);
+        given(urlCollectionVersion.etag()).willReturn("W/\"a1-7\"");
+        given(urlService.getShortUrlViews(0, 10, fields)).willReturn(new PageResponse<>(List.of(), 0, 10, 0, 0, true, true));
+
+        // WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/url")
+                .param("fields", "id,longUrl,shortCode"));
+
+        // THEN
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"a1-7\""))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(jsonPath("$.content").isArray());
+    }
+
+    @Test
+    void searchUrls_withCurrentETag_shouldReturnNotModifiedWithoutQuerying() throws Exception {
+        // GIVEN
+        given(urlCollectionVersion.etag()).willReturn("W/\"a1-7\"");
+
+        // WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/url/search")
+                .param("q", "example")
+                .param("fields", "id,longUrl,shortCode")
+                .header("If-None-Match", "W/\"a1-7\""));
+
+        // THEN
+        resultActions
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"a1-7\""))
+                .andExpect(content().string(""));
+        then(urlService).shouldHaveNoInteractions();
+        then(urlCollectionVersion).should().recordNotModified();
+    }
+
+    @Test
+    void getAllShortUrls_withOutdatedETag_shouldReturnPage() throws Exception {
+        // GIVEN
+        Set<UrlField> fields = Set.of(UrlField.ID, UrlField.SHORT_CODE);
+        given(urlCollectionVersion.etag()).willReturn("W/\"a1-8\"");
+        given(urlService.getShortUrlViews(0, 10, fields)).willReturn(new PageResponse<>(List.of(), 0, 10, 0, 0, true, true));
+
+        // WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/url")
+                .param("fields", "id,shortCode")
+                .header("If-None-Match", "W/\"a1-7\""));
+
+        // THEN
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"a1-8\""));
+        then(urlService).should().getShortUrlViews(0, 10, fields);
+    }
+
+    @Test
+    void getAllShortUrls_withClickFields_shouldNotBeStored() throws Exception {
+        // GIVEN
+        Set<UrlField> fields = Set.of(UrlField.SHORT_CODE, UrlField.ACCESS_COUNT);
+        given(urlCollectionVersion.etag()).willReturn("W/\"a1-7\"");
+        given(urlService.getShortUrlViews(0, 10, fields)).willReturn(new PageResponse<>(List.of(), 0, 10, 0, 0, true, true));
+
+        // WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/url")
+                .param("fields", "shortCode,accessCount")
+                .header("If-None-Match", "W/\"a1-7\""));
+
+        // THEN
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(header().string("Cache-Control", "no-store"));
+    }
+
+    // ==================== CONTENT NEGOTIATION TESTS ====================
+
+    @Test
+    void getAllShortUrls_withCborAccept_shouldReturnCbor() throws Exception {
+        // GIVEN
+        UrlDto url = createMockUrlDto("1", "https://example1.com", "abc123");
+        given(urlService.getAllShortUrls(0, 10)).willReturn(new PageResponse<>(List.of(url), 0, 10, 1, 1, true, true));
+
+        // WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/url")
+                .accept(MediaType.APPLICATION_CBOR));
+
+        // THEN
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+        JsonNode page = new CBORMapper().readTree(resultActions.andReturn().getResponse().getContentAsByteArray());
+        assertThat(page.at("/content/0/shortCode").asText()).isEqualTo("abc123");
+        // Written with the same settings as JSON, so dates stay ISO strings
+        assertThat(page.at("/content/0/createdAt").isTextual()).isTrue();
+    }
+
+    @Test
+    void resolveShortCodes_withSmileRequestAndAccept_shouldReturnSmile() throws Exception {
+        // GIVEN
+        SmileMapper smileMapper = new SmileMapper();
+        given(urlService.resolveShortCodes(List.of("abc123"), false)).willReturn(new ResolveResponse(
+                List.of(ResolvedUrl.of("abc123", "https://www.google.com")), List.of()));
+
+        // WHEN
+        ResultActions resultActions = mockMvc.perform(post("/api/url/resolve")
+                .contentType("application/x-jackson-smile")
+                .accept("application/x-jackson-smile")
+                .content(smileMapper.writeValueAsBytes(Map.of("shortCodes", List.of("abc123")))));
+
+        // THEN
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"));
+        JsonNode response = smileMapper.readTree(resultActions.andReturn().getResponse().getContentAsByteArray());
+        assertThat(response.at("/urls/0/longUrl").asText()).isEqualTo("https://www.google.com");
+    }
+
+    @Test
+    void getAllShortUrls_withWildcardAccept_shouldReturnJson() throws Exception {
+        // GIVEN
+        given(urlService.getAllShortUrls(0, 10)).willReturn(new PageResponse<>(List.of(), 0, 10, 0, 0, true, true));
+
+        // WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/url")
+                .accept(MediaType.ALL));
+
+        // THEN
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.content").isArray());
+    }
+
     // ==================== HELPER METHODS ====================
 
     private UrlDto createMockUrlDto(String id, String longUrl, String shortCode) {
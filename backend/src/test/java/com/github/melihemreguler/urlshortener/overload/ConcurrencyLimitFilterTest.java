@@ -0,0 +1,72 @@
+package com.github.melihemreguler.urlshortener.overload;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.melihemreguler.urlshortener.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final ConcurrencyLimitProperties concurrencyLimitProperties = new ConcurrencyLimitProperties();
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        concurrencyLimitProperties.setInitialLimit(1);
+        concurrencyLimitProperties.setMinLimit(1);
+        concurrencyLimitProperties.setMaxLimit(1);
+        filter = new ConcurrencyLimitFilter(concurrencyLimitProperties, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    void doFilter_givenLimitReached_whenAnotherRequestArrives_thenShouldRejectItWithServiceUnavailable() throws Exception {
+        // GIVEN
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockFilterChain rejectedChain = new MockFilterChain();
+
+        // WHEN
+        filter.doFilter(new MockHttpServletRequest("GET", "/abc123"), new MockHttpServletResponse(),
+                (request, response) -> filter.doFilter(new MockHttpServletRequest("GET", "/def456"), rejected, rejectedChain));
+
+        // THEN
+        assertThat(rejectedChain.getRequest()).isNull();
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(rejected.getContentAsString()).contains("\"path\":\"/def456\"");
+    }
+
+    @Test
+    void doFilter_givenLimitReached_whenActuatorIsCalled_thenShouldHandleIt() throws Exception {
+        // GIVEN
+        MockHttpServletResponse probe = new MockHttpServletResponse();
+        MockFilterChain probeChain = new MockFilterChain();
+
+        // WHEN
+        filter.doFilter(new MockHttpServletRequest("GET", "/abc123"), new MockHttpServletResponse(),
+                (request, response) -> filter.doFilter(
+                        new MockHttpServletRequest("GET", "/actuator/health/readiness"), probe, probeChain));
+
+        // THEN
+        assertThat(probeChain.getRequest()).isNotNull();
+        assertThat(probe.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_givenRequestCompleted_whenNextRequestArrives_thenShouldHandleIt() throws Exception {
+        // GIVEN
+        filter.doFilter(new MockHttpServletRequest("GET", "/abc123"), new MockHttpServletResponse(), new MockFilterChain());
+        MockFilterChain chain = new MockFilterChain();
+
+        // WHEN
+        filter.doFilter(new MockHttpServletRequest("GET", "/def456"), new MockHttpServletResponse(), chain);
+
+        // THEN
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(filter.getLimit()).isEqualTo(1);
+    }
+}
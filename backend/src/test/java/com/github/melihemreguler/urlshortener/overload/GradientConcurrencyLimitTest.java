@@ -0,0 +1,77 @@
+package com.github.melihemreguler.urlshortener.overload;
+
+import com.github.melihemreguler.urlshortener.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class GradientConcurrencyLimitTest {
+
+    private static final long STEADY_RTT = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private final ConcurrencyLimitProperties concurrencyLimitProperties = new ConcurrencyLimitProperties();
+
+    @Test
+    void onSample_givenSteadyResponseTimesAtTheLimit_whenSampled_thenShouldGrowUpToTheMaximum() {
+        // GIVEN
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(concurrencyLimitProperties);
+
+        // WHEN
+        for (int i = 0; i < 1_000; i++) {
+            limit.onSample(STEADY_RTT, limit.getLimit());
+        }
+
+        // THEN
+        assertThat(limit.getLimit()).isEqualTo(concurrencyLimitProperties.getMaxLimit());
+    }
+
+    @Test
+    void onSample_givenResponseTimesRisingWellAboveTheAverage_whenSampled_thenShouldLowerTheLimit() {
+        // GIVEN
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(concurrencyLimitProperties);
+        for (int i = 0; i < 1_000; i++) {
+            limit.onSample(STEADY_RTT, limit.getLimit());
+        }
+
+        // WHEN
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(10 * STEADY_RTT, limit.getLimit());
+        }
+
+        // THEN
+        assertThat(limit.getLimit()).isLessThan(concurrencyLimitProperties.getMaxLimit() / 2);
+    }
+
+    @Test
+    void onSample_givenSustainedOverload_whenSampled_thenShouldNotDropBelowTheMinimum() {
+        // GIVEN
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(concurrencyLimitProperties);
+        for (int i = 0; i < 1_000; i++) {
+            limit.onSample(STEADY_RTT, limit.getLimit());
+        }
+
+        // WHEN
+        for (int i = 0; i < 300; i++) {
+            limit.onSample(10 * STEADY_RTT, limit.getLimit());
+        }
+
+        // THEN
+        assertThat(limit.getLimit()).isEqualTo(concurrencyLimitProperties.getMinLimit());
+    }
+
+    @Test
+    void onSample_givenFewRequestsInFlight_whenSampled_thenShouldKeepTheLimit() {
+        // GIVEN
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(concurrencyLimitProperties);
+
+        // WHEN
+        for (int i = 0; i < 1_000; i++) {
+            limit.onSample(STEADY_RTT, 1);
+        }
+
+        // THEN
+        assertThat(limit.getLimit()).isEqualTo(concurrencyLimitProperties.getInitialLimit());
+    }
+}
@@ -0,0 +1,170 @@
+package com.github.melihemreguler.urlshortener.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.melihemreguler.urlshortener.config.RateLimitProperties;
+import com.github.melihemreguler.urlshortener.config.ScanDetectionProperties;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(SpringExtension.class)
+class RateLimitFilterTest {
+
+    @Mock
+    private RateLimiter rateLimiter;
+
+    @Mock
+    private ScanDetector scanDetector;
+
+    private final RateLimitProperties rateLimitProperties = new RateLimitProperties();
+    private final ScanDetectionProperties scanDetectionProperties = new ScanDetectionProperties();
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitProperties.setEnabled(true);
+        scanDetectionProperties.setEnabled(true);
+        filter = new RateLimitFilter(rateLimiter, rateLimitProperties, scanDetector, scanDetectionProperties,
+                new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    void doFilter_givenClientOverItsLimit_whenRedirectIsRequested_thenShouldRejectWithTooManyRequests() throws Exception {
+        // GIVEN
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/abc123");
+        request.setRemoteAddr("203.0.113.7");
+        given(rateLimiter.tryAcquire(RateLimitedEndpoint.REDIRECT, "203.0.113.7"))
+                .willReturn(TimeUnit.MILLISECONDS.toNanos(1500));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // WHEN
+        filter.doFilter(request, response, chain);
+
+        // THEN
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(response.getContentAsString()).contains("\"status\":429");
+    }
+
+    @Test
+    void doFilter_givenAcceptedClientKey_whenCreateIsRequested_thenShouldLimitByTheKey() throws Exception {
+        // GIVEN
+        rateLimitProperties.setClientHeader("X-API-Key");
+        rateLimitProperties.setClientKeys(Set.of("key-1"));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/url");
+        request.addHeader("X-API-Key", "key-1");
+        MockFilterChain chain = new MockFilterChain();
+
+        // WHEN
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // THEN
+        assertThat(chain.getRequest()).isNotNull();
+        then(rateLimiter).should().tryAcquire(RateLimitedEndpoint.CREATE, "key-1");
+    }
+
+    @Test
+    void doFilter_givenUnknownClientKey_whenCreateIsRequested_thenShouldLimitByTheAddress() throws Exception {
+        // GIVEN
+        rateLimitProperties.setClientHeader("X-API-Key");
+        rateLimitProperties.setClientKeys(Set.of("key-1"));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/url");
+        request.setRemoteAddr("203.0.113.7");
+        request.addHeader("X-API-Key", "made-up");
+
+        // WHEN
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // THEN
+        then(rateLimiter).should().tryAcquire(RateLimitedEndpoint.CREATE, "203.0.113.7");
+    }
+
+    @Test
+    void doFilter_givenRequestToAnUnlimitedEndpoint_whenFiltered_thenShouldNotTakeAToken() throws Exception {
+        // GIVEN
+        MockFilterChain listChain = new MockFilterChain();
+        MockFilterChain staticChain = new MockFilterChain();
+
+        // WHEN
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/url"), new MockHttpServletResponse(), listChain);
+        filter.doFilter(new MockHttpServletRequest("GET", "/favicon.ico"), new MockHttpServletResponse(), staticChain);
+
+        // THEN
+        assertThat(listChain.getRequest()).isNotNull();
+        assertThat(staticChain.getRequest()).isNotNull();
+        then(rateLimiter).should(never()).tryAcquire(any(), any());
+    }
+
+    @Test
+    void doFilter_givenClientBlockedForScanning_whenRedirectIsRequested_thenShouldRejectWithoutTakingAToken() throws Exception {
+        // GIVEN
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/abc123");
+        request.setRemoteAddr("203.0.113.7");
+        given(scanDetector.blockedNanos("203.0.113.7")).willReturn(TimeUnit.MINUTES.toNanos(10));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // WHEN
+        filter.doFilter(request, response, chain);
+
+        // THEN
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("600");
+        then(rateLimiter).should(never()).tryAcquire(any(), any());
+    }
+
+    @Test
+    void doFilter_givenUnknownShortCode_whenRedirectIsAnswered_thenShouldRecordAMiss() throws Exception {
+        // GIVEN
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/zzzzzz");
+        request.setRemoteAddr("203.0.113.7");
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+                resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            }
+        });
+
+        // WHEN
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // THEN
+        then(scanDetector).should().record("203.0.113.7", true);
+    }
+
+    @Test
+    void doFilter_givenAcceptedClientKey_whenRedirectIsAnswered_thenShouldDetectScansByTheAddress() throws Exception {
+        // GIVEN
+        rateLimitProperties.setClientHeader("X-API-Key");
+        rateLimitProperties.setClientKeys(Set.of("key-1"));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/abc123");
+        request.setRemoteAddr("203.0.113.7");
+        request.addHeader("X-API-Key", "key-1");
+
+        // WHEN
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // THEN
+        then(scanDetector).should().blockedNanos("203.0.113.7");
+        then(scanDetector).should().record("203.0.113.7", false);
+        then(rateLimiter).should().tryAcquire(RateLimitedEndpoint.REDIRECT, "key-1");
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.melihemreguler.urlshortener.ratelimit;
+
+import com.github.melihemreguler.urlshortener.config.CircuitBreakerProperties;
+import com.github.melihemreguler.urlshortener.config.RateLimitProperties;
+import com.github.melihemreguler.urlshortener.repository.DatabaseCircuitBreaker;
+import com.github.melihemreguler.urlshortener.repository.RateLimitRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(SpringExtension.class)
+class RateLimiterTest {
+
+    @Mock
+    private RateLimitRepository rateLimitRepository;
+
+    private final RateLimitProperties rateLimitProperties = new RateLimitProperties();
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitProperties.setShared(true);
+        rateLimitProperties.setCreate(new RateLimitProperties.Policy(1, 10));
+        rateLimiter = new RateLimiter(rateLimitProperties, rateLimitRepository,
+                new DatabaseCircuitBreaker(new CircuitBreakerProperties()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sync_givenSharedTotalOverTheWindowAllowance_whenSynced_thenShouldBlockTheClient() {
+        // GIVEN
+        rateLimiter.tryAcquire(RateLimitedEndpoint.CREATE, "203.0.113.7");
+        ArgumentCaptor<Map<String, Long>> counts = ArgumentCaptor.forClass(Map.class);
+        // 1 per second over a minute plus a burst of 10 allows 70; other instances let through the rest
+        given(rateLimitRepository.addAndGet(counts.capture(), any(Instant.class)))
+                .willAnswer(invocation -> Map.of(counts.getValue().keySet().iterator().next(), 71L));
+
+        // WHEN
+        rateLimiter.sync();
+
+        // THEN
+        assertThat(counts.getValue()).hasSize(1);
+        assertThat(counts.getValue().keySet().iterator().next()).startsWith("CREATE:203.0.113.7:");
+        assertThat(rateLimiter.tryAcquire(RateLimitedEndpoint.CREATE, "203.0.113.7")).isPositive();
+        assertThat(rateLimiter.tryAcquire(RateLimitedEndpoint.CREATE, "198.51.100.1")).isZero();
+    }
+
+    @Test
+    void sync_givenDatabaseUnreachable_whenSynced_thenShouldKeepApplyingLocalLimits() {
+        // GIVEN
+        rateLimiter.tryAcquire(RateLimitedEndpoint.CREATE, "203.0.113.7");
+        given(rateLimitRepository.addAndGet(any(), any())).willThrow(new DataAccessResourceFailureException("down"));
+
+        // WHEN
+        Throwable thrown = catchThrowable(() -> rateLimiter.sync());
+
+        // THEN
+        assertThat(thrown).isNull();
+        assertThat(rateLimiter.tryAcquire(RateLimitedEndpoint.CREATE, "203.0.113.7")).isZero();
+    }
+
+    @Test
+    void sync_givenNoRequestsSinceLastSync_whenSynced_thenShouldNotQueryTheDatabase() {
+        // GIVEN
+        rateLimiter.tryAcquire(RateLimitedEndpoint.SEARCH, "203.0.113.7");
+        given(rateLimitRepository.addAndGet(any(), any())).willReturn(Map.of());
+        rateLimiter.sync();
+
+        // WHEN
+        rateLimiter.sync();
+
+        // THEN
+        then(rateLimitRepository).should(times(1)).addAndGet(any(), any());
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.melihemreguler.urlshortener.ratelimit;
+
+import com.github.melihemreguler.urlshortener.config.ScanDetectionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ScanDetectorTest {
+
+    private final ScanDetectionProperties scanDetectionProperties = new ScanDetectionProperties();
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private ScanDetector scanDetector;
+
+    @BeforeEach
+    void setUp() {
+        scanDetectionProperties.setMinRedirects(20);
+        scanDetectionProperties.setMaxMissRatio(0.5);
+        scanDetectionProperties.setBlockDuration(Duration.ofMinutes(10));
+        scanDetector = new ScanDetector(scanDetectionProperties, clock::get);
+    }
+
+    @Test
+    void record_givenClientMissingMostCodes_whenItReachesTheMinimumRedirects_thenShouldBlockIt() {
+        // GIVEN
+        for (int i = 0; i < 19; i++) {
+            scanDetector.record("203.0.113.7", true);
+        }
+        assertThat(scanDetector.blockedNanos("203.0.113.7")).isZero();
+
+        // WHEN
+        scanDetector.record("203.0.113.7", true);
+
+        // THEN
+        assertThat(scanDetector.blockedNanos("203.0.113.7")).isEqualTo(TimeUnit.MINUTES.toNanos(10));
+        assertThat(scanDetector.blockedNanos("198.51.100.1")).isZero();
+    }
+
+    @Test
+    void record_givenClientMostlyFollowingExistingLinks_whenSomeCodesAreUnknown_thenShouldNotBlockIt() {
+        // GIVEN
+        String client = "203.0.113.7";
+
+        // WHEN
+        for (int i = 0; i < 100; i++) {
+            scanDetector.record(client, i % 3 == 0);
+        }
+
+        // THEN
+        assertThat(scanDetector.blockedNanos("203.0.113.7")).isZero();
+    }
+
+    @Test
+    void record_givenMissesInAnOldWindow_whenTheWindowHasSlidPast_thenShouldNotCountThem() {
+        // GIVEN
+        for (int i = 0; i < 15; i++) {
+            scanDetector.record("203.0.113.7", true);
+        }
+        clock.addAndGet(scanDetectionProperties.getWindow().toMillis() * 2);
+
+        // WHEN
+        for (int i = 0; i < 15; i++) {
+            scanDetector.record("203.0.113.7", true);
+        }
+
+        // THEN
+        assertThat(scanDetector.blockedNanos("203.0.113.7")).isZero();
+    }
+
+    @Test
+    void blockedNanos_givenBlockedClient_whenTheBlockIsOver_thenShouldLetItThrough() {
+        // GIVEN
+        for (int i = 0; i < 20; i++) {
+            scanDetector.record("203.0.113.7", true);
+        }
+
+        // WHEN
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(10));
+
+        // THEN
+        assertThat(scanDetector.blockedNanos("203.0.113.7")).isZero();
+    }
+
+    @Test
+    void publishPrefixes_givenMissesFromOneNetwork_whenPublished_thenShouldTagThemWithTheNetwork() {
+        // GIVEN
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        scanDetector.bindTo(registry);
+        scanDetector.record("203.0.113.7", true);
+        scanDetector.record("203.0.113.8", true);
+        scanDetector.record("203.0.113.8", false);
+        scanDetector.record("198.51.100.1", false);
+
+        // WHEN
+        scanDetector.publishPrefixes();
+
+        // THEN
+        assertThat(registry.get("urlshortener.scan.prefix.misses").tag("prefix", "203.0.113.0/24").gauge().value())
+                .isEqualTo(2);
+        assertThat(registry.get("urlshortener.scan.prefix.miss.ratio").tag("prefix", "203.0.113.0/24").gauge().value())
+                .isCloseTo(2 / 3.0, within(1e-9));
+        assertThat(registry.find("urlshortener.scan.prefix.misses").tag("prefix", "198.51.100.0/24").gauge()).isNull();
+    }
+
+    @Test
+    void prefixOf_givenClients_whenPrefixed_thenShouldGiveNetworksAndNotExposeApiKeys() {
+        // GIVEN
+        String apiKey = "secret-api-key";
+
+        // WHEN
+        String ipv4 = ScanDetector.prefixOf("203.0.113.7");
+        String ipv6 = ScanDetector.prefixOf("2001:db8:85a3::8a2e:370:7334");
+        String loopback = ScanDetector.prefixOf("0:0:0:0:0:0:0:1");
+        String other = ScanDetector.prefixOf(apiKey);
+
+        // THEN
+        assertThat(ipv4).isEqualTo("203.0.113.0/24");
+        assertThat(ipv6).isEqualTo("2001:db8:85a3::/48");
+        assertThat(loopback).isEqualTo("0:0:0::/48");
+        assertThat(other).isEqualTo(ScanDetector.OTHER_PREFIX);
+    }
+}
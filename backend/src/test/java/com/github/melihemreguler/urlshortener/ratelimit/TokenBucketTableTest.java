@@ -0,0 +1,95 @@
+package com.github.melihemreguler.urlshortener.ratelimit;
+
+import com.github.melihemreguler.urlshortener.config.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TokenBucketTableTest {
+
+    // 10 requests per second, i.e. one token every 100 ms, and bursts of 5
+    private final RateLimitProperties.Policy policy = new RateLimitProperties.Policy(10, 5);
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void tryAcquire_givenFullBucket_whenBurstIsUsedUp_thenShouldRejectWithTheTimeToTheNextToken() {
+        // GIVEN
+        TokenBucketTable table = new TokenBucketTable(policy, 100, false, clock::get);
+        for (int i = 0; i < 5; i++) {
+            assertThat(table.tryAcquire("203.0.113.7")).isZero();
+        }
+
+        // WHEN
+        long waitNanos = table.tryAcquire("203.0.113.7");
+
+        // THEN
+        assertThat(waitNanos).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    void tryAcquire_givenEmptyBucket_whenTimePasses_thenShouldRefillAtTheRate() {
+        // GIVEN
+        TokenBucketTable table = new TokenBucketTable(policy, 100, false, clock::get);
+        for (int i = 0; i < 5; i++) {
+            table.tryAcquire("203.0.113.7");
+        }
+
+        // WHEN
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+
+        // THEN
+        assertThat(table.tryAcquire("203.0.113.7")).isZero();
+        assertThat(table.tryAcquire("203.0.113.7")).isZero();
+        assertThat(table.tryAcquire("203.0.113.7")).isPositive();
+    }
+
+    @Test
+    void tryAcquire_givenOneClientOverItsLimit_whenAnotherClientRequests_thenShouldLetItThrough() {
+        // GIVEN
+        TokenBucketTable table = new TokenBucketTable(policy, 100, false, clock::get);
+        for (int i = 0; i < 6; i++) {
+            table.tryAcquire("203.0.113.7");
+        }
+
+        // WHEN
+        long waitNanos = table.tryAcquire("198.51.100.1");
+
+        // THEN
+        assertThat(waitNanos).isZero();
+    }
+
+    @Test
+    void tryAcquire_givenSharedTable_whenRequestsAreLetThrough_thenShouldCountOnlyThoseForSharing() {
+        // GIVEN
+        TokenBucketTable table = new TokenBucketTable(policy, 100, true, clock::get);
+
+        // WHEN
+        for (int i = 0; i < 8; i++) {
+            table.tryAcquire("203.0.113.7");
+        }
+
+        // THEN
+        AtomicReference<TokenBucketTable.Bucket> bucket = new AtomicReference<>();
+        table.forEach((client, value) -> bucket.set(value));
+        assertThat(bucket.get().takeUnshared()).isEqualTo(5);
+        assertThat(bucket.get().takeUnshared()).isZero();
+    }
+
+    @Test
+    void tryAcquire_givenBlockedBucket_whenTokensAreLeft_thenShouldStillReject() {
+        // GIVEN
+        TokenBucketTable table = new TokenBucketTable(policy, 100, true, clock::get);
+        table.tryAcquire("203.0.113.7");
+        table.forEach((client, bucket) -> bucket.blockUntil(System.currentTimeMillis() + 60_000));
+
+        // WHEN
+        long waitNanos = table.tryAcquire("203.0.113.7");
+
+        // THEN
+        assertThat(waitNanos).isGreaterThan(TimeUnit.SECONDS.toNanos(50));
+    }
+}
@@ -0,0 +1,169 @@
+package com.github.melihemreguler.urlshortener.repository;
+
+import com.github.melihemreguler.urlshortener.config.CircuitBreakerProperties;
+import com.github.melihemreguler.urlshortener.exception.DatabaseUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the state transitions of DatabaseCircuitBreaker.
+ */
+class DatabaseCircuitBreakerTest {
+
+    private CircuitBreakerProperties circuitBreakerProperties;
+    private DatabaseCircuitBreaker databaseCircuitBreaker;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakerProperties = new CircuitBreakerProperties();
+        circuitBreakerProperties.setFailureThreshold(2);
+        circuitBreakerProperties.setOpenDuration(Duration.ofHours(1));
+        databaseCircuitBreaker = new DatabaseCircuitBreaker(circuitBreakerProperties);
+        calls = new AtomicInteger();
+    }
+
+    @Test
+    void call_givenFailuresBelowThreshold_whenCalled_thenShouldStayClosed() {
+        // GIVEN
+        failOnce();
+
+        // WHEN
+        String result = databaseCircuitBreaker.call(() -> "ok");
+
+        // THEN
+        assertThat(result).isEqualTo("ok");
+        assertThat(databaseCircuitBreaker.getState()).isEqualTo(DatabaseCircuitBreaker.State.CLOSED);
+        assertThat(databaseCircuitBreaker.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void call_givenConsecutiveFailuresAtThreshold_whenCalledAgain_thenShouldFailWithoutCalling() {
+        // GIVEN
+        failOnce();
+        failOnce();
+
+        // WHEN & THEN
+        assertThatThrownBy(() -> databaseCircuitBreaker.call(calls::incrementAndGet))
+                .isInstanceOf(DatabaseUnavailableException.class)
+                .hasMessageContaining("open");
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(databaseCircuitBreaker.getState()).isEqualTo(DatabaseCircuitBreaker.State.OPEN);
+        assertThat(databaseCircuitBreaker.health().getStatus()).isEqualTo(DatabaseCircuitBreaker.DEGRADED);
+    }
+
+    @Test
+    void call_givenNonAvailabilityError_whenCalled_thenShouldRethrowItAndNotCountIt() {
+        // GIVEN
+        failOnce();
+
+        // WHEN & THEN
+        assertThatThrownBy(() -> databaseCircuitBreaker.run(() -> {
+            throw new DuplicateKeyException("duplicate");
+        })).isInstanceOf(DuplicateKeyException.class);
+        failOnce();
+        assertThat(databaseCircuitBreaker.getState()).isEqualTo(DatabaseCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void call_givenOpenDurationElapsed_whenTrialSucceeds_thenShouldClose() throws InterruptedException {
+        // GIVEN
+        circuitBreakerProperties.setOpenDuration(Duration.ofMillis(20));
+        failOnce();
+        failOnce();
+        Thread.sleep(30);
+
+        // WHEN
+        String result = databaseCircuitBreaker.call(() -> "ok");
+
+        // THEN
+        assertThat(result).isEqualTo("ok");
+        assertThat(databaseCircuitBreaker.getState()).isEqualTo(DatabaseCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void call_givenOpenDurationElapsed_whenTrialFails_thenShouldReopen() throws InterruptedException {
+        // GIVEN
+        circuitBreakerProperties.setOpenDuration(Duration.ofMillis(20));
+        failOnce();
+        failOnce();
+        Thread.sleep(30);
+
+        // WHEN
+        failOnce();
+
+        // THEN
+        assertThat(databaseCircuitBreaker.getState()).isEqualTo(DatabaseCircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> databaseCircuitBreaker.call(calls::incrementAndGet))
+                .isInstanceOf(DatabaseUnavailableException.class);
+        assertThat(calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void call_givenOpenDurationElapsed_whenTrialMakesNestedCalls_thenShouldRunThemAndClose() throws InterruptedException {
+        // GIVEN
+        circuitBreakerProperties.setOpenDuration(Duration.ofMillis(20));
+        failOnce();
+        failOnce();
+        Thread.sleep(30);
+
+        // WHEN
+        String result = databaseCircuitBreaker.call(() -> databaseCircuitBreaker.call(() -> "o")
+                + databaseCircuitBreaker.call(() -> "k"));
+
+        // THEN
+        assertThat(result).isEqualTo("ok");
+        assertThat(databaseCircuitBreaker.getState()).isEqualTo(DatabaseCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void call_givenOpenDurationElapsed_whenNestedCallOfTrialFails_thenShouldReopen() throws InterruptedException {
+        // GIVEN
+        circuitBreakerProperties.setOpenDuration(Duration.ofMillis(20));
+        failOnce();
+        failOnce();
+        Thread.sleep(30);
+
+        // WHEN & THEN
+        assertThatThrownBy(() -> databaseCircuitBreaker.run(() -> databaseCircuitBreaker.run(() -> {
+            throw new DataAccessResourceFailureException("Timed out");
+        }))).isInstanceOf(DatabaseUnavailableException.class);
+        assertThat(databaseCircuitBreaker.getState()).isEqualTo(DatabaseCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void call_givenOpenDurationElapsed_whenTrialThrowsError_thenShouldReopenAndLetTheNextTrialThrough() throws InterruptedException {
+        // GIVEN
+        circuitBreakerProperties.setOpenDuration(Duration.ofMillis(20));
+        failOnce();
+        failOnce();
+        Thread.sleep(30);
+        assertThatThrownBy(() -> databaseCircuitBreaker.run(() -> {
+            throw new StackOverflowError();
+        })).isInstanceOf(StackOverflowError.class);
+        assertThat(databaseCircuitBreaker.getState()).isEqualTo(DatabaseCircuitBreaker.State.OPEN);
+        Thread.sleep(30);
+
+        // WHEN
+        String result = databaseCircuitBreaker.call(() -> "ok");
+
+        // THEN
+        assertThat(result).isEqualTo("ok");
+        assertThat(databaseCircuitBreaker.getState()).isEqualTo(DatabaseCircuitBreaker.State.CLOSED);
+    }
+
+    private void failOnce() {
+        assertThatThrownBy(() -> databaseCircuitBreaker.run(() -> {
+            calls.incrementAndGet();
+            throw new DataAccessResourceFailureException("Timed out");
+        })).isInstanceOf(DatabaseUnavailableException.class);
+    }
+}
@@ -0,0 +1,206 @@
+package com.github.melihemreguler.urlshortener.repository;
+
+import com.github.melihemreguler.urlshortener.config.DatabaseCheckProperties;
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.dto.UrlPrefix;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.bson.Document;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Unit tests for the background database check behind the readiness group.
+ */
+@ExtendWith(SpringExtension.class)
+class DatabaseConnectionCheckerTest {
+
+    // Deep stubs give an empty mapping context, so there are no indexes to create
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private DatabaseCheckProperties databaseCheckProperties;
+    private DatabaseConnectionChecker databaseConnectionChecker;
+
+    @BeforeEach
+    void setUp() {
+        databaseCheckProperties = new DatabaseCheckProperties();
+        // Keeps rescheduled attempts from running during the test
+        databaseCheckProperties.setRetryInterval(Duration.ofHours(1));
+        databaseConnectionChecker = new DatabaseConnectionChecker(mongoTemplate, databaseCheckProperties, eventPublisher);
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseConnectionChecker.stopChecking();
+    }
+
+    @Test
+    void health_givenNoCheckYet_whenQueried_thenShouldBeOutOfService() {
+        // GIVEN
+
+        // WHEN
+        Status status = databaseConnectionChecker.health().getStatus();
+
+        // THEN
+        assertThat(status).isEqualTo(Status.OUT_OF_SERVICE);
+    }
+
+    @Test
+    void checkDatabaseConnection_givenSuccessfulPing_whenChecked_thenShouldBeUp() {
+        // GIVEN
+        given(mongoTemplate.executeCommand("{ ping: 1 }")).willReturn(new Document("ok", 1));
+
+        // WHEN
+        databaseConnectionChecker.checkDatabaseConnection();
+
+        // THEN
+        assertThat(databaseConnectionChecker.health().getStatus()).isEqualTo(Status.UP);
+        then(eventPublisher).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void checkDatabaseConnection_givenMappedDocument_whenPingSucceeds_thenShouldEnsureItsIndexes() {
+        // GIVEN
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setInitialEntitySet(Set.of(UrlPrefix.class));
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        mappingContext.initialize();
+        MongoConverter converter = mongoTemplate.getConverter();
+        willReturn(mappingContext).given(converter).getMappingContext();
+        IndexOperations indexOperations = mock(IndexOperations.class);
+        given(mongoTemplate.indexOps(UrlPrefix.class)).willReturn(indexOperations);
+
+        // WHEN
+        databaseConnectionChecker.checkDatabaseConnection();
+
+        // THEN
+        ArgumentCaptor<IndexDefinition> captor = ArgumentCaptor.forClass(IndexDefinition.class);
+        then(indexOperations).should().ensureIndex(captor.capture());
+        assertThat(captor.getValue().getIndexKeys()).containsKey("prefix");
+        assertThat(captor.getValue().getIndexOptions()).containsEntry("unique", true);
+        assertThat(databaseConnectionChecker.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void checkDatabaseConnection_givenLinkDocument_whenPingSucceeds_thenShouldEnsurePrefixedUrlIndex() {
+        // GIVEN
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setInitialEntitySet(Set.of(UrlDto.class));
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        mappingContext.initialize();
+        MongoConverter converter = mongoTemplate.getConverter();
+        willReturn(mappingContext).given(converter).getMappingContext();
+        IndexOperations indexOperations = mock(IndexOperations.class);
+        given(mongoTemplate.indexOps(UrlDto.class)).willReturn(indexOperations);
+
+        // WHEN
+        databaseConnectionChecker.checkDatabaseConnection();
+
+        // THEN
+        ArgumentCaptor<IndexDefinition> captor = ArgumentCaptor.forClass(IndexDefinition.class);
+        then(indexOperations).should(atLeastOnce()).ensureIndex(captor.capture());
+        assertThat(captor.getAllValues()).extracting(IndexDefinition::getIndexKeys)
+                .anySatisfy(keys -> assertThat(keys.keySet()).containsExactly("urlPrefix", "urlSuffix"));
+    }
+
+    @Test
+    void checkDatabaseConnection_givenLinkDocument_whenPingSucceeds_thenShouldEnsurePartialShortCodeIndex() {
+        // GIVEN
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setInitialEntitySet(Set.of(UrlDto.class));
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        mappingContext.initialize();
+        MongoConverter converter = mongoTemplate.getConverter();
+        willReturn(mappingContext).given(converter).getMappingContext();
+        IndexOperations indexOperations = mock(IndexOperations.class);
+        given(mongoTemplate.indexOps(UrlDto.class)).willReturn(indexOperations);
+
+        // WHEN
+        databaseConnectionChecker.checkDatabaseConnection();
+
+        // THEN
+        ArgumentCaptor<IndexDefinition> captor = ArgumentCaptor.forClass(IndexDefinition.class);
+        then(indexOperations).should(atLeastOnce()).ensureIndex(captor.capture());
+        assertThat(captor.getAllValues())
+                .filteredOn(index -> index.getIndexKeys().keySet().equals(Set.of("shortCode")))
+                .singleElement()
+                .satisfies(index -> assertThat(index.getIndexOptions()).containsKey("partialFilterExpression"));
+    }
+
+    @Test
+    void checkDatabaseConnection_givenFailingPingWithinLimit_whenChecked_thenShouldStayOutOfServiceWithoutBreakingLiveness() {
+        // GIVEN
+        given(mongoTemplate.executeCommand("{ ping: 1 }")).willThrow(new DataAccessResourceFailureException("Timed out"));
+
+        // WHEN
+        databaseConnectionChecker.checkDatabaseConnection();
+
+        // THEN
+        assertThat(databaseConnectionChecker.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        assertThat(databaseConnectionChecker.health().getDetails()).containsEntry("error", "Timed out");
+        then(eventPublisher).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void checkDatabaseConnection_givenFailingPingPastLimit_whenChecked_thenShouldMarkLivenessBroken() {
+        // GIVEN
+        databaseCheckProperties.setGiveUpAfter(Duration.ZERO);
+        given(mongoTemplate.executeCommand("{ ping: 1 }")).willThrow(new DataAccessResourceFailureException("Timed out"));
+
+        // WHEN
+        databaseConnectionChecker.checkDatabaseConnection();
+
+        // THEN
+        ArgumentCaptor<AvailabilityChangeEvent<LivenessState>> captor = ArgumentCaptor.forClass(AvailabilityChangeEvent.class);
+        then(eventPublisher).should().publishEvent(captor.capture());
+        assertThat(captor.getValue().getState()).isEqualTo(LivenessState.BROKEN);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void checkDatabaseConnection_givenBrokenLiveness_whenPingSucceeds_thenShouldRestoreLiveness() {
+        // GIVEN
+        databaseCheckProperties.setGiveUpAfter(Duration.ZERO);
+        given(mongoTemplate.executeCommand("{ ping: 1 }"))
+                .willThrow(new DataAccessResourceFailureException("Timed out"))
+                .willReturn(new Document("ok", 1));
+        databaseConnectionChecker.checkDatabaseConnection();
+
+        // WHEN
+        databaseConnectionChecker.checkDatabaseConnection();
+
+        // THEN
+        ArgumentCaptor<AvailabilityChangeEvent<LivenessState>> captor = ArgumentCaptor.forClass(AvailabilityChangeEvent.class);
+        then(eventPublisher).should(times(2)).publishEvent(captor.capture());
+        assertThat(captor.getAllValues()).extracting(AvailabilityChangeEvent::getState)
+                .containsExactly(LivenessState.BROKEN, LivenessState.CORRECT);
+        assertThat(databaseConnectionChecker.health().getStatus()).isEqualTo(Status.UP);
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.melihemreguler.urlshortener.repository;
+
+import com.github.melihemreguler.urlshortener.config.BulkheadProperties;
+import com.github.melihemreguler.urlshortener.dto.UrlPopularity;
+import com.github.melihemreguler.urlshortener.model.CounterTotal;
+import com.github.melihemreguler.urlshortener.model.PopularityCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for the popularity leaderboard queries, run against MongoDB.
+ */
+@DataMongoTest
+@Import({AdminDatabase.class, BulkheadProperties.class})
+@TestPropertySource(properties = {
+        "spring.profiles.active=test"
+})
+class UrlPopularityRepositoryTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private UrlPopularityRepository popularityRepository;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(UrlPopularity.class).all();
+        popularityRepository = new UrlPopularityRepository(mongoTemplate);
+    }
+
+    @Test
+    void findPage_givenLinksWithEqualTotals_whenPagedByCursor_thenShouldListEachOnceMostClickedFirst() {
+        // GIVEN
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        popularityRepository.raise(Map.of(
+                "aaa", new CounterTotal(5, now),
+                "bbb", new CounterTotal(9, now),
+                "ccc", new CounterTotal(5, now),
+                "ddd", new CounterTotal(5, now),
+                "eee", new CounterTotal(1, now)));
+
+        // WHEN
+        List<String> listed = new ArrayList<>();
+        PopularityCursor cursor = null;
+        for (int page = 0; page < 3; page++) {
+            List<UrlPopularity> entries = popularityRepository.findPage(cursor, 2);
+            entries.forEach(entry -> listed.add(entry.getShortCode()));
+            UrlPopularity last = entries.get(entries.size() - 1);
+            cursor = new PopularityCursor(last.getCount(), last.getShortCode());
+        }
+
+        // THEN
+        assertThat(listed).containsExactly("bbb", "aaa", "ccc", "ddd", "eee");
+        assertThat(popularityRepository.findPage(cursor, 2)).isEmpty();
+    }
+
+    @Test
+    void raise_givenHigherTotalAlreadyRaised_whenRaised_thenShouldNeverLowerIt() {
+        // GIVEN
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        popularityRepository.raise(Map.of("aaa", new CounterTotal(10, now)));
+
+        // WHEN
+        popularityRepository.raise(Map.of(
+                "aaa", new CounterTotal(8, now.minusDays(1)),
+                "bbb", new CounterTotal(4, now.minusDays(1))));
+
+        // THEN
+        List<UrlPopularity> entries = popularityRepository.findPage(null, 10);
+        assertThat(entries).extracting(UrlPopularity::getShortCode, UrlPopularity::getCount, UrlPopularity::getLastAccessedAt)
+                .containsExactly(tuple("aaa", 10L, now), tuple("bbb", 4L, now.minusDays(1)));
+    }
+
+    @Test
+    void raise_givenStoredClicksEntered_whenCountedClicksRaised_thenShouldListTheirSum() {
+        // GIVEN
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        popularityRepository.raise(Map.of("aaa", new CounterTotal(3, now.minusDays(1))),
+                Map.of("aaa", new CounterTotal(10, now.minusDays(2)), "bbb", new CounterTotal(7, now.minusDays(2))));
+
+        // WHEN
+        popularityRepository.raise(Map.of("aaa", new CounterTotal(5, now), "bbb", new CounterTotal(1, now)));
+
+        // THEN
+        List<UrlPopularity> entries = popularityRepository.findPage(null, 10);
+        assertThat(entries).extracting(UrlPopularity::getShortCode, UrlPopularity::getCount, UrlPopularity::getLastAccessedAt)
+                .containsExactly(tuple("aaa", 15L, now), tuple("bbb", 8L, now));
+    }
+
+    @Test
+    void delete_givenRankedLinks_whenDeleted_thenShouldTakeOnlyThemOff() {
+        // GIVEN
+        LocalDateTime now = LocalDateTime.now();
+        popularityRepository.raise(Map.of("aaa", new CounterTotal(2, now), "bbb", new CounterTotal(1, now)));
+
+        // WHEN
+        popularityRepository.delete(List.of("aaa"));
+
+        // THEN
+        assertThat(popularityRepository.findPage(null, 10)).extracting(UrlPopularity::getShortCode).containsExactly("bbb");
+    }
+}
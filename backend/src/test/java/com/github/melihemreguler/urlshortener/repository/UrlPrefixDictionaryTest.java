@@ -0,0 +1,169 @@
+package com.github.melihemreguler.urlshortener.repository;
+
+import com.github.melihemreguler.urlshortener.config.CircuitBreakerProperties;
+import com.github.melihemreguler.urlshortener.config.UrlDictionaryProperties;
+import com.github.melihemreguler.urlshortener.dto.UrlPrefix;
+import com.github.melihemreguler.urlshortener.model.PrefixedUrl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Unit tests for splitting, learning, evicting and packing long URLs against the prefix dictionary.
+ */
+@ExtendWith(SpringExtension.class)
+class UrlPrefixDictionaryTest {
+
+    @Mock
+    private UrlPrefixRepository prefixRepository;
+
+    private UrlDictionaryProperties properties;
+    private UrlPrefixDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UrlDictionaryProperties();
+        properties.setEnabled(true);
+        dictionary = new UrlPrefixDictionary(prefixRepository, properties, new DatabaseCircuitBreaker(new CircuitBreakerProperties()));
+        given(prefixRepository.findByPrefix(anyString())).willReturn(Optional.empty());
+        given(prefixRepository.findTopByOrderByIdDesc()).willReturn(Optional.empty());
+    }
+
+    @Test
+    void candidatesOf_givenUrlWithPath_whenSplit_thenShouldReturnPathPrefixBeforeHostPrefix() {
+        assertThat(UrlPrefix.candidatesOf("https://www.youtube.com/watch?v=abc"))
+                .containsExactly("https://www.youtube.com/watch?", "https://www.youtube.com/");
+        assertThat(UrlPrefix.candidatesOf("https://github.com/melihemreguler/urlshortener"))
+                .containsExactly("https://github.com/melihemreguler/", "https://github.com/");
+        assertThat(UrlPrefix.candidatesOf("https://example.com/page")).containsExactly("https://example.com/");
+        assertThat(UrlPrefix.candidatesOf("https://example.com")).isEmpty();
+        assertThat(UrlPrefix.candidatesOf("not a url")).isEmpty();
+    }
+
+    @Test
+    void split_givenUnknownPrefixes_whenSplit_thenShouldStoreInFullWithoutQuerying() {
+        // WHEN
+        PrefixedUrl prefixed = dictionary.split("https://www.youtube.com/watch?v=abc");
+
+        // THEN
+        assertThat(prefixed).isNull();
+        then(prefixRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void learnFrequentPrefixes_givenPrefixesSeenOftenEnough_whenLearned_thenShouldSplitNewLinksAgainstThem() {
+        // GIVEN
+        properties.setMinSightings(2);
+        given(prefixRepository.findTopByOrderByIdDesc())
+                .willReturn(Optional.empty())
+                .willReturn(Optional.of(new UrlPrefix(1, "https://www.youtube.com/")));
+        dictionary.split("https://www.youtube.com/watch?v=abc");
+        dictionary.split("https://www.youtube.com/watch?v=def");
+
+        // WHEN
+        dictionary.learnFrequentPrefixes();
+
+        // THEN
+        PrefixedUrl prefixed = dictionary.split("https://www.youtube.com/watch?v=ghi");
+        assertThat(prefixed.suffix()).isEqualTo("v=ghi");
+        assertThat(dictionary.join(prefixed.prefixId(), prefixed.suffix())).isEqualTo("https://www.youtube.com/watch?v=ghi");
+        then(prefixRepository).should(times(2)).insert(any(UrlPrefix.class));
+    }
+
+    @Test
+    void learnFrequentPrefixes_givenPrefixSeenOnce_whenLearned_thenShouldNotLearnIt() {
+        // GIVEN
+        properties.setMinSightings(2);
+        dictionary.split("https://example.com/page");
+
+        // WHEN
+        dictionary.learnFrequentPrefixes();
+
+        // THEN
+        assertThat(dictionary.split("https://example.com/other")).isNull();
+        then(prefixRepository).should(never()).insert(any(UrlPrefix.class));
+    }
+
+    @Test
+    void learnFrequentPrefixes_givenMorePrefixesThanMaxEntries_whenLearned_thenShouldEvictTheLeastUsed() {
+        // GIVEN
+        properties.setMinSightings(1);
+        properties.setMaxEntries(1);
+        given(prefixRepository.findTopByOrderByIdDesc())
+                .willReturn(Optional.empty())
+                .willReturn(Optional.of(new UrlPrefix(1, "https://popular.com/")));
+        for (int i = 0; i < 5; i++) {
+            dictionary.split("https://popular.com/" + i);
+        }
+        dictionary.split("https://rare.com/1");
+
+        // WHEN
+        dictionary.learnFrequentPrefixes();
+
+        // THEN
+        assertThat(dictionary.split("https://popular.com/6")).isEqualTo(new PrefixedUrl(1, "6"));
+        assertThat(dictionary.split("https://rare.com/2")).isNull();
+        // Links stored against an evicted prefix are still joined without a query
+        assertThat(dictionary.join(2, "1")).isEqualTo("https://rare.com/1");
+        then(prefixRepository).should(never()).findById(anyInt());
+    }
+
+    @Test
+    void learnFrequentPrefixes_givenDatabaseUnavailable_whenLearned_thenShouldKeepStoringUrlsInFull() {
+        // GIVEN
+        properties.setMinSightings(1);
+        given(prefixRepository.findByPrefix(anyString())).willThrow(new DataAccessResourceFailureException("down"));
+        dictionary.split("https://example.com/page");
+
+        // WHEN
+        Throwable thrown = catchThrowable(dictionary::learnFrequentPrefixes);
+
+        // THEN
+        assertThat(thrown).isNull();
+        assertThat(dictionary.split("https://example.com/other")).isNull();
+    }
+
+    @Test
+    void join_givenPrefixLearnedByAnotherInstance_whenJoined_thenShouldLoadIt() {
+        // GIVEN
+        given(prefixRepository.findById(7)).willReturn(Optional.of(new UrlPrefix(7, "https://example.com/")));
+
+        // WHEN
+        String longUrl = dictionary.join(7, "page");
+
+        // THEN
+        assertThat(longUrl).isEqualTo("https://example.com/page");
+    }
+
+    @Test
+    void join_givenUnknownPrefixId_whenJoined_thenShouldThrow() {
+        assertThatThrownBy(() -> dictionary.join(42, "page")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void packThenUnpack_givenKnownAndUnknownPrefixes_whenRoundTripped_thenShouldReturnSameUrl() {
+        // GIVEN
+        given(prefixRepository.findAll()).willReturn(List.of(new UrlPrefix(300, "https://www.youtube.com/watch?")));
+        dictionary.learnFrequentPrefixes();
+        String known = "https://www.youtube.com/watch?v=abc";
+        String unknown = "https://example.com/çalışma";
+
+        // WHEN
+        byte[] packedKnown = dictionary.pack(known);
+        byte[] packedUnknown = dictionary.pack(unknown);
+
+        // THEN
+        assertThat(packedKnown).hasSize(2 + "v=abc".length());
+        assertThat(dictionary.unpack(packedKnown)).isEqualTo(known);
+        assertThat(dictionary.unpack(packedUnknown)).isEqualTo(unknown);
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.melihemreguler.urlshortener.repository;
+
+import com.github.melihemreguler.urlshortener.config.BulkheadProperties;
+import com.github.melihemreguler.urlshortener.config.CircuitBreakerProperties;
+import com.github.melihemreguler.urlshortener.config.UrlDictionaryProperties;
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for UrlRepository with long URLs stored against the URL prefix dictionary.
+ */
+@DataMongoTest
+@Import({AdminDatabase.class, BulkheadProperties.class, LongUrlCompressionCallback.class, UrlPrefixDictionary.class, UrlDictionaryProperties.class,
+        DatabaseCircuitBreaker.class, CircuitBreakerProperties.class})
+@TestPropertySource(properties = {
+        "spring.profiles.active=test",
+        "url-dictionary.enabled=true",
+        "url-dictionary.min-sightings=1"
+})
+class UrlRepositoryPrefixDictionaryTest {
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UrlPrefixDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        // Prefixes are append-only and cached by the dictionary, so only the links are cleaned up
+        urlRepository.deleteAll();
+        dictionary.split("https://www.youtube.com/watch?v=abc");
+        dictionary.split("https://github.com/melihemreguler/urlshortener");
+        dictionary.learnFrequentPrefixes();
+    }
+
+    @Test
+    void save_givenUrlWithPath_whenSaved_thenShouldStorePrefixIdAndSuffix() {
+        // GIVEN
+        UrlDto urlDto = new UrlDto("https://www.youtube.com/watch?v=abc", "abc123");
+
+        // WHEN
+        UrlDto savedUrl = urlRepository.save(urlDto);
+
+        // THEN
+        Document stored = mongoTemplate.getCollection("urls").find(new Document("_id", new ObjectId(savedUrl.getId()))).first();
+        assertThat(stored).doesNotContainKey("longUrl");
+        assertThat(stored.getString("urlSuffix")).isEqualTo("v=abc");
+        assertThat(urlRepository.findById(savedUrl.getId()).get().getLongUrl()).isEqualTo("https://www.youtube.com/watch?v=abc");
+    }
+
+    @Test
+    void findByLongUrl_givenPrefixedAndFullUrls_whenSearched_thenShouldFindBoth() {
+        // GIVEN
+        urlRepository.save(new UrlDto("https://www.youtube.com/watch?v=abc", "abc123"));
+        mongoTemplate.getCollection("urls").insertOne(new Document("longUrl", "https://www.youtube.com/watch?v=def")
+                .append("shortCode", "def456"));
+
+        // WHEN
+        Optional<UrlDto> prefixed = urlRepository.findByLongUrl("https://www.youtube.com/watch?v=abc");
+        Optional<UrlDto> full = urlRepository.findByLongUrl("https://www.youtube.com/watch?v=def");
+
+        // THEN
+        assertThat(prefixed).map(UrlDto::getShortCode).hasValue("abc123");
+        assertThat(full).map(UrlDto::getShortCode).hasValue("def456");
+        assertThat(urlRepository.findByLongUrl("https://www.youtube.com/watch?v=xyz")).isEmpty();
+    }
+
+    @Test
+    void search_givenTermInPrefixOrSuffix_whenSearched_thenShouldMatchPrefixedUrls() {
+        // GIVEN
+        urlRepository.save(new UrlDto("https://www.youtube.com/watch?v=abc", "abc123"));
+        urlRepository.save(new UrlDto("https://github.com/melihemreguler/urlshortener", "def456"));
+        Pageable pageable = PageRequest.of(0, 10);
+
+        // WHEN
+        Page<UrlDto> byHost = urlRepository.findByLongUrlContainingIgnoreCaseOrShortCodeContainingIgnoreCase("YOUTUBE", pageable);
+        Page<UrlDto> bySuffix = urlRepository.findByLongUrlContainingIgnoreCaseOrShortCodeContainingIgnoreCase("shortener", pageable);
+
+        // THEN
+        assertThat(byHost.getContent()).extracting(UrlDto::getShortCode).containsExactly("abc123");
+        assertThat(bySuffix.getContent()).extracting(UrlDto::getShortCode).containsExactly("def456");
+    }
+
+    @Test
+    void findByCodes_givenPrefixedUrl_whenLookedUpWithProjection_thenShouldJoinTheLongUrl() {
+        // GIVEN
+        UrlDto urlDto = new UrlDto("https://www.youtube.com/watch?v=abc", "abc123");
+        urlDto.setCode(42L);
+        urlRepository.save(urlDto);
+
+        // WHEN
+        List<UrlDto> found = urlRepository.findByCodes(List.of(42L), List.of(), false);
+
+        // THEN
+        assertThat(found).extracting(UrlDto::getLongUrl).containsExactly("https://www.youtube.com/watch?v=abc");
+    }
+}
@@ -1,10 +1,13 @@
 package com.github.melihemreguler.urlshortener.repository;
 
+import com.github.melihemreguler.urlshortener.config.BulkheadProperties;
 import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.model.UrlField;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -13,6 +16,7 @@ import org.springframework.test.context.TestPropertySource;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -21,6 +25,7 @@ import static org.assertj.core.api.Assertions.*;
  * Tests the custom query methods and pagination functionality.
  */
 @DataMongoTest
+@Import({AdminDatabase.class, BulkheadProperties.class})
 @TestPropertySource(properties = {
         "spring.profiles.active=test"
 })
@@ -127,6 +132,37 @@ class UrlRepositoryTest {
         assertThat(foundUrl.get().getLongUrl()).isEqualTo("https://example.com");
     }
 
+    @Test
+    void findByCode_givenExistingCode_whenSearched_thenShouldReturnUrlDto() {
+        // GIVEN
+        UrlDto urlDto = new UrlDto("https://example.com", "abc123");
+        urlDto.setCode(123456789L);
+        urlRepository.save(urlDto);
+
+        // WHEN
+        Optional<UrlDto> foundUrl = urlRepository.findByCode(123456789L);
+
+        // THEN
+        assertThat(foundUrl).isPresent();
+        assertThat(foundUrl.get().getShortCode()).isEqualTo("abc123");
+    }
+
+    @Test
+    void findLegacyByShortCode_givenLinksWithAndWithoutCode_whenSearched_thenShouldOnlyReturnTheOneWithoutCode() {
+        // GIVEN
+        UrlDto migrated = new UrlDto("https://example.com", "abc123");
+        migrated.setCode(123456789L);
+        urlRepository.save(migrated);
+        urlRepository.save(new UrlDto("https://legacy.com", "legacy-1"));
+
+        // WHEN
+        Optional<UrlDto> foundUrl = urlRepository.findLegacyByShortCode("legacy-1");
+
+        // THEN
+        assertThat(foundUrl).map(UrlDto::getLongUrl).contains("https://legacy.com");
+        assertThat(urlRepository.findLegacyByShortCode("abc123")).isEmpty();
+    }
+
     @Test
     void findByShortCode_givenNonExistentShortCode_whenSearched_thenShouldReturnEmpty() {
         // GIVEN
@@ -326,6 +362,86 @@ class UrlRepositoryTest {
         assertThatNoException().isThrownBy(() -> urlRepository.deleteById(nonExistentId));
     }
 
+    // ==================== FIELD PROJECTION TESTS ====================
+
+    @Test
+    void findPage_givenLinkFields_whenPaged_thenShouldReadOnlyThoseFields() {
+        // GIVEN
+        UrlDto saved = urlRepository.save(new UrlDto("https://example.com", "abc123"));
+        urlRepository.save(new UrlDto("https://other.com", "def456"));
+        Pageable pageable = PageRequest.of(0, 1, Sort.by("createdAt").ascending());
+
+        // WHEN
+        Page<UrlDto> result = urlRepository.findPage(pageable, Set.of(UrlField.ID, UrlField.LONG_URL, UrlField.SHORT_CODE));
+
+        // THEN
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getContent()).singleElement().satisfies(url -> {
+            assertThat(url.getId()).isEqualTo(saved.getId());
+            assertThat(url.getLongUrl()).isEqualTo("https://example.com");
+            assertThat(url.getShortCode()).isEqualTo("abc123");
+            assertThat(url.getCreatedAt()).isNull();
+        });
+    }
+
+    @Test
+    void searchPage_givenClickFieldsOnly_whenSearched_thenShouldReadShortCodeForTheTotals() {
+        // GIVEN
+        UrlDto url = new UrlDto("https://example.com", "abc123");
+        url.setAccessCount(4);
+        urlRepository.save(url);
+
+        // WHEN
+        Page<UrlDto> result = urlRepository.searchPage("example", PageRequest.of(0, 10), Set.of(UrlField.ACCESS_COUNT));
+
+        // THEN
+        assertThat(result.getContent()).singleElement().satisfies(found -> {
+            assertThat(found.getId()).isNull();
+            assertThat(found.getLongUrl()).isNull();
+            assertThat(found.getShortCode()).isEqualTo("abc123");
+            assertThat(found.getAccessCount()).isEqualTo(4);
+        });
+    }
+
+    // ==================== BULK LOOKUP TESTS ====================
+
+    @Test
+    void findByCodes_givenNumericAndLegacyLinks_whenLookedUp_thenShouldReturnBothWithOnlyTheRequestedFields() {
+        // GIVEN
+        UrlDto numeric = new UrlDto("https://numeric.com", "numeric1");
+        numeric.setCode(42L);
+        numeric.setAccessCount(3);
+        urlRepository.save(numeric);
+        urlRepository.save(new UrlDto("https://legacy.com", "legacy-1"));
+        urlRepository.save(new UrlDto("https://other.com", "other1"));
+
+        // WHEN
+        List<UrlDto> found = urlRepository.findByCodes(List.of(42L, 43L), List.of("legacy-1"), false);
+
+        // THEN
+        assertThat(found).extracting(UrlDto::getShortCode).containsExactlyInAnyOrder("numeric1", "legacy-1");
+        assertThat(found).extracting(UrlDto::getLongUrl).containsExactlyInAnyOrder("https://numeric.com", "https://legacy.com");
+        assertThat(found).extracting(UrlDto::getCreatedAt).containsOnlyNulls();
+    }
+
+    @Test
+    void findByCodes_givenMetadataRequested_whenLookedUp_thenShouldIncludeCreationTimeAndClicks() {
+        // GIVEN
+        UrlDto numeric = new UrlDto("https://numeric.com", "numeric1");
+        numeric.setCode(42L);
+        numeric.setAccessCount(3);
+        urlRepository.save(numeric);
+
+        // WHEN
+        List<UrlDto> found = urlRepository.findByCodes(List.of(42L), List.of(), true);
+
+        // THEN
+        assertThat(found).singleElement().satisfies(url -> {
+            assertThat(url.getCreatedAt()).isNotNull();
+            assertThat(url.getAccessCount()).isEqualTo(3);
+        });
+    }
+
     // ==================== SORTING TESTS ====================
 
     @Test
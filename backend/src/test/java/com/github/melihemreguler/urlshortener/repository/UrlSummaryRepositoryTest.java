@@ -0,0 +1,119 @@
+package com.github.melihemreguler.urlshortener.repository;
+
+import com.github.melihemreguler.urlshortener.config.BulkheadProperties;
+import com.github.melihemreguler.urlshortener.dto.ArchivedUrlBlock;
+import com.github.melihemreguler.urlshortener.dto.UrlCounter;
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for the dashboard summary aggregations, run against MongoDB.
+ */
+@DataMongoTest
+@Import({AdminDatabase.class, BulkheadProperties.class})
+@TestPropertySource(properties = {
+        "spring.profiles.active=test"
+})
+class UrlSummaryRepositoryTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private AdminDatabase adminDatabase;
+
+    private UrlSummaryRepository summaryRepository;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(UrlDto.class).all();
+        mongoTemplate.remove(UrlCounter.class).all();
+        mongoTemplate.remove(ArchivedUrlBlock.class).all();
+        summaryRepository = new UrlSummaryRepository(adminDatabase);
+    }
+
+    @Test
+    void countCreatedPerDay_givenLinksCreatedOnSeveralDays_whenCounted_thenShouldGroupThoseSinceByDay() {
+        // GIVEN
+        LocalDate today = LocalDate.now();
+        mongoTemplate.insert(link("aaa", today.atTime(9, 0), 0));
+        mongoTemplate.insert(link("bbb", today.atTime(0, 1), 0));
+        mongoTemplate.insert(link("ccc", today.minusDays(2).atTime(23, 59), 0));
+        mongoTemplate.insert(link("ddd", today.minusDays(40).atTime(12, 0), 0));
+
+        // WHEN
+        Map<LocalDate, Long> created = summaryRepository.countCreatedPerDay(today.minusDays(29).atStartOfDay(), ZoneId.systemDefault());
+
+        // THEN
+        assertThat(created).containsOnly(entry(today, 2L), entry(today.minusDays(2), 1L));
+    }
+
+    @Test
+    void sumClicks_givenCountersAndLegacyCounts_whenSummed_thenShouldAddBoth() {
+        // GIVEN
+        mongoTemplate.insert(link("aaa", LocalDateTime.now(), 4));
+        mongoTemplate.insert(link("bbb", LocalDateTime.now(), 0));
+        mongoTemplate.insert(counter("aaa", 10));
+        mongoTemplate.insert(counter("bbb", 10));
+
+        // WHEN
+        long clicks = summaryRepository.sumClicks();
+
+        // THEN
+        assertThat(clicks).isEqualTo(24);
+    }
+
+    @Test
+    void countLinks_givenHotAndArchivedLinks_whenCounted_thenShouldCountArchivedShortCodesApart() {
+        // GIVEN
+        mongoTemplate.insert(link("aaa", LocalDateTime.now(), 0));
+        mongoTemplate.insert(new ArchivedUrlBlock(List.of("bbb", "ccc"), List.of("2", "3"), new byte[0]));
+        mongoTemplate.insert(new ArchivedUrlBlock(List.of("ddd"), List.of("4"), new byte[0]));
+
+        // WHEN
+        long links = summaryRepository.countLinks();
+        long archived = summaryRepository.countArchivedLinks();
+
+        // THEN
+        assertThat(links).isEqualTo(1);
+        assertThat(archived).isEqualTo(3);
+    }
+
+    @Test
+    void sumClicks_givenNoLinks_whenSummed_thenShouldBeZero() {
+        // WHEN
+        long clicks = summaryRepository.sumClicks();
+
+        // THEN
+        assertThat(clicks).isZero();
+        assertThat(summaryRepository.countArchivedLinks()).isZero();
+    }
+
+    private static UrlDto link(String shortCode, LocalDateTime createdAt, int accessCount) {
+        UrlDto url = new UrlDto("https://www.example.com/" + shortCode, shortCode);
+        url.setCreatedAt(createdAt);
+        url.setAccessCount(accessCount);
+        return url;
+    }
+
+    private static UrlCounter counter(String shortCode, long count) {
+        UrlCounter counter = new UrlCounter();
+        counter.setShortCode(shortCode);
+        counter.setCount(count);
+        return counter;
+    }
+}
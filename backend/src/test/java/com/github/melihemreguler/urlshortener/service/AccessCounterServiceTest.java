@@ -0,0 +1,255 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.github.melihemreguler.urlshortener.config.CircuitBreakerProperties;
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.model.CounterDelta;
+import com.github.melihemreguler.urlshortener.model.CounterTotal;
+import com.github.melihemreguler.urlshortener.model.CounterWrite;
+import com.github.melihemreguler.urlshortener.repository.DatabaseCircuitBreaker;
+import com.github.melihemreguler.urlshortener.repository.UrlCounterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Unit tests for the in-memory buffering and batched flushing of AccessCounterService.
+ */
+@ExtendWith(SpringExtension.class)
+class AccessCounterServiceTest {
+
+    @Mock
+    private UrlCounterRepository counterRepository;
+
+    @Mock
+    private UrlChangeLog urlChangeLog;
+
+    @Mock
+    private PopularityLeaderboard popularityLeaderboard;
+
+    private AccessCounterService accessCounterService;
+
+    @BeforeEach
+    void setUp() {
+        accessCounterService = new AccessCounterService(counterRepository,
+                new DatabaseCircuitBreaker(new CircuitBreakerProperties()), urlChangeLog, popularityLeaderboard);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_givenRecordedAccesses_whenFlushed_thenShouldWriteOneDeltaPerLink() {
+        // GIVEN
+        accessCounterService.recordAccess("abc123");
+        accessCounterService.recordAccess("abc123");
+        accessCounterService.recordAccess("def456");
+
+        // WHEN
+        accessCounterService.flush();
+
+        // THEN
+        ArgumentCaptor<Collection<CounterWrite>> captor = ArgumentCaptor.forClass(Collection.class);
+        then(counterRepository).should().increment(captor.capture());
+        List<CounterDelta> deltas = captor.getValue().stream().map(CounterWrite::delta).toList();
+        assertThat(deltas)
+                .extracting(CounterDelta::shortCode, CounterDelta::count)
+                .containsExactlyInAnyOrder(tuple("abc123", 2L), tuple("def456", 1L));
+        assertThat(captor.getValue()).extracting(CounterWrite::flushId).containsOnly(captor.getValue().iterator().next().flushId());
+        ArgumentCaptor<Collection<String>> clicked = ArgumentCaptor.forClass(Collection.class);
+        then(urlChangeLog).should().clicked(clicked.capture());
+        assertThat(clicked.getValue()).containsExactlyInAnyOrder("abc123", "def456");
+        then(popularityLeaderboard).should().clicked(deltas);
+    }
+
+    @Test
+    void flush_givenNothingRecordedSinceLastFlush_whenFlushed_thenShouldNotWrite() {
+        // GIVEN
+        accessCounterService.recordAccess("abc123");
+        accessCounterService.flush();
+
+        // WHEN
+        accessCounterService.flush();
+
+        // THEN
+        then(counterRepository).should(times(1)).increment(anyCollection());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_givenWriteFailure_whenFlushedAgain_thenShouldRetryTheSameWrite() {
+        // GIVEN
+        accessCounterService.recordAccess("abc123");
+        willThrow(new DataAccessResourceFailureException("down")).willReturn(List.of())
+                .given(counterRepository).increment(anyCollection());
+        accessCounterService.flush();
+
+        // WHEN
+        accessCounterService.flush();
+
+        // THEN
+        ArgumentCaptor<Collection<CounterWrite>> captor = ArgumentCaptor.forClass(Collection.class);
+        then(counterRepository).should(times(2)).increment(captor.capture());
+        // Same flush id, so the retry adds nothing if the failed write was applied after all
+        assertThat(captor.getAllValues().get(1)).containsExactlyElementsOf(captor.getAllValues().get(0));
+        // Only logged once written
+        then(urlChangeLog).should(times(1)).clicked(anyCollection());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_givenPartiallyFailedWrite_whenFlushedAgain_thenShouldRetryOnlyTheFailedDelta() {
+        // GIVEN
+        accessCounterService.recordAccess("abc123");
+        accessCounterService.recordAccess("def456");
+        willAnswer(invocation -> {
+            Collection<CounterWrite> writes = invocation.getArgument(0);
+            return writes.stream().filter(write -> write.delta().shortCode().equals("def456")).toList();
+        }).willReturn(List.of()).given(counterRepository).increment(anyCollection());
+        accessCounterService.flush();
+        accessCounterService.recordAccess("abc123");
+        accessCounterService.recordAccess("def456");
+
+        // WHEN
+        accessCounterService.flush();
+
+        // THEN
+        ArgumentCaptor<Collection<CounterWrite>> captor = ArgumentCaptor.forClass(Collection.class);
+        then(counterRepository).should(times(2)).increment(captor.capture());
+        CounterWrite failed = captor.getAllValues().get(0).stream()
+                .filter(write -> write.delta().shortCode().equals("def456")).findFirst().orElseThrow();
+        // The failed write goes out as it was, the later click on its link waits for the next flush
+        assertThat(captor.getAllValues().get(1)).hasSize(2).contains(failed)
+                .extracting(write -> write.delta().shortCode(), write -> write.delta().count())
+                .containsExactlyInAnyOrder(tuple("abc123", 1L), tuple("def456", 1L));
+        ArgumentCaptor<List<CounterDelta>> clicked = ArgumentCaptor.forClass(List.class);
+        then(popularityLeaderboard).should(times(2)).clicked(clicked.capture());
+        assertThat(clicked.getAllValues().get(0)).extracting(CounterDelta::shortCode).containsExactly("abc123");
+        assertThat(accessCounterService.getTotals(List.of("def456")).get("def456").count()).isEqualTo(1L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_givenCircuitOpen_whenFlushedAfterItCloses_thenShouldReplayBufferedClicks() throws InterruptedException {
+        // GIVEN
+        CircuitBreakerProperties circuitBreakerProperties = new CircuitBreakerProperties();
+        circuitBreakerProperties.setFailureThreshold(1);
+        circuitBreakerProperties.setOpenDuration(Duration.ofMillis(50));
+        accessCounterService = new AccessCounterService(counterRepository,
+                new DatabaseCircuitBreaker(circuitBreakerProperties), urlChangeLog, popularityLeaderboard);
+        accessCounterService.recordAccess("abc123");
+        willThrow(new DataAccessResourceFailureException("down")).willReturn(List.of())
+                .given(counterRepository).increment(anyCollection());
+        accessCounterService.flush();
+        accessCounterService.recordAccess("abc123");
+        accessCounterService.flush();
+
+        // WHEN
+        Thread.sleep(60);
+        accessCounterService.flush();
+        accessCounterService.flush();
+
+        // THEN
+        ArgumentCaptor<Collection<CounterWrite>> captor = ArgumentCaptor.forClass(Collection.class);
+        then(counterRepository).should(times(3)).increment(captor.capture());
+        assertThat(captor.getAllValues().get(1)).containsExactlyElementsOf(captor.getAllValues().get(0));
+        assertThat(captor.getAllValues().get(2)).extracting(write -> write.delta().count()).containsExactly(1L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_givenManyClicksOnOneLink_whenFlushed_thenShouldWriteThemAsOneDelta() {
+        // GIVEN
+        for (int i = 0; i < 5000; i++) {
+            accessCounterService.recordAccess("viral");
+        }
+
+        // WHEN
+        accessCounterService.flush();
+
+        // THEN
+        ArgumentCaptor<Collection<CounterWrite>> captor = ArgumentCaptor.forClass(Collection.class);
+        then(counterRepository).should().increment(captor.capture());
+        assertThat(captor.getValue()).extracting(CounterWrite::delta)
+                .extracting(CounterDelta::shortCode, CounterDelta::count)
+                .containsExactly(tuple("viral", 5000L));
+    }
+
+    @Test
+    void applyTotals_givenStoredAndPendingClicks_whenApplied_thenShouldAddThemToLegacyCount() {
+        // GIVEN
+        UrlDto url = new UrlDto("https://example.com", "abc123");
+        url.setAccessCount(5);
+        given(counterRepository.findTotals(List.of("abc123")))
+                .willReturn(Map.of("abc123", new CounterTotal(10, LocalDateTime.now())));
+        accessCounterService.recordAccess("abc123");
+
+        // WHEN
+        accessCounterService.applyTotals(List.of(url));
+
+        // THEN
+        assertThat(url.getAccessCount()).isEqualTo(16);
+        assertThat(url.getLastAccessedAt()).isNotNull();
+    }
+
+    @Test
+    void applyTotals_givenTotalAboveIntRange_whenApplied_thenShouldNotOverflow() {
+        // GIVEN
+        UrlDto url = new UrlDto("https://example.com", "abc123");
+        url.setAccessCount(Integer.MAX_VALUE);
+        given(counterRepository.findTotals(List.of("abc123")))
+                .willReturn(Map.of("abc123", new CounterTotal(10, LocalDateTime.now())));
+
+        // WHEN
+        accessCounterService.applyTotals(List.of(url));
+
+        // THEN
+        assertThat(url.getAccessCount()).isEqualTo(Integer.MAX_VALUE + 10L);
+    }
+
+    @Test
+    void flush_givenClicksRecordedWhileIdleEntriesAreDropped_whenFlushed_thenShouldWriteEveryClick() throws InterruptedException {
+        // GIVEN
+        AtomicLong written = new AtomicLong();
+        willAnswer(invocation -> {
+            Collection<CounterWrite> writes = invocation.getArgument(0);
+            writes.forEach(write -> written.addAndGet(write.delta().count()));
+            return List.of();
+        }).given(counterRepository).increment(anyCollection());
+        int threads = 4;
+        int clicksPerThread = 20_000;
+        ExecutorService recorders = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            recorders.submit(() -> {
+                for (int i = 0; i < clicksPerThread; i++) {
+                    // Sparse clicks over many links, so entries keep going idle and being dropped
+                    accessCounterService.recordAccess("code" + (i % 64));
+                }
+            });
+        }
+        recorders.shutdown();
+
+        // WHEN
+        while (!recorders.awaitTermination(0, TimeUnit.MILLISECONDS)) {
+            accessCounterService.flush();
+        }
+        accessCounterService.flush();
+
+        // THEN
+        assertThat(written.get()).isEqualTo((long) threads * clicksPerThread);
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the ArchiveBlockCodec round trip and compression behavior.
+ */
+class ArchiveBlockCodecTest {
+
+    @Test
+    void encodeThenDecode_givenLinks_whenRoundTripped_thenShouldPreserveAllFields() {
+        // GIVEN
+        UrlDto accessed = new UrlDto("https://example.com/some/path?q=1", "abc123");
+        accessed.setId("id-1");
+        accessed.setAccessCount(42);
+        accessed.setLastAccessedAt(LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        UrlDto neverAccessed = new UrlDto("https://example.com/other", "def456");
+        neverAccessed.setId("id-2");
+
+        // WHEN
+        List<UrlDto> decoded = ArchiveBlockCodec.decode(ArchiveBlockCodec.encode(List.of(accessed, neverAccessed)));
+
+        // THEN
+        assertThat(decoded).hasSize(2);
+        assertThat(decoded.get(0).getId()).isEqualTo("id-1");
+        assertThat(decoded.get(0).getShortCode()).isEqualTo("abc123");
+        assertThat(decoded.get(0).getLongUrl()).isEqualTo("https://example.com/some/path?q=1");
+        assertThat(decoded.get(0).getAccessCount()).isEqualTo(42);
+        assertThat(decoded.get(0).getLastAccessedAt()).isEqualTo(LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        assertThat(decoded.get(0).getCreatedAt()).isNotNull();
+        assertThat(decoded.get(1).getId()).isEqualTo("id-2");
+        assertThat(decoded.get(1).getLastAccessedAt()).isNull();
+    }
+
+    @Test
+    void encode_givenLinksSharingAHost_whenEncoded_thenShouldBeSmallerThanRawUrls() {
+        // GIVEN
+        List<UrlDto> urls = new ArrayList<>();
+        int rawBytes = 0;
+        for (int i = 0; i < 500; i++) {
+            UrlDto url = new UrlDto("https://www.example.com/articles/2024/" + i + "/read", "code" + i);
+            url.setId("id-" + i);
+            urls.add(url);
+            rawBytes += url.getLongUrl().length();
+        }
+
+        // WHEN
+        byte[] payload = ArchiveBlockCodec.encode(urls);
+
+        // THEN
+        assertThat(payload.length).isLessThan(rawBytes / 2);
+        assertThat(ArchiveBlockCodec.decode(payload)).hasSize(500);
+    }
+
+    @Test
+    void decode_givenBlockWrittenWithIntCounts_whenDecoded_thenShouldReadItsCounts() throws IOException {
+        // GIVEN
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeByte(1);
+            out.writeInt(1);
+            for (String value : List.of("id-1", "abc123", "https://example.com")) {
+                out.writeInt(value.length());
+                out.write(value.getBytes(StandardCharsets.UTF_8));
+            }
+            out.writeLong(Long.MIN_VALUE);
+            out.writeLong(Long.MIN_VALUE);
+            out.writeInt(42);
+        }
+
+        // WHEN
+        List<UrlDto> decoded = ArchiveBlockCodec.decode(bytes.toByteArray());
+
+        // THEN
+        assertThat(decoded).singleElement().satisfies(url -> {
+            assertThat(url.getShortCode()).isEqualTo("abc123");
+            assertThat(url.getAccessCount()).isEqualTo(42);
+        });
+    }
+}
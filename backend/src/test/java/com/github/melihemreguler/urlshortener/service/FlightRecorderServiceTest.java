@@ -0,0 +1,82 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.github.melihemreguler.urlshortener.config.FlightRecorderProperties;
+import com.github.melihemreguler.urlshortener.jfr.PipelineStageEvent;
+import com.github.melihemreguler.urlshortener.model.FlightRecordingStatus;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests starting, dumping and stopping a flight recording that captures pipeline stage events.
+ */
+class FlightRecorderServiceTest {
+
+    @TempDir
+    private Path dumpDirectory;
+
+    private FlightRecorderService flightRecorderService;
+
+    @BeforeEach
+    void setUp() {
+        FlightRecorderProperties properties = new FlightRecorderProperties();
+        properties.setDumpDirectory(dumpDirectory);
+        properties.setThreshold(Duration.ZERO);
+        flightRecorderService = new FlightRecorderService(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        flightRecorderService.closeRecording();
+    }
+
+    @Test
+    void stop_givenRunningRecording_whenStopped_thenShouldDumpPipelineStageEvents() throws Exception {
+        // GIVEN
+        flightRecorderService.start();
+        PipelineStageEvent event = new PipelineStageEvent();
+        event.begin();
+        event.commit(PipelineStageEvent.REDIRECT, PipelineStageEvent.LOOKUP, "abc123");
+
+        // WHEN
+        FlightRecordingStatus status = flightRecorderService.stop();
+
+        // THEN
+        assertThat(Path.of(status.file())).startsWith(dumpDirectory).exists();
+        List<RecordedEvent> stages = RecordingFile.readAllEvents(Path.of(status.file())).stream()
+                .filter(recorded -> recorded.getEventType().getName().equals("urlshortener.PipelineStage"))
+                .toList();
+        assertThat(stages).singleElement().satisfies(recorded -> {
+            assertThat(recorded.getString("stage")).isEqualTo(PipelineStageEvent.LOOKUP);
+            assertThat(recorded.getString("shortCode")).isEqualTo("abc123");
+        });
+        assertThat(flightRecorderService.isRunning()).isFalse();
+    }
+
+    @Test
+    void dump_givenRunningRecording_whenDumped_thenShouldKeepRecording() {
+        // GIVEN
+        flightRecorderService.start();
+
+        // WHEN
+        FlightRecordingStatus status = flightRecorderService.dump();
+
+        // THEN
+        assertThat(Path.of(status.file())).exists();
+        assertThat(flightRecorderService.isRunning()).isTrue();
+    }
+
+    @Test
+    void dump_givenNoRecording_whenDumped_thenShouldThrow() {
+        assertThatThrownBy(() -> flightRecorderService.dump()).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,138 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.github.melihemreguler.urlshortener.config.CircuitBreakerProperties;
+import com.github.melihemreguler.urlshortener.config.LinkCacheProperties;
+import com.github.melihemreguler.urlshortener.config.UrlDictionaryProperties;
+import com.github.melihemreguler.urlshortener.exception.DatabaseUnavailableException;
+import com.github.melihemreguler.urlshortener.repository.DatabaseCircuitBreaker;
+import com.github.melihemreguler.urlshortener.repository.UrlPrefixDictionary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for writing the link cache to a snapshot file and reading it back during an outage.
+ */
+class LinkSnapshotTest {
+
+    @TempDir
+    private Path directory;
+
+    private LinkCacheProperties linkCacheProperties;
+    private DatabaseCircuitBreaker databaseCircuitBreaker;
+    private LinkCache linkCache;
+    private LinkSnapshot linkSnapshot;
+
+    @BeforeEach
+    void setUp() {
+        linkCacheProperties = new LinkCacheProperties();
+        linkCacheProperties.setSnapshotPath(directory.resolve("links.snapshot"));
+        CircuitBreakerProperties circuitBreakerProperties = new CircuitBreakerProperties();
+        circuitBreakerProperties.setFailureThreshold(1);
+        databaseCircuitBreaker = new DatabaseCircuitBreaker(circuitBreakerProperties);
+        linkCache = new LinkCache(linkCacheProperties, new UrlPrefixDictionary(null, new UrlDictionaryProperties(), databaseCircuitBreaker));
+        linkSnapshot = new LinkSnapshot(linkCache, linkCacheProperties, databaseCircuitBreaker);
+    }
+
+    @Test
+    void find_givenSavedSnapshot_whenCacheWasCleared_thenShouldReturnSavedLinks() {
+        // GIVEN
+        String longUrl = "https://www.example.com/" + "a".repeat(70_000);
+        linkCache.put("abc123", longUrl);
+        linkCache.put("def456", "https://www.google.com");
+        linkSnapshot.save();
+        linkCache.evict("abc123");
+
+        // WHEN
+        String found = linkSnapshot.find("abc123");
+
+        // THEN
+        assertThat(found).isEqualTo(longUrl);
+        assertThat(linkSnapshot.find("def456")).isEqualTo("https://www.google.com");
+        assertThat(linkSnapshot.find("missing")).isNull();
+    }
+
+    @Test
+    void save_givenCircuitOpen_whenSaved_thenShouldKeepPreviousSnapshot() {
+        // GIVEN
+        linkCache.put("abc123", "https://www.example.com");
+        linkSnapshot.save();
+        linkCache.evict("abc123");
+        openCircuit();
+
+        // WHEN
+        linkSnapshot.save();
+
+        // THEN
+        assertThat(new LinkSnapshot(linkCache, linkCacheProperties, databaseCircuitBreaker).find("abc123"))
+                .isEqualTo("https://www.example.com");
+    }
+
+    @Test
+    void find_givenLinkDeletedAfterSnapshotWasSaved_whenDatabaseGoesDown_thenShouldNotReturnIt() {
+        // GIVEN
+        linkCache.put("abc123", "https://www.example.com");
+        linkCache.put("def456", "https://www.google.com");
+        linkSnapshot.save();
+        linkCache.evict("abc123");
+        linkSnapshot.evict("abc123");
+        openCircuit();
+
+        // WHEN
+        String found = linkSnapshot.find("abc123");
+
+        // THEN
+        assertThat(found).isNull();
+        assertThat(linkSnapshot.find("def456")).isEqualTo("https://www.google.com");
+    }
+
+    @Test
+    void find_givenSnapshotLoaded_whenLinkDeleted_thenShouldNoLongerReturnIt() {
+        // GIVEN
+        linkCache.put("abc123", "https://www.example.com");
+        linkSnapshot.save();
+        assertThat(linkSnapshot.find("abc123")).isEqualTo("https://www.example.com");
+
+        // WHEN
+        linkSnapshot.evict("abc123");
+
+        // THEN
+        assertThat(linkSnapshot.find("abc123")).isNull();
+    }
+
+    @Test
+    void save_givenLinkDeletedBefore_whenSavedAgainAndLinkCreatedWithTheSameCode_thenShouldReturnTheNewLink() {
+        // GIVEN
+        linkSnapshot.evict("abc123");
+        linkSnapshot.save();
+        linkCache.put("abc123", "https://www.example.com/new");
+
+        // WHEN
+        linkSnapshot.save();
+
+        // THEN
+        assertThat(linkSnapshot.find("abc123")).isEqualTo("https://www.example.com/new");
+    }
+
+    @Test
+    void find_givenNoSnapshotFile_whenCalled_thenShouldReturnNull() {
+        // GIVEN
+
+        // WHEN
+        String found = linkSnapshot.find("abc123");
+
+        // THEN
+        assertThat(found).isNull();
+    }
+
+    private void openCircuit() {
+        assertThatThrownBy(() -> databaseCircuitBreaker.run(() -> {
+            throw new DataAccessResourceFailureException("Timed out");
+        })).isInstanceOf(DatabaseUnavailableException.class);
+    }
+}
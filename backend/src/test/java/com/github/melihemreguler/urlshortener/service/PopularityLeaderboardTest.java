@@ -0,0 +1,165 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.github.melihemreguler.urlshortener.config.CircuitBreakerProperties;
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.model.CounterDelta;
+import com.github.melihemreguler.urlshortener.model.CounterTotal;
+import com.github.melihemreguler.urlshortener.repository.CollectionVersionRepository;
+import com.github.melihemreguler.urlshortener.repository.DatabaseCircuitBreaker;
+import com.github.melihemreguler.urlshortener.repository.UrlCounterRepository;
+import com.github.melihemreguler.urlshortener.repository.UrlPopularityRepository;
+import com.github.melihemreguler.urlshortener.repository.UrlRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(SpringExtension.class)
+class PopularityLeaderboardTest {
+
+    @Mock
+    private UrlPopularityRepository popularityRepository;
+
+    @Mock
+    private UrlCounterRepository counterRepository;
+
+    @Mock
+    private UrlRepository urlRepository;
+
+    @Mock
+    private CollectionVersionRepository collectionVersionRepository;
+
+    private PopularityLeaderboard popularityLeaderboard;
+
+    @BeforeEach
+    void setUp() {
+        popularityLeaderboard = new PopularityLeaderboard(popularityRepository, counterRepository, urlRepository,
+                collectionVersionRepository, new DatabaseCircuitBreaker(new CircuitBreakerProperties()));
+    }
+
+    @Test
+    void clicked_givenDeltasOfAFlush_whenAdded_thenShouldRaiseEachLinkToItsCountedTotal() {
+        // GIVEN
+        LocalDateTime now = LocalDateTime.now();
+        List<CounterDelta> deltas = List.of(
+                new CounterDelta("abc123", 3, now.minusSeconds(1)),
+                new CounterDelta("abc123", 4, now),
+                new CounterDelta("def456", 1, now));
+        given(counterRepository.findTotals(anyCollection())).willReturn(Map.of(
+                "abc123", new CounterTotal(17, now),
+                "def456", new CounterTotal(1, now)));
+
+        // WHEN
+        popularityLeaderboard.clicked(deltas);
+
+        // THEN
+        then(counterRepository).should().findTotals(argThat(codes -> codes.size() == 2
+                && codes.containsAll(List.of("abc123", "def456"))));
+        then(popularityRepository).should().raise(Map.of(
+                "abc123", new CounterTotal(17, now),
+                "def456", new CounterTotal(1, now)));
+        then(urlRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void clicked_givenEarlierWriteFailed_whenNextFlushAdds_thenShouldRaiseItsLinksAgainWithoutCountingTwice() {
+        // GIVEN
+        LocalDateTime now = LocalDateTime.now();
+        given(counterRepository.findTotals(anyCollection()))
+                .willReturn(Map.of("abc123", new CounterTotal(2, now)))
+                .willReturn(Map.of("abc123", new CounterTotal(3, now), "def456", new CounterTotal(5, now)));
+        willThrow(new DataAccessResourceFailureException("down")).willDoNothing()
+                .given(popularityRepository).raise(anyMap());
+        popularityLeaderboard.clicked(List.of(new CounterDelta("abc123", 2, now)));
+
+        // WHEN
+        popularityLeaderboard.clicked(List.of(new CounterDelta("abc123", 1, now), new CounterDelta("def456", 5, now)));
+
+        // THEN
+        then(popularityRepository).should().raise(Map.of(
+                "abc123", new CounterTotal(3, now),
+                "def456", new CounterTotal(5, now)));
+        popularityLeaderboard.clicked(List.of());
+        then(popularityRepository).should(times(2)).raise(anyMap());
+    }
+
+    @Test
+    void restored_givenLinkWithStoredCounters_whenRestored_thenShouldPutItBackWithItsCountedAndStoredClicks() {
+        // GIVEN
+        LocalDateTime lastAccessedAt = LocalDateTime.now().minusDays(100);
+        UrlDto url = new UrlDto("https://www.example.com", "abc123");
+        url.setAccessCount(2);
+        given(counterRepository.findTotals(List.of("abc123")))
+                .willReturn(Map.of("abc123", new CounterTotal(40, lastAccessedAt)));
+
+        // WHEN
+        popularityLeaderboard.restored(url);
+
+        // THEN
+        then(popularityRepository).should().raise(
+                Map.of("abc123", new CounterTotal(40, lastAccessedAt)),
+                Map.of("abc123", new CounterTotal(2, null)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void seed_givenLinksWithStoredClicks_whenSeeded_thenShouldRaiseTheClickedOnesAndRecordTheSeed() {
+        // GIVEN
+        LocalDateTime lastAccessedAt = LocalDateTime.now();
+        UrlDto legacy = link("1", "abc123", 5);
+        UrlDto counted = link("2", "def456", 0);
+        UrlDto unclicked = link("3", "ghi789", 0);
+        given(urlRepository.findClicksAfter(null, 1000)).willReturn(List.of(legacy, counted, unclicked));
+        given(urlRepository.findClicksAfter("3", 1000)).willReturn(List.of());
+        given(counterRepository.findTotals(List.of("abc123", "def456", "ghi789"))).willReturn(Map.of(
+                "abc123", new CounterTotal(1, lastAccessedAt),
+                "def456", new CounterTotal(9, lastAccessedAt)));
+
+        // WHEN
+        popularityLeaderboard.seed();
+
+        // THEN
+        ArgumentCaptor<Map<String, CounterTotal>> countedTotals = ArgumentCaptor.forClass(Map.class);
+        ArgumentCaptor<Map<String, CounterTotal>> storedClicks = ArgumentCaptor.forClass(Map.class);
+        then(popularityRepository).should().raise(countedTotals.capture(), storedClicks.capture());
+        assertThat(countedTotals.getValue()).containsOnly(
+                entry("abc123", new CounterTotal(1, lastAccessedAt)),
+                entry("def456", new CounterTotal(9, lastAccessedAt)));
+        assertThat(storedClicks.getValue()).containsOnly(entry("abc123", new CounterTotal(5, null)));
+        then(collectionVersionRepository).should().add("url_popularity", 1);
+    }
+
+    @Test
+    void seed_givenSeedCompletedBefore_whenSeeded_thenShouldNotReadTheLinks() {
+        // GIVEN
+        given(collectionVersionRepository.get("url_popularity")).willReturn(1L);
+
+        // WHEN
+        popularityLeaderboard.seed();
+
+        // THEN
+        then(urlRepository).should(never()).findClicksAfter(any(), anyInt());
+        then(popularityRepository).shouldHaveNoInteractions();
+    }
+
+    private static UrlDto link(String id, String shortCode, int accessCount) {
+        UrlDto url = new UrlDto("https://www.example.com/" + shortCode, shortCode);
+        url.setId(id);
+        url.setAccessCount(accessCount);
+        return url;
+    }
+}
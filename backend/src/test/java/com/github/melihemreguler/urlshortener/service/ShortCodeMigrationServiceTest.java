@@ -0,0 +1,79 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.github.melihemreguler.urlshortener.config.BulkheadProperties;
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.repository.AdminDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Integration tests for the numeric short code backfill, run against MongoDB.
+ */
+@DataMongoTest
+@Import({AdminDatabase.class, BulkheadProperties.class})
+@TestPropertySource(properties = {
+        "spring.profiles.active=test"
+})
+class ShortCodeMigrationServiceTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.remove(UrlDto.class).all();
+    }
+
+    @Test
+    void migrate_givenLinksWithoutCode_whenMigrated_thenShouldSetCodesAndStopLegacyLookups() {
+        // GIVEN
+        mongoTemplate.insert(legacyLink("abc123"));
+        mongoTemplate.insert(legacyLink("not-base62!"));
+        ShortCodeMigrationService migrationService = new ShortCodeMigrationService(mongoTemplate);
+
+        // WHEN
+        migrationService.migrate();
+
+        // THEN
+        assertThat(mongoTemplate.findAll(UrlDto.class)).extracting(UrlDto::getShortCode, UrlDto::getCode)
+                .containsExactlyInAnyOrder(tuple("abc123", ShortCodes.toNumber("abc123")), tuple("not-base62!", null));
+        assertThat(migrationService.needsLegacyLookup(ShortCodes.toNumber("zzz999"))).isFalse();
+        assertThat(migrationService.needsLegacyLookup(ShortCodes.NOT_ENCODABLE)).isTrue();
+    }
+
+    @Test
+    void migrate_givenBatchUpdateFails_whenMigrated_thenShouldKeepLegacyLookupsUntilARetryMigratesIt() {
+        // GIVEN
+        mongoTemplate.insert(legacyLink("abc123"));
+        MongoTemplate failingOnce = spy(mongoTemplate);
+        BulkOperations failingBulk = mock(BulkOperations.class);
+        given(failingBulk.execute()).willThrow(new DataAccessResourceFailureException("down"));
+        willReturn(failingBulk).willCallRealMethod()
+                .given(failingOnce).bulkOps(any(BulkOperations.BulkMode.class), eq(UrlDto.class));
+        ShortCodeMigrationService migrationService = new ShortCodeMigrationService(failingOnce);
+        migrationService.migrate();
+        assertThat(migrationService.needsLegacyLookup(ShortCodes.toNumber("abc123"))).isTrue();
+
+        // WHEN
+        migrationService.retryInBackground().join();
+
+        // THEN
+        assertThat(migrationService.needsLegacyLookup(ShortCodes.toNumber("abc123"))).isFalse();
+        assertThat(mongoTemplate.findAll(UrlDto.class)).extracting(UrlDto::getCode)
+                .containsExactly(ShortCodes.toNumber("abc123"));
+    }
+
+    private static UrlDto legacyLink(String shortCode) {
+        return new UrlDto("https://www.example.com/" + shortCode, shortCode);
+    }
+}
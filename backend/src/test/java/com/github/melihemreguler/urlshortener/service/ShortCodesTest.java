@@ -0,0 +1,56 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the base62 text / 64-bit numeric conversion of short codes.
+ */
+class ShortCodesTest {
+
+    @Test
+    void toNumberThenFromNumber_givenGeneratedCodes_whenRoundTripped_thenShouldReturnSameCode() {
+        for (int i = 0; i < 10_000; i++) {
+            String code = ShortCodes.random();
+            assertThat(ShortCodes.fromNumber(ShortCodes.toNumber(code))).isEqualTo(code);
+        }
+    }
+
+    @Test
+    void toNumber_givenLegacyHexCodes_whenConverted_thenShouldRoundTrip() {
+        // GIVEN
+        String legacyCode = "0a1b2c3d"; // first 8 characters of a UUID
+
+        // WHEN
+        long number = ShortCodes.toNumber(legacyCode);
+
+        // THEN
+        assertThat(number).isPositive();
+        assertThat(ShortCodes.fromNumber(number)).isEqualTo(legacyCode);
+    }
+
+    @Test
+    void toNumber_givenCodesDifferingOnlyInLeadingZeros_whenConverted_thenShouldNotCollide() {
+        Set<Long> numbers = new HashSet<>();
+        for (String code : new String[]{"abc", "0abc", "00abc", "0", "00"}) {
+            assertThat(numbers.add(ShortCodes.toNumber(code))).as(code).isTrue();
+        }
+    }
+
+    @Test
+    void toNumber_givenLongestAndLargestCode_whenConverted_thenShouldNotOverflow() {
+        assertThat(ShortCodes.toNumber("ZZZZZZZZZZ")).isPositive();
+        assertThat(ShortCodes.fromNumber(ShortCodes.toNumber("ZZZZZZZZZZ"))).isEqualTo("ZZZZZZZZZZ");
+    }
+
+    @Test
+    void toNumber_givenUnencodableCodes_whenConverted_thenShouldReturnNotEncodable() {
+        assertThat(ShortCodes.toNumber("")).isEqualTo(ShortCodes.NOT_ENCODABLE);
+        assertThat(ShortCodes.toNumber("abcdefghijk")).isEqualTo(ShortCodes.NOT_ENCODABLE);
+        assertThat(ShortCodes.toNumber("abc-123")).isEqualTo(ShortCodes.NOT_ENCODABLE);
+    }
+}
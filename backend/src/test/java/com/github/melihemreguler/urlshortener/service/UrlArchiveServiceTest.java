@@ -0,0 +1,173 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.github.melihemreguler.urlshortener.config.ArchiveProperties;
+import com.github.melihemreguler.urlshortener.config.BulkheadProperties;
+import com.github.melihemreguler.urlshortener.dto.ArchivedUrlBlock;
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.model.CounterTotal;
+import com.github.melihemreguler.urlshortener.repository.AdminDatabase;
+import com.github.melihemreguler.urlshortener.repository.ArchivedUrlBlockRepository;
+import com.github.melihemreguler.urlshortener.repository.UrlRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Integration tests for archiving, restoring and deleting cold links, run against MongoDB.
+ */
+@DataMongoTest
+@Import({AdminDatabase.class, BulkheadProperties.class})
+@TestPropertySource(properties = {
+        "spring.profiles.active=test"
+})
+class UrlArchiveServiceTest {
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private ArchivedUrlBlockRepository archiveRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private AccessCounterService accessCounterService;
+
+    @Mock
+    private UrlCollectionVersion urlCollectionVersion;
+
+    @Mock
+    private UrlChangeLog urlChangeLog;
+
+    @Mock
+    private PopularityLeaderboard popularityLeaderboard;
+
+    private UrlArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        urlRepository.deleteAll();
+        archiveRepository.deleteAll();
+        archiveService = new UrlArchiveService(urlRepository, archiveRepository, mongoTemplate, new ArchiveProperties(),
+                accessCounterService, urlCollectionVersion, urlChangeLog, popularityLeaderboard);
+    }
+
+    @Test
+    void delete_givenArchivedLink_whenDeleted_thenShouldNoLongerBeFoundOrRestored() {
+        // GIVEN
+        UrlDto deleted = urlRepository.save(coldLink("aaa"));
+        urlRepository.save(coldLink("bbb"));
+        archiveService.archiveColdLinks();
+
+        // WHEN
+        Optional<UrlDto> result = archiveService.delete(deleted.getId());
+
+        // THEN
+        assertThat(result).map(UrlDto::getShortCode).hasValue("aaa");
+        assertThat(archiveService.findArchived(List.of("aaa", "bbb"))).extracting(UrlDto::getShortCode).containsExactly("bbb");
+        assertThat(archiveService.restore("aaa")).isEmpty();
+        assertThat(urlRepository.findByShortCode("aaa")).isEmpty();
+    }
+
+    @Test
+    void delete_givenArchivedLink_whenDeleted_thenShouldRewriteThePayloadWithoutIt() {
+        // GIVEN
+        UrlDto deleted = urlRepository.save(coldLink("aaa"));
+        urlRepository.save(coldLink("bbb"));
+        archiveService.archiveColdLinks();
+
+        // WHEN
+        archiveService.delete(deleted.getId());
+
+        // THEN
+        ArchivedUrlBlock block = archiveRepository.findAll().get(0);
+        assertThat(ArchiveBlockCodec.decode(block.getPayload())).extracting(UrlDto::getLongUrl)
+                .containsExactly("https://www.example.com/bbb");
+        assertThat(block.getShortCodes()).containsExactly("bbb");
+        assertThat(block.getCount()).isEqualTo(1);
+        assertThat(archiveService.isArchived("aaa")).isFalse();
+        assertThat(archiveService.isArchived("bbb")).isTrue();
+    }
+
+    @Test
+    void delete_givenLastLinkOfBlock_whenDeleted_thenShouldRemoveTheBlock() {
+        // GIVEN
+        UrlDto deleted = urlRepository.save(coldLink("aaa"));
+        archiveService.archiveColdLinks();
+
+        // WHEN
+        archiveService.delete(deleted.getId());
+
+        // THEN
+        assertThat(archiveRepository.count()).isZero();
+    }
+
+    @Test
+    void delete_givenHotLinkId_whenDeleted_thenShouldReturnEmpty() {
+        // GIVEN
+        UrlDto hot = urlRepository.save(new UrlDto("https://www.example.com/aaa", "aaa"));
+
+        // WHEN
+        Optional<UrlDto> result = archiveService.delete(hot.getId());
+
+        // THEN
+        assertThat(result).isEmpty();
+        assertThat(urlRepository.findById(hot.getId())).isPresent();
+    }
+
+    @Test
+    void archiveColdLinks_givenLinkClickedWhileBeingArchived_whenArchived_thenShouldKeepItHot() {
+        // GIVEN
+        urlRepository.save(coldLink("aaa"));
+        urlRepository.save(coldLink("bbb"));
+        given(accessCounterService.getTotals(anyCollection()))
+                .willReturn(Map.of())
+                .willReturn(Map.of("aaa", new CounterTotal(1, LocalDateTime.now())));
+
+        // WHEN
+        int archived = archiveService.archiveColdLinks().archivedLinks();
+
+        // THEN
+        assertThat(archived).isEqualTo(1);
+        assertThat(urlRepository.findByShortCode("aaa")).isPresent();
+        assertThat(urlRepository.findByShortCode("bbb")).isEmpty();
+        assertThat(archiveService.findArchived(List.of("aaa", "bbb"))).extracting(UrlDto::getShortCode).containsExactly("bbb");
+        then(urlChangeLog).should().deleted(argThat(links -> links.size() == 1 && links.get(0).getShortCode().equals("bbb")));
+    }
+
+    @Test
+    void indexBlockIds_givenBlockWrittenWithoutIds_whenIndexed_thenShouldMakeItsLinksDeletable() {
+        // GIVEN
+        UrlDto url = coldLink("aaa");
+        url.setId("652f1c2e9b1e8a3d4c5b6a7f");
+        mongoTemplate.insert(new ArchivedUrlBlock(List.of("aaa"), null, ArchiveBlockCodec.encode(List.of(url))));
+
+        // WHEN
+        archiveService.indexBlockIds();
+
+        // THEN
+        assertThat(archiveRepository.findFirstByIds(url.getId())).isPresent();
+        assertThat(archiveService.delete(url.getId())).isPresent();
+    }
+
+    private static UrlDto coldLink(String shortCode) {
+        UrlDto url = new UrlDto("https://www.example.com/" + shortCode, shortCode);
+        url.setCreatedAt(LocalDateTime.now().minusDays(30));
+        return url;
+    }
+}
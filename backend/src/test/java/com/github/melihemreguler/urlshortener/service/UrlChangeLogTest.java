@@ -0,0 +1,223 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.github.melihemreguler.urlshortener.config.ChangeLogProperties;
+import com.github.melihemreguler.urlshortener.config.CircuitBreakerProperties;
+import com.github.melihemreguler.urlshortener.dto.UrlChange;
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.repository.CollectionVersionRepository;
+import com.github.melihemreguler.urlshortener.repository.DatabaseCircuitBreaker;
+import com.github.melihemreguler.urlshortener.repository.UrlChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(SpringExtension.class)
+class UrlChangeLogTest {
+
+    @Mock
+    private UrlChangeRepository urlChangeRepository;
+
+    @Mock
+    private CollectionVersionRepository collectionVersionRepository;
+
+    private final ChangeLogProperties changeLogProperties = new ChangeLogProperties();
+    private UrlChangeLog urlChangeLog;
+
+    @BeforeEach
+    void setUp() {
+        urlChangeLog = new UrlChangeLog(changeLogProperties, urlChangeRepository, collectionVersionRepository,
+                new DatabaseCircuitBreaker(new CircuitBreakerProperties()));
+    }
+
+    @Test
+    void created_givenNewLink_whenLogged_thenShouldWriteItUnderTheNextSequenceNumber() {
+        // GIVEN
+        given(collectionVersionRepository.add("url_changes", 1)).willReturn(8L);
+
+        // WHEN
+        urlChangeLog.created(new UrlDto("https://www.example.com", "abc123"));
+
+        // THEN
+        ArgumentCaptor<UrlChange> captor = ArgumentCaptor.forClass(UrlChange.class);
+        then(urlChangeRepository).should().insert(captor.capture());
+        assertThat(captor.getValue().getSequence()).isEqualTo(8L);
+        assertThat(captor.getValue().getType()).isEqualTo(UrlChange.Type.CREATED);
+        assertThat(captor.getValue().getShortCodes()).containsExactly("abc123");
+        assertThat(captor.getValue().getExpiresAt()).isAfter(captor.getValue().getWrittenAt());
+    }
+
+    @Test
+    void clicked_givenMoreLinksThanFitInOneEntry_whenLogged_thenShouldSplitThem() {
+        // GIVEN
+        List<String> shortCodes = IntStream.range(0, 1500).mapToObj(i -> "code" + i).toList();
+        given(collectionVersionRepository.add("url_changes", 1)).willReturn(1L, 2L);
+
+        // WHEN
+        urlChangeLog.clicked(shortCodes);
+
+        // THEN
+        ArgumentCaptor<UrlChange> captor = ArgumentCaptor.forClass(UrlChange.class);
+        then(urlChangeRepository).should(times(2)).insert(captor.capture());
+        assertThat(captor.getAllValues()).extracting(change -> change.getShortCodes().size()).containsExactly(1000, 500);
+    }
+
+    @Test
+    void deleted_givenDatabaseUnreachable_whenLogged_thenShouldNotFail() {
+        // GIVEN
+        UrlDto url = new UrlDto("https://www.example.com", "abc123");
+        url.setId("1");
+        given(collectionVersionRepository.add("url_changes", 1)).willThrow(new DataAccessResourceFailureException("down"));
+
+        // WHEN
+        Throwable thrown = catchThrowable(() -> urlChangeLog.deleted(List.of(url)));
+
+        // THEN
+        assertThat(thrown).isNull();
+        then(urlChangeRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void read_givenNoChangesSinceVersion_whenRead_thenShouldOnlyLookUpTheSequence() {
+        // GIVEN
+        given(collectionVersionRepository.get("url_changes")).willReturn(12L);
+
+        // WHEN
+        UrlChangeLog.Batch batch = urlChangeLog.read(12);
+
+        // THEN
+        assertThat(batch.reset()).isFalse();
+        assertThat(batch.version()).isEqualTo(12L);
+        assertThat(batch.created()).isEmpty();
+        then(urlChangeRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void read_givenVersionNoLongerKept_whenRead_thenShouldAskForAReset() {
+        // GIVEN
+        given(collectionVersionRepository.get("url_changes")).willReturn(12L);
+        given(urlChangeRepository.exists(3)).willReturn(false);
+
+        // WHEN
+        UrlChangeLog.Batch batch = urlChangeLog.read(3);
+
+        // THEN
+        assertThat(batch.reset()).isTrue();
+        assertThat(batch.version()).isEqualTo(12L);
+    }
+
+    @Test
+    void read_givenChangesToTheSameLinks_whenRead_thenShouldFoldThemIntoTheirNetEffect() {
+        // GIVEN
+        Instant written = Instant.now().minusSeconds(60);
+        given(collectionVersionRepository.get("url_changes")).willReturn(14L);
+        given(urlChangeRepository.exists(10)).willReturn(true);
+        given(urlChangeRepository.findBetween(10, 14, 1000)).willReturn(List.of(
+                change(11, UrlChange.Type.CREATED, written, List.of("new1"), null),
+                change(12, UrlChange.Type.CLICKED, written, List.of("new1", "old1", "old2"), null),
+                change(13, UrlChange.Type.DELETED, written, List.of("new1", "old2"), List.of("id-new1", "id-old2")),
+                change(14, UrlChange.Type.CREATED, written, List.of("old2"), null)));
+
+        // WHEN
+        UrlChangeLog.Batch batch = urlChangeLog.read(10);
+
+        // THEN
+        assertThat(batch.version()).isEqualTo(14L);
+        assertThat(batch.created()).containsExactly("old2");
+        assertThat(batch.deleted()).containsExactly(Map.entry("new1", "id-new1"));
+        assertThat(batch.clicked()).containsExactly("old1");
+    }
+
+    @Test
+    void read_givenRecentGapInTheSequence_whenRead_thenShouldStopBeforeIt() {
+        // GIVEN
+        Instant now = Instant.now();
+        given(collectionVersionRepository.get("url_changes")).willReturn(13L);
+        given(urlChangeRepository.exists(10)).willReturn(true);
+        given(urlChangeRepository.findBetween(10, 13, 1000)).willReturn(List.of(
+                change(11, UrlChange.Type.CREATED, now, List.of("abc123"), null),
+                change(13, UrlChange.Type.CREATED, now, List.of("def456"), null)));
+
+        // WHEN
+        UrlChangeLog.Batch batch = urlChangeLog.read(10);
+
+        // THEN
+        assertThat(batch.version()).isEqualTo(11L);
+        assertThat(batch.created()).containsExactly("abc123");
+    }
+
+    @Test
+    void read_givenGapOlderThanTheSettleTime_whenRead_thenShouldSkipIt() {
+        // GIVEN
+        Instant written = Instant.now().minusSeconds(60);
+        given(collectionVersionRepository.get("url_changes")).willReturn(13L);
+        given(urlChangeRepository.exists(10)).willReturn(true);
+        given(urlChangeRepository.findBetween(10, 13, 1000)).willReturn(List.of(
+                change(11, UrlChange.Type.CREATED, written, List.of("abc123"), null),
+                change(13, UrlChange.Type.CREATED, written, List.of("def456"), null)));
+
+        // WHEN
+        UrlChangeLog.Batch batch = urlChangeLog.read(10);
+
+        // THEN
+        assertThat(batch.version()).isEqualTo(13L);
+        assertThat(batch.created()).containsExactly("abc123", "def456");
+    }
+
+    @Test
+    void read_givenMoreLinksThanFitInOneResponse_whenRead_thenShouldStopAndReportMore() {
+        // GIVEN
+        changeLogProperties.setMaxLinksPerResponse(3);
+        Instant written = Instant.now().minusSeconds(60);
+        given(collectionVersionRepository.get("url_changes")).willReturn(12L);
+        given(urlChangeRepository.exists(10)).willReturn(true);
+        given(urlChangeRepository.findBetween(10, 12, 3)).willReturn(List.of(
+                change(11, UrlChange.Type.CLICKED, written, List.of("a", "b"), null),
+                change(12, UrlChange.Type.CLICKED, written, List.of("c", "d"), null)));
+
+        // WHEN
+        UrlChangeLog.Batch batch = urlChangeLog.read(10);
+
+        // THEN
+        assertThat(batch.more()).isTrue();
+        assertThat(batch.version()).isEqualTo(11L);
+        assertThat(batch.clicked()).containsExactly("a", "b");
+    }
+
+    @Test
+    void created_givenChangeLogDisabled_whenLogged_thenShouldNotWrite() {
+        // GIVEN
+        changeLogProperties.setEnabled(false);
+
+        // WHEN
+        urlChangeLog.created(new UrlDto("https://www.example.com", "abc123"));
+
+        // THEN
+        then(collectionVersionRepository).shouldHaveNoInteractions();
+        then(urlChangeRepository).should(never()).insert(any());
+    }
+
+    private static UrlChange change(long sequence, UrlChange.Type type, Instant writtenAt, List<String> shortCodes,
+                                    List<String> ids) {
+        UrlChange change = new UrlChange();
+        change.setSequence(sequence);
+        change.setType(type);
+        change.setWrittenAt(writtenAt);
+        change.setShortCodes(new ArrayList<>(shortCodes));
+        change.setIds(ids);
+        return change;
+    }
+}
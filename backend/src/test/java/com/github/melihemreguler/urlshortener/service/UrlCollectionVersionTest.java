@@ -0,0 +1,155 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.github.melihemreguler.urlshortener.config.CircuitBreakerProperties;
+import com.github.melihemreguler.urlshortener.config.ConditionalGetProperties;
+import com.github.melihemreguler.urlshortener.repository.CollectionVersionRepository;
+import com.github.melihemreguler.urlshortener.repository.DatabaseCircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(SpringExtension.class)
+class UrlCollectionVersionTest {
+
+    @Mock
+    private CollectionVersionRepository collectionVersionRepository;
+
+    private final ConditionalGetProperties conditionalGetProperties = new ConditionalGetProperties();
+    private final DatabaseCircuitBreaker databaseCircuitBreaker = new DatabaseCircuitBreaker(new CircuitBreakerProperties());
+
+    @BeforeEach
+    void setUp() {
+        conditionalGetProperties.setShared(true);
+    }
+
+    @Test
+    void etag_givenLocalVersion_whenLinksChanged_thenShouldChange() {
+        // GIVEN
+        conditionalGetProperties.setShared(false);
+        UrlCollectionVersion version = newVersion();
+        String before = version.etag();
+
+        // WHEN
+        version.changed();
+
+        // THEN
+        assertThat(before).startsWith("W/\"");
+        assertThat(version.etag()).isNotEqualTo(before);
+        then(collectionVersionRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void etag_givenLocalVersionsOfTwoInstances_whenCompared_thenShouldNotMatch() {
+        // GIVEN
+        conditionalGetProperties.setShared(false);
+
+        // WHEN
+        String first = newVersion().etag();
+        String second = newVersion().etag();
+
+        // THEN
+        assertThat(first).isNotEqualTo(second);
+    }
+
+    @Test
+    void etag_givenSharedVersion_whenNotSyncedYet_thenShouldBeNull() {
+        // GIVEN
+        UrlCollectionVersion version = newVersion();
+
+        // WHEN
+        String etag = version.etag();
+
+        // THEN
+        assertThat(etag).isNull();
+    }
+
+    @Test
+    void etag_givenDefaultProperties_whenNotSyncedYet_thenShouldWaitForTheSharedVersion() {
+        // GIVEN
+        UrlCollectionVersion version = new UrlCollectionVersion(new ConditionalGetProperties(), collectionVersionRepository,
+                databaseCircuitBreaker);
+
+        // WHEN
+        String etag = version.etag();
+
+        // THEN
+        assertThat(etag).isNull();
+    }
+
+    @Test
+    void sync_givenSharedVersion_whenSynced_thenShouldHandOutItsETag() {
+        // GIVEN
+        UrlCollectionVersion version = newVersion();
+        given(collectionVersionRepository.get("urls")).willReturn(42L);
+
+        // WHEN
+        version.sync();
+
+        // THEN
+        assertThat(version.etag()).isEqualTo("W/\"42\"");
+    }
+
+    @Test
+    void changed_givenSharedVersion_whenLinksChanged_thenShouldHandOutNoETagUntilTheNextSync() {
+        // GIVEN
+        UrlCollectionVersion version = newVersion();
+        given(collectionVersionRepository.get("urls")).willReturn(42L);
+        version.sync();
+        given(collectionVersionRepository.add("urls", 2)).willReturn(44L);
+
+        // WHEN
+        version.changed();
+        version.changed();
+
+        // THEN
+        then(collectionVersionRepository).should(never()).add(anyString(), anyLong());
+        assertThat(version.etag()).isNull();
+        version.sync();
+        then(collectionVersionRepository).should().add("urls", 2);
+        assertThat(version.etag()).isEqualTo("W/\"44\"");
+    }
+
+    @Test
+    void changed_givenDatabaseUnreachable_whenLinksChanged_thenShouldHandOutNoETagUntilShared() {
+        // GIVEN
+        UrlCollectionVersion version = newVersion();
+        given(collectionVersionRepository.get("urls")).willReturn(42L);
+        version.sync();
+        given(collectionVersionRepository.add("urls", 1))
+                .willThrow(new DataAccessResourceFailureException("down"))
+                .willReturn(43L);
+
+        // WHEN
+        version.changed();
+        version.sync();
+
+        // THEN
+        assertThat(version.etag()).isNull();
+        version.sync();
+        assertThat(version.etag()).isEqualTo("W/\"43\"");
+    }
+
+    @Test
+    void etag_givenConditionalGetDisabled_whenAsked_thenShouldBeNull() {
+        // GIVEN
+        conditionalGetProperties.setEnabled(false);
+        UrlCollectionVersion version = newVersion();
+
+        // WHEN
+        version.changed();
+
+        // THEN
+        assertThat(version.etag()).isNull();
+        then(collectionVersionRepository).shouldHaveNoInteractions();
+    }
+
+    private UrlCollectionVersion newVersion() {
+        return new UrlCollectionVersion(conditionalGetProperties, collectionVersionRepository, databaseCircuitBreaker);
+    }
+}
@@ -0,0 +1,163 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.github.melihemreguler.urlshortener.config.EventStreamProperties;
+import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+class UrlEventStreamTest {
+
+    private final EventStreamProperties eventStreamProperties = new EventStreamProperties();
+    private UrlEventStream urlEventStream;
+
+    @BeforeEach
+    void setUp() {
+        // Keeps heartbeats out of the way unless a test asks for them
+        eventStreamProperties.setHeartbeat(Duration.ofHours(1));
+        urlEventStream = new UrlEventStream(eventStreamProperties, Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        urlEventStream.stopSending();
+    }
+
+    @Test
+    void publish_givenActivityWithinOneWindow_whenPublished_thenShouldSendItAsOneEvent() throws InterruptedException {
+        // GIVEN
+        RecordingEmitter client = new RecordingEmitter();
+        urlEventStream.subscribe(client);
+        UrlDto created = new UrlDto("https://www.example.com", "abc123");
+        created.setId("1");
+        UrlDto deleted = new UrlDto("https://www.example.org", "def456");
+        deleted.setId("2");
+        urlEventStream.created(created);
+        urlEventStream.deleted(deleted);
+        urlEventStream.clicked("ghi789");
+        urlEventStream.clicked("ghi789");
+        urlEventStream.clicked("abc123");
+
+        // WHEN
+        urlEventStream.publish();
+
+        // THEN
+        String event = client.events.poll(5, TimeUnit.SECONDS);
+        assertThat(event).startsWith("id:1\nevent:activity\ndata:");
+        assertThat(event).contains("\"longUrl\":\"https://www.example.com\"");
+        assertThat(event).contains("\"deleted\":[{\"id\":\"2\",\"shortCode\":\"def456\"}]");
+        assertThat(event).contains("\"ghi789\":2", "\"abc123\":1");
+        assertThat(client.events.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void publish_givenNoActivity_whenPublished_thenShouldOnlySendAHeartbeat() throws InterruptedException {
+        // GIVEN
+        eventStreamProperties.setHeartbeat(Duration.ZERO);
+        RecordingEmitter client = new RecordingEmitter();
+        urlEventStream.subscribe(client);
+
+        // WHEN
+        urlEventStream.publish();
+
+        // THEN
+        String event = client.events.poll(5, TimeUnit.SECONDS);
+        assertThat(event).startsWith(":heartbeat");
+        assertThat(event).doesNotContain("activity");
+    }
+
+    @Test
+    void clicked_givenNoClientConnected_whenClicked_thenShouldNotBeBuffered() throws InterruptedException {
+        // GIVEN
+        urlEventStream.clicked("abc123");
+        RecordingEmitter client = new RecordingEmitter();
+        urlEventStream.subscribe(client);
+
+        // WHEN
+        urlEventStream.publish();
+
+        // THEN
+        assertThat(client.events.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void publish_givenSlowClient_whenItsBufferIsFull_thenShouldDisconnectItAndKeepServingOthers() throws InterruptedException {
+        // GIVEN
+        eventStreamProperties.setBufferSize(2);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter();
+        urlEventStream.subscribe(slow);
+        urlEventStream.subscribe(fast);
+
+        // WHEN
+        List<String> received = new ArrayList<>();
+        for (int window = 0; window < 4; window++) {
+            urlEventStream.clicked("abc123");
+            urlEventStream.publish();
+            received.add(fast.events.poll(5, TimeUnit.SECONDS));
+        }
+
+        // THEN
+        assertThat(urlEventStream.subscriberCount()).isEqualTo(1);
+        assertThat(received).hasSize(4).allSatisfy(event -> assertThat(event).contains("\"abc123\":1"));
+        assertThat(slow.events).isEmpty();
+        release.countDown();
+    }
+
+    @Test
+    void subscribe_givenMaxSubscribersConnected_whenSubscribed_thenShouldThrowServiceOverloadedException() {
+        // GIVEN
+        eventStreamProperties.setMaxSubscribers(1);
+        urlEventStream.subscribe(new RecordingEmitter());
+
+        // WHEN
+        Throwable thrown = catchThrowable(() -> urlEventStream.subscribe(new RecordingEmitter()));
+
+        // THEN
+        assertThat(thrown).isInstanceOf(ServiceOverloadedException.class);
+        assertThat(urlEventStream.subscriberCount()).isEqualTo(1);
+    }
+
+    /**
+     * Records the events written to the client, optionally holding every write until released.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch release;
+
+        RecordingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            events.add(items.stream().map(item -> item.getData().toString()).collect(Collectors.joining()));
+        }
+    }
+}
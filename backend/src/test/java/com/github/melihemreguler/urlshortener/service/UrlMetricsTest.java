@@ -0,0 +1,77 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the redirect and create meters of UrlMetrics.
+ */
+class UrlMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private UrlMetrics urlMetrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        urlMetrics = new UrlMetrics(registry);
+    }
+
+    @Test
+    void recordRedirect_givenRecordedLatencies_whenSnapshotTaken_thenShouldPublishPercentiles() {
+        // GIVEN
+        for (int i = 0; i < 100; i++) {
+            urlMetrics.recordRedirect(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        // WHEN
+        Timer timer = registry.get("urlshortener.redirect").timer();
+        ValueAtPercentile[] percentiles = timer.takeSnapshot().percentileValues();
+
+        // THEN
+        assertThat(timer.count()).isEqualTo(100);
+        assertThat(percentiles).extracting(ValueAtPercentile::percentile).containsExactly(0.5, 0.99, 0.999);
+        assertThat(percentiles[0].value(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(0.9);
+    }
+
+    @Test
+    void recordNotFound_whenCalled_thenShouldIncrementCounter() {
+        // WHEN
+        urlMetrics.recordNotFound();
+        urlMetrics.recordNotFound();
+
+        // THEN
+        assertThat(registry.get("urlshortener.redirect.not.found").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void record_givenWarmedUpTimers_whenRecordedRepeatedly_thenShouldNotAllocatePerCall() {
+        // GIVEN
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 100_000; i++) {
+            urlMetrics.recordRedirect(System.nanoTime());
+            urlMetrics.recordCreate(System.nanoTime());
+        }
+        long threadId = Thread.currentThread().getId();
+
+        // WHEN
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            urlMetrics.recordRedirect(System.nanoTime());
+            urlMetrics.recordCreate(System.nanoTime());
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // THEN
+        // A histogram rotation may allocate once in a while, but nowhere near a byte per call
+        assertThat(allocated).isLessThan(100_000);
+    }
+}
@@ -1,9 +1,20 @@
 package com.github.melihemreguler.urlshortener.service;
 
 import com.github.melihemreguler.urlshortener.config.AppConfig;
+import com.github.melihemreguler.urlshortener.config.CircuitBreakerProperties;
 import com.github.melihemreguler.urlshortener.dto.UrlDto;
+import com.github.melihemreguler.urlshortener.dto.UrlPopularity;
+import com.github.melihemreguler.urlshortener.exception.DatabaseUnavailableException;
 import com.github.melihemreguler.urlshortener.exception.UrlNotFoundException;
+import com.github.melihemreguler.urlshortener.model.CursorPage;
 import com.github.melihemreguler.urlshortener.model.PageResponse;
+import com.github.melihemreguler.urlshortener.model.PopularityCursor;
+import com.github.melihemreguler.urlshortener.model.ResolveResponse;
+import com.github.melihemreguler.urlshortener.model.ResolvedUrl;
+import com.github.melihemreguler.urlshortener.model.UrlChanges;
+import com.github.melihemreguler.urlshortener.model.UrlField;
+import com.github.melihemreguler.urlshortener.model.UrlView;
+import com.github.melihemreguler.urlshortener.repository.DatabaseCircuitBreaker;
 import com.github.melihemreguler.urlshortener.repository.UrlRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +25,9 @@ import static org.assertj.core.api.Assertions.*;
 import static org.mockito.BDDMockito.*;
 import static org.mockito.Mockito.never;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -21,10 +35,13 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Unit tests for the UrlService class using a BDD (Given-When-Then) style approach.
@@ -40,11 +57,49 @@ class UrlServiceTest {
     @Mock
     private AppConfig appConfig;
 
-    @InjectMocks
+    @Mock
+    private UrlArchiveService urlArchiveService;
+
+    @Mock
+    private AccessCounterService accessCounterService;
+
+    @Mock
+    private LinkCache linkCache;
+
+    @Mock
+    private ShortCodeMigrationService shortCodeMigrationService;
+
+    @Mock
+    private LinkSnapshot linkSnapshot;
+
+    @Mock
+    private UrlCollectionVersion urlCollectionVersion;
+
+    @Mock
+    private UrlChangeLog urlChangeLog;
+
+    @Mock
+    private UrlEventStream urlEventStream;
+
+    @Mock
+    private PopularityLeaderboard popularityLeaderboard;
+
+    private CircuitBreakerProperties circuitBreakerProperties;
+
+    // A real registry: mocking UrlMetrics would instrument its class for the allocation test in UrlMetricsTest
+    private SimpleMeterRegistry meterRegistry;
+
     private UrlService urlService;
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreakerProperties = new CircuitBreakerProperties();
+        urlService = new UrlService(urlRepository, appConfig, urlArchiveService, accessCounterService, linkCache,
+                shortCodeMigrationService, new UrlMetrics(meterRegistry),
+                new DatabaseCircuitBreaker(circuitBreakerProperties), linkSnapshot, urlCollectionVersion,
+                urlChangeLog, urlEventStream, popularityLeaderboard);
+
         // Default (mock) service URL for all tests
         given(appConfig.getServiceUrl()).willReturn("http://localhost:8080");
     }
@@ -68,6 +123,7 @@ class UrlServiceTest {
 
         // No new UrlDto should be saved in the repository, because it already exists
         then(urlRepository).should(never()).save(any(UrlDto.class));
+        then(urlCollectionVersion).should(never()).changed();
     }
 
     @Test
@@ -95,6 +151,44 @@ class UrlServiceTest {
         // and have a non-empty shortCode (because a new one was generated)
         assertThat(savedEntity.getLongUrl()).isEqualTo(longUrl);
         assertThat(savedEntity.getShortCode()).isNotBlank();
+        assertThat(savedEntity.getCode()).isEqualTo(ShortCodes.toNumber(savedEntity.getShortCode()));
+        // Pages listed before no longer match
+        then(urlCollectionVersion).should().changed();
+        then(urlEventStream).should().created(savedEntity);
+    }
+
+    @Test
+    void createAndSaveShortUrl_givenGeneratedCodeCollides_whenCalled_thenShouldRetryWithNewCode() {
+        // GIVEN
+        String longUrl = "https://www.example.com";
+        given(urlRepository.findByLongUrl(longUrl)).willReturn(Optional.empty());
+        given(urlRepository.save(any(UrlDto.class)))
+                .willThrow(new DuplicateKeyException("duplicate code"))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        // WHEN
+        String generatedShortUrl = urlService.createAndSaveShortUrl(longUrl);
+
+        // THEN
+        assertThat(generatedShortUrl).startsWith("http://localhost:8080/");
+        then(urlRepository).should(times(2)).save(any(UrlDto.class));
+    }
+
+    @Test
+    void createAndSaveShortUrl_givenGeneratedCodeIsArchived_whenCalled_thenShouldRetryWithNewCode() {
+        // GIVEN
+        String longUrl = "https://www.example.com";
+        given(urlRepository.findByLongUrl(longUrl)).willReturn(Optional.empty());
+        given(urlArchiveService.isArchived(anyString())).willReturn(true, false);
+        given(urlRepository.save(any(UrlDto.class))).willAnswer(invocation -> invocation.getArgument(0));
+
+        // WHEN
+        String generatedShortUrl = urlService.createAndSaveShortUrl(longUrl);
+
+        // THEN
+        then(urlArchiveService).should(times(2)).isArchived(anyString());
+        then(urlRepository).should(times(1)).save(any(UrlDto.class));
+        assertThat(generatedShortUrl).startsWith("http://localhost:8080/");
     }
 
     @Test
@@ -129,42 +223,358 @@ class UrlServiceTest {
         then(urlRepository).should(never()).save(any(UrlDto.class));
     }
 
+    // ==================== FIELD PROJECTION TESTS ====================
+
+    @Test
+    void getShortUrlViews_givenOnlyLinkFields_whenCalled_thenShouldReduceLinksWithoutLookingUpClicks() {
+        // GIVEN
+        Set<UrlField> fields = Set.of(UrlField.ID, UrlField.LONG_URL, UrlField.SHORT_CODE);
+        UrlDto url = new UrlDto("https://www.google.com", "abc12345");
+        url.setId("1");
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("createdAt").descending());
+        given(urlRepository.findPage(pageable, fields)).willReturn(new PageImpl<>(List.of(url), pageable, 1));
+
+        // WHEN
+        PageResponse<UrlView> result = urlService.getShortUrlViews(0, 10, fields);
+
+        // THEN
+        assertThat(result.getContent()).containsExactly(
+                new UrlView("1", "https://www.google.com", "abc12345", null, null, null));
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        then(accessCounterService).should(never()).applyTotals(anyList());
+    }
+
+    @Test
+    void searchUrlViews_givenClickFields_whenCalled_thenShouldApplyClickTotals() {
+        // GIVEN
+        Set<UrlField> fields = Set.of(UrlField.SHORT_CODE, UrlField.ACCESS_COUNT);
+        UrlDto url = new UrlDto("https://www.google.com", "abc12345");
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("createdAt").descending());
+        given(urlRepository.searchPage("google", pageable, fields)).willReturn(new PageImpl<>(List.of(url), pageable, 1));
+        willAnswer(invocation -> {
+            invocation.<List<UrlDto>>getArgument(0).get(0).setAccessCount(12);
+            return null;
+        }).given(accessCounterService).applyTotals(anyList());
+
+        // WHEN
+        PageResponse<UrlView> result = urlService.searchUrlViews(" google ", 0, 10, fields);
+
+        // THEN
+        assertThat(result.getContent()).containsExactly(new UrlView(null, null, "abc12345", null, null, 12L));
+    }
+
+    // ==================== RESOLVE SHORT CODES TESTS ====================
+
+    @Test
+    void resolveShortCodes_givenCachedAndUncachedCodes_whenResolved_thenShouldFetchUncachedInOneQueryWithoutCountingClicks() {
+        // GIVEN
+        given(linkCache.get("cached01")).willReturn("https://www.cached.com");
+        UrlDto stored = new UrlDto("https://www.stored.com", "stored01");
+        given(urlRepository.findByCodes(anyCollection(), anyCollection(), eq(false)))
+                .willReturn(List.of(stored));
+        given(urlArchiveService.findArchived(anyCollection())).willReturn(List.of());
+
+        // WHEN
+        ResolveResponse response = urlService.resolveShortCodes(
+                List.of("stored01", "cached01", "missing1", "stored01"), false);
+
+        // THEN
+        assertThat(response.urls()).containsExactly(
+                ResolvedUrl.of("stored01", "https://www.stored.com"),
+                ResolvedUrl.of("cached01", "https://www.cached.com"));
+        assertThat(response.notFound()).containsExactly("missing1");
+        then(urlRepository).should().findByCodes(
+                List.of(ShortCodes.toNumber("stored01"), ShortCodes.toNumber("missing1")), List.of(), false);
+        then(urlArchiveService).should().findArchived(Set.of("missing1"));
+        then(urlArchiveService).should(never()).restore(anyString());
+        then(accessCounterService).should(never()).recordAccess(anyString());
+        then(linkCache).should(never()).put(anyString(), anyString());
+    }
+
+    @Test
+    void resolveShortCodes_givenMetadataRequested_whenResolved_thenShouldBypassCacheAndApplyClickTotals() {
+        // GIVEN
+        UrlDto stored = new UrlDto("https://www.stored.com", "stored01");
+        stored.setAccessCount(7);
+        given(urlRepository.findByCodes(anyCollection(), anyCollection(), eq(true))).willReturn(List.of(stored));
+
+        // WHEN
+        ResolveResponse response = urlService.resolveShortCodes(List.of("stored01"), true);
+
+        // THEN
+        assertThat(response.urls()).singleElement().satisfies(url -> {
+            assertThat(url.longUrl()).isEqualTo("https://www.stored.com");
+            assertThat(url.createdAt()).isEqualTo(stored.getCreatedAt());
+            assertThat(url.accessCount()).isEqualTo(7);
+        });
+        then(linkCache).should(never()).get(anyString());
+        then(accessCounterService).should().applyTotals(List.of(stored));
+        then(urlArchiveService).should(never()).findArchived(anyCollection());
+    }
+
+    @Test
+    void resolveShortCodes_givenAllCodesCached_whenResolved_thenShouldNotQueryTheDatabase() {
+        // GIVEN
+        given(linkCache.get("cached01")).willReturn("https://www.cached.com");
+
+        // WHEN
+        ResolveResponse response = urlService.resolveShortCodes(List.of("cached01"), false);
+
+        // THEN
+        assertThat(response.urls()).containsExactly(ResolvedUrl.of("cached01", "https://www.cached.com"));
+        assertThat(response.notFound()).isEmpty();
+        then(urlRepository).shouldHaveNoInteractions();
+    }
+
+    // ==================== POPULARITY TESTS ====================
+
+    @Test
+    void getPopularUrls_givenMoreEntriesThanPageSize_whenCalled_thenShouldReturnLeaderboardTotalsAndNextCursor() {
+        // GIVEN
+        LocalDateTime lastAccessedAt = LocalDateTime.now();
+        given(popularityLeaderboard.page(null, 3)).willReturn(List.of(
+                popularity("top00001", 90, lastAccessedAt),
+                popularity("next0001", 40, lastAccessedAt),
+                popularity("more0001", 40, lastAccessedAt)));
+        UrlDto top = new UrlDto("https://www.top.com", "top00001");
+        UrlDto next = new UrlDto("https://www.next.com", "next0001");
+        given(urlRepository.findByCodes(anyCollection(), anyCollection(), eq(true))).willReturn(List.of(next, top));
+
+        // WHEN
+        CursorPage<UrlDto> result = urlService.getPopularUrls(null, 2);
+
+        // THEN
+        assertThat(result.content()).extracting(UrlDto::getShortCode, UrlDto::getAccessCount)
+                .containsExactly(tuple("top00001", 90L), tuple("next0001", 40L));
+        assertThat(PopularityCursor.parse(result.nextCursor())).isEqualTo(new PopularityCursor(40, "next0001"));
+        then(popularityLeaderboard).should().removed(List.of());
+    }
+
+    @Test
+    void getPopularUrls_givenEntryOfDeletedLink_whenCalled_thenShouldSkipItAndTakeItOffTheLeaderboard() {
+        // GIVEN
+        PopularityCursor after = new PopularityCursor(50, "prev0001");
+        given(popularityLeaderboard.page(after, 11)).willReturn(List.of(
+                popularity("gone0001", 45, null),
+                popularity("live0001", 30, null)));
+        given(urlRepository.findByCodes(anyCollection(), anyCollection(), eq(true)))
+                .willReturn(List.of(new UrlDto("https://www.live.com", "live0001")));
+
+        // WHEN
+        CursorPage<UrlDto> result = urlService.getPopularUrls(after, 10);
+
+        // THEN
+        assertThat(result.content()).extracting(UrlDto::getShortCode).containsExactly("live0001");
+        assertThat(result.nextCursor()).isNull();
+        then(popularityLeaderboard).should().removed(List.of("gone0001"));
+    }
+
+    @Test
+    void getPopularUrls_givenPageSizeBelowOne_whenCalled_thenShouldThrowIllegalArgumentException() {
+        // WHEN
+        Throwable thrown = catchThrowable(() -> urlService.getPopularUrls(null, 0));
+
+        // THEN
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+        then(popularityLeaderboard).should(never()).page(any(), anyInt());
+    }
+
+    private static UrlPopularity popularity(String shortCode, long count, LocalDateTime lastAccessedAt) {
+        UrlPopularity entry = new UrlPopularity();
+        entry.setShortCode(shortCode);
+        entry.setCount(count);
+        entry.setLastAccessedAt(lastAccessedAt);
+        return entry;
+    }
+
+    // ==================== CHANGES TESTS ====================
+
+    @Test
+    void getChanges_givenLinksCreatedClickedAndDeleted_whenCalled_thenShouldReturnTheirCurrentState() {
+        // GIVEN
+        given(urlChangeLog.read(10)).willReturn(new UrlChangeLog.Batch(14, false, false,
+                Set.of("new00001"), Map.of("gone0001", "id-gone"), Set.of("old00001", "arch0001")));
+        UrlDto created = new UrlDto("https://www.new.com", "new00001");
+        created.setId("id-new");
+        UrlDto clicked = new UrlDto("https://www.old.com", "old00001");
+        clicked.setId("id-old");
+        given(urlRepository.findByCodes(anyCollection(), anyCollection(), eq(true))).willReturn(List.of(created, clicked));
+
+        // WHEN
+        UrlChanges changes = urlService.getChanges(10);
+
+        // THEN
+        assertThat(changes.version()).isEqualTo(14L);
+        assertThat(changes.created()).extracting(UrlView::id, UrlView::longUrl).containsExactly(tuple("id-new", "https://www.new.com"));
+        // Archived meanwhile, so neither returned nor looked up in the archive
+        assertThat(changes.clicked()).extracting(UrlView::shortCode, UrlView::longUrl).containsExactly(tuple("old00001", null));
+        assertThat(changes.deleted()).extracting(UrlView::id, UrlView::shortCode).containsExactly(tuple("id-gone", "gone0001"));
+        then(accessCounterService).should().applyTotals(List.of(created, clicked));
+        then(urlArchiveService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void getChanges_givenVersionNoLongerKept_whenCalled_thenShouldReturnResetWithoutQueryingLinks() {
+        // GIVEN
+        given(urlChangeLog.read(3)).willReturn(new UrlChangeLog.Batch(14, true, false, Set.of(), Map.of(), Set.of()));
+
+        // WHEN
+        UrlChanges changes = urlService.getChanges(3);
+
+        // THEN
+        assertThat(changes.reset()).isTrue();
+        assertThat(changes.version()).isEqualTo(14L);
+        then(urlRepository).shouldHaveNoInteractions();
+    }
+
     // ==================== GET LONG URL TESTS ====================
 
     @Test
-    void getLongUrl_givenShortUrlExists_whenCalled_thenShouldIncrementAccessCountAndReturnLongUrl() {
+    void getLongUrl_givenShortUrlExists_whenCalled_thenShouldRecordAccessAndReturnLongUrl() {
         // GIVEN
         String shortCode = "abc12345";
         String longUrl = "https://www.google.com";
         UrlDto existingUrlDto = new UrlDto(longUrl, shortCode);
-        existingUrlDto.setAccessCount(5); // Suppose it was already accessed 5 times
-        given(urlRepository.findByShortCode(shortCode)).willReturn(Optional.of(existingUrlDto));
+        given(urlRepository.findByCode(ShortCodes.toNumber(shortCode))).willReturn(Optional.of(existingUrlDto));
 
         // WHEN
         String actualLongUrl = urlService.getLongUrl(shortCode);
 
         // THEN
         assertThat(actualLongUrl).isEqualTo(longUrl);
+        then(urlRepository).should(never()).findLegacyByShortCode(anyString());
+
+        // The access is counted separately and the link document is never rewritten
+        then(accessCounterService).should().recordAccess(shortCode);
+        then(urlEventStream).should().clicked(shortCode);
+        then(urlRepository).should(never()).save(any(UrlDto.class));
+        then(linkCache).should().put(shortCode, longUrl);
+    }
+
+    @Test
+    void getLongUrl_givenLegacyLinkNotYetMigrated_whenCalled_thenShouldFallBackToStringLookup() {
+        // GIVEN
+        String shortCode = "abc12345";
+        String longUrl = "https://www.legacy.com";
+        given(shortCodeMigrationService.needsLegacyLookup(ShortCodes.toNumber(shortCode))).willReturn(true);
+        given(urlRepository.findLegacyByShortCode(shortCode)).willReturn(Optional.of(new UrlDto(longUrl, shortCode)));
+
+        // WHEN
+        String actualLongUrl = urlService.getLongUrl(shortCode);
+
+        // THEN
+        assertThat(actualLongUrl).isEqualTo(longUrl);
+        then(urlRepository).should().findByCode(ShortCodes.toNumber(shortCode));
+    }
+
+    @Test
+    void getLongUrl_givenMigrationComplete_whenCodeMissing_thenShouldSkipStringLookup() {
+        // GIVEN
+        String shortCode = "abc12345";
+        given(shortCodeMigrationService.needsLegacyLookup(anyLong())).willReturn(false);
+
+        // WHEN & THEN
+        assertThatThrownBy(() -> urlService.getLongUrl(shortCode))
+                .isInstanceOf(UrlNotFoundException.class);
+        then(urlRepository).should(never()).findLegacyByShortCode(anyString());
+    }
+
+    @Test
+    void getLongUrl_givenShortUrlCached_whenCalled_thenShouldNotQueryRepository() {
+        // GIVEN
+        String shortCode = "abc12345";
+        String longUrl = "https://www.google.com";
+        given(linkCache.get(shortCode)).willReturn(longUrl);
+
+        // WHEN
+        String actualLongUrl = urlService.getLongUrl(shortCode);
+
+        // THEN
+        assertThat(actualLongUrl).isEqualTo(longUrl);
+        then(accessCounterService).should().recordAccess(shortCode);
+        then(urlRepository).shouldHaveNoInteractions();
+    }
 
-        // Access count should be incremented
-        assertThat(existingUrlDto.getAccessCount()).isEqualTo(6);
+    @Test
+    void getLongUrl_givenShortUrlArchived_whenCalled_thenShouldRestoreAndReturnLongUrl() {
+        // GIVEN
+        String shortCode = "cold1234";
+        String longUrl = "https://www.archived.com";
+        UrlDto archivedUrlDto = new UrlDto(longUrl, shortCode);
+        given(urlRepository.findLegacyByShortCode(shortCode)).willReturn(Optional.empty());
+        given(urlArchiveService.restore(shortCode)).willReturn(Optional.of(archivedUrlDto));
 
-        // And the updated entity should be saved
-        then(urlRepository).should().save(existingUrlDto);
+        // WHEN
+        String actualLongUrl = urlService.getLongUrl(shortCode);
+
+        // THEN
+        assertThat(actualLongUrl).isEqualTo(longUrl);
+        then(accessCounterService).should().recordAccess(shortCode);
     }
 
     @Test
     void getLongUrl_givenShortUrlNotFound_whenCalled_thenShouldThrowUrlNotFoundException() {
         // GIVEN
         String missingShortCode = "nonExistent123";
-        given(urlRepository.findByShortCode(missingShortCode)).willReturn(Optional.empty());
+        given(urlRepository.findLegacyByShortCode(missingShortCode)).willReturn(Optional.empty());
+        given(urlArchiveService.restore(missingShortCode)).willReturn(Optional.empty());
 
         // WHEN & THEN
         assertThatThrownBy(() -> urlService.getLongUrl(missingShortCode))
                 .isInstanceOf(UrlNotFoundException.class)
                 .hasMessageContaining("URL not found");  // from the exception's constructor
 
-        then(urlRepository).should(never()).save(any(UrlDto.class));
+        then(accessCounterService).should(never()).recordAccess(anyString());
+        assertThat(meterRegistry.get("urlshortener.redirect.not.found").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("urlshortener.redirect").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getLongUrl_givenDatabaseDownAndCodeInSnapshot_whenCalled_thenShouldRedirectFromSnapshot() {
+        // GIVEN
+        String shortCode = "snap1234";
+        String longUrl = "https://www.snapshot.com";
+        given(urlRepository.findByCode(ShortCodes.toNumber(shortCode)))
+                .willThrow(new DataAccessResourceFailureException("Timed out"));
+        given(linkSnapshot.find(shortCode)).willReturn(longUrl);
+
+        // WHEN
+        String actualLongUrl = urlService.getLongUrl(shortCode);
+
+        // THEN
+        assertThat(actualLongUrl).isEqualTo(longUrl);
+        then(accessCounterService).should().recordAccess(shortCode);
+        then(linkCache).should().put(shortCode, longUrl);
+        assertThat(meterRegistry.get("urlshortener.redirect.degraded").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getLongUrl_givenDatabaseDownAndCodeNotInSnapshot_whenCalled_thenShouldThrowDatabaseUnavailableException() {
+        // GIVEN
+        String shortCode = "miss1234";
+        given(urlRepository.findByCode(ShortCodes.toNumber(shortCode)))
+                .willThrow(new DataAccessResourceFailureException("Timed out"));
+
+        // WHEN & THEN
+        assertThatThrownBy(() -> urlService.getLongUrl(shortCode))
+                .isInstanceOf(DatabaseUnavailableException.class);
+        then(accessCounterService).should(never()).recordAccess(anyString());
+    }
+
+    @Test
+    void getLongUrl_givenCircuitOpen_whenCalled_thenShouldNotQueryRepository() {
+        // GIVEN
+        circuitBreakerProperties.setFailureThreshold(1);
+        given(urlRepository.findByCode(anyLong())).willThrow(new DataAccessResourceFailureException("Timed out"));
+        given(linkSnapshot.find(anyString())).willReturn("https://www.snapshot.com");
+        urlService.getLongUrl("snap1234");
+
+        // WHEN
+        String actualLongUrl = urlService.getLongUrl("snap5678");
+
+        // THEN
+        assertThat(actualLongUrl).isEqualTo("https://www.snapshot.com");
+        then(urlRepository).should(times(1)).findByCode(anyLong());
     }
 
     // ==================== GET ALL SHORT URLS TESTS ====================
@@ -207,6 +617,7 @@ class UrlServiceTest {
 
         // THEN
         assertThat(result.getContent()).hasSize(3);
+        then(accessCounterService).should().applyTotals(mockUrls);
         assertThat(result.getPage()).isEqualTo(1);
         assertThat(result.getSize()).isEqualTo(5);
         assertThat(result.getTotalElements()).isEqualTo(10);
@@ -249,6 +660,45 @@ class UrlServiceTest {
 
         // THEN
         then(urlRepository).should().deleteById(urlId);
+        then(urlCollectionVersion).should(never()).changed();
+    }
+
+    @Test
+    void deleteShortUrl_givenExistingLink_whenCalled_thenShouldEvictCacheSnapshotAndCounters() {
+        // GIVEN
+        String urlId = "test-id-123";
+        UrlDto existingUrlDto = new UrlDto("https://www.example.com", "abc12345");
+        given(urlRepository.findById(urlId)).willReturn(Optional.of(existingUrlDto));
+
+        // WHEN
+        urlService.deleteShortUrl(urlId);
+
+        // THEN
+        then(urlRepository).should().deleteById(urlId);
+        then(linkCache).should().evict("abc12345");
+        then(linkSnapshot).should().evict("abc12345");
+        then(accessCounterService).should().delete("abc12345");
+        then(urlCollectionVersion).should().changed();
+        then(urlEventStream).should().deleted(any(UrlDto.class));
+    }
+
+    @Test
+    void deleteShortUrl_givenArchivedLink_whenCalled_thenShouldDeleteItFromTheArchive() {
+        // GIVEN
+        String urlId = "test-id-123";
+        UrlDto archivedUrlDto = new UrlDto("https://www.example.com", "abc12345");
+        archivedUrlDto.setId(urlId);
+        given(urlArchiveService.delete(urlId)).willReturn(Optional.of(archivedUrlDto));
+
+        // WHEN
+        urlService.deleteShortUrl(urlId);
+
+        // THEN
+        then(urlArchiveService).should().delete(urlId);
+        then(linkCache).should().evict("abc12345");
+        then(linkSnapshot).should().evict("abc12345");
+        then(accessCounterService).should().delete("abc12345");
+        then(urlCollectionVersion).should(never()).changed();
     }
 
     @Test
@@ -0,0 +1,183 @@
+package com.github.melihemreguler.urlshortener.service;
+
+import com.github.melihemreguler.urlshortener.config.CircuitBreakerProperties;
+import com.github.melihemreguler.urlshortener.config.SummaryProperties;
+import com.github.melihemreguler.urlshortener.exception.DatabaseUnavailableException;
+import com.github.melihemreguler.urlshortener.model.UrlSummary;
+import com.github.melihemreguler.urlshortener.repository.DatabaseCircuitBreaker;
+import com.github.melihemreguler.urlshortener.repository.UrlSummaryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(SpringExtension.class)
+class UrlSummaryServiceTest {
+
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+    private static final Instant NOW = Instant.parse("2026-10-19T08:30:00Z");
+
+    @Mock
+    private UrlSummaryRepository summaryRepository;
+
+    private final SummaryProperties summaryProperties = new SummaryProperties();
+    private UrlMetrics urlMetrics;
+
+    @BeforeEach
+    void setUp() {
+        summaryProperties.setDays(3);
+        urlMetrics = new UrlMetrics(new SimpleMeterRegistry());
+    }
+
+    @Test
+    void refresh_givenLinksAndRedirects_whenRefreshed_thenShouldServeTheComputedSummary() {
+        // GIVEN
+        given(summaryRepository.countCreatedPerDay(LocalDate.of(2026, 10, 17).atStartOfDay(), ZONE))
+                .willReturn(Map.of(LocalDate.of(2026, 10, 19), 4L, LocalDate.of(2026, 10, 17), 2L));
+        given(summaryRepository.countLinks()).willReturn(90L);
+        given(summaryRepository.countArchivedLinks()).willReturn(10L);
+        given(summaryRepository.sumClicks()).willReturn(1234L);
+        redirect(3);
+        notFound(1);
+        UrlSummaryService summaryService = summaryService(Clock.fixed(NOW, ZONE));
+
+        // WHEN
+        summaryService.refresh();
+
+        // THEN
+        UrlSummary summary = summaryService.getSummary();
+        assertThat(summary.totalLinks()).isEqualTo(100);
+        assertThat(summary.archivedLinks()).isEqualTo(10);
+        assertThat(summary.totalClicks()).isEqualTo(1234);
+        assertThat(summary.createdPerDay()).containsExactly(
+                new UrlSummary.DailyCount(LocalDate.of(2026, 10, 17), 2),
+                new UrlSummary.DailyCount(LocalDate.of(2026, 10, 18), 0),
+                new UrlSummary.DailyCount(LocalDate.of(2026, 10, 19), 4));
+        assertThat(summary.notFoundRate()).isEqualTo(0.25);
+    }
+
+    @Test
+    void refresh_givenEarlierRefresh_whenRefreshedAgain_thenShouldTakeTheNotFoundRateSinceIt() {
+        // GIVEN
+        UrlSummaryService summaryService = summaryService(Clock.fixed(NOW, ZONE));
+        notFound(2);
+        summaryService.refresh();
+        redirect(4);
+
+        // WHEN
+        summaryService.refresh();
+
+        // THEN
+        assertThat(summaryService.getSummary().notFoundRate()).isZero();
+    }
+
+    @Test
+    void refresh_givenAggregationFails_whenRefreshed_thenShouldKeepServingThePreviousSummary() {
+        // GIVEN
+        MutableClock clock = new MutableClock(NOW);
+        UrlSummaryService summaryService = summaryService(clock);
+        given(summaryRepository.sumClicks()).willReturn(5L);
+        summaryService.refresh();
+        given(summaryRepository.sumClicks()).willThrow(new DataAccessResourceFailureException("down"));
+        clock.advance(Duration.ofMinutes(5));
+
+        // WHEN
+        summaryService.refresh();
+
+        // THEN
+        UrlSummary summary = summaryService.getSummary();
+        assertThat(summary.totalClicks()).isEqualTo(5);
+        assertThat(summary.computedAt()).isEqualTo(NOW.atZone(ZONE).toLocalDateTime());
+    }
+
+    @Test
+    void getSummary_givenNoRefreshWithinMaxAge_whenCalled_thenShouldThrowDatabaseUnavailableException() {
+        // GIVEN
+        MutableClock clock = new MutableClock(NOW);
+        UrlSummaryService summaryService = summaryService(clock);
+        summaryService.refresh();
+        clock.advance(summaryProperties.getMaxAge().plusSeconds(1));
+
+        // WHEN
+        Throwable thrown = catchThrowable(summaryService::getSummary);
+
+        // THEN
+        assertThat(thrown).isInstanceOf(DatabaseUnavailableException.class);
+    }
+
+    @Test
+    void getSummary_givenNotRefreshedYet_whenCalled_thenShouldThrowWithoutAggregating() {
+        // GIVEN
+        UrlSummaryService summaryService = summaryService(Clock.fixed(NOW, ZONE));
+
+        // WHEN
+        Throwable thrown = catchThrowable(summaryService::getSummary);
+
+        // THEN
+        assertThat(thrown).isInstanceOf(DatabaseUnavailableException.class);
+        then(summaryRepository).shouldHaveNoInteractions();
+    }
+
+    private UrlSummaryService summaryService(Clock clock) {
+        return new UrlSummaryService(summaryRepository, urlMetrics, summaryProperties,
+                new DatabaseCircuitBreaker(new CircuitBreakerProperties()), clock);
+    }
+
+    private void redirect(int times) {
+        for (int i = 0; i < times; i++) {
+            urlMetrics.recordRedirect(System.nanoTime());
+        }
+    }
+
+    // Misses are timed as redirects too
+    private void notFound(int times) {
+        for (int i = 0; i < times; i++) {
+            urlMetrics.recordRedirect(System.nanoTime());
+            urlMetrics.recordNotFound();
+        }
+    }
+
+    /**
+     * Clock moved forward by the test, in UTC.
+     */
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
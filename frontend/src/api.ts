@@ -2,8 +2,11 @@
 import type { PageResponse, ShortUrl } from './types';
 import { API_ENDPOINTS, buildShortUrl } from './config/api';
 
+// The only link fields the UI shows; the backend reads and returns nothing else
+const LIST_FIELDS = 'id,longUrl,shortCode';
+
 export async function fetchUrls(page = 0, size = 10): Promise<PageResponse<ShortUrl>> {
-  const res = await fetch(`${API_ENDPOINTS.URLS}?page=${page}&size=${size}`);
+  const res = await fetch(`${API_ENDPOINTS.URLS}?page=${page}&size=${size}&fields=${LIST_FIELDS}`);
   if (!res.ok) {
     throw new Error(`HTTP ${res.status}: ${res.statusText}`);
   }
@@ -29,7 +32,8 @@ export async function fetchUrls(page = 0, size = 10): Promise<PageResponse<Short
 export async function searchUrls(searchTerm: string, page = 0, size = 10): Promise<PageResponse<ShortUrl>> {
   const params = new URLSearchParams({
     page: page.toString(),
-    size: size.toString()
+    size: size.toString(),
+    fields: LIST_FIELDS
   });
   
   if (searchTerm && searchTerm.trim()) {